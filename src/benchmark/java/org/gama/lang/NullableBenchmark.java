@@ -0,0 +1,85 @@
+package org.gama.lang;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares {@link Nullable} chains to {@link Optional} ones and to plain null checks, on a path where the value is present and on one where
+ * it's missing.
+ * 
+ * @author Guillaume Mary
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class NullableBenchmark {
+	
+	@Param({ "true", "false" })
+	private boolean present;
+	
+	private Person person;
+	
+	@Setup
+	public void setUp() {
+		person = new Person(new Address(present ? "Paris" : null));
+	}
+	
+	@Benchmark
+	public int nullable() {
+		return Nullable.nullable(person).map(Person::getAddress).map(Address::getCity).map(String::length).getOr(0);
+	}
+	
+	@Benchmark
+	public int optional() {
+		return Optional.ofNullable(person).map(Person::getAddress).map(Address::getCity).map(String::length).orElse(0);
+	}
+	
+	@Benchmark
+	public int nullChecks() {
+		if (person != null && person.getAddress() != null && person.getAddress().getCity() != null) {
+			return person.getAddress().getCity().length();
+		}
+		return 0;
+	}
+	
+	private static class Person {
+		
+		private final Address address;
+		
+		private Person(Address address) {
+			this.address = address;
+		}
+		
+		public Address getAddress() {
+			return address;
+		}
+	}
+	
+	private static class Address {
+		
+		private final String city;
+		
+		private Address(String city) {
+			this.city = city;
+		}
+		
+		public String getCity() {
+			return city;
+		}
+	}
+}
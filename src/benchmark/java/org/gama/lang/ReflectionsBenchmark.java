@@ -0,0 +1,54 @@
+package org.gama.lang;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares cached lookups of {@link Reflections#findMethod(Class, String, Class[])} to JDK ones, for a method declared by the class and for
+ * an inherited one.
+ * 
+ * @author Guillaume Mary
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ReflectionsBenchmark {
+	
+	@Benchmark
+	public Method findMethod_declared() {
+		return Reflections.findMethod(StringBuilder.class, "append", String.class);
+	}
+	
+	@Benchmark
+	public Method findMethod_inherited() {
+		return Reflections.findMethod(StringBuilder.class, "hashCode");
+	}
+	
+	@Benchmark
+	public Method findMethod_missing() {
+		return Reflections.findMethod(StringBuilder.class, "foo");
+	}
+	
+	@Benchmark
+	public Method jdk_getDeclaredMethod() throws NoSuchMethodException {
+		return StringBuilder.class.getDeclaredMethod("append", String.class);
+	}
+	
+	@Benchmark
+	public Method jdk_getMethod_inherited() throws NoSuchMethodException {
+		return StringBuilder.class.getMethod("hashCode");
+	}
+}
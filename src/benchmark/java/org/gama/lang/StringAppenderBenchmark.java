@@ -0,0 +1,78 @@
+package org.gama.lang;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares {@link StringAppender} concatenations to {@link StringBuilder} and {@link String#join(CharSequence, Iterable)} ones.
+ * 
+ * @author Guillaume Mary
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class StringAppenderBenchmark {
+	
+	@Param({ "10", "1000" })
+	private int size;
+	
+	private List<String> words;
+	
+	@Setup
+	public void setUp() {
+		words = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			words.add("word" + i);
+		}
+	}
+	
+	@Benchmark
+	public String stringAppender_cat() {
+		return new StringAppender().cat(words).toString();
+	}
+	
+	@Benchmark
+	public String stringAppender_ccat() {
+		return new StringAppender().ccat(words, ", ").toString();
+	}
+	
+	@Benchmark
+	public String stringAppender_catThree() {
+		return new StringAppender().cat("SELECT ", words.get(0), " FROM ").cat(words.get(1)).toString();
+	}
+	
+	@Benchmark
+	public String stringBuilder_append() {
+		StringBuilder result = new StringBuilder();
+		for (String word : words) {
+			result.append(word);
+		}
+		return result.toString();
+	}
+	
+	@Benchmark
+	public String stringBuilder_appendThree() {
+		return new StringBuilder().append("SELECT ").append(words.get(0)).append(" FROM ").append(words.get(1)).toString();
+	}
+	
+	@Benchmark
+	public String string_join() {
+		return String.join(", ", words);
+	}
+}
@@ -0,0 +1,77 @@
+package org.gama.lang.collection;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares {@link Iterables#collectToList(Iterable, Function)} and {@link Iterables#map(Iterable, Function)} to their {@link java.util.stream.Stream}
+ * counterparts and to a plain loop.
+ * 
+ * @author Guillaume Mary
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class IterablesBenchmark {
+	
+	@Param({ "10", "10000" })
+	private int size;
+	
+	private List<Integer> values;
+	
+	@Setup
+	public void setUp() {
+		values = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			values.add(i);
+		}
+	}
+	
+	@Benchmark
+	public List<String> collectToList() {
+		return Iterables.collectToList(values, String::valueOf);
+	}
+	
+	@Benchmark
+	public List<String> collectToList_stream() {
+		return values.stream().map(String::valueOf).collect(Collectors.toList());
+	}
+	
+	@Benchmark
+	public List<String> collectToList_loop() {
+		List<String> result = new ArrayList<>(values.size());
+		for (Integer value : values) {
+			result.add(String.valueOf(value));
+		}
+		return result;
+	}
+	
+	@Benchmark
+	public Map<Integer, String> map() {
+		return Iterables.map(values, Function.identity(), String::valueOf);
+	}
+	
+	@Benchmark
+	public Map<Integer, String> map_stream() {
+		return values.stream().collect(Collectors.toMap(Function.identity(), String::valueOf));
+	}
+}
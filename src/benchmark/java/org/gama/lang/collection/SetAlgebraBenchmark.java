@@ -0,0 +1,112 @@
+package org.gama.lang.collection;
+
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares {@link SetAlgebra} to former implementation of {@link Iterables#intersect(java.util.Collection, java.util.Collection, Comparator)}
+ * (a {@link HashSet} copy of first argument retaining elements of a {@link java.util.TreeSet} copy of second one) on unsorted, sorted and
+ * skewed inputs.
+ * 
+ * @author Guillaume Mary
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SetAlgebraBenchmark {
+	
+	private static final Comparator<Long> COMPARATOR = Comparator.naturalOrder();
+	
+	@Param({ "100000" })
+	private int size;
+	
+	private List<Long> unsorted1;
+	private List<Long> unsorted2;
+	private List<Long> sorted1;
+	private List<Long> sorted2;
+	/** Small sorted list, for skewed cases */
+	private List<Long> sortedSmall;
+	
+	@Setup
+	public void setUp() {
+		Random random = new Random(42);
+		unsorted1 = random.longs(size, 0, size * 2L).boxed().collect(Collectors.toList());
+		unsorted2 = random.longs(size, 0, size * 2L).boxed().collect(Collectors.toList());
+		sorted1 = unsorted1.stream().sorted().collect(Collectors.toList());
+		sorted2 = unsorted2.stream().sorted().collect(Collectors.toList());
+		sortedSmall = random.longs(size / 1000, 0, size * 2L).sorted().boxed().collect(Collectors.toList());
+	}
+	
+	private static <E> Set<E> formerIntersect(List<E> c1, List<E> c2, Comparator<E> comparator) {
+		Set<E> copy = new HashSet<>(c1);
+		copy.retainAll(Arrays.asTreeSet(comparator, c2));
+		return copy;
+	}
+	
+	@Benchmark
+	public Set<Long> former_unsorted() {
+		return formerIntersect(unsorted1, unsorted2, COMPARATOR);
+	}
+	
+	@Benchmark
+	public Set<Long> setAlgebra_unsorted() {
+		return SetAlgebra.intersect(unsorted1, unsorted2, COMPARATOR);
+	}
+	
+	@Benchmark
+	public Set<Long> setAlgebra_unsorted_parallel() {
+		return SetAlgebra.parallelIntersect(unsorted1, unsorted2, COMPARATOR);
+	}
+	
+	@Benchmark
+	public Set<Long> former_sorted() {
+		return formerIntersect(sorted1, sorted2, COMPARATOR);
+	}
+	
+	@Benchmark
+	public Set<Long> setAlgebra_sorted() {
+		return SetAlgebra.intersect(sorted1, sorted2, COMPARATOR);
+	}
+	
+	@Benchmark
+	public Set<Long> former_skewed() {
+		return formerIntersect(sortedSmall, sorted2, COMPARATOR);
+	}
+	
+	@Benchmark
+	public Set<Long> setAlgebra_skewed() {
+		return SetAlgebra.intersect(sortedSmall, sorted2, COMPARATOR);
+	}
+	
+	@Benchmark
+	public Set<Long> former_withoutComparator() {
+		Set<Long> copy = new HashSet<>(unsorted1);
+		copy.retainAll(unsorted2);
+		return copy;
+	}
+	
+	@Benchmark
+	public Set<Long> setAlgebra_withoutComparator() {
+		return SetAlgebra.intersect(unsorted1, unsorted2);
+	}
+}
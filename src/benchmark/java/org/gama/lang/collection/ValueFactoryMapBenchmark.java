@@ -0,0 +1,70 @@
+package org.gama.lang.collection;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares {@link ConcurrentValueFactoryMap} to a {@link ValueFactoryHashMap} shared between threads through an external lock, as a lazily
+ * filled cache : most calls find an existing value, a few ones create it.
+ * 
+ * @author Guillaume Mary
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class ValueFactoryMapBenchmark {
+	
+	/** Number of distinct keys, values are created at first access to each of them */
+	@Param({ "1024" })
+	private int keyCount;
+	
+	private ValueFactoryMap<Integer, String> synchronizedMap;
+	
+	private ConcurrentValueFactoryMap<Integer, String> concurrentMap;
+	
+	private Integer[] keys;
+	
+	@Setup
+	public void setUp() {
+		synchronizedMap = new ValueFactoryHashMap<>(String::valueOf);
+		concurrentMap = new ConcurrentValueFactoryMap<>(String::valueOf);
+		keys = new Integer[keyCount];
+		for (int i = 0; i < keyCount; i++) {
+			keys[i] = i;
+		}
+	}
+	
+	private Integer randomKey() {
+		return keys[ThreadLocalRandom.current().nextInt(keyCount)];
+	}
+	
+	@Benchmark
+	public String synchronizedGet() {
+		Integer key = randomKey();
+		synchronized (synchronizedMap) {
+			return synchronizedMap.get(key);
+		}
+	}
+	
+	@Benchmark
+	public String concurrentGet() {
+		return concurrentMap.get(randomKey());
+	}
+}
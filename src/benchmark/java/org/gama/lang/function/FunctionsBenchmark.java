@@ -0,0 +1,105 @@
+package org.gama.lang.function;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import org.gama.lang.Reflections;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares {@link Functions#toFunction(Method)} and {@link Functions#toBiConsumer(Method)} to their former reflective implementation
+ * and to method references.
+ * 
+ * @author Guillaume Mary
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FunctionsBenchmark {
+	
+	private Toto target;
+	
+	private Function<Toto, Integer> reflectiveGetter;
+	private Function<Toto, Integer> generatedGetter;
+	private Function<Toto, Integer> methodReferenceGetter;
+	
+	private BiConsumer<Toto, Integer> reflectiveSetter;
+	private BiConsumer<Toto, Integer> generatedSetter;
+	private BiConsumer<Toto, Integer> methodReferenceSetter;
+	
+	private Integer value = 42;
+	
+	@Setup
+	public void setUp() {
+		target = new Toto();
+		Method getter = Reflections.getMethod(Toto.class, "getA");
+		Method setter = Reflections.getMethod(Toto.class, "setA", int.class);
+		// former implementation of Functions
+		reflectiveGetter = t -> (Integer) Reflections.invoke(getter, t);
+		reflectiveSetter = (t, arg) -> Reflections.invoke(setter, t, arg);
+		generatedGetter = Functions.toFunction(getter);
+		generatedSetter = Functions.toBiConsumer(setter);
+		methodReferenceGetter = Toto::getA;
+		methodReferenceSetter = Toto::setA;
+	}
+	
+	@Benchmark
+	public Integer getter_reflection() {
+		return reflectiveGetter.apply(target);
+	}
+	
+	@Benchmark
+	public Integer getter_generated() {
+		return generatedGetter.apply(target);
+	}
+	
+	@Benchmark
+	public Integer getter_methodReference() {
+		return methodReferenceGetter.apply(target);
+	}
+	
+	@Benchmark
+	public Toto setter_reflection() {
+		reflectiveSetter.accept(target, value);
+		return target;
+	}
+	
+	@Benchmark
+	public Toto setter_generated() {
+		generatedSetter.accept(target, value);
+		return target;
+	}
+	
+	@Benchmark
+	public Toto setter_methodReference() {
+		methodReferenceSetter.accept(target, value);
+		return target;
+	}
+	
+	public static class Toto {
+		
+		private int a;
+		
+		public int getA() {
+			return a;
+		}
+		
+		public void setA(int a) {
+			this.a = a;
+		}
+	}
+}
@@ -0,0 +1,97 @@
+package org.gama.lang.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares {@link IOs} copies and reads, which buffers come from {@link BufferPool}, to their {@link NIOs} and {@link ChunkReader}
+ * counterparts, on in-memory streams so that only the cost of the library is measured.
+ * 
+ * @author Guillaume Mary
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class IOsBenchmark {
+	
+	@Param({ "1024", "1048576" })
+	private int size;
+	
+	private byte[] content;
+	
+	/** Discards written bytes, to avoid measuring target growth */
+	private final OutputStream nullOutputStream = new OutputStream() {
+		@Override
+		public void write(int b) {
+		}
+		
+		@Override
+		public void write(byte[] b, int off, int len) {
+		}
+	};
+	
+	private final WritableByteChannel nullChannel = Channels.newChannel(nullOutputStream);
+	
+	@Setup
+	public void setUp() {
+		content = new byte[size];
+		new Random(42).nextBytes(content);
+	}
+	
+	@Benchmark
+	public void copy() throws IOException {
+		IOs.copy(new ByteArrayInputStream(content), nullOutputStream, (int) IOs._8_Ko);
+	}
+	
+	@Benchmark
+	public long copy_channels() throws IOException {
+		return NIOs.copy(Channels.newChannel(new ByteArrayInputStream(content)), nullChannel);
+	}
+	
+	@Benchmark
+	public byte[] toByteArray() throws IOException {
+		return IOs.toByteArray(new ByteArrayInputStream(content), (int) IOs._8_Ko);
+	}
+	
+	@Benchmark
+	public byte[] readFully() throws IOException {
+		return IOs.readFully(new ByteArrayInputStream(content), size);
+	}
+	
+	@Benchmark
+	public void inputStreamIterator(Blackhole blackhole) {
+		IOs.InputStreamIterator.iterable(new ByteArrayInputStream(content), (int) IOs._8_Ko).forEach(blackhole::consume);
+	}
+	
+	@Benchmark
+	public void chunkReader(Blackhole blackhole) {
+		try (ChunkReader reader = new ChunkReader(new ByteArrayInputStream(content), (int) IOs._8_Ko)) {
+			while (reader.hasNext()) {
+				ByteBuffer chunk = reader.next();
+				blackhole.consume(chunk.get(chunk.limit() - 1));
+			}
+		}
+	}
+}
@@ -0,0 +1,65 @@
+package org.gama.lang.reflect;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares redirected calls of {@link MethodDispatcher} proxies created by {@link JdkProxyFactory} and {@link HiddenClassProxyFactory}
+ * to a direct call.
+ * 
+ * @author Guillaume Mary
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MethodDispatcherBenchmark {
+	
+	private Supplier<String> direct;
+	private Holder jdkProxy;
+	private Holder hiddenClassProxy;
+	
+	@Setup
+	public void setUp() {
+		direct = () -> "Hello world !";
+		jdkProxy = new MethodDispatcher()
+				.redirect(Supplier.class, direct)
+				.build(Holder.class);
+		hiddenClassProxy = new MethodDispatcher()
+				.withProxyFactory(HiddenClassProxyFactory.INSTANCE)
+				.redirect(Supplier.class, direct)
+				.build(Holder.class);
+	}
+	
+	@Benchmark
+	public String direct() {
+		return direct.get();
+	}
+	
+	@Benchmark
+	public String jdkProxy() {
+		return jdkProxy.get();
+	}
+	
+	@Benchmark
+	public String hiddenClassProxy() {
+		return hiddenClassProxy.get();
+	}
+	
+	public interface Holder extends Supplier<String> {
+		
+	}
+}
@@ -0,0 +1,56 @@
+package org.gama.lang.trace;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cost of timing code with {@link Stopwatch} and {@link LatencyHistogram}, which should allocate nothing, compared to
+ * {@link Chrono} formatting.
+ * 
+ * @author Guillaume Mary
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class LatencyHistogramBenchmark {
+	
+	private final LatencyHistogram histogram = new LatencyHistogram();
+	
+	private final Stopwatch stopwatch = new Stopwatch();
+	
+	private long value = 12_345;
+	
+	@Benchmark
+	public void record() {
+		// varying value to go through several buckets
+		value = (value * 31 + 7) & 0xFFFFFF;
+		histogram.record(value);
+	}
+	
+	@Benchmark
+	public long stopwatch_lap() {
+		return stopwatch.lap(histogram);
+	}
+	
+	@Benchmark
+	public long getPercentile() {
+		return histogram.getPercentile(99.9);
+	}
+	
+	@Benchmark
+	public String chrono_format() {
+		return Chrono.format(value);
+	}
+}
@@ -0,0 +1,151 @@
+package org.gama.lang;
+
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.gama.lang.exception.Exceptions;
+import org.gama.lang.function.ThrowingExecutable;
+import org.gama.lang.trace.Counter;
+import org.gama.lang.trace.MaxGauge;
+import org.gama.lang.trace.Metric;
+
+/**
+ * Limits the number of concurrent calls to a dependency, so that a slow one can't hold all threads of the application. Calls beyond the
+ * limit wait for a free place, in a bounded queue and for a bounded time, else they're rejected with a {@link BulkheadFullException}.
+ * To be combined with a {@link CircuitBreaker}, which is rather called inside the bulkhead :
+ * <pre>{@code
+ * bulkhead.execute(() -> circuitBreaker.execute(() -> callDependency()))
+ * }</pre>
+ *
+ * @author Guillaume Mary
+ */
+public class Bulkhead implements Metric {
+	
+	private final String name;
+	
+	private final int maxConcurrentCalls;
+	
+	private final int maxWaitingCalls;
+	
+	/** Maximum waiting time of a call, in nanoseconds */
+	private final long maxWait;
+	
+	/** Fair so that waiting calls are served in order */
+	private final Semaphore places;
+	
+	private final AtomicInteger waitingCalls = new AtomicInteger();
+	
+	private final Counter rejections = new Counter();
+	
+	private final MaxGauge maxConcurrency = new MaxGauge();
+	
+	/**
+	 * @param name name of the bulkhead, for error messages
+	 * @param maxConcurrentCalls number of calls that can be done at the same time
+	 * @param maxWaitingCalls number of calls that can wait for a free place, 0 to reject calls as soon as limit is reached
+	 * @param maxWait maximum waiting time of a call, in milliseconds
+	 */
+	public Bulkhead(String name, int maxConcurrentCalls, int maxWaitingCalls, long maxWait) {
+		if (maxConcurrentCalls < 1) {
+			throw new IllegalArgumentException("Max concurrent calls must be strictly positive : " + maxConcurrentCalls);
+		}
+		if (maxWaitingCalls < 0) {
+			throw new IllegalArgumentException("Max waiting calls must be positive : " + maxWaitingCalls);
+		}
+		this.name = name;
+		this.maxConcurrentCalls = maxConcurrentCalls;
+		this.maxWaitingCalls = maxWaitingCalls;
+		this.maxWait = TimeUnit.MILLISECONDS.toNanos(maxWait);
+		this.places = new Semaphore(maxConcurrentCalls, true);
+	}
+	
+	/**
+	 * Calls the delegate when a place is free
+	 *
+	 * @param delegate the call to the dependency
+	 * @param <T> type of result
+	 * @param <E> type of exception thrown by the delegate
+	 * @return result of the delegate
+	 * @throws E exception thrown by the delegate
+	 * @throws BulkheadFullException if waiting queue is full, or if no place was freed within max waiting time
+	 */
+	public <T, E extends Throwable> T execute(ThrowingExecutable<T, E> delegate) throws E, BulkheadFullException {
+		acquirePlace();
+		try {
+			maxConcurrency.update(maxConcurrentCalls - places.availablePermits());
+			return delegate.execute();
+		} finally {
+			places.release();
+		}
+	}
+	
+	private void acquirePlace() throws BulkheadFullException {
+		// fast path without waiting (tryAcquire() barges in front of waiting calls, which is acceptable since it doesn't wait)
+		if (places.tryAcquire()) {
+			return;
+		}
+		if (waitingCalls.incrementAndGet() > maxWaitingCalls) {
+			waitingCalls.decrementAndGet();
+			rejections.increment();
+			throw new BulkheadFullException(name, maxConcurrentCalls);
+		}
+		boolean acquired;
+		try {
+			acquired = places.tryAcquire(maxWait, TimeUnit.NANOSECONDS);
+		} catch (InterruptedException ie) {
+			Thread.currentThread().interrupt();
+			throw Exceptions.asRuntimeException(ie);
+		} finally {
+			waitingCalls.decrementAndGet();
+		}
+		if (!acquired) {
+			rejections.increment();
+			throw new BulkheadFullException(name, maxConcurrentCalls);
+		}
+	}
+	
+	/**
+	 * @return number of calls that can start now
+	 */
+	public int getAvailablePlaces() {
+		return places.availablePermits();
+	}
+	
+	public int getWaitingCallCount() {
+		return waitingCalls.get();
+	}
+	
+	public long getRejectionCount() {
+		return rejections.getCount();
+	}
+	
+	/**
+	 * @return greatest number of concurrent calls reached, 0 if there was no call
+	 */
+	public long getMaxConcurrency() {
+		return maxConcurrency.hasValue() ? maxConcurrency.get() : 0;
+	}
+	
+	@Override
+	public void snapshot(String name, Map<String, Number> snapshot) {
+		snapshot.put(name + ".availablePlaces", getAvailablePlaces());
+		snapshot.put(name + ".waitingCalls", getWaitingCallCount());
+		snapshot.put(name + ".rejections", getRejectionCount());
+		snapshot.put(name + ".maxConcurrency", getMaxConcurrency());
+	}
+	
+	@Override
+	public String toString() {
+		return name + " : availablePlaces=" + getAvailablePlaces() + ", waitingCalls=" + getWaitingCallCount()
+				+ ", rejections=" + getRejectionCount() + ", maxConcurrency=" + getMaxConcurrency();
+	}
+	
+	public static class BulkheadFullException extends Exception {
+		
+		public BulkheadFullException(String bulkhead, int maxConcurrentCalls) {
+			super("Bulkhead \"" + bulkhead + "\" is full, with " + maxConcurrentCalls + " concurrent calls");
+		}
+	}
+}
@@ -0,0 +1,409 @@
+package org.gama.lang;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+import org.gama.lang.function.ThrowingExecutable;
+import org.gama.lang.trace.Counter;
+import org.gama.lang.trace.Metric;
+
+/**
+ * Stops calling a dependency that fails too much, so that callers fail fast instead of wasting threads and time on it, and so that it can
+ * recover without their load.
+ * <ul>
+ * <li>{@link State#CLOSED} : calls are done, and their outcomes are kept in a sliding window of last calls. The breaker opens when the
+ * rate of failures or the rate of slow calls of the window reaches its threshold</li>
+ * <li>{@link State#OPEN} : calls are rejected with a {@link CallNotPermittedException}, until the open duration is elapsed</li>
+ * <li>{@link State#HALF_OPEN} : a few trial calls are done, others are rejected. The breaker closes if trial calls are below thresholds,
+ * else it opens again. It also opens again if trial calls didn't all complete within the maximum half-open duration, so that calls that
+ * never return don't make it reject calls forever</li>
+ * </ul>
+ * Failures are the exceptions accepted by a predicate, all of them by default, which can be the {@link Retryer#shouldRetry(Throwable)} of a
+ * {@link Retryer} thanks to {@link #withFailuresOf(Retryer)}. To combine them, retries should be done outside of the breaker, with a
+ * {@link Retryer} that doesn't retry {@link CallNotPermittedException} :
+ * <pre>{@code
+ * retryer.execute(() -> circuitBreaker.execute(() -> callDependency()), "call dependency")
+ * }</pre>
+ * Thread-safe : state changes are done under lock, which is held only to update counters, never during calls.
+ *
+ * @author Guillaume Mary
+ * @see Bulkhead
+ */
+public class CircuitBreaker implements Metric {
+	
+	public enum State {
+		CLOSED,
+		OPEN,
+		HALF_OPEN
+	}
+	
+	private final String name;
+	
+	private Predicate<Throwable> failurePredicate = t -> true;
+	
+	private int failureRateThreshold = 50;
+	
+	private int slowCallRateThreshold = 100;
+	
+	private long slowCallDuration = TimeUnit.SECONDS.toNanos(60);
+	
+	private int minimumCalls;
+	
+	private long openDuration = TimeUnit.SECONDS.toNanos(60);
+	
+	private int permittedCallsInHalfOpenState;
+	
+	private long maxHalfOpenDuration = TimeUnit.SECONDS.toNanos(60);
+	
+	private LongSupplier ticker = System::nanoTime;
+	
+	private final SlidingWindow window;
+	
+	private State state = State.CLOSED;
+	
+	/** Incremented at each state change, so that outcomes of calls started in a previous state are ignored */
+	private long generation = 0;
+	
+	/** Time of last change to open or half-open state */
+	private long stateChangeTime;
+	
+	/** Trial calls that can still be started in half-open state */
+	private int remainingTrialCalls;
+	
+	private final Counter successes = new Counter();
+	private final Counter failures = new Counter();
+	private final Counter slowCalls = new Counter();
+	private final Counter rejections = new Counter();
+	private final Counter openings = new Counter();
+	
+	/**
+	 * @param name name of the breaker, for error messages
+	 * @param windowSize number of last calls whose outcomes are taken into account to open the breaker
+	 */
+	public CircuitBreaker(String name, int windowSize) {
+		if (windowSize < 1) {
+			throw new IllegalArgumentException("Window size must be strictly positive : " + windowSize);
+		}
+		this.name = name;
+		this.window = new SlidingWindow(windowSize);
+		this.minimumCalls = windowSize;
+		this.permittedCallsInHalfOpenState = Math.min(10, windowSize);
+	}
+	
+	/**
+	 * Sets the exceptions counted as failures, all by default. To be called before any call, as other with*() methods.
+	 *
+	 * @param failurePredicate accepts exceptions that are failures of the dependency
+	 * @return this
+	 */
+	public CircuitBreaker withFailurePredicate(Predicate<Throwable> failurePredicate) {
+		this.failurePredicate = failurePredicate;
+		return this;
+	}
+	
+	/**
+	 * Counts as failures the exceptions that a {@link Retryer} retries, which are the ones that come from the dependency being unavailable
+	 *
+	 * @param retryer any {@link Retryer}
+	 * @return this
+	 */
+	public CircuitBreaker withFailuresOf(Retryer retryer) {
+		return withFailurePredicate(retryer::shouldRetry);
+	}
+	
+	/**
+	 * @param failureRateThreshold percentage of failed calls of the window that opens the breaker, 50 by default
+	 * @return this
+	 */
+	public CircuitBreaker withFailureRateThreshold(int failureRateThreshold) {
+		this.failureRateThreshold = checkPercentage(failureRateThreshold);
+		return this;
+	}
+	
+	/**
+	 * @param slowCallRateThreshold percentage of slow calls of the window that opens the breaker, 100 by default
+	 * @param slowCallDuration duration from which a call is slow, in milliseconds, whether it succeeds or not
+	 * @return this
+	 */
+	public CircuitBreaker withSlowCallThreshold(int slowCallRateThreshold, long slowCallDuration) {
+		this.slowCallRateThreshold = checkPercentage(slowCallRateThreshold);
+		this.slowCallDuration = TimeUnit.MILLISECONDS.toNanos(slowCallDuration);
+		return this;
+	}
+	
+	/**
+	 * @param minimumCalls number of calls in the window before rates are evaluated, window size by default
+	 * @return this
+	 */
+	public CircuitBreaker withMinimumCalls(int minimumCalls) {
+		if (minimumCalls < 1 || minimumCalls > window.size) {
+			throw new IllegalArgumentException("Minimum calls must be between 1 and window size : " + minimumCalls);
+		}
+		this.minimumCalls = minimumCalls;
+		return this;
+	}
+	
+	/**
+	 * @param openDuration duration of open state before trial calls are permitted, in milliseconds, 60 seconds by default
+	 * @return this
+	 */
+	public CircuitBreaker withOpenDuration(long openDuration) {
+		this.openDuration = TimeUnit.MILLISECONDS.toNanos(openDuration);
+		return this;
+	}
+	
+	/**
+	 * @param permittedCallsInHalfOpenState number of trial calls in half-open state, 10 by default, or window size if it's smaller
+	 * @return this
+	 */
+	public CircuitBreaker withPermittedCallsInHalfOpenState(int permittedCallsInHalfOpenState) {
+		if (permittedCallsInHalfOpenState < 1 || permittedCallsInHalfOpenState > window.size) {
+			throw new IllegalArgumentException("Permitted calls in half-open state must be between 1 and window size : " + permittedCallsInHalfOpenState);
+		}
+		this.permittedCallsInHalfOpenState = permittedCallsInHalfOpenState;
+		return this;
+	}
+	
+	/**
+	 * @param maxHalfOpenDuration maximum duration of half-open state, in milliseconds, 60 seconds by default : if trial calls are not all
+	 * completed after it, breaker opens again
+	 * @return this
+	 */
+	public CircuitBreaker withMaxHalfOpenDuration(long maxHalfOpenDuration) {
+		if (maxHalfOpenDuration < 1) {
+			throw new IllegalArgumentException("Max half-open duration must be strictly positive : " + maxHalfOpenDuration);
+		}
+		this.maxHalfOpenDuration = TimeUnit.MILLISECONDS.toNanos(maxHalfOpenDuration);
+		return this;
+	}
+	
+	/**
+	 * Sets the time source used for durations, default is {@link System#nanoTime()}, mainly for tests
+	 *
+	 * @param ticker gives current time in nanoseconds
+	 * @return this
+	 */
+	public CircuitBreaker withTicker(LongSupplier ticker) {
+		this.ticker = ticker;
+		return this;
+	}
+	
+	private static int checkPercentage(int percentage) {
+		if (percentage < 1 || percentage > 100) {
+			throw new IllegalArgumentException("Threshold must be between 1 and 100 : " + percentage);
+		}
+		return percentage;
+	}
+	
+	/**
+	 * Calls the delegate if breaker state permits it
+	 *
+	 * @param delegate the call to the dependency
+	 * @param <T> type of result
+	 * @param <E> type of exception thrown by the delegate
+	 * @return result of the delegate
+	 * @throws E exception thrown by the delegate
+	 * @throws CallNotPermittedException if breaker is open, or half-open with all trial calls started
+	 */
+	public <T, E extends Throwable> T execute(ThrowingExecutable<T, E> delegate) throws E, CallNotPermittedException {
+		long callGeneration = acquirePermission();
+		long start = ticker.getAsLong();
+		try {
+			T result = delegate.execute();
+			onResult(callGeneration, ticker.getAsLong() - start, false);
+			return result;
+		} catch (Throwable t) {
+			onResult(callGeneration, ticker.getAsLong() - start, failurePredicate.test(t));
+			throw t;
+		}
+	}
+	
+	/**
+	 * @return generation of current state, to be given back with call outcome
+	 */
+	private synchronized long acquirePermission() throws CallNotPermittedException {
+		long stateDuration = ticker.getAsLong() - stateChangeTime;
+		if (state == State.OPEN && stateDuration >= openDuration) {
+			transitionTo(State.HALF_OPEN);
+		} else if (state == State.HALF_OPEN && stateDuration >= maxHalfOpenDuration) {
+			// some trial calls hang, dependency is considered unavailable, their outcomes will be ignored thanks to generation change
+			transitionTo(State.OPEN);
+		}
+		if (state == State.OPEN || (state == State.HALF_OPEN && remainingTrialCalls == 0)) {
+			rejections.increment();
+			throw new CallNotPermittedException(name, state);
+		}
+		if (state == State.HALF_OPEN) {
+			remainingTrialCalls--;
+		}
+		return generation;
+	}
+	
+	private synchronized void onResult(long callGeneration, long duration, boolean failed) {
+		boolean slow = duration >= slowCallDuration;
+		(failed ? failures : successes).increment();
+		if (slow) {
+			slowCalls.increment();
+		}
+		if (callGeneration != generation) {
+			// call started in a previous state, its outcome is not about current one
+			return;
+		}
+		window.record(failed, slow);
+		switch (state) {
+			case CLOSED:
+				if (window.count >= minimumCalls && exceedsThresholds()) {
+					transitionTo(State.OPEN);
+				}
+				break;
+			case HALF_OPEN:
+				if (window.count == permittedCallsInHalfOpenState) {
+					transitionTo(exceedsThresholds() ? State.OPEN : State.CLOSED);
+				}
+				break;
+			default:
+				break;
+		}
+	}
+	
+	private boolean exceedsThresholds() {
+		return window.failureCount * 100 >= failureRateThreshold * window.count
+				|| window.slowCount * 100 >= slowCallRateThreshold * window.count;
+	}
+	
+	private void transitionTo(State newState) {
+		state = newState;
+		generation++;
+		// each state evaluates its own calls
+		window.clear();
+		if (newState == State.OPEN) {
+			stateChangeTime = ticker.getAsLong();
+			openings.increment();
+		} else if (newState == State.HALF_OPEN) {
+			stateChangeTime = ticker.getAsLong();
+			remainingTrialCalls = permittedCallsInHalfOpenState;
+		}
+	}
+	
+	/**
+	 * Gives current state, open state is changed to half-open at next call after open duration
+	 */
+	public synchronized State getState() {
+		return state;
+	}
+	
+	/**
+	 * Forces closed state, to be used when dependency is known to be available again
+	 */
+	public synchronized void reset() {
+		transitionTo(State.CLOSED);
+	}
+	
+	/**
+	 * @return percentage of failed calls in current window, -1 if there are less calls than minimum
+	 */
+	public synchronized float getFailureRate() {
+		return window.count < minimumCalls ? -1 : window.failureCount * 100f / window.count;
+	}
+	
+	public long getSuccessCount() {
+		return successes.getCount();
+	}
+	
+	public long getFailureCount() {
+		return failures.getCount();
+	}
+	
+	public long getSlowCallCount() {
+		return slowCalls.getCount();
+	}
+	
+	/**
+	 * @return number of calls rejected because breaker was open or half-open
+	 */
+	public long getRejectionCount() {
+		return rejections.getCount();
+	}
+	
+	public long getOpeningCount() {
+		return openings.getCount();
+	}
+	
+	/**
+	 * Implementation that gives state as its ordinal, and counters
+	 */
+	@Override
+	public void snapshot(String name, Map<String, Number> snapshot) {
+		snapshot.put(name + ".state", getState().ordinal());
+		snapshot.put(name + ".successes", getSuccessCount());
+		snapshot.put(name + ".failures", getFailureCount());
+		snapshot.put(name + ".slowCalls", getSlowCallCount());
+		snapshot.put(name + ".rejections", getRejectionCount());
+		snapshot.put(name + ".openings", getOpeningCount());
+	}
+	
+	@Override
+	public String toString() {
+		return name + " " + getState() + " : successes=" + getSuccessCount() + ", failures=" + getFailureCount()
+				+ ", slowCalls=" + getSlowCallCount() + ", rejections=" + getRejectionCount() + ", openings=" + getOpeningCount();
+	}
+	
+	/**
+	 * Outcomes of last calls, in a ring buffer, counted as they're recorded. Not thread-safe, guarded by breaker lock.
+	 */
+	private static class SlidingWindow {
+		
+		private final int size;
+		private final boolean[] failed;
+		private final boolean[] slow;
+		private int nextIndex = 0;
+		private int count = 0;
+		private int failureCount = 0;
+		private int slowCount = 0;
+		
+		private SlidingWindow(int size) {
+			this.size = size;
+			this.failed = new boolean[size];
+			this.slow = new boolean[size];
+		}
+		
+		private void record(boolean failedCall, boolean slowCall) {
+			if (count == size) {
+				// evicting oldest outcome, which is at next index
+				if (failed[nextIndex]) {
+					failureCount--;
+				}
+				if (slow[nextIndex]) {
+					slowCount--;
+				}
+			} else {
+				count++;
+			}
+			failed[nextIndex] = failedCall;
+			slow[nextIndex] = slowCall;
+			if (failedCall) {
+				failureCount++;
+			}
+			if (slowCall) {
+				slowCount++;
+			}
+			nextIndex = (nextIndex + 1) % size;
+		}
+		
+		private void clear() {
+			nextIndex = 0;
+			count = 0;
+			failureCount = 0;
+			slowCount = 0;
+		}
+	}
+	
+	public static class CallNotPermittedException extends Exception {
+		
+		public CallNotPermittedException(String circuitBreaker, State state) {
+			super("Circuit breaker \"" + circuitBreaker + "\" is " + state + " and doesn't permit calls");
+		}
+	}
+}
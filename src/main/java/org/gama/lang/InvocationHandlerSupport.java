@@ -1,5 +1,6 @@
 package org.gama.lang;
 
+import javax.annotation.Nullable;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
@@ -7,6 +8,8 @@ import java.util.Objects;
 
 import org.gama.lang.collection.Arrays;
 import org.gama.lang.collection.Iterables;
+import org.gama.lang.reflect.HiddenClassProxyFactory;
+import org.gama.lang.reflect.HiddenClassProxyFactory.GeneratedProxy;
 
 /**
  * InvocationHandler that does nothing. Usefull to create no-operation proxy (for mocking services) or intercept a
@@ -62,8 +65,8 @@ public class InvocationHandlerSupport implements InvocationHandler {
 		if (isEqualsMethod(method)) {
 			// Consider equality between objects.
 			Object other = args[0];
-			if (other != null && proxy != null && Proxy.isProxyClass(proxy.getClass()) && Proxy.getInvocationHandler(proxy) == this) {
-				return Proxy.isProxyClass(other.getClass()) && Proxy.getInvocationHandler(other) == this;
+			if (other != null && proxy != null && findInvocationHandler(proxy) == this) {
+				return findInvocationHandler(other) == this;
 			} else {
 				return Objects.equals(proxy, other);
 			}
@@ -71,7 +74,7 @@ public class InvocationHandlerSupport implements InvocationHandler {
 			if (proxy == null) {
 				throw new NullPointerException("hashCode() invoked on a null reference");
 			} else {
-				if (Proxy.isProxyClass(proxy.getClass()) && Proxy.getInvocationHandler(proxy) == this) {	// prevent infinite loop
+				if (findInvocationHandler(proxy) == this) {	// prevent infinite loop
 					return this.hashCode();
 				} else {
 					return proxy.hashCode();
@@ -89,6 +92,23 @@ public class InvocationHandlerSupport implements InvocationHandler {
 		return toReturn;
 	}
 	
+	/**
+	 * Gives the {@link InvocationHandler} of a JDK proxy or of a proxy generated by {@link HiddenClassProxyFactory}
+	 * 
+	 * @param proxy any object
+	 * @return null if given object is not a proxy
+	 */
+	@Nullable
+	private static InvocationHandler findInvocationHandler(Object proxy) {
+		if (Proxy.isProxyClass(proxy.getClass())) {
+			return Proxy.getInvocationHandler(proxy);
+		} else if (proxy instanceof GeneratedProxy) {
+			return ((GeneratedProxy) proxy).getInvocationHandler$();
+		} else {
+			return null;
+		}
+	}
+	
 	/**
 	 * Eases the creation of an interface stub
 	 *
@@ -19,13 +19,12 @@ import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
 
-import org.gama.lang.bean.FieldIterator;
-import org.gama.lang.bean.MethodIterator;
 import org.gama.lang.collection.Arrays;
-import org.gama.lang.collection.Iterables;
 import org.gama.lang.collection.Maps;
 import org.gama.lang.function.ThrowingFunction;
+import org.gama.lang.reflect.ClassMetadata;
 import org.gama.lang.reflect.MemberPrinter;
+import org.gama.lang.reflect.ProxyFactory;
 
 import static org.gama.lang.Nullable.nullable;
 import static org.gama.lang.reflect.MemberPrinter.FLATTEN_PACKAGE_PRINTER;
@@ -168,12 +167,19 @@ public final class Reflections {
 		return clazz.isMemberClass() && !Modifier.isStatic(clazz.getModifiers());
 	}
 	
+	/**
+	 * Gives fields of a class hierarchy per their name. Result is cached (see {@link ClassMetadata}) hence read-only.
+	 * 
+	 * @param clazz any class
+	 * @return a read-only {@link Map} of fields per name
+	 */
 	public static Map<String, Field> mapFieldsOnName(Class clazz) {
-		return Iterables.map(() -> new FieldIterator(clazz), Field::getName);
+		return ClassMetadata.of(clazz).mapFieldsOnName();
 	}
 	
 	/**
-	 * Returns the field with the given signature elements. Class hierarchy is checked also until Object class. 
+	 * Returns the field with the given signature elements. Class hierarchy is checked also until Object class.
+	 * Lookup is cached per class, see {@link ClassMetadata}.
 	 *
 	 * @param clazz the class of the field
 	 * @param name the name of the field
@@ -182,7 +188,7 @@ public final class Reflections {
 	 */
 	@Nullable
 	public static Field findField(Class clazz, String name) {
-		return Iterables.stream(new FieldIterator(clazz)).filter(field -> field.getName().equals(name)).findAny().orElse(null);
+		return ClassMetadata.of(clazz).findField(name);
 	}
 	
 	/**
@@ -202,7 +208,8 @@ public final class Reflections {
 	}
 	
 	/**
-	 * Returns the method with the given signature elements. Class hierarchy is checked also until Object class. 
+	 * Returns the method with the given signature elements. Class hierarchy is checked also until Object class.
+	 * Lookup is cached per class, see {@link ClassMetadata}.
 	 * 
 	 * @param clazz the class of the method
 	 * @param name the name of the method
@@ -211,9 +218,7 @@ public final class Reflections {
 	 */
 	@Nullable
 	public static Method findMethod(Class clazz, String name, Class... argTypes) {
-		return Iterables.stream(new MethodIterator(clazz, null))
-				.filter(method -> method.getName().equals(name) && java.util.Arrays.equals(method.getParameterTypes(), argTypes))
-				.findAny().orElse(null);
+		return ClassMetadata.of(clazz).findMethod(name, argTypes);
 	}
 	
 	/**
@@ -261,9 +266,8 @@ public final class Reflections {
 	 * @throws MemberNotFoundException in case of non existing constructor
 	 */
 	public static Constructor getConstructor(Class clazz, Class... argTypes) {
-		try {
-			return clazz.getDeclaredConstructor(argTypes);
-		} catch (NoSuchMethodException e) {
+		Constructor constructor = ClassMetadata.of(clazz).findConstructor(argTypes);
+		if (constructor == null) {
 			MemberNotFoundException detailedException = new MemberNotFoundException("Constructor of " + toString(clazz) 
 					+ " with arguments (" + new StringAppender().ccat(argTypes, ", ") + ") was not found");
 			if (isInnerClass(clazz)
@@ -273,6 +277,7 @@ public final class Reflections {
 				throw detailedException;
 			}
 		}
+		return constructor;
 	}
 	
 	/**
@@ -553,6 +558,20 @@ public final class Reflections {
 		return (I) Proxy.newProxyInstance(iface.getClassLoader(), Arrays.cat(new Class[] { iface }, additionalInterfaces), invocationHandler);
 	}
 	
+	/**
+	 * Same as {@link #newProxy(Class, InvocationHandler, Class[])} with a given {@link ProxyFactory} to create the proxy
+	 *
+	 * @param proxyFactory the proxy creator
+	 * @param iface the mandatory interface that the proxy must implement
+	 * @param invocationHandler the intercepting code
+	 * @param additionalInterfaces optional other interfaces also implemented by the proxy
+	 * @param <I> main interface type, which is also the returned-proxy type
+	 * @return the created proxy for the given interface and given handler
+	 */
+	public static <I> I newProxy(ProxyFactory proxyFactory, Class<I> iface, InvocationHandler invocationHandler, Class<?> ... additionalInterfaces) {
+		return (I) proxyFactory.newProxy(iface.getClassLoader(), Arrays.cat(new Class[] { iface }, additionalInterfaces), invocationHandler);
+	}
+	
 	/**
 	 * Gives the wrapping class of a primitive type (Integer for int, Boolean for boolean, etc.)
 	 * Caller must check if given argument is a primitive type (with {@link Class#isPrimitive()} else a {@link IllegalArgumentException} will be thrown.
@@ -0,0 +1,78 @@
+package org.gama.lang;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limits retries to a ratio of calls, to be shared by the {@link Retryer}s of a same dependency : when it fails, retries of all callers
+ * multiply its load, which prevents it from recovering. With a budget, retries can't exceed the given ratio of calls, plus a burst.
+ *
+ * Works as a token bucket : each call deposits a fraction of token (the ratio), and each retry withdraws a whole one, so retries are denied
+ * when the bucket is empty. Bucket starts full, with the burst size. Thread-safe and lock-free.
+ *
+ * @author Guillaume Mary
+ */
+public class RetryBudget {
+	
+	/** Tokens are kept as integers with this precision, to be updated atomically */
+	private static final long TOKEN = 1000;
+	
+	private final long depositPerCall;
+	
+	private final long maxBalance;
+	
+	private final AtomicLong balance;
+	
+	/**
+	 * @param retryRatio number of retries allowed per call, such as 0.1 for 10% of calls, can be greater than 1
+	 * @param maxBurst number of retries that can be done at once, which is also the initial number of allowed retries
+	 */
+	public RetryBudget(double retryRatio, int maxBurst) {
+		if (retryRatio < 0) {
+			throw new IllegalArgumentException("Retry ratio must be positive : " + retryRatio);
+		}
+		if (maxBurst < 1) {
+			throw new IllegalArgumentException("Burst must be strictly positive : " + maxBurst);
+		}
+		this.depositPerCall = Math.round(retryRatio * TOKEN);
+		this.maxBalance = maxBurst * TOKEN;
+		this.balance = new AtomicLong(maxBalance);
+	}
+	
+	/**
+	 * Deposits the retry ratio in the budget, to be called at each call, not at each retry
+	 */
+	public void onCall() {
+		// avoiding CAS when bucket is full, which is the most common case of a healthy dependency
+		if (balance.get() < maxBalance) {
+			balance.accumulateAndGet(depositPerCall, (current, deposit) -> Math.min(maxBalance, current + deposit));
+		}
+	}
+	
+	/**
+	 * Withdraws a retry from the budget
+	 *
+	 * @return false if budget is exhausted, then retry must not be done
+	 */
+	public boolean tryAcquireRetry() {
+		long current;
+		do {
+			current = balance.get();
+			if (current < TOKEN) {
+				return false;
+			}
+		} while (!balance.compareAndSet(current, current - TOKEN));
+		return true;
+	}
+	
+	/**
+	 * @return number of retries that can be done now, may be fractional
+	 */
+	public double getAvailableRetries() {
+		return balance.get() / (double) TOKEN;
+	}
+	
+	@Override
+	public String toString() {
+		return "availableRetries=" + getAvailableRetries();
+	}
+}
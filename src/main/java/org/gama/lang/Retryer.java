@@ -1,72 +1,627 @@
 package org.gama.lang;
 
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
 import org.gama.lang.exception.Exceptions;
 import org.gama.lang.function.ThrowingExecutable;
+import org.gama.lang.trace.Counter;
+import org.gama.lang.trace.Metric;
+import org.gama.lang.trace.MetricRegistry;
 
 /**
+ * Executes some code again while it fails with an exception accepted by {@link #shouldRetry(Throwable)}, up to a maximum number of tries.
+ * Delays between tries are given by a {@link DelayPolicy} : prefer a jittered one when many clients call a same dependency, so that they
+ * don't retry in lockstep. Retries can also be limited by a deadline ({@link #withDeadline(long)}) and by a {@link RetryBudget} shared by
+ * callers of a same dependency ({@link #withRetryBudget(RetryBudget)}).
+ * Outcomes of executions can be counted per description in a {@link MetricRegistry}, see {@link #withMetrics(MetricRegistry)}.
+ *
+ * {@link #executeAsync(Supplier, String, ScheduledExecutorService)} retries asynchronous code without blocking any thread while waiting.
+ *
  * @author Guillaume Mary
  */
 public abstract class Retryer {
 	
+	/** Shared instance that never retries, it has no state hence it can't be configured */
 	public static final Retryer NO_RETRY = new NoRetryer();
-
+	
+	/** Prefix of names of {@link RetryMetrics} in registry given to {@link #withMetrics(MetricRegistry)} */
+	public static final String METRIC_NAME_PREFIX = "retry.";
+	
 	private final int maxRetries;
-	private final long retryDelay;
-
+	private final DelayPolicy delayPolicy;
+	
+	/** Maximum duration of an execution, retries included, in milliseconds, 0 for none */
+	private long deadline;
+	
+	private RetryBudget retryBudget;
+	
+	private LongSupplier ticker = System::nanoTime;
+	
+	private MetricRegistry metricRegistry;
+	
+	/**
+	 * @param maxRetries maximum number of tries, first one included
+	 * @param retryDelay fixed delay between tries, in milliseconds
+	 */
 	public Retryer(int maxRetries, long retryDelay) {
+		this(maxRetries, DelayPolicy.fixed(retryDelay));
+	}
+	
+	/**
+	 * @param maxRetries maximum number of tries, first one included
+	 * @param delayPolicy gives delays between tries
+	 */
+	public Retryer(int maxRetries, DelayPolicy delayPolicy) {
 		this.maxRetries = maxRetries;
-		this.retryDelay = retryDelay;
+		this.delayPolicy = delayPolicy;
 	}
-
+	
+	/**
+	 * Sets the maximum duration of an execution, retries included : no retry is done if it would end after it.
+	 * To be called before any execution.
+	 *
+	 * @param deadline a duration in milliseconds, 0 for none
+	 * @return this
+	 */
+	public Retryer withDeadline(long deadline) {
+		if (deadline < 0) {
+			throw new IllegalArgumentException("Deadline must be positive : " + deadline);
+		}
+		this.deadline = deadline;
+		return this;
+	}
+	
+	/**
+	 * Sets the budget that limits retries, which may be shared with other {@link Retryer}s. To be called before any execution.
+	 *
+	 * @param retryBudget any {@link RetryBudget}, null for none
+	 * @return this
+	 */
+	public Retryer withRetryBudget(RetryBudget retryBudget) {
+		this.retryBudget = retryBudget;
+		return this;
+	}
+	
+	/**
+	 * Sets the time source used for deadline, default is {@link System#nanoTime()}, mainly for tests
+	 *
+	 * @param ticker gives current time in nanoseconds
+	 * @return this
+	 */
+	public Retryer withTicker(LongSupplier ticker) {
+		this.ticker = ticker;
+		return this;
+	}
+	
+	/**
+	 * Makes outcomes of executions counted per description, as {@link RetryMetrics} registered in given registry under
+	 * {@value #METRIC_NAME_PREFIX} + description. Since the registry keeps them, descriptions must be a few constant values, not
+	 * made of execution data. By default nothing is counted. To be called before any execution.
+	 *
+	 * @param metricRegistry any {@link MetricRegistry}, may be shared with other {@link Retryer}s, null for no metrics
+	 * @return this
+	 */
+	public Retryer withMetrics(MetricRegistry metricRegistry) {
+		this.metricRegistry = metricRegistry;
+		return this;
+	}
+	
 	public <T, E extends Throwable> T execute(ThrowingExecutable<T, E> delegate, String description) throws E, RetryException {
-		Executor<T, E> executor = new Executor<>(delegate, description);
-		return executor.execute();
+		RetryMetrics retryMetrics = giveMetrics(description);
+		onCall(retryMetrics);
+		long start = ticker.getAsLong();
+		int tryCount = 0;
+		long delay = 0;
+		// iterating instead of recursing so that stack doesn't depend on number of tries
+		while (true) {
+			tryCount++;
+			try {
+				T result = delegate.execute();
+				if (retryMetrics != null) {
+					retryMetrics.successes.increment();
+				}
+				return result;
+			} catch (Throwable t) {
+				if (!shouldRetry(t)) {
+					if (retryMetrics != null) {
+						retryMetrics.unexpectedFailures.increment();
+					}
+					throw t;
+				}
+				delay = nextDelay(description, retryMetrics, tryCount, delay, start, t);
+				waitRetryDelay(delay);
+			}
+		}
 	}
-
+	
+	/**
+	 * Asynchronous version of {@link #execute(ThrowingExecutable, String)} : tries are scheduled on the given scheduler instead of waiting for
+	 * their delay, so a few threads can handle thousands of pending retries. First try is done by caller thread, next ones by scheduler
+	 * threads, so the delegate must not block.
+	 * The returned future completes with the result of the first successful try, or with the exception of a try not accepted by
+	 * {@link #shouldRetry(Throwable)}, or with a {@link RetryException} when no retry can be done anymore. If a deadline is set, it also
+	 * completes with a {@link RetryException} caused by a {@link TimeoutException} when deadline is reached while a try is running.
+	 * Cancelling the returned future stops retries and cancels the running try.
+	 * Once the result is known, pending timers (next try, deadline) are cancelled and detached from the execution, so that a scheduler
+	 * keeping cancelled tasks in its queue only retains small stubs. Still, with a {@link java.util.concurrent.ScheduledThreadPoolExecutor},
+	 * prefer enabling {@link java.util.concurrent.ScheduledThreadPoolExecutor#setRemoveOnCancelPolicy(boolean)} so that cancelled timers,
+	 * long deadlines notably, are removed from its queue immediately.
+	 *
+	 * @param delegate gives the future of a try, called at each try
+	 * @param description description of the action, for metrics and error messages
+	 * @param scheduler runs the retries, may be shared by many executions and many {@link Retryer}s
+	 * @param <T> type of result
+	 * @return a future of the result
+	 */
+	public <T> CompletableFuture<T> executeAsync(Supplier<? extends CompletionStage<T>> delegate, String description,
+			ScheduledExecutorService scheduler) {
+		AsyncExecution<T> execution = new AsyncExecution<>(delegate, description, scheduler);
+		execution.start();
+		return execution.result;
+	}
+	
 	protected abstract boolean shouldRetry(Throwable t);
-
-	private void waitRetryDelay() {
+	
+	/**
+	 * @return null if metrics are not enabled
+	 */
+	RetryMetrics giveMetrics(String description) {
+		return metricRegistry == null ? null : metricRegistry.give(METRIC_NAME_PREFIX + description, RetryMetrics.class, RetryMetrics::new);
+	}
+	
+	void onCall(RetryMetrics retryMetrics) {
+		if (retryMetrics != null) {
+			retryMetrics.calls.increment();
+		}
+		if (retryBudget != null) {
+			retryBudget.onCall();
+		}
+	}
+	
+	/**
+	 * Decides whether a failed try is retried
+	 *
+	 * @param description description of the action, for error message
+	 * @param retryMetrics metrics of the action, null if metrics are not enabled
+	 * @param tryCount number of tries done
+	 * @param previousDelay delay before previous try, 0 after first one
+	 * @param start start time of the execution, as given by ticker
+	 * @param failure the exception of last try, accepted by {@link #shouldRetry(Throwable)}
+	 * @return the delay to be waited before next try, in milliseconds
+	 * @throws RetryException if no retry must be done
+	 */
+	long nextDelay(String description, RetryMetrics retryMetrics, int tryCount, long previousDelay, long start, Throwable failure)
+			throws RetryException {
+		if (tryCount >= maxRetries) {
+			if (retryMetrics != null) {
+				retryMetrics.exhaustions.increment();
+			}
+			throw new RetryException(RetryException.failureMessage(description, tryCount, delayPolicy.describe()), failure);
+		}
+		long delay = delayPolicy.nextDelay(tryCount, previousDelay);
+		if (deadline != 0 && TimeUnit.NANOSECONDS.toMillis(ticker.getAsLong() - start) + delay > deadline) {
+			if (retryMetrics != null) {
+				retryMetrics.deadlineExceedances.increment();
+			}
+			throw new RetryException(RetryException.failureMessage(description, tryCount, delayPolicy.describe())
+					+ ", next retry would exceed deadline of " + deadline + "ms", failure);
+		}
+		if (retryBudget != null && !retryBudget.tryAcquireRetry()) {
+			if (retryMetrics != null) {
+				retryMetrics.budgetRejections.increment();
+			}
+			throw new RetryException(RetryException.failureMessage(description, tryCount, delayPolicy.describe())
+					+ ", retry budget is exhausted", failure);
+		}
+		if (retryMetrics != null) {
+			retryMetrics.retries.increment();
+		}
+		return delay;
+	}
+	
+	private void waitRetryDelay(long delay) {
 		try {
-			Thread.sleep(retryDelay);
+			Thread.sleep(delay);
 		} catch (InterruptedException ie) {
 			throw Exceptions.asRuntimeException(ie);
 		}
 	}
-
+	
+	private static void checkDelays(long baseDelay, long maxDelay) {
+		if (baseDelay < 0 || maxDelay < baseDelay) {
+			throw new IllegalArgumentException("Base delay must be positive and lower than max delay : " + baseDelay + " vs " + maxDelay);
+		}
+	}
+	
+	private static long exponentialDelay(long baseDelay, long maxDelay, int retryCount) {
+		int shift = Math.min(retryCount - 1, 62);
+		// comparing before shifting to avoid overflow
+		return baseDelay > maxDelay >> shift ? maxDelay : baseDelay << shift;
+	}
+	
 	public static class RetryException extends Exception {
-
-		public RetryException(String action, int tryCount,  long retryDelay, Throwable cause) {
-			super("Action \"" + action + "\" has been executed " + tryCount + " times every " + retryDelay + "ms and always failed", cause);
+		
+		public RetryException(String action, int tryCount, long retryDelay, Throwable cause) {
+			this(failureMessage(action, tryCount, "every " + retryDelay + "ms"), cause);
+		}
+		
+		public RetryException(String message, Throwable cause) {
+			super(message, cause);
+		}
+		
+		private static String failureMessage(String action, int tryCount, String delayDescription) {
+			return "Action \"" + action + "\" has been executed " + tryCount + " times " + delayDescription + " and always failed";
+		}
+	}
+	
+	/**
+	 * Gives the delays between tries
+	 */
+	@FunctionalInterface
+	public interface DelayPolicy {
+		
+		/**
+		 * @param delay delay between tries, in milliseconds
+		 * @return a policy that always gives the same delay
+		 */
+		static DelayPolicy fixed(long delay) {
+			return new DelayPolicy() {
+				@Override
+				public long nextDelay(int retryCount, long previousDelay) {
+					return delay;
+				}
+				
+				@Override
+				public String describe() {
+					return "every " + delay + "ms";
+				}
+			};
+		}
+		
+		/**
+		 * Gives a policy that doubles delay at each retry. Every client having the same delays, it should be used when there are few of them,
+		 * else prefer {@link #fullJitter(long, long)} or {@link #decorrelatedJitter(long, long)}.
+		 *
+		 * @param baseDelay delay of first retry, in milliseconds
+		 * @param maxDelay maximum delay, in milliseconds
+		 * @return a policy giving baseDelay * 2^(retryCount - 1), capped by maxDelay
+		 */
+		static DelayPolicy exponential(long baseDelay, long maxDelay) {
+			checkDelays(baseDelay, maxDelay);
+			return new DelayPolicy() {
+				@Override
+				public long nextDelay(int retryCount, long previousDelay) {
+					return exponentialDelay(baseDelay, maxDelay, retryCount);
+				}
+				
+				@Override
+				public String describe() {
+					return "with exponential delay from " + baseDelay + "ms to " + maxDelay + "ms";
+				}
+			};
+		}
+		
+		/**
+		 * Gives a policy that takes a random delay between 0 and the exponential one, which spreads retries of clients that failed at the
+		 * same time
+		 *
+		 * @param baseDelay upper bound of first delay, in milliseconds
+		 * @param maxDelay maximum delay, in milliseconds
+		 * @return a policy giving a random delay between 0 and baseDelay * 2^(retryCount - 1), capped by maxDelay
+		 */
+		static DelayPolicy fullJitter(long baseDelay, long maxDelay) {
+			checkDelays(baseDelay, maxDelay);
+			return new DelayPolicy() {
+				@Override
+				public long nextDelay(int retryCount, long previousDelay) {
+					return ThreadLocalRandom.current().nextLong(exponentialDelay(baseDelay, maxDelay, retryCount) + 1);
+				}
+				
+				@Override
+				public String describe() {
+					return "with full jitter delay from 0ms to " + maxDelay + "ms";
+				}
+			};
+		}
+		
+		/**
+		 * Gives a policy that takes a random delay between baseDelay and 3 times the previous one : delays grow as exponential ones, but
+		 * are spread and never shorter than baseDelay
+		 *
+		 * @param baseDelay minimum delay, in milliseconds
+		 * @param maxDelay maximum delay, in milliseconds
+		 * @return a policy giving a random delay between baseDelay and 3 * previousDelay, capped by maxDelay
+		 */
+		static DelayPolicy decorrelatedJitter(long baseDelay, long maxDelay) {
+			checkDelays(baseDelay, maxDelay);
+			return new DelayPolicy() {
+				@Override
+				public long nextDelay(int retryCount, long previousDelay) {
+					long upperBound = Math.max(baseDelay, Math.min(maxDelay, previousDelay * 3));
+					return baseDelay + ThreadLocalRandom.current().nextLong(upperBound - baseDelay + 1);
+				}
+				
+				@Override
+				public String describe() {
+					return "with decorrelated jitter delay from " + baseDelay + "ms to " + maxDelay + "ms";
+				}
+			};
+		}
+		
+		/**
+		 * @param retryCount number of the retry to come, starting at 1
+		 * @param previousDelay delay given for previous retry, 0 for first one
+		 * @return delay to be waited before the retry, in milliseconds
+		 */
+		long nextDelay(int retryCount, long previousDelay);
+		
+		/**
+		 * @return a description of delays, for error messages
+		 */
+		default String describe() {
+			return "with custom delay";
 		}
 	}
 	
 	/**
-	 * Internal méthode ofr execution in order to make "tryCount" thread-safe
-	 * @param <R>
+	 * Outcomes of executions of an action
 	 */
-	private final class Executor<R, E extends Throwable> {
-		private int tryCount = 0;
-		private final ThrowingExecutable<R, E> delegateWithResult;
+	public static class RetryMetrics implements Metric {
+		
+		private final Counter calls = new Counter();
+		private final Counter retries = new Counter();
+		private final Counter successes = new Counter();
+		private final Counter unexpectedFailures = new Counter();
+		private final Counter exhaustions = new Counter();
+		private final Counter deadlineExceedances = new Counter();
+		private final Counter budgetRejections = new Counter();
+		
+		/**
+		 * @return number of executions, retries excluded
+		 */
+		public long getCallCount() {
+			return calls.getCount();
+		}
+		
+		public long getRetryCount() {
+			return retries.getCount();
+		}
+		
+		public long getSuccessCount() {
+			return successes.getCount();
+		}
+		
+		/**
+		 * @return number of executions that failed with an exception not accepted by {@link #shouldRetry(Throwable)}
+		 */
+		public long getUnexpectedFailureCount() {
+			return unexpectedFailures.getCount();
+		}
+		
+		/**
+		 * @return number of executions that failed at maximum number of tries
+		 */
+		public long getExhaustionCount() {
+			return exhaustions.getCount();
+		}
+		
+		/**
+		 * @return number of executions stopped because next retry would exceed their deadline
+		 */
+		public long getDeadlineExceedanceCount() {
+			return deadlineExceedances.getCount();
+		}
+		
+		/**
+		 * @return number of executions stopped because retry budget was exhausted
+		 */
+		public long getBudgetRejectionCount() {
+			return budgetRejections.getCount();
+		}
+		
+		@Override
+		public void snapshot(String name, Map<String, Number> snapshot) {
+			snapshot.put(name + ".calls", getCallCount());
+			snapshot.put(name + ".retries", getRetryCount());
+			snapshot.put(name + ".successes", getSuccessCount());
+			snapshot.put(name + ".unexpectedFailures", getUnexpectedFailureCount());
+			snapshot.put(name + ".exhaustions", getExhaustionCount());
+			snapshot.put(name + ".deadlineExceedances", getDeadlineExceedanceCount());
+			snapshot.put(name + ".budgetRejections", getBudgetRejectionCount());
+		}
+		
+		@Override
+		public String toString() {
+			return "calls=" + getCallCount() + ", retries=" + getRetryCount() + ", successes=" + getSuccessCount()
+					+ ", unexpectedFailures=" + getUnexpectedFailureCount() + ", exhaustions=" + getExhaustionCount()
+					+ ", deadlineExceedances=" + getDeadlineExceedanceCount() + ", budgetRejections=" + getBudgetRejectionCount();
+		}
+	}
+	
+	/**
+	 * State of an execution of {@link #executeAsync(Supplier, String, ScheduledExecutorService)}. Tries are chained one after another, so
+	 * mutable fields are never accessed concurrently, except the ones used for cancellation which are volatile.
+	 */
+	private final class AsyncExecution<T> {
+		
+		private final CompletableFuture<T> result = new CompletableFuture<>();
+		
+		private final Supplier<? extends CompletionStage<T>> delegate;
 		private final String description;
-		private Executor(ThrowingExecutable<R, E> delegateWithResult, String description) {
-			this.delegateWithResult = delegateWithResult;
+		private final ScheduledExecutorService scheduler;
+		private final RetryMetrics retryMetrics;
+		
+		private long start;
+		/** Volatile because it's read by deadline timer for its message */
+		private volatile int tryCount = 0;
+		private long delay = 0;
+		
+		private volatile CompletableFuture<T> runningTry;
+		private volatile ScheduledTask scheduledTry;
+		private volatile ScheduledTask deadlineTimer;
+		
+		private AsyncExecution(Supplier<? extends CompletionStage<T>> delegate, String description, ScheduledExecutorService scheduler) {
+			this.delegate = delegate;
 			this.description = description;
+			this.scheduler = scheduler;
+			this.retryMetrics = giveMetrics(description);
+		}
+		
+		private void start() {
+			onCall(retryMetrics);
+			start = ticker.getAsLong();
+			result.whenComplete((value, error) -> stop());
+			if (deadline != 0) {
+				schedule(this::timeout, deadline, timer -> deadlineTimer = timer);
+			}
+			tryOnce();
 		}
-		public R execute() throws E, RetryException {
+		
+		private void tryOnce() {
+			if (result.isDone()) {
+				return;
+			}
+			tryCount++;
+			CompletableFuture<T> currentTry;
 			try {
-				tryCount++;
-				return delegateWithResult.execute();
+				currentTry = delegate.get().toCompletableFuture();
 			} catch (Throwable t) {
-				if (shouldRetry(t)) {
-					if (tryCount < maxRetries) {
-						waitRetryDelay();
-						return execute();
-					} else {
-						throw new RetryException(description, tryCount, retryDelay, t);
+				handleFailure(t);
+				return;
+			}
+			runningTry = currentTry;
+			if (result.isDone()) {
+				// cancelled meanwhile
+				currentTry.cancel(false);
+				return;
+			}
+			currentTry.whenComplete((value, error) -> {
+				if (error == null) {
+					// counting before completion so that metrics are up to date for callers waiting for the result
+					if (retryMetrics != null) {
+						retryMetrics.successes.increment();
 					}
+					result.complete(value);
 				} else {
-					throw t;
+					handleFailure(error instanceof CompletionException && error.getCause() != null ? error.getCause() : error);
+				}
+			});
+		}
+		
+		/**
+		 * Calls {@link #onFailure(Throwable)} and gives its own failure as result, else nobody would be notified of it : it would be thrown to
+		 * the caller of first try, or swallowed by the scheduler for next ones
+		 */
+		private void handleFailure(Throwable failure) {
+			try {
+				onFailure(failure);
+			} catch (RuntimeException | Error e) {
+				// shouldRetry(..) or nextDelay(..) failed
+				result.completeExceptionally(e);
+			}
+		}
+		
+		private void onFailure(Throwable failure) {
+			if (result.isDone()) {
+				return;
+			}
+			if (!shouldRetry(failure)) {
+				if (retryMetrics != null) {
+					retryMetrics.unexpectedFailures.increment();
 				}
+				result.completeExceptionally(failure);
+				return;
+			}
+			try {
+				delay = nextDelay(description, retryMetrics, tryCount, delay, start, failure);
+			} catch (RetryException e) {
+				result.completeExceptionally(e);
+				return;
+			}
+			schedule(this::tryOnce, delay, nextTry -> scheduledTry = nextTry);
+		}
+		
+		private void timeout() {
+			RetryException failure = new RetryException("Action \"" + description + "\" has been executed " + tryCount
+					+ " times and didn't succeed within deadline of " + deadline + "ms", new TimeoutException());
+			if (!result.isDone()) {
+				if (retryMetrics != null) {
+					retryMetrics.deadlineExceedances.increment();
+				}
+				result.completeExceptionally(failure);
+			}
+		}
+		
+		private void schedule(Runnable task, long delay, Consumer<ScheduledTask> taskHolder) {
+			ScheduledTask scheduledTask = new ScheduledTask(task);
+			// held before scheduling so that stop() can't miss it, at worst it detaches the task before it's scheduled
+			taskHolder.accept(scheduledTask);
+			try {
+				scheduledTask.future = scheduler.schedule(scheduledTask, delay, TimeUnit.MILLISECONDS);
+			} catch (RejectedExecutionException e) {
+				// scheduler is shut down
+				result.completeExceptionally(e);
+			}
+		}
+		
+		/**
+		 * Cancels whatever remains of the execution once its result is known : the running try if result was given by cancellation or
+		 * deadline, the scheduled try and the deadline timer
+		 */
+		private void stop() {
+			CompletableFuture<T> lastTry = runningTry;
+			if (lastTry != null && !lastTry.isDone()) {
+				lastTry.cancel(false);
+			}
+			cancel(scheduledTry);
+			cancel(deadlineTimer);
+		}
+		
+		private void cancel(ScheduledTask scheduledTask) {
+			if (scheduledTask != null) {
+				scheduledTask.cancel();
+			}
+		}
+	}
+	
+	/**
+	 * Task given to the scheduler by {@link AsyncExecution}, which reference to the execution is dropped at cancellation, so that the
+	 * execution can be garbage collected even if the scheduler keeps cancelled tasks until their delay
+	 */
+	private static final class ScheduledTask implements Runnable {
+		
+		private volatile Runnable task;
+		private volatile Future<?> future;
+		
+		private ScheduledTask(Runnable task) {
+			this.task = task;
+		}
+		
+		@Override
+		public void run() {
+			Runnable currentTask = task;
+			if (currentTask != null) {
+				currentTask.run();
+			}
+		}
+		
+		private void cancel() {
+			task = null;
+			Future<?> currentFuture = future;
+			if (currentFuture != null && !currentFuture.isDone()) {
+				currentFuture.cancel(false);
 			}
 		}
 	}
@@ -80,5 +635,29 @@ public abstract class Retryer {
 		protected boolean shouldRetry(Throwable t) {
 			return false;
 		}
+		
+		@Override
+		public Retryer withDeadline(long deadline) {
+			throw unsupportedConfiguration();
+		}
+		
+		@Override
+		public Retryer withRetryBudget(RetryBudget retryBudget) {
+			throw unsupportedConfiguration();
+		}
+		
+		@Override
+		public Retryer withTicker(LongSupplier ticker) {
+			throw unsupportedConfiguration();
+		}
+		
+		@Override
+		public Retryer withMetrics(MetricRegistry metricRegistry) {
+			throw unsupportedConfiguration();
+		}
+		
+		private UnsupportedOperationException unsupportedConfiguration() {
+			return new UnsupportedOperationException("NO_RETRY is shared, it can't be configured");
+		}
 	}
 }
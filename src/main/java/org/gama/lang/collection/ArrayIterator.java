@@ -1,14 +1,16 @@
 package org.gama.lang.collection;
 
 import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
 
 /**
  * Wraps an array into an Iterator. Allows reuse of an array in the Iterators API.
  * 
  * @author Guillaume Mary
  */
-public class ArrayIterator<O> extends ReadOnlyIterator<O> {
-
+public class ArrayIterator<O> extends ReadOnlyIterator<O> implements SplittableIterator<O> {
+	
 	private final O[] array;
 	private int currentIndex = 0;
 	private final int maxIndex;
@@ -18,12 +20,12 @@ public class ArrayIterator<O> extends ReadOnlyIterator<O> {
 		this.array = array;
 		this.maxIndex = array.length;
 	}
-
+	
 	@Override
 	public boolean hasNext() {
 		return currentIndex < maxIndex;
 	}
-
+	
 	@Override
 	public O next() {
 		try {
@@ -32,4 +34,17 @@ public class ArrayIterator<O> extends ReadOnlyIterator<O> {
 			throw new NoSuchElementException();
 		}
 	}
+	
+	/**
+	 * Implemented to give a sized {@link Spliterator} over remaining elements of the array, which is split by halves
+	 * 
+	 * @return a new {@link Spliterator} over remaining elements
+	 */
+	@Override
+	public Spliterator<O> spliterator() {
+		Spliterator<O> result = Spliterators.spliterator(array, currentIndex, maxIndex, Spliterator.ORDERED);
+		// elements are handed over to the Spliterator
+		currentIndex = maxIndex;
+		return result;
+	}
 }
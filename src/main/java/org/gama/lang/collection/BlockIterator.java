@@ -0,0 +1,66 @@
+package org.gama.lang.collection;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * {@link Iterator} that gives elements of another {@link Iterator} by blocks of a given size, the last one containing remaining elements.
+ * Elements are pulled from source {@link Iterator} only when a block is requested, so source is never fully loaded in memory.
+ * 
+ * By default each block is a new {@link List}, which can be kept by the caller. When caller processes blocks one after the other (to build a SQL
+ * "in" clause or a JDBC batch for instance), the same {@link List} can be reused to avoid allocating one per block : then a block
+ * is only valid until next call to {@link #next()}.
+ * 
+ * @author Guillaume Mary
+ * @see Collections#parcelLazily(Iterable, int, boolean)
+ */
+public class BlockIterator<E> extends ReadOnlyIterator<List<E>> {
+	
+	private final Iterator<? extends E> delegate;
+	private final int blockSize;
+	/** Reused block, null if blocks must not be reused */
+	private final List<E> reusedBlock;
+	
+	public BlockIterator(Iterator<? extends E> delegate, int blockSize) {
+		this(delegate, blockSize, false);
+	}
+	
+	/**
+	 * @param delegate source of elements
+	 * @param blockSize maximum number of elements per block
+	 * @param reuseBlock true to give the same {@link List} instance at each {@link #next()} call, filled with next elements
+	 */
+	public BlockIterator(Iterator<? extends E> delegate, int blockSize, boolean reuseBlock) {
+		if (blockSize < 1) {
+			throw new IllegalArgumentException("Block size must be strictly positive : " + blockSize);
+		}
+		this.delegate = delegate;
+		this.blockSize = blockSize;
+		this.reusedBlock = reuseBlock ? new ArrayList<>(blockSize) : null;
+	}
+	
+	@Override
+	public boolean hasNext() {
+		return delegate.hasNext();
+	}
+	
+	@Override
+	public List<E> next() {
+		if (!delegate.hasNext()) {
+			throw new NoSuchElementException();
+		}
+		List<E> block;
+		if (reusedBlock == null) {
+			block = new ArrayList<>(blockSize);
+		} else {
+			block = reusedBlock;
+			block.clear();
+		}
+		while (block.size() < blockSize && delegate.hasNext()) {
+			block.add(delegate.next());
+		}
+		return block;
+	}
+}
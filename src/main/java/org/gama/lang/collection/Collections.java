@@ -6,8 +6,14 @@ import java.util.Collection;
 import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Queue;
+import java.util.RandomAccess;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * @author Guillaume Mary
@@ -103,27 +109,92 @@ public class Collections {
 	
 	/**
 	 * Parcels a Collection into pieces.
+	 * Blocks are built directly from the {@link Iterable}, which is not copied beforehand, see {@link #parcelLazily(Iterable, int, boolean)}
+	 * to avoid loading all blocks in memory.
 	 * 
 	 * @param data an Iterable
 	 * @param blockSize the size of blocks to be created (the last will contain remaining elements)
 	 * @return a List of blocks of elements
 	 */
 	public static <E> List<List<E>> parcel(Iterable<E> data, int blockSize) {
-		final List<List<E>> blocks = new ArrayList<>();
-		// on s'assure d'avoir une liste pour permettre l'utilisation de subList ensuite
-		List<E> dataAsList = asList(data);
-		int i = 0;
-		int dataSize = dataAsList.size();
-		int blockCount = dataSize / blockSize;
-		// if some remain, an additional block must be created
-		if (dataSize % blockSize != 0) {
-			blockCount++;
+		return Iterables.copy(new BlockIterator<>(data.iterator(), blockSize));
+	}
+	
+	/**
+	 * Parcels an Iterable into pieces, lazily : blocks are filled from an {@link Iterator} of the Iterable when they are iterated, hence only
+	 * one block at a time is in memory if caller doesn't keep them.
+	 * If caller allows blocks reuse, then a block is only valid until next one is requested : if data is a {@link RandomAccess} {@link List},
+	 * blocks are views of it (see {@link List#subList(int, int)}), else the same {@link List} is filled with elements of each block.
+	 * 
+	 * @param data an Iterable, iterated once per iteration of the result
+	 * @param blockSize the size of blocks to be created (the last will contain remaining elements)
+	 * @param reuseBlocks true if caller processes each block before asking for next one without keeping it, so that no block is allocated
+	 * @param <E> element type
+	 * @return an Iterable of blocks of elements
+	 */
+	public static <E> Iterable<List<E>> parcelLazily(Iterable<E> data, int blockSize, boolean reuseBlocks) {
+		if (blockSize < 1) {
+			throw new IllegalArgumentException("Block size must be strictly positive : " + blockSize);
 		}
-		// parcelling
-		while (i < blockCount) {
-			blocks.add(new ArrayList<>(dataAsList.subList(i * blockSize, Math.min(dataSize, ++i * blockSize))));
+		if (reuseBlocks && data instanceof List && data instanceof RandomAccess) {
+			List<E> list = (List<E>) data;
+			return () -> new ReadOnlyIterator<List<E>>() {
+				
+				private int blockStart = 0;
+				
+				@Override
+				public boolean hasNext() {
+					return blockStart < list.size();
+				}
+				
+				@Override
+				public List<E> next() {
+					if (!hasNext()) {
+						throw new NoSuchElementException();
+					}
+					int blockEnd = Math.min(list.size(), blockStart + blockSize);
+					List<E> block = list.subList(blockStart, blockEnd);
+					blockStart = blockEnd;
+					return block;
+				}
+			};
+		} else {
+			return () -> new BlockIterator<>(data.iterator(), blockSize, reuseBlocks);
 		}
-		return blocks;
+	}
+	
+	/**
+	 * Parcels an Iterable into a {@link Stream} of pieces, filled lazily from an {@link Iterator} of the Iterable. Each block is a new
+	 * {@link List} so that they can be processed concurrently by a parallel {@link Stream} or an executor.
+	 * 
+	 * @param data an Iterable
+	 * @param blockSize the size of blocks to be created (the last will contain remaining elements)
+	 * @param <E> element type
+	 * @return an ordered {@link Stream} of blocks of elements, sized if data is a {@link Collection}
+	 */
+	public static <E> Stream<List<E>> parcelToStream(Iterable<E> data, int blockSize) {
+		BlockIterator<E> blockIterator = new BlockIterator<>(data.iterator(), blockSize);
+		Spliterator<List<E>> spliterator;
+		int characteristics = Spliterator.ORDERED | Spliterator.NONNULL;
+		if (data instanceof Collection) {
+			int size = ((Collection<E>) data).size();
+			spliterator = Spliterators.spliterator(blockIterator, size / blockSize + (size % blockSize == 0 ? 0 : 1), characteristics);
+		} else {
+			spliterator = Spliterators.spliteratorUnknownSize(blockIterator, characteristics);
+		}
+		return StreamSupport.stream(spliterator, false);
+	}
+	
+	/**
+	 * Parcels a {@link Stream} into a {@link Stream} of pieces, filled lazily from source one. Closing the result closes the source.
+	 * 
+	 * @param data a {@link Stream}, consumed sequentially
+	 * @param blockSize the size of blocks to be created (the last will contain remaining elements)
+	 * @param <E> element type
+	 * @return an ordered {@link Stream} of blocks of elements
+	 */
+	public static <E> Stream<List<E>> parcel(Stream<E> data, int blockSize) {
+		return parcelToStream(Iterables.asIterable(data.iterator()), blockSize).onClose(data::close);
 	}
 	
 	/**
@@ -0,0 +1,118 @@
+package org.gama.lang.collection;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import org.gama.lang.bean.Factory;
+
+/**
+ * Thread-safe {@link ValueFactoryMap} : values are created at most once per key even if several threads ask for a same missing key, and
+ * {@link #get(Object)} doesn't lock when key is present, which is the most common case of a lazily filled cache.
+ * Relies on {@link ConcurrentMap#computeIfAbsent(Object, Function)} for missing keys, hence, with a {@link ConcurrentHashMap} as delegate,
+ * {@link #createInstance(Object)} is invoked under the lock of the key bin : it should be short and must not access this map.
+ * As for {@link ConcurrentHashMap}, null keys are not supported, and if {@link #createInstance(Object)} returns null then nothing is put
+ * in the map and null is returned.
+ *
+ * @author Guillaume Mary
+ */
+public class ConcurrentValueFactoryMap<K, V> extends ValueFactoryMap<K, V> implements ConcurrentMap<K, V> {
+	
+	private final ConcurrentMap<K, V> delegate;
+	
+	public ConcurrentValueFactoryMap(Factory<K, V> factory) {
+		this(new ConcurrentHashMap<>(), factory);
+	}
+	
+	public ConcurrentValueFactoryMap(int initialCapacity, Factory<K, V> factory) {
+		this(new ConcurrentHashMap<>(initialCapacity), factory);
+	}
+	
+	/**
+	 * Constructor with mandatory elements
+	 *
+	 * @param delegate the wrapped instance
+	 * @param factoryDelegate the wrapped factory instance
+	 */
+	public ConcurrentValueFactoryMap(ConcurrentMap<K, V> delegate, Factory<K, V> factoryDelegate) {
+		super(delegate, factoryDelegate);
+		this.delegate = delegate;
+	}
+	
+	/**
+	 * Implementation that reads the delegate without locking, and creates the value with {@link ConcurrentMap#computeIfAbsent(Object, Function)}
+	 * only if it is missing, so that concurrent callers asking for the same key get the same instance.
+	 *
+	 * @param key a K instance, not null
+	 * @return existing value or newly created one
+	 */
+	@Override
+	public V get(Object key) {
+		V foundValue = delegate.get(key);
+		if (foundValue == null) {
+			// NB: key type can't be checked, a key which is not a K will be given to createInstance(..)
+			foundValue = delegate.computeIfAbsent((K) key, this::createInstance);
+		}
+		return foundValue;
+	}
+	
+	/**
+	 * Overriden to read the delegate, as opposed to {@link #get(Object)}, no value is created for a missing key
+	 */
+	@Override
+	public V getOrDefault(Object key, V defaultValue) {
+		return delegate.getOrDefault(key, defaultValue);
+	}
+	
+	@Override
+	public V putIfAbsent(K key, V value) {
+		return delegate.putIfAbsent(key, value);
+	}
+	
+	@Override
+	public boolean remove(Object key, Object value) {
+		return delegate.remove(key, value);
+	}
+	
+	@Override
+	public boolean replace(K key, V oldValue, V newValue) {
+		return delegate.replace(key, oldValue, newValue);
+	}
+	
+	@Override
+	public V replace(K key, V value) {
+		return delegate.replace(key, value);
+	}
+	
+	@Override
+	public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+		return delegate.computeIfAbsent(key, mappingFunction);
+	}
+	
+	@Override
+	public V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+		return delegate.computeIfPresent(key, remappingFunction);
+	}
+	
+	@Override
+	public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+		return delegate.compute(key, remappingFunction);
+	}
+	
+	@Override
+	public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+		return delegate.merge(key, value, remappingFunction);
+	}
+	
+	@Override
+	public void forEach(BiConsumer<? super K, ? super V> action) {
+		delegate.forEach(action);
+	}
+	
+	@Override
+	public void replaceAll(BiFunction<? super K, ? super V, ? extends V> function) {
+		delegate.replaceAll(function);
+	}
+}
@@ -0,0 +1,73 @@
+package org.gama.lang.collection;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+/**
+ * Sized {@link Spliterator} over a range of indexes which elements are given by a function, split by halves. Base of {@link Spliterator}s
+ * of index-based {@link java.util.Iterator}s such as {@link ReverseArrayIterator} and {@link PairIterator}.
+ * 
+ * @param <E> element type
+ * @author Guillaume Mary
+ */
+class IndexedSpliterator<E> implements Spliterator<E> {
+	
+	private final IntFunction<? extends E> elementAt;
+	private int index;
+	private final int end;
+	private final int characteristics;
+	
+	/**
+	 * @param elementAt gives element at an index, must be thread-safe since split parts may be consumed concurrently
+	 * @param start first index (included)
+	 * @param end last index (excluded)
+	 * @param characteristics characteristics of elements, {@link #SIZED} and {@link #SUBSIZED} are added
+	 */
+	IndexedSpliterator(IntFunction<? extends E> elementAt, int start, int end, int characteristics) {
+		this.elementAt = elementAt;
+		this.index = start;
+		this.end = end;
+		this.characteristics = characteristics | SIZED | SUBSIZED;
+	}
+	
+	@Override
+	public boolean tryAdvance(Consumer<? super E> action) {
+		if (index < end) {
+			action.accept(elementAt.apply(index++));
+			return true;
+		} else {
+			return false;
+		}
+	}
+	
+	@Override
+	public void forEachRemaining(Consumer<? super E> action) {
+		int currentEnd = end;
+		for (int i = index; i < currentEnd; i++) {
+			action.accept(elementAt.apply(i));
+		}
+		index = currentEnd;
+	}
+	
+	@Override
+	public Spliterator<E> trySplit() {
+		int middle = (index + end) >>> 1;
+		if (middle <= index) {
+			return null;
+		}
+		Spliterator<E> prefix = new IndexedSpliterator<>(elementAt, index, middle, characteristics);
+		index = middle;
+		return prefix;
+	}
+	
+	@Override
+	public long estimateSize() {
+		return end - index;
+	}
+	
+	@Override
+	public int characteristics() {
+		return characteristics;
+	}
+}
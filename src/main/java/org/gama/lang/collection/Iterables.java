@@ -15,6 +15,8 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.SortedMap;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.function.BiConsumer;
 import java.util.function.BiPredicate;
 import java.util.function.Function;
@@ -32,6 +34,22 @@ import org.gama.lang.trace.ModifiableInt;
  */
 public final class Iterables {
 	
+	/**
+	 * Tells if a class overrides {@link Iterable#spliterator()}, in which case its {@link Spliterator} is expected to be better than one built
+	 * from its {@link Iterator}, see {@link #stream(Iterable)}
+	 */
+	private static final ClassValue<Boolean> OVERRIDES_SPLITERATOR = new ClassValue<Boolean>() {
+		@Override
+		protected Boolean computeValue(Class<?> type) {
+			try {
+				return type.getMethod("spliterator").getDeclaringClass() != Iterable.class;
+			} catch (NoSuchMethodException e) {
+				// can't happen since every Iterable has it
+				return false;
+			}
+		}
+	};
+	
 	/**
 	 * Transforms an {@link Iterator} to an {@link Iterable}
 	 * 
@@ -427,7 +445,7 @@ public final class Iterables {
 	
 	/**
 	 * Gives the intersection between two {@link Collection}s.
-	 * Implementation has no particular optimization, it is based on a {@link HashSet}.
+	 * Implementation indexes the smaller side in a hash structure (unless c2 is a {@link Set}), see {@link SetAlgebra#intersect(Collection, Collection)}.
 	 * 
 	 * @param c1 a {@link Collection}, not null
 	 * @param c2 a {@link Collection}, not null
@@ -435,14 +453,13 @@ public final class Iterables {
 	 * @return the intersection between two {@link Collection}s
 	 */
 	public static <E> Set<E> intersect(Collection<E> c1, Collection<E> c2) {
-		Set<E> copy = new HashSet<>(c1);
-		copy.retainAll(c2);
-		return copy; 
+		return SetAlgebra.intersect(c1, c2);
 	}
 	
 	/**
 	 * Gives the intersection between two {@link Collection}s by comparing objects with a {@link Comparator}
-	 * Implementation has no particular optimization, it is based on a {@link java.util.TreeSet}.
+	 * Implementation merges arguments if they are sorted, else sorts the smaller one and searches elements of the other one in it, see
+	 * {@link SetAlgebra#intersect(Collection, Collection, Comparator)}.
 	 *
 	 * @param c1 a {@link Collection}, not null
 	 * @param c2 a {@link Collection}, not null
@@ -450,14 +467,12 @@ public final class Iterables {
 	 * @return the intersection between two {@link Collection}s according to the given {@link Comparator}
 	 */
 	public static <E> Set<E> intersect(Collection<E> c1, Collection<E> c2, Comparator<E> comparator) {
-		Set<E> copy = new HashSet<>(c1);
-		copy.retainAll(Arrays.asTreeSet(comparator, c2));
-		return copy; 
+		return SetAlgebra.intersect(c1, c2, comparator);
 	}
 	
 	/**
 	 * Gives the complement of c2 in c1 : all elements of c1 that are not member of c2
-	 * Implementation has no particular optimization, it is based on a {@link HashSet#removeAll(Collection)}.
+	 * Implementation indexes the smaller side in a hash structure (unless c2 is a {@link Set}), see {@link SetAlgebra#minus(Collection, Collection)}.
 	 * 
 	 * @param c1 a {@link Collection}, not null
 	 * @param c2 a {@link Collection}, not null
@@ -465,7 +480,7 @@ public final class Iterables {
 	 * @return the complement of c1 in c2
 	 */
 	public static <E> Set<E> minus(Collection<E> c1, Collection<E> c2) {
-		return minus(c1, c2, (Function<Collection<E>, HashSet<E>>) HashSet::new);
+		return SetAlgebra.minus(c1, c2);
 	}
 	
 	/**
@@ -487,7 +502,8 @@ public final class Iterables {
 	
 	/**
 	 * Gives the complement of c2 in c1 : all elements of c1 that are not member of c2 by comparing objects with a {@link Comparator}
-	 * Implementation has no particular optimization, it is based on a {@link java.util.TreeSet}.
+	 * Implementation merges arguments if they are sorted, else sorts the smaller one and searches elements of the other one in it, see
+	 * {@link SetAlgebra#minus(Collection, Collection, Comparator)}.
 	 *
 	 * @param c1 a {@link Collection}, not null
 	 * @param c2 a {@link Collection}, not null
@@ -495,9 +511,7 @@ public final class Iterables {
 	 * @return the complement of c1 in c2
 	 */
 	public static <E> Set<E> minus(Collection<E> c1, Collection<E> c2, Comparator<E> comparator) {
-		Set<E> copy = new HashSet<>(c1);
-		copy.removeAll(Arrays.asTreeSet(comparator, c2));
-		return copy;
+		return SetAlgebra.minus(c1, c2, comparator);
 	}
 	
 	public static <E> boolean equals(Iterable<E> it1, Iterable<E> it2, BiPredicate<E, E> predicate) {
@@ -554,24 +568,40 @@ public final class Iterables {
 	/**
 	 * Converts an {@link Iterator} to a {@link Stream}.
 	 * If the {@link Iterator} comes from a {@link Collection}, then prefer usage of {@link Collection#stream()}
+	 * If the {@link Iterator} is a {@link SplittableIterator}, its {@link Spliterator} is used, else the {@link Stream} is split by batches of
+	 * elements when it is made parallel.
 	 * 
 	 * @param iterator an {@link Iterator}, not null
 	 * @return a {@link Stream} than will iterate over the {@link Iterator} passed as arguemnt
 	 */
 	public static <E> Stream<E> stream(Iterator<E> iterator) {
-		return stream(() -> iterator);
+		Spliterator<E> spliterator;
+		if (iterator instanceof SplittableIterator) {
+			spliterator = ((SplittableIterator<E>) iterator).spliterator();
+		} else {
+			// splits by batches of elements
+			spliterator = Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED);
+		}
+		return StreamSupport.stream(spliterator, false);
 	}
 	
 	/**
 	 * Converts an {@link Iterable} to a {@link Stream}.
 	 * If the {@link Iterable} is a {@link Collection}, then prefer usage of {@link Collection#stream()}
+	 * If the {@link Iterable} overrides {@link Iterable#spliterator()} (as {@link Collection}s do) the {@link Stream} is built from it, else it
+	 * is built from its {@link Iterator}, see {@link #stream(Iterator)}.
 	 * 
 	 * @param iterable an {@link Iterable}, not null
 	 * @return a {@link Stream} than will iterate over the {@link Iterable} passed as arguemnt
 	 */
 	public static <E> Stream<E> stream(Iterable<? extends E> iterable) {
-		// StreamSupport knows how to convert an Iterable to a stream
-		return (Stream<E>) StreamSupport.stream(iterable.spliterator(), false);
+		if (OVERRIDES_SPLITERATOR.get(iterable.getClass())) {
+			// overriden Spliterators are expected to be sized or to split well
+			return (Stream<E>) StreamSupport.stream(iterable.spliterator(), false);
+		} else {
+			// Iterable default Spliterator doesn't know about SplittableIterator
+			return stream((Iterator<E>) iterable.iterator());
+		}
 	}
 	
 	/**
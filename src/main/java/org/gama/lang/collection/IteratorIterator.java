@@ -2,13 +2,18 @@ package org.gama.lang.collection;
 
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
 
 /**
  * An {@link Iterator} that iterates over other given {@link Iterator}s
+ * Its {@link #spliterator()} splits by source, so that each {@link Iterable} can be consumed by a different thread of a parallel
+ * {@link java.util.stream.Stream}, through its own {@link Spliterator}.
  * 
  * @author Guillaume Mary
  */
-public class IteratorIterator<E> implements Iterator<E> {
+public class IteratorIterator<E> implements SplittableIterator<E> {
 	
 	private final Iterator<Iterable<E>> iterables;
 	
@@ -54,4 +59,96 @@ public class IteratorIterator<E> implements Iterator<E> {
 	public void remove() {
 		currentIterator.remove();
 	}
+	
+	/**
+	 * Implemented to give a {@link Spliterator} that splits by source : each split gives the {@link Spliterator} of next {@link Iterable}, then
+	 * last one is split by its own {@link Spliterator}
+	 * 
+	 * @return a new {@link Spliterator} over remaining elements
+	 */
+	@Override
+	public Spliterator<E> spliterator() {
+		Spliterator<E> current = currentIterator == null ? null : Spliterators.spliteratorUnknownSize(currentIterator, Spliterator.ORDERED);
+		return new SourceSpliterator<>(current, iterables);
+	}
+	
+	/**
+	 * {@link Spliterator} over a sequence of {@link Iterable}s, which splits by {@link Iterable}
+	 * 
+	 * @param <E> element type
+	 */
+	private static class SourceSpliterator<E> implements Spliterator<E> {
+		
+		/** {@link Spliterator} of the source being consumed, null if none */
+		private Spliterator<E> current;
+		private final Iterator<Iterable<E>> sources;
+		
+		private SourceSpliterator(Spliterator<E> current, Iterator<Iterable<E>> sources) {
+			this.current = current;
+			this.sources = sources;
+		}
+		
+		@Override
+		public boolean tryAdvance(Consumer<? super E> action) {
+			while (current == null || !current.tryAdvance(action)) {
+				if (sources.hasNext()) {
+					current = sources.next().spliterator();
+				} else {
+					current = null;
+					return false;
+				}
+			}
+			return true;
+		}
+		
+		@Override
+		public void forEachRemaining(Consumer<? super E> action) {
+			if (current != null) {
+				current.forEachRemaining(action);
+				current = null;
+			}
+			sources.forEachRemaining(source -> source.forEach(action));
+		}
+		
+		/**
+		 * Gives current source as prefix, or splits it if it's the last one
+		 */
+		@Override
+		public Spliterator<E> trySplit() {
+			loadCurrent();
+			if (current == null) {
+				return null;
+			} else if (sources.hasNext()) {
+				Spliterator<E> prefix = current;
+				current = sources.next().spliterator();
+				return prefix;
+			} else {
+				return current.trySplit();
+			}
+		}
+		
+		/**
+		 * @return size of current source if it's the last one, else {@link Long#MAX_VALUE} since size of next ones is unknown
+		 */
+		@Override
+		public long estimateSize() {
+			loadCurrent();
+			if (sources.hasNext()) {
+				return Long.MAX_VALUE;
+			} else {
+				return current == null ? 0 : current.estimateSize();
+			}
+		}
+		
+		private void loadCurrent() {
+			if (current == null && sources.hasNext()) {
+				current = sources.next().spliterator();
+			}
+		}
+		
+		@Override
+		public int characteristics() {
+			return ORDERED;
+		}
+	}
 }
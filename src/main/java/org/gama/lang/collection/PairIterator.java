@@ -1,24 +1,39 @@
 package org.gama.lang.collection;
 
 import java.util.Iterator;
+import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.Spliterators;
 
 import org.gama.lang.Duo;
 
 /**
  * {@link Iterator} of 2 others by giving {@link Duo}s. Gives elements while 2 Iterators have elements together.
+ * When created from 2 {@link RandomAccess} {@link List}s, its {@link #spliterator()} is sized and splits by index ranges, so that pairs can be
+ * efficiently consumed by parallel {@link java.util.stream.Stream}s.
  * 
  * @param <K> type of first {@link Iterator}'s element
  * @param <V> type of second {@link Iterator}'s element
  * @author Guillaume Mary
  */
-public class PairIterator<K, V> implements Iterator<Duo<? extends K, ? extends V>> {
+public class PairIterator<K, V> implements SplittableIterator<Duo<? extends K, ? extends V>> {
 	
 	protected Iterator<? extends K> iterator1;
 	protected Iterator<? extends V> iterator2;
+	/** Sources of iterators when they are both {@link RandomAccess} {@link List}s, null otherwise */
+	protected List<? extends K> list1;
+	protected List<? extends V> list2;
+	/** Index of next pair in source {@link List}s */
+	protected int position;
 	
 	public PairIterator(Iterable<? extends K> iterator1, Iterable<? extends V> iterator2) {
 		this(iterator1.iterator(), iterator2.iterator());
+		if (iterator1 instanceof List && iterator1 instanceof RandomAccess && iterator2 instanceof List && iterator2 instanceof RandomAccess) {
+			this.list1 = (List<? extends K>) iterator1;
+			this.list2 = (List<? extends V>) iterator2;
+		}
 	}
 	
 	public PairIterator(Iterator<? extends K> iterator1, Iterator<? extends V> iterator2) {
@@ -33,13 +48,52 @@ public class PairIterator<K, V> implements Iterator<Duo<? extends K, ? extends V
 	
 	@Override
 	public Duo<K, V> next() {
-		return new Duo<>(iterator1.next(), iterator2.next());
+		Duo<K, V> result = new Duo<>(iterator1.next(), iterator2.next());
+		position++;
+		return result;
 	}
 	
 	@Override
 	public void remove() {
 		iterator1.remove();
 		iterator2.remove();
+		position--;
+	}
+	
+	/**
+	 * Implemented to give a sized {@link Spliterator} splitting by index ranges when source are {@link RandomAccess} {@link List}s, else a
+	 * {@link Spliterator} that splits by batches of pairs
+	 * 
+	 * @return a new {@link Spliterator} over remaining pairs
+	 */
+	@Override
+	public Spliterator<Duo<? extends K, ? extends V>> spliterator() {
+		if (list1 != null) {
+			Spliterator<Duo<? extends K, ? extends V>> result = new IndexedSpliterator<>(this::pairAt, position, pairCount(),
+					Spliterator.ORDERED | Spliterator.NONNULL);
+			// pairs are handed over to the Spliterator
+			iterator1 = new EmptyIterator<>();
+			iterator2 = new EmptyIterator<>();
+			position = pairCount();
+			return result;
+		} else {
+			return Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL);
+		}
+	}
+	
+	/**
+	 * @return number of pairs given by this iterator, only called when sources are {@link List}s
+	 */
+	protected int pairCount() {
+		return Math.min(list1.size(), list2.size());
+	}
+	
+	/**
+	 * @param index an index lower than {@link #pairCount()}
+	 * @return pair at given index, only called when sources are {@link List}s
+	 */
+	protected Duo<K, V> pairAt(int index) {
+		return new Duo<>(list1.get(index), list2.get(index));
 	}
 	
 	/**
@@ -80,9 +134,20 @@ public class PairIterator<K, V> implements Iterator<Duo<? extends K, ? extends V
 			} else {
 				val2 = getMissingValue();
 			}
+			position++;
 			return new Duo<>(val1, val2);
 		}
 		
+		@Override
+		protected int pairCount() {
+			return Math.max(list1.size(), list2.size());
+		}
+		
+		@Override
+		protected Duo<K, V> pairAt(int index) {
+			return new Duo<>(index < list1.size() ? list1.get(index) : getMissingKey(), index < list2.size() ? list2.get(index) : getMissingValue());
+		}
+		
 		public K getMissingKey() {
 			return null;
 		}
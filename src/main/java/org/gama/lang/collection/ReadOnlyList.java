@@ -6,6 +6,7 @@ import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.Spliterator;
 import java.util.function.Consumer;
 import java.util.function.UnaryOperator;
 
@@ -41,6 +42,17 @@ public class ReadOnlyList<E> implements List<E> {
 		return listIterator();
 	}
 	
+	/**
+	 * Overriden to give the {@link Spliterator} of the wrapped {@link List}, which is sized and splittable for most implementations, whereas
+	 * default one is based on {@link #iterator()}
+	 * 
+	 * @return {@link Spliterator} of the wrapped {@link List}
+	 */
+	@Override
+	public Spliterator<E> spliterator() {
+		return (Spliterator<E>) list.spliterator();
+	}
+	
 	@Override
 	public ListIterator<E> listIterator() {
 		return listIterator(0);
@@ -1,9 +1,13 @@
 package org.gama.lang.collection;
 
+import java.util.Spliterator;
+
 /**
+ * Iterator over an array, from its last element to its first one.
+ * 
  * @author Guillaume Mary
  */
-public class ReverseArrayIterator<E> extends ReadOnlyIterator<E> {
+public class ReverseArrayIterator<E> extends ReadOnlyIterator<E> implements SplittableIterator<E> {
 	
 	private final E[] iterable;
 	
@@ -23,4 +27,17 @@ public class ReverseArrayIterator<E> extends ReadOnlyIterator<E> {
 	public E next() {
 		return iterable[--currentIndex];
 	}
+	
+	/**
+	 * Implemented to give a sized {@link Spliterator} over remaining elements of the array, which is split by halves
+	 * 
+	 * @return a new {@link Spliterator} over remaining elements, in reverse order
+	 */
+	@Override
+	public Spliterator<E> spliterator() {
+		int lastIndex = currentIndex - 1;
+		// elements are handed over to the Spliterator
+		currentIndex = 0;
+		return new IndexedSpliterator<>(i -> iterable[lastIndex - i], 0, lastIndex + 1, Spliterator.ORDERED);
+	}
 }
@@ -0,0 +1,397 @@
+package org.gama.lang.collection;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.stream.Collectors;
+
+/**
+ * Intersection and difference of {@link Collection}s, which choose their algorithm according to size and sortedness of their arguments,
+ * and only copy the smaller side when they need to index one.
+ * 
+ * Without {@link Comparator}, elements are compared with {@link Object#equals(Object)} : the smaller side is indexed in a hash structure (unless
+ * second argument is already a {@link Set}) and the other one probes it.
+ * 
+ * With a {@link Comparator}, elements are only compared with it :
+ * <ul>
+ * <li>if both arguments are sorted according to it (a {@link SortedSet} with same comparator, or a {@link RandomAccess} {@link List} which
+ * order is checked), they are merged in linear time, or, if a side is much larger than the other, the larger side is searched by galloping
+ * (exponential then binary search) so that it's not fully walked</li>
+ * <li>else if one of them is sorted, elements of the other one are searched in it by binary search</li>
+ * <li>else the smaller one is copied and sorted, then elements of the other one are searched in it</li>
+ * </ul>
+ * 
+ * Results contain elements of the first argument, without duplicates according to {@link Object#equals(Object)} since they are {@link HashSet}s.
+ * Parallel variants search elements of first argument concurrently, they are only worth for very large collections.
+ * 
+ * @author Guillaume Mary
+ * @see Iterables#intersect(Collection, Collection)
+ * @see Iterables#minus(Collection, Collection)
+ */
+public final class SetAlgebra {
+	
+	/** Size ratio above which the larger side of a merge is searched by galloping instead of being walked */
+	static final int GALLOP_RATIO = 16;
+	
+	private SetAlgebra() {
+		// utility class
+	}
+	
+	/**
+	 * Gives elements of c1 that are also in c2, according to {@link Object#equals(Object)}, or according to {@link Set#contains(Object)} of
+	 * c2 if it is a {@link Set}
+	 *
+	 * @param c1 a {@link Collection}, not null
+	 * @param c2 a {@link Collection}, not null
+	 * @param <E> type of elements
+	 * @return a new {@link Set}
+	 */
+	public static <E> Set<E> intersect(Collection<E> c1, Collection<E> c2) {
+		Set<E> result = new HashSet<>();
+		if (c1.isEmpty() || c2.isEmpty()) {
+			return result;
+		}
+		if (c2 instanceof Set || c2.size() <= c1.size()) {
+			Set<?> probe = c2 instanceof Set ? (Set<?>) c2 : new HashSet<>(c2);
+			for (E e : c1) {
+				if (probe.contains(e)) {
+					result.add(e);
+				}
+			}
+		} else {
+			// c1 is the smaller side : it is indexed so that c2 is iterated once
+			Map<E, E> index = indexByEquality(c1);
+			for (E e : c2) {
+				if (index.containsKey(e)) {
+					result.add(index.remove(e));
+					if (index.isEmpty()) {
+						break;
+					}
+				}
+			}
+		}
+		return result;
+	}
+	
+	/**
+	 * Gives elements of c1 that are not in c2, according to {@link Object#equals(Object)}, or according to {@link Set#contains(Object)} of
+	 * c2 if it is a {@link Set}
+	 *
+	 * @param c1 a {@link Collection}, not null
+	 * @param c2 a {@link Collection}, not null
+	 * @param <E> type of elements
+	 * @return a new {@link Set}
+	 */
+	public static <E> Set<E> minus(Collection<E> c1, Collection<E> c2) {
+		if (c1.isEmpty() || c2.isEmpty()) {
+			return new HashSet<>(c1);
+		}
+		if (c2 instanceof Set || c2.size() <= c1.size()) {
+			Set<?> probe = c2 instanceof Set ? (Set<?>) c2 : new HashSet<>(c2);
+			Set<E> result = new HashSet<>();
+			for (E e : c1) {
+				if (!probe.contains(e)) {
+					result.add(e);
+				}
+			}
+			return result;
+		} else {
+			// c1 is the smaller side : it is indexed so that c2 is iterated once
+			Map<E, E> index = indexByEquality(c1);
+			for (E e : c2) {
+				index.remove(e);
+				if (index.isEmpty()) {
+					break;
+				}
+			}
+			return new HashSet<>(index.values());
+		}
+	}
+	
+	/**
+	 * Gives elements of c1 that are equal to an element of c2 according to a {@link Comparator}
+	 *
+	 * @param c1 a {@link Collection}, not null
+	 * @param c2 a {@link Collection}, not null
+	 * @param comparator the only way elements are compared
+	 * @param <E> type of elements
+	 * @return a new {@link Set}
+	 */
+	public static <E> Set<E> intersect(Collection<E> c1, Collection<E> c2, Comparator<? super E> comparator) {
+		Set<E> result = new HashSet<>();
+		if (!c1.isEmpty() && !c2.isEmpty()) {
+			match(c1, c2, comparator, result, null);
+		}
+		return result;
+	}
+	
+	/**
+	 * Gives elements of c1 that are not equal to any element of c2 according to a {@link Comparator}
+	 *
+	 * @param c1 a {@link Collection}, not null
+	 * @param c2 a {@link Collection}, not null
+	 * @param comparator the only way elements are compared
+	 * @param <E> type of elements
+	 * @return a new {@link Set}
+	 */
+	public static <E> Set<E> minus(Collection<E> c1, Collection<E> c2, Comparator<? super E> comparator) {
+		Set<E> result = new HashSet<>();
+		if (c2.isEmpty()) {
+			result.addAll(c1);
+		} else if (!c1.isEmpty()) {
+			match(c1, c2, comparator, null, result);
+		}
+		return result;
+	}
+	
+	/**
+	 * Parallel version of {@link #intersect(Collection, Collection)} : c2 is indexed (if it is not a {@link Set}), then elements of c1 are
+	 * searched in it concurrently
+	 */
+	public static <E> Set<E> parallelIntersect(Collection<E> c1, Collection<E> c2) {
+		Set<?> probe = c2 instanceof Set ? (Set<?>) c2 : new HashSet<>(c2);
+		return c1.parallelStream().filter(probe::contains).collect(Collectors.toSet());
+	}
+	
+	/**
+	 * Parallel version of {@link #minus(Collection, Collection)} : c2 is indexed (if it is not a {@link Set}), then elements of c1 are
+	 * searched in it concurrently
+	 */
+	public static <E> Set<E> parallelMinus(Collection<E> c1, Collection<E> c2) {
+		Set<?> probe = c2 instanceof Set ? (Set<?>) c2 : new HashSet<>(c2);
+		return c1.parallelStream().filter(e -> !probe.contains(e)).collect(Collectors.toSet());
+	}
+	
+	/**
+	 * Parallel version of {@link #intersect(Collection, Collection, Comparator)} : c2 is sorted (if it is not already), then elements of c1
+	 * are searched in it concurrently
+	 */
+	public static <E> Set<E> parallelIntersect(Collection<E> c1, Collection<E> c2, Comparator<? super E> comparator) {
+		List<E> sorted2 = parallelSortedList(c2, comparator);
+		return c1.parallelStream().filter(e -> contains(sorted2, e, comparator)).collect(Collectors.toSet());
+	}
+	
+	/**
+	 * Parallel version of {@link #minus(Collection, Collection, Comparator)} : c2 is sorted (if it is not already), then elements of c1
+	 * are searched in it concurrently
+	 */
+	public static <E> Set<E> parallelMinus(Collection<E> c1, Collection<E> c2, Comparator<? super E> comparator) {
+		List<E> sorted2 = parallelSortedList(c2, comparator);
+		return c1.parallelStream().filter(e -> !contains(sorted2, e, comparator)).collect(Collectors.toSet());
+	}
+	
+	/**
+	 * Dispatches elements of c1 to matched or unmatched ones according to their presence in c2
+	 *
+	 * @param matched receiver of c1 elements that are present in c2, null if not needed
+	 * @param unmatched receiver of c1 elements that are not present in c2, null if not needed
+	 */
+	private static <E> void match(Collection<E> c1, Collection<E> c2, Comparator<? super E> comparator,
+								  Collection<E> matched, Collection<E> unmatched) {
+		List<E> sorted1 = asSortedList(c1, comparator);
+		List<E> sorted2 = asSortedList(c2, comparator);
+		if (sorted1 != null && sorted2 != null) {
+			if (sorted1.size() >= GALLOP_RATIO * sorted2.size()) {
+				gallopOverFirst(sorted1, sorted2, comparator, matched, unmatched);
+			} else {
+				// galloping over c2 when it's much larger, else walking it (galloping of 1 step)
+				mergeSorted(sorted1, sorted2, comparator, matched, unmatched, sorted2.size() >= GALLOP_RATIO * sorted1.size());
+			}
+		} else if (sorted2 != null) {
+			searchInSecond(c1, sorted2, comparator, matched, unmatched);
+		} else if (sorted1 != null) {
+			markInFirst(sorted1, c2, comparator, matched, unmatched);
+		} else if (c2.size() <= c1.size()) {
+			searchInSecond(c1, sortedCopy(c2, comparator), comparator, matched, unmatched);
+		} else {
+			markInFirst(sortedCopy(c1, comparator), c2, comparator, matched, unmatched);
+		}
+	}
+	
+	/**
+	 * Merges 2 sorted lists by walking the first one and searching its elements in the second one from last found position
+	 *
+	 * @param gallop true to search by galloping, false to walk the second list
+	 */
+	private static <E> void mergeSorted(List<E> sorted1, List<E> sorted2, Comparator<? super E> comparator,
+										Collection<E> matched, Collection<E> unmatched, boolean gallop) {
+		int j = 0;
+		int size2 = sorted2.size();
+		for (E e1 : sorted1) {
+			if (gallop) {
+				j = gallop(sorted2, e1, j, comparator);
+			} else {
+				while (j < size2 && comparator.compare(sorted2.get(j), e1) < 0) {
+					j++;
+				}
+			}
+			// j is not advanced on match since next element of sorted1 may be equal to current one
+			dispatch(e1, j < size2 && comparator.compare(sorted2.get(j), e1) == 0, matched, unmatched);
+		}
+	}
+	
+	/**
+	 * Merges 2 sorted lists when the first one is much larger than the second one : elements of the second one are searched in the first one
+	 * by galloping, so that ranges of first one elements between 2 matches are skipped if unmatched elements are not needed
+	 */
+	private static <E> void gallopOverFirst(List<E> sorted1, List<E> sorted2, Comparator<? super E> comparator,
+											Collection<E> matched, Collection<E> unmatched) {
+		int i = 0;
+		int size1 = sorted1.size();
+		for (E e2 : sorted2) {
+			int rangeStart = gallop(sorted1, e2, i, comparator);
+			if (unmatched != null) {
+				unmatched.addAll(sorted1.subList(i, rangeStart));
+			}
+			i = rangeStart;
+			while (i < size1 && comparator.compare(sorted1.get(i), e2) == 0) {
+				if (matched != null) {
+					matched.add(sorted1.get(i));
+				}
+				i++;
+			}
+			if (i == size1) {
+				break;
+			}
+		}
+		if (unmatched != null) {
+			unmatched.addAll(sorted1.subList(i, size1));
+		}
+	}
+	
+	/**
+	 * Searches each element of c1 in a sorted list by binary search
+	 */
+	private static <E> void searchInSecond(Collection<E> c1, List<E> sorted2, Comparator<? super E> comparator,
+										   Collection<E> matched, Collection<E> unmatched) {
+		for (E e1 : c1) {
+			dispatch(e1, contains(sorted2, e1, comparator), matched, unmatched);
+		}
+	}
+	
+	/**
+	 * Searches each element of c2 in a sorted list of c1 elements by binary search, and marks elements it is equal to
+	 */
+	private static <E> void markInFirst(List<E> sorted1, Collection<E> c2, Comparator<? super E> comparator,
+										Collection<E> matched, Collection<E> unmatched) {
+		int size1 = sorted1.size();
+		BitSet marked = new BitSet(size1);
+		int markedCount = 0;
+		for (E e2 : c2) {
+			int i = gallop(sorted1, e2, 0, comparator);
+			// if first equal element is already marked, then all equal ones are
+			while (i < size1 && !marked.get(i) && comparator.compare(sorted1.get(i), e2) == 0) {
+				marked.set(i++);
+				markedCount++;
+			}
+			if (markedCount == size1) {
+				break;
+			}
+		}
+		for (int i = 0; i < size1; i++) {
+			dispatch(sorted1.get(i), marked.get(i), matched, unmatched);
+		}
+	}
+	
+	private static <E> void dispatch(E e, boolean found, Collection<E> matched, Collection<E> unmatched) {
+		Collection<E> target = found ? matched : unmatched;
+		if (target != null) {
+			target.add(e);
+		}
+	}
+	
+	/**
+	 * Gives index of the first element greater than or equal to a key by checking indexes from, from + 1, from + 3, from + 7, ... until an
+	 * element greater than or equal to the key is found, then by binary search in last range. Hence cost is logarithmic to the distance
+	 * between starting index and found one, not to list size.
+	 *
+	 * @param sorted a {@link RandomAccess} list sorted according to comparator
+	 * @param key searched element
+	 * @param from index from which key is searched, all elements before it must be lower than key
+	 * @return index of first element greater than or equal to key, list size if all elements are lower
+	 */
+	static <E> int gallop(List<? extends E> sorted, E key, int from, Comparator<? super E> comparator) {
+		int size = sorted.size();
+		int low = from;
+		int high = from;
+		int step = 1;
+		while (high < size && comparator.compare(sorted.get(high), key) < 0) {
+			low = high + 1;
+			step <<= 1;
+			high = from + step - 1;
+		}
+		high = Math.min(high, size);
+		// first element greater than or equal to key is in [low, high]
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (comparator.compare(sorted.get(middle), key) < 0) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		return low;
+	}
+	
+	private static <E> boolean contains(List<E> sorted, E e, Comparator<? super E> comparator) {
+		return java.util.Collections.binarySearch(sorted, e, comparator) >= 0;
+	}
+	
+	/**
+	 * Gives a {@link RandomAccess} view of given {@link Collection} if it is sorted according to a {@link Comparator}, without sorting it
+	 *
+	 * @return given {@link Collection} if it is a sorted {@link RandomAccess} {@link List}, a copy of it if it is a {@link SortedSet} with
+	 * same comparator, else null
+	 */
+	static <E> List<E> asSortedList(Collection<E> c, Comparator<? super E> comparator) {
+		if (c instanceof SortedSet) {
+			Comparator<?> setComparator = ((SortedSet<E>) c).comparator();
+			boolean sameOrder = Objects.equals(setComparator, comparator)
+					|| (setComparator == null && comparator == Comparator.naturalOrder());
+			return sameOrder ? new ArrayList<>(c) : null;
+		} else if (c instanceof List && c instanceof RandomAccess) {
+			List<E> list = (List<E>) c;
+			for (int i = 1, size = list.size(); i < size; i++) {
+				if (comparator.compare(list.get(i - 1), list.get(i)) > 0) {
+					return null;
+				}
+			}
+			return list;
+		} else {
+			return null;
+		}
+	}
+	
+	private static <E> List<E> sortedCopy(Collection<E> c, Comparator<? super E> comparator) {
+		List<E> result = new ArrayList<>(c);
+		result.sort(comparator);
+		return result;
+	}
+	
+	private static <E> List<E> parallelSortedList(Collection<E> c, Comparator<? super E> comparator) {
+		List<E> result = asSortedList(c, comparator);
+		if (result == null) {
+			E[] array = (E[]) c.toArray();
+			java.util.Arrays.parallelSort(array, comparator);
+			result = java.util.Arrays.asList(array);
+		}
+		return result;
+	}
+	
+	private static <E> Map<E, E> indexByEquality(Collection<E> c) {
+		Map<E, E> result = new HashMap<>(Math.max(16, (int) (c.size() / .75f) + 1));
+		for (E e : c) {
+			result.putIfAbsent(e, e);
+		}
+		return result;
+	}
+}
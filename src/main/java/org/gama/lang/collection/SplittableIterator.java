@@ -0,0 +1,21 @@
+package org.gama.lang.collection;
+
+import java.util.Iterator;
+import java.util.Spliterator;
+
+/**
+ * {@link Iterator} that can hand over its remaining elements as a {@link Spliterator}, which knows its size or how to split its source better
+ * than a generic {@link Iterator}-based one, so that {@link Iterables#stream(Iterator)} gives efficient parallel {@link java.util.stream.Stream}s.
+ * 
+ * @param <E> element type
+ * @author Guillaume Mary
+ */
+public interface SplittableIterator<E> extends Iterator<E> {
+	
+	/**
+	 * Gives remaining elements of this {@link Iterator} as a {@link Spliterator}. This {@link Iterator} must not be used afterward.
+	 * 
+	 * @return a new {@link Spliterator} over elements not yet given by this {@link Iterator}
+	 */
+	Spliterator<E> spliterator();
+}
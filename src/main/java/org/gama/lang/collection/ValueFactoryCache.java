@@ -0,0 +1,800 @@
+package org.gama.lang.collection;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.ToIntBiFunction;
+
+import org.gama.lang.bean.Factory;
+
+/**
+ * Bounded version of {@link ValueFactoryMap} : values are created by a {@link Factory} at first {@link #get(Object)} of their key, and kept
+ * until the cache exceeds its maximum weight (by default each entry weighs 1, hence it's a maximum number of entries), in which case some
+ * entries are evicted according to an {@link EvictionPolicy}. Entries can also expire after a delay since their creation or last access.
+ * 
+ * Expiration is checked at access time : expired entries are not given back, and are removed when they are read or evicted, or by
+ * {@link #cleanUp()}. Since the cache is bounded, expired entries don't make it grow anyway.
+ * 
+ * All methods are synchronized, so the cache can be shared between threads, but value creation is also done under lock : prefer
+ * {@link ConcurrentValueFactoryMap} for an unbounded and lock-free cache.
+ * Configuration methods ({@code with*}) are expected to be called before any use of the cache.
+ *
+ * @param <K> key type
+ * @param <V> value type
+ * @author Guillaume Mary
+ */
+public class ValueFactoryCache<K, V> implements Factory<K, V> {
+	
+	/** Expiration delay meaning no expiration, chosen so that delay comparison can't overflow */
+	private static final long NEVER = Long.MAX_VALUE;
+	
+	private final Factory<K, V> factory;
+	
+	private final long maximumWeight;
+	
+	private final Map<K, Entry<K, V>> entries = new HashMap<>();
+	
+	private EvictionPolicy evictionPolicy = EvictionPolicy.LRU;
+	
+	private Policy<K, V> policy;
+	
+	private ToIntBiFunction<? super K, ? super V> weigher = (key, value) -> 1;
+	
+	private long expireAfterWriteNanos = NEVER;
+	
+	private long expireAfterAccessNanos = NEVER;
+	
+	private LongSupplier ticker = System::nanoTime;
+	
+	private RemovalListener<? super K, ? super V> removalListener = (key, value, cause) -> {};
+	
+	private long totalWeight;
+	
+	private long hitCount;
+	private long missCount;
+	private long evictionCount;
+	private long expirationCount;
+	
+	/**
+	 * @param factory creates values of missing keys
+	 * @param maximumWeight maximum number of entries, or maximum sum of their weights if a weigher is given
+	 */
+	public ValueFactoryCache(Factory<K, V> factory, long maximumWeight) {
+		if (maximumWeight < 1) {
+			throw new IllegalArgumentException("Maximum weight must be strictly positive : " + maximumWeight);
+		}
+		this.factory = factory;
+		this.maximumWeight = maximumWeight;
+		this.policy = evictionPolicy.newPolicy(maximumWeight);
+	}
+	
+	/**
+	 * Sets the algorithm that chooses entries to be evicted when cache is full, default is {@link EvictionPolicy#LRU}
+	 *
+	 * @param evictionPolicy an {@link EvictionPolicy}
+	 * @return this
+	 */
+	public synchronized ValueFactoryCache<K, V> withEvictionPolicy(EvictionPolicy evictionPolicy) {
+		assertEmpty();
+		this.evictionPolicy = evictionPolicy;
+		this.policy = evictionPolicy.newPolicy(maximumWeight);
+		return this;
+	}
+	
+	/**
+	 * Sets the function that computes entry weights, then maximum weight given at construction time is compared to their sum
+	 *
+	 * @param weigher gives the weight of an entry, must be positive and must not change while entry is in the cache
+	 * @return this
+	 */
+	public synchronized ValueFactoryCache<K, V> withWeigher(ToIntBiFunction<? super K, ? super V> weigher) {
+		assertEmpty();
+		this.weigher = weigher;
+		return this;
+	}
+	
+	/**
+	 * Makes entries expire after a delay since their creation or replacement
+	 *
+	 * @param duration expiration delay
+	 * @param unit unit of duration
+	 * @return this
+	 */
+	public synchronized ValueFactoryCache<K, V> withExpireAfterWrite(long duration, TimeUnit unit) {
+		this.expireAfterWriteNanos = unit.toNanos(duration);
+		return this;
+	}
+	
+	/**
+	 * Makes entries expire after a delay since their last read or write
+	 *
+	 * @param duration expiration delay
+	 * @param unit unit of duration
+	 * @return this
+	 */
+	public synchronized ValueFactoryCache<K, V> withExpireAfterAccess(long duration, TimeUnit unit) {
+		this.expireAfterAccessNanos = unit.toNanos(duration);
+		return this;
+	}
+	
+	/**
+	 * Sets the listener notified of entries leaving the cache, it is invoked under cache lock so it should be quick and must not modify
+	 * the cache
+	 *
+	 * @param removalListener any {@link RemovalListener}
+	 * @return this
+	 */
+	public synchronized ValueFactoryCache<K, V> withRemovalListener(RemovalListener<? super K, ? super V> removalListener) {
+		this.removalListener = removalListener;
+		return this;
+	}
+	
+	/**
+	 * Sets the time source used for expiration, default is {@link System#nanoTime()}, mainly for tests
+	 *
+	 * @param ticker gives current time in nanoseconds
+	 * @return this
+	 */
+	public synchronized ValueFactoryCache<K, V> withTicker(LongSupplier ticker) {
+		this.ticker = ticker;
+		return this;
+	}
+	
+	private void assertEmpty() {
+		if (!entries.isEmpty()) {
+			throw new IllegalStateException("Cache must be configured before being filled");
+		}
+	}
+	
+	/**
+	 * Gives the value of a key, creating it with the factory if key is missing or if its entry expired.
+	 * If the factory returns null, or throws an exception, nothing is cached.
+	 *
+	 * @param key any key
+	 * @return cached or newly created value
+	 */
+	public synchronized V get(K key) {
+		long now = ticker.getAsLong();
+		Entry<K, V> entry = findValidEntry(key, now);
+		if (entry != null) {
+			hitCount++;
+			return entry.value;
+		}
+		missCount++;
+		V value = createInstance(key);
+		if (value != null) {
+			put(key, value, now);
+		}
+		return value;
+	}
+	
+	/**
+	 * Gives the value of a key without creating it
+	 *
+	 * @param key any key
+	 * @return cached value, null if key is missing or expired
+	 */
+	public synchronized V getIfPresent(K key) {
+		Entry<K, V> entry = findValidEntry(key, ticker.getAsLong());
+		if (entry != null) {
+			hitCount++;
+			return entry.value;
+		} else {
+			missCount++;
+			return null;
+		}
+	}
+	
+	/**
+	 * @return null if key is missing or if its entry expired (which is then removed)
+	 */
+	private Entry<K, V> findValidEntry(K key, long now) {
+		Entry<K, V> entry = entries.get(key);
+		if (entry == null) {
+			return null;
+		} else if (isExpired(entry, now)) {
+			remove(entry, RemovalCause.EXPIRED);
+			return null;
+		} else {
+			entry.accessNanos = now;
+			policy.onAccess(entry);
+			return entry;
+		}
+	}
+	
+	private boolean isExpired(Entry<K, V> entry, long now) {
+		return now - entry.writeNanos >= expireAfterWriteNanos || now - entry.accessNanos >= expireAfterAccessNanos;
+	}
+	
+	@Override
+	public V createInstance(K input) {
+		return factory.createInstance(input);
+	}
+	
+	/**
+	 * Adds or replaces a value, which may evict other entries
+	 *
+	 * @param key any key
+	 * @param value a non null value
+	 */
+	public synchronized void put(K key, V value) {
+		put(key, value, ticker.getAsLong());
+	}
+	
+	private void put(K key, V value, long now) {
+		int weight = weigher.applyAsInt(key, value);
+		if (weight < 0) {
+			throw new IllegalArgumentException("Weight must be positive : " + weight);
+		}
+		Entry<K, V> entry = entries.get(key);
+		if (weight > maximumWeight) {
+			// entry would be evicted anyway, and storing it would evict all others
+			if (entry != null) {
+				remove(entry, RemovalCause.REPLACED);
+			}
+			removalListener.onRemoval(key, value, RemovalCause.SIZE);
+			evictionCount++;
+			return;
+		}
+		if (entry != null) {
+			V replacedValue = entry.value;
+			int weightDelta = weight - entry.weight;
+			entry.value = value;
+			entry.weight = weight;
+			entry.queue.weight += weightDelta;
+			totalWeight += weightDelta;
+			entry.writeNanos = now;
+			entry.accessNanos = now;
+			policy.onAccess(entry);
+			removalListener.onRemoval(key, replacedValue, RemovalCause.REPLACED);
+		} else {
+			entry = new Entry<>(key, value, weight, now);
+			entries.put(key, entry);
+			totalWeight += weight;
+			policy.onInsert(entry);
+		}
+		while (totalWeight > maximumWeight) {
+			remove(policy.victim(), RemovalCause.SIZE);
+			evictionCount++;
+		}
+	}
+	
+	/**
+	 * @param key any key
+	 * @return removed value, null if key was missing
+	 */
+	public synchronized V remove(K key) {
+		Entry<K, V> entry = entries.get(key);
+		if (entry == null) {
+			return null;
+		}
+		remove(entry, RemovalCause.EXPLICIT);
+		return entry.value;
+	}
+	
+	private void remove(Entry<K, V> entry, RemovalCause cause) {
+		entries.remove(entry.key);
+		policy.onRemove(entry);
+		totalWeight -= entry.weight;
+		if (cause == RemovalCause.EXPIRED) {
+			expirationCount++;
+		}
+		removalListener.onRemoval(entry.key, entry.value, cause);
+	}
+	
+	/**
+	 * Removes all entries
+	 */
+	public synchronized void clear() {
+		for (Entry<K, V> entry : Iterables.copy(entries.values())) {
+			remove(entry, RemovalCause.EXPLICIT);
+		}
+	}
+	
+	/**
+	 * Removes expired entries, which is otherwise done when they are accessed
+	 */
+	public synchronized void cleanUp() {
+		long now = ticker.getAsLong();
+		Iterator<Entry<K, V>> iterator = entries.values().iterator();
+		while (iterator.hasNext()) {
+			Entry<K, V> entry = iterator.next();
+			if (isExpired(entry, now)) {
+				iterator.remove();
+				policy.onRemove(entry);
+				totalWeight -= entry.weight;
+				expirationCount++;
+				removalListener.onRemoval(entry.key, entry.value, RemovalCause.EXPIRED);
+			}
+		}
+	}
+	
+	/**
+	 * @param key any key
+	 * @return true if key has an entry, even an expired one, this doesn't count as an access
+	 */
+	public synchronized boolean containsKey(K key) {
+		return entries.containsKey(key);
+	}
+	
+	/**
+	 * @return number of entries, including expired ones that were not removed yet
+	 */
+	public synchronized int size() {
+		return entries.size();
+	}
+	
+	/**
+	 * @return sum of entry weights, which is the number of entries if no weigher was given
+	 */
+	public synchronized long getWeight() {
+		return totalWeight;
+	}
+	
+	public long getMaximumWeight() {
+		return maximumWeight;
+	}
+	
+	public synchronized EvictionPolicy getEvictionPolicy() {
+		return evictionPolicy;
+	}
+	
+	/**
+	 * @return a copy of current entries, expired ones excluded
+	 */
+	public synchronized Map<K, V> toMap() {
+		long now = ticker.getAsLong();
+		Map<K, V> result = new HashMap<>();
+		entries.forEach((key, entry) -> {
+			if (!isExpired(entry, now)) {
+				result.put(key, entry.value);
+			}
+		});
+		return result;
+	}
+	
+	/**
+	 * @return number of {@link #get(Object)} and {@link #getIfPresent(Object)} calls that found a valid entry
+	 */
+	public synchronized long getHitCount() {
+		return hitCount;
+	}
+	
+	/**
+	 * @return number of {@link #get(Object)} and {@link #getIfPresent(Object)} calls that didn't find a valid entry
+	 */
+	public synchronized long getMissCount() {
+		return missCount;
+	}
+	
+	/**
+	 * @return ratio of hits among all reads, 1 if cache was never read
+	 */
+	public synchronized double getHitRate() {
+		long requestCount = hitCount + missCount;
+		return requestCount == 0 ? 1 : (double) hitCount / requestCount;
+	}
+	
+	/**
+	 * @return number of entries removed because cache exceeded its maximum weight
+	 */
+	public synchronized long getEvictionCount() {
+		return evictionCount;
+	}
+	
+	/**
+	 * @return number of entries removed because they expired
+	 */
+	public synchronized long getExpirationCount() {
+		return expirationCount;
+	}
+	
+	@Override
+	public synchronized String toString() {
+		return "size=" + entries.size()
+				+ ", weight=" + totalWeight + "/" + maximumWeight
+				+ ", hits=" + hitCount
+				+ ", misses=" + missCount
+				+ ", evictions=" + evictionCount
+				+ ", expirations=" + expirationCount;
+	}
+	
+	/**
+	 * Algorithms that choose entries to be evicted
+	 */
+	public enum EvictionPolicy {
+		/** Evicts least recently used entry, best for workloads where recent entries are the most likely to be read again */
+		LRU {
+			@Override
+			<K, V> Policy<K, V> newPolicy(long maximumWeight) {
+				return new LruPolicy<>();
+			}
+		},
+		/**
+		 * Evicts least frequently used entry (least recently used one among them), best for stable popularity, but entries that were
+		 * popular in the past are hardly evicted
+		 */
+		LFU {
+			@Override
+			<K, V> Policy<K, V> newPolicy(long maximumWeight) {
+				return new LfuPolicy<>();
+			}
+		},
+		/**
+		 * Window TinyLFU : new entries enter a small LRU window, then they are admitted in main space, a segmented LRU, only if they are
+		 * more frequent than the entry they would evict, frequencies being estimated by an aging count-min sketch. Resists to scans and
+		 * adapts to popularity changes, good default for unknown workloads.
+		 */
+		TINY_LFU {
+			@Override
+			<K, V> Policy<K, V> newPolicy(long maximumWeight) {
+				return new TinyLfuPolicy<>(maximumWeight);
+			}
+		};
+		
+		abstract <K, V> Policy<K, V> newPolicy(long maximumWeight);
+	}
+	
+	/**
+	 * Reasons of removal of an entry
+	 */
+	public enum RemovalCause {
+		/** Removed by {@link #remove(Object)} or {@link #clear()} */
+		EXPLICIT,
+		/** Value was replaced by {@link #put(Object, Object)} */
+		REPLACED,
+		/** Evicted because cache exceeded its maximum weight */
+		SIZE,
+		/** Expired after write or after access */
+		EXPIRED
+	}
+	
+	/**
+	 * Listener of entries leaving the cache
+	 *
+	 * @param <K> key type
+	 * @param <V> value type
+	 */
+	@FunctionalInterface
+	public interface RemovalListener<K, V> {
+		
+		void onRemoval(K key, V value, RemovalCause cause);
+	}
+	
+	/**
+	 * Cache entry, also node of the {@link EntryQueue} it belongs to
+	 */
+	private static class Entry<K, V> {
+		
+		private final K key;
+		private V value;
+		private int weight;
+		private long writeNanos;
+		private long accessNanos;
+		
+		private Entry<K, V> previous;
+		private Entry<K, V> next;
+		/** Queue containing this entry */
+		private EntryQueue<K, V> queue;
+		
+		private Entry(K key, V value, int weight, long now) {
+			this.key = key;
+			this.value = value;
+			this.weight = weight;
+			this.writeNanos = now;
+			this.accessNanos = now;
+		}
+	}
+	
+	/**
+	 * Doubly-linked list of entries, from least to most recently added, which tracks their total weight
+	 */
+	private static class EntryQueue<K, V> {
+		
+		private Entry<K, V> head;
+		private Entry<K, V> tail;
+		private long weight;
+		
+		boolean isEmpty() {
+			return head == null;
+		}
+		
+		Entry<K, V> first() {
+			return head;
+		}
+		
+		void addLast(Entry<K, V> entry) {
+			entry.queue = this;
+			entry.previous = tail;
+			entry.next = null;
+			if (tail == null) {
+				head = entry;
+			} else {
+				tail.next = entry;
+			}
+			tail = entry;
+			weight += entry.weight;
+		}
+		
+		void remove(Entry<K, V> entry) {
+			if (entry.previous == null) {
+				head = entry.next;
+			} else {
+				entry.previous.next = entry.next;
+			}
+			if (entry.next == null) {
+				tail = entry.previous;
+			} else {
+				entry.next.previous = entry.previous;
+			}
+			entry.previous = null;
+			entry.next = null;
+			entry.queue = null;
+			weight -= entry.weight;
+		}
+		
+		void moveToEnd(Entry<K, V> entry) {
+			if (entry != tail) {
+				remove(entry);
+				addLast(entry);
+			}
+		}
+	}
+	
+	/**
+	 * Bookkeeping of an {@link EvictionPolicy}
+	 */
+	private interface Policy<K, V> {
+		
+		void onInsert(Entry<K, V> entry);
+		
+		void onAccess(Entry<K, V> entry);
+		
+		void onRemove(Entry<K, V> entry);
+		
+		/**
+		 * @return the entry to be evicted, not removed yet, {@link #onRemove(Entry)} will be called for it
+		 */
+		Entry<K, V> victim();
+	}
+	
+	private static class LruPolicy<K, V> implements Policy<K, V> {
+		
+		private final EntryQueue<K, V> queue = new EntryQueue<>();
+		
+		@Override
+		public void onInsert(Entry<K, V> entry) {
+			queue.addLast(entry);
+		}
+		
+		@Override
+		public void onAccess(Entry<K, V> entry) {
+			queue.moveToEnd(entry);
+		}
+		
+		@Override
+		public void onRemove(Entry<K, V> entry) {
+			queue.remove(entry);
+		}
+		
+		@Override
+		public Entry<K, V> victim() {
+			return queue.first();
+		}
+	}
+	
+	/**
+	 * Constant time LFU : entries are in queues of same access count, themselves linked by increasing count, so that an access moves an entry
+	 * to next queue, and victim is the first entry of the first queue
+	 */
+	private static class LfuPolicy<K, V> implements Policy<K, V> {
+		
+		private FrequencyQueue<K, V> lowest;
+		
+		@Override
+		public void onInsert(Entry<K, V> entry) {
+			if (lowest == null || lowest.frequency != 1) {
+				lowest = insertAfter(null, 1);
+			}
+			lowest.addLast(entry);
+		}
+		
+		@Override
+		public void onAccess(Entry<K, V> entry) {
+			FrequencyQueue<K, V> queue = (FrequencyQueue<K, V>) entry.queue;
+			FrequencyQueue<K, V> nextQueue = queue.nextQueue;
+			if (nextQueue == null || nextQueue.frequency != queue.frequency + 1) {
+				nextQueue = insertAfter(queue, queue.frequency + 1);
+			}
+			queue.remove(entry);
+			nextQueue.addLast(entry);
+			unlinkIfEmpty(queue);
+		}
+		
+		@Override
+		public void onRemove(Entry<K, V> entry) {
+			FrequencyQueue<K, V> queue = (FrequencyQueue<K, V>) entry.queue;
+			queue.remove(entry);
+			unlinkIfEmpty(queue);
+		}
+		
+		@Override
+		public Entry<K, V> victim() {
+			return lowest.first();
+		}
+		
+		/**
+		 * @param previous queue after which the new one is inserted, null to insert it first
+		 */
+		private FrequencyQueue<K, V> insertAfter(FrequencyQueue<K, V> previous, int frequency) {
+			FrequencyQueue<K, V> result = new FrequencyQueue<>(frequency);
+			result.previousQueue = previous;
+			result.nextQueue = previous == null ? lowest : previous.nextQueue;
+			if (result.nextQueue != null) {
+				result.nextQueue.previousQueue = result;
+			}
+			if (previous != null) {
+				previous.nextQueue = result;
+			}
+			return result;
+		}
+		
+		private void unlinkIfEmpty(FrequencyQueue<K, V> queue) {
+			if (queue.isEmpty()) {
+				if (queue.previousQueue == null) {
+					lowest = queue.nextQueue;
+				} else {
+					queue.previousQueue.nextQueue = queue.nextQueue;
+				}
+				if (queue.nextQueue != null) {
+					queue.nextQueue.previousQueue = queue.previousQueue;
+				}
+			}
+		}
+		
+		private static class FrequencyQueue<K, V> extends EntryQueue<K, V> {
+			
+			private final int frequency;
+			private FrequencyQueue<K, V> previousQueue;
+			private FrequencyQueue<K, V> nextQueue;
+			
+			private FrequencyQueue(int frequency) {
+				this.frequency = frequency;
+			}
+		}
+	}
+	
+	/**
+	 * Window TinyLFU : 1% of the weight for the admission window, then main space is a segmented LRU, 80% of it being for entries that were
+	 * accessed at least twice (protected segment), the remaining for entries on probation
+	 */
+	private static class TinyLfuPolicy<K, V> implements Policy<K, V> {
+		
+		private final EntryQueue<K, V> window = new EntryQueue<>();
+		private final EntryQueue<K, V> probation = new EntryQueue<>();
+		private final EntryQueue<K, V> protectedSegment = new EntryQueue<>();
+		private final long windowMaximum;
+		private final long protectedMaximum;
+		private final FrequencySketch sketch;
+		
+		private TinyLfuPolicy(long maximumWeight) {
+			this.windowMaximum = Math.max(1, maximumWeight / 100);
+			this.protectedMaximum = (maximumWeight - windowMaximum) * 4 / 5;
+			this.sketch = new FrequencySketch(maximumWeight);
+		}
+		
+		@Override
+		public void onInsert(Entry<K, V> entry) {
+			sketch.increment(entry.key);
+			window.addLast(entry);
+		}
+		
+		@Override
+		public void onAccess(Entry<K, V> entry) {
+			sketch.increment(entry.key);
+			if (entry.queue == probation) {
+				probation.remove(entry);
+				protectedSegment.addLast(entry);
+				// demoting least recently used protected entries
+				while (protectedSegment.weight > protectedMaximum && protectedSegment.first() != entry) {
+					Entry<K, V> demoted = protectedSegment.first();
+					protectedSegment.remove(demoted);
+					probation.addLast(demoted);
+				}
+			} else {
+				entry.queue.moveToEnd(entry);
+			}
+		}
+		
+		@Override
+		public void onRemove(Entry<K, V> entry) {
+			entry.queue.remove(entry);
+		}
+		
+		/**
+		 * Moves entries exceeding window size to probation segment, then the last of them (the candidate) competes with the first entry
+		 * of probation : the less frequent one is evicted.
+		 */
+		@Override
+		public Entry<K, V> victim() {
+			Entry<K, V> candidate = null;
+			while (window.weight > windowMaximum) {
+				candidate = window.first();
+				window.remove(candidate);
+				probation.addLast(candidate);
+			}
+			Entry<K, V> victim = !probation.isEmpty() ? probation.first()
+					: (!protectedSegment.isEmpty() ? protectedSegment.first() : window.first());
+			if (candidate == null || candidate == victim) {
+				return victim;
+			}
+			// on equality candidate is rejected since victim has been here for a longer time
+			return sketch.frequency(candidate.key) > sketch.frequency(victim.key) ? victim : candidate;
+		}
+	}
+	
+	/**
+	 * Count-min sketch of 4 rows of 4-bit counters (stored in bytes), giving an over-estimation of key frequencies in little memory.
+	 * Counters are halved when the number of increments reaches 10 times the expected number of entries, so that old popularity fades.
+	 */
+	private static class FrequencySketch {
+		
+		private static final int DEPTH = 4;
+		private static final int MAX_COUNTER = 15;
+		private static final int[] SEEDS = { 0x9E3779B9, 0x85EBCA6B, 0xC2B2AE35, 0x27D4EB2F };
+		private static final int MAX_WIDTH = 1 << 20;
+		
+		private final byte[] counters;
+		private final int mask;
+		private final int sampleSize;
+		private int additionCount;
+		
+		private FrequencySketch(long expectedSize) {
+			int cappedSize = (int) Math.max(16, Math.min(MAX_WIDTH / 8, expectedSize));
+			// 8 counters per expected entry in each row limits over-estimation due to collisions
+			int width = Integer.highestOneBit(cappedSize * 8 - 1) << 1;
+			this.counters = new byte[DEPTH * width];
+			this.mask = width - 1;
+			this.sampleSize = 10 * cappedSize;
+		}
+		
+		private int index(int hash, int row) {
+			int h = (hash ^ SEEDS[row]) * SEEDS[row];
+			h ^= h >>> 16;
+			return row * (mask + 1) + (h & mask);
+		}
+		
+		private void increment(Object key) {
+			int hash = key.hashCode();
+			boolean incremented = false;
+			for (int row = 0; row < DEPTH; row++) {
+				int index = index(hash, row);
+				if (counters[index] < MAX_COUNTER) {
+					counters[index]++;
+					incremented = true;
+				}
+			}
+			if (incremented && ++additionCount >= sampleSize) {
+				reset();
+			}
+		}
+		
+		private int frequency(Object key) {
+			int hash = key.hashCode();
+			int result = MAX_COUNTER;
+			for (int row = 0; row < DEPTH; row++) {
+				result = Math.min(result, counters[index(hash, row)]);
+			}
+			return result;
+		}
+		
+		private void reset() {
+			for (int i = 0; i < counters.length; i++) {
+				counters[i] >>= 1;
+			}
+			additionCount /= 2;
+		}
+	}
+}
@@ -6,8 +6,10 @@ import org.gama.lang.bean.Factory;
 
 /**
  * Specialized {@link ValueFactoryMap} for HashMap.
+ * Note that it grows without bound, prefer {@link ValueFactoryCache} when keys are unbounded.
  *
  * @author Guillaume Mary
+ * @see ValueFactoryCache
  */
 public class ValueFactoryHashMap<K, V> extends ValueFactoryMap<K, V> {
 
@@ -0,0 +1,57 @@
+package org.gama.lang.collection.primitive;
+
+/**
+ * Hash table helpers shared by open-addressing collections of this package
+ *
+ * @author Guillaume Mary
+ */
+final class Hashing {
+	
+	/** Expected number of elements of collections created without size hint */
+	static final int DEFAULT_EXPECTED_SIZE = 12;
+	
+	/** Tables are grown when filled above this ratio, which keeps linear probing sequences short */
+	static final float LOAD_FACTOR = 0.75f;
+	
+	private static final int MAX_TABLE_SIZE = 1 << 30;
+	
+	private Hashing() {
+		// utility class
+	}
+	
+	/**
+	 * Spreads bits of given key (Fibonacci hashing) so that sequential ids don't fill consecutive slots
+	 */
+	static int mix(int key) {
+		int h = key * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+	
+	static int mix(long key) {
+		long h = key * 0x9E3779B97F4A7C15L;
+		h ^= h >>> 32;
+		return (int) (h ^ (h >>> 16));
+	}
+	
+	/**
+	 * @param expectedSize number of elements to be stored without resizing
+	 * @return a power of 2 table length that can store expected size elements
+	 */
+	static int tableSize(int expectedSize) {
+		if (expectedSize < 0) {
+			throw new IllegalArgumentException("Expected size must be positive : " + expectedSize);
+		}
+		long needed = (long) Math.ceil(expectedSize / LOAD_FACTOR) + 1;
+		if (needed > MAX_TABLE_SIZE) {
+			throw new IllegalArgumentException("Expected size is too large : " + expectedSize);
+		}
+		return Math.max(2, Integer.highestOneBit((int) needed - 1) << 1);
+	}
+	
+	/**
+	 * @return maximum number of elements of a table of given length before it needs to be grown
+	 */
+	static int maxFill(int tableSize) {
+		return Math.min(tableSize - 1, (int) Math.ceil(tableSize * LOAD_FACTOR));
+	}
+}
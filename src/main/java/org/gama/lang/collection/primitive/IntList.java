@@ -0,0 +1,334 @@
+package org.gama.lang.collection.primitive;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.PrimitiveIterator;
+import java.util.RandomAccess;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * Growable array of int values, as an {@link java.util.ArrayList} of {@link Integer} but without boxing : values are stored in a single
+ * int array which is grown by half of its size when full.
+ * As any collection of this package, it is not thread-safe, and its iterators don't detect concurrent modifications.
+ *
+ * @author Guillaume Mary
+ */
+public class IntList {
+	
+	private static final int DEFAULT_CAPACITY = 10;
+	
+	private static final int[] EMPTY = new int[0];
+	
+	/**
+	 * Creates a new list containing given values
+	 *
+	 * @param values some int values
+	 * @return a new {@link IntList}
+	 */
+	public static IntList of(int... values) {
+		IntList result = new IntList(values.length);
+		result.addAll(values);
+		return result;
+	}
+	
+	/**
+	 * Creates a new list containing values of given {@link Iterable}, bridge from boxed collections
+	 *
+	 * @param values some values, must not contain null
+	 * @return a new {@link IntList}
+	 */
+	public static IntList copyOf(Iterable<? extends Integer> values) {
+		IntList result = new IntList();
+		for (Integer value : values) {
+			result.add(value);
+		}
+		return result;
+	}
+	
+	private int[] elements;
+	
+	private int size;
+	
+	/**
+	 * Creates an empty list which array will be allocated at first addition
+	 */
+	public IntList() {
+		this.elements = EMPTY;
+	}
+	
+	/**
+	 * @param initialCapacity number of values that can be added without growing internal array
+	 */
+	public IntList(int initialCapacity) {
+		if (initialCapacity < 0) {
+			throw new IllegalArgumentException("Capacity must be positive : " + initialCapacity);
+		}
+		this.elements = initialCapacity == 0 ? EMPTY : new int[initialCapacity];
+	}
+	
+	/**
+	 * Grows internal array so that it can contain given number of values
+	 *
+	 * @param minCapacity minimum expected capacity
+	 */
+	public void ensureCapacity(int minCapacity) {
+		if (minCapacity > elements.length) {
+			int newCapacity = Math.max(minCapacity, elements.length == 0 ? DEFAULT_CAPACITY : elements.length + (elements.length >> 1));
+			// avoiding overflow
+			if (newCapacity < 0) {
+				newCapacity = Integer.MAX_VALUE - 8;
+			}
+			elements = Arrays.copyOf(elements, newCapacity);
+		}
+	}
+	
+	/**
+	 * Shrinks internal array to list size
+	 */
+	public void trimToSize() {
+		if (size < elements.length) {
+			elements = size == 0 ? EMPTY : Arrays.copyOf(elements, size);
+		}
+	}
+	
+	public void add(int value) {
+		if (size == elements.length) {
+			ensureCapacity(size + 1);
+		}
+		elements[size++] = value;
+	}
+	
+	/**
+	 * Inserts a value at given index, shifting next ones to the right
+	 *
+	 * @param index insertion index, between 0 and size (included)
+	 * @param value the value to be inserted
+	 */
+	public void add(int index, int value) {
+		Objects.checkIndex(index, size + 1);
+		ensureCapacity(size + 1);
+		System.arraycopy(elements, index, elements, index + 1, size - index);
+		elements[index] = value;
+		size++;
+	}
+	
+	public void addAll(int... values) {
+		ensureCapacity(size + values.length);
+		System.arraycopy(values, 0, elements, size, values.length);
+		size += values.length;
+	}
+	
+	public void addAll(IntList values) {
+		ensureCapacity(size + values.size);
+		System.arraycopy(values.elements, 0, elements, size, values.size);
+		size += values.size;
+	}
+	
+	public int get(int index) {
+		Objects.checkIndex(index, size);
+		return elements[index];
+	}
+	
+	/**
+	 * @param index index of the value to be replaced
+	 * @param value new value
+	 * @return replaced value
+	 */
+	public int set(int index, int value) {
+		Objects.checkIndex(index, size);
+		int previous = elements[index];
+		elements[index] = value;
+		return previous;
+	}
+	
+	/**
+	 * Removes the value at given index, shifting next ones to the left
+	 *
+	 * @param index index of the value to be removed
+	 * @return removed value
+	 */
+	public int removeAt(int index) {
+		Objects.checkIndex(index, size);
+		int previous = elements[index];
+		System.arraycopy(elements, index + 1, elements, index, size - index - 1);
+		size--;
+		return previous;
+	}
+	
+	/**
+	 * @param value the searched value
+	 * @return index of first occurrence of value, -1 if absent
+	 */
+	public int indexOf(int value) {
+		for (int i = 0; i < size; i++) {
+			if (elements[i] == value) {
+				return i;
+			}
+		}
+		return -1;
+	}
+	
+	/**
+	 * @param value the searched value
+	 * @return index of last occurrence of value, -1 if absent
+	 */
+	public int lastIndexOf(int value) {
+		for (int i = size - 1; i >= 0; i--) {
+			if (elements[i] == value) {
+				return i;
+			}
+		}
+		return -1;
+	}
+	
+	public boolean contains(int value) {
+		return indexOf(value) != -1;
+	}
+	
+	public int size() {
+		return size;
+	}
+	
+	public boolean isEmpty() {
+		return size == 0;
+	}
+	
+	/**
+	 * Removes all values, keeping internal array capacity
+	 */
+	public void clear() {
+		size = 0;
+	}
+	
+	/**
+	 * Sorts values in ascending order
+	 */
+	public void sort() {
+		Arrays.sort(elements, 0, size);
+	}
+	
+	/**
+	 * @param value the searched value
+	 * @return index of value if found, else -(insertion point + 1), see {@link Arrays#binarySearch(int[], int)}, values must be sorted
+	 */
+	public int binarySearch(int value) {
+		return Arrays.binarySearch(elements, 0, size, value);
+	}
+	
+	public int[] toArray() {
+		return Arrays.copyOf(elements, size);
+	}
+	
+	public void forEach(IntConsumer action) {
+		for (int i = 0; i < size; i++) {
+			action.accept(elements[i]);
+		}
+	}
+	
+	/**
+	 * @return an iterator over values of this list, without boxing as long as {@link PrimitiveIterator.OfInt#nextInt()} is used
+	 */
+	public PrimitiveIterator.OfInt iterator() {
+		return new PrimitiveIterator.OfInt() {
+			
+			private int nextIndex = 0;
+			
+			@Override
+			public boolean hasNext() {
+				return nextIndex < size;
+			}
+			
+			@Override
+			public int nextInt() {
+				if (nextIndex >= size) {
+					throw new NoSuchElementException();
+				}
+				return elements[nextIndex++];
+			}
+		};
+	}
+	
+	public IntStream stream() {
+		return Arrays.stream(elements, 0, size);
+	}
+	
+	/**
+	 * Gives a boxing {@link List} view of this list, to be used with {@link org.gama.lang.collection.Iterables} methods or any API expecting a
+	 * {@link List}. Modifications of the view are reflected in this list and vice versa.
+	 *
+	 * @return a modifiable {@link List} backed by this list, which doesn't support null values
+	 */
+	public List<Integer> asList() {
+		return new BoxedView();
+	}
+	
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (!(o instanceof IntList)) {
+			return false;
+		}
+		IntList other = (IntList) o;
+		return size == other.size && Arrays.equals(elements, 0, size, other.elements, 0, size);
+	}
+	
+	/**
+	 * @return same hash code as a {@link List} of same boxed values
+	 */
+	@Override
+	public int hashCode() {
+		int result = 1;
+		for (int i = 0; i < size; i++) {
+			result = 31 * result + Integer.hashCode(elements[i]);
+		}
+		return result;
+	}
+	
+	@Override
+	public String toString() {
+		return Arrays.toString(toArray());
+	}
+	
+	private class BoxedView extends AbstractList<Integer> implements RandomAccess {
+		
+		@Override
+		public Integer get(int index) {
+			return IntList.this.get(index);
+		}
+		
+		@Override
+		public Integer set(int index, Integer element) {
+			return IntList.this.set(index, element);
+		}
+		
+		@Override
+		public void add(int index, Integer element) {
+			IntList.this.add(index, element);
+			modCount++;
+		}
+		
+		@Override
+		public Integer remove(int index) {
+			Integer removed = removeAt(index);
+			modCount++;
+			return removed;
+		}
+		
+		@Override
+		public void clear() {
+			IntList.this.clear();
+			modCount++;
+		}
+		
+		@Override
+		public int size() {
+			return size;
+		}
+	}
+}
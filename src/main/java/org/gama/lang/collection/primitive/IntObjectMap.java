@@ -0,0 +1,420 @@
+package org.gama.lang.collection.primitive;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+import org.gama.lang.collection.ReadOnlyIterator;
+
+/**
+ * Map of int keys to objects which doesn't box keys : keys and values are stored in 2 parallel arrays with open addressing and linear
+ * probing, removal shifts following entries back instead of leaving tombstones. Compared to a {@link HashMap} of {@link Integer}, it saves a key
+ * object and a node per entry, which is valuable for large id-to-entity indexes.
+ * Null values are supported, hence {@link #get(int)} can't tell a null value from a missing key, use {@link #containsKey(int)} for that.
+ * As any collection of this package, it is not thread-safe, and its iterators don't detect concurrent modifications.
+ *
+ * @param <V> value type
+ * @author Guillaume Mary
+ * @see IntSet
+ */
+public class IntObjectMap<V> {
+	
+	/** Marks free slots of the table, hence entry of this key is stored aside */
+	private static final int FREE = 0;
+	
+	/**
+	 * Creates a new map containing entries of given {@link Map}, bridge from boxed collections
+	 *
+	 * @param map a {@link Map} without null key
+	 * @param <V> value type
+	 * @return a new {@link IntObjectMap}
+	 */
+	public static <V> IntObjectMap<V> copyOf(Map<? extends Integer, ? extends V> map) {
+		IntObjectMap<V> result = new IntObjectMap<>(map.size());
+		map.forEach(result::put);
+		return result;
+	}
+	
+	private int[] keys;
+	
+	private V[] values;
+	
+	private int mask;
+	
+	private int maxFill;
+	
+	/** Number of entries in the table, the free key one excluded */
+	private int tableCount;
+	
+	private boolean containsFreeKey;
+	
+	private V freeKeyValue;
+	
+	public IntObjectMap() {
+		this(Hashing.DEFAULT_EXPECTED_SIZE);
+	}
+	
+	/**
+	 * @param expectedSize number of entries that can be added without growing internal tables
+	 */
+	public IntObjectMap(int expectedSize) {
+		allocate(Hashing.tableSize(expectedSize));
+	}
+	
+	@SuppressWarnings("unchecked")
+	private void allocate(int tableSize) {
+		this.keys = new int[tableSize];
+		this.values = (V[]) new Object[tableSize];
+		this.mask = tableSize - 1;
+		this.maxFill = Hashing.maxFill(tableSize);
+	}
+	
+	/**
+	 * Gives position of given key in the table
+	 *
+	 * @param key any key but the free one
+	 * @return position of the key if present, else -(insertion position + 1)
+	 */
+	private int find(int key) {
+		int position = Hashing.mix(key) & mask;
+		int current;
+		while ((current = keys[position]) != FREE) {
+			if (current == key) {
+				return position;
+			}
+			position = (position + 1) & mask;
+		}
+		return -(position + 1);
+	}
+	
+	private void insert(int position, int key, V value) {
+		keys[position] = key;
+		values[position] = value;
+		if (++tableCount >= maxFill) {
+			rehash(keys.length * 2);
+		}
+	}
+	
+	/**
+	 * @param key any int
+	 * @param value any value, may be null
+	 * @return previous value associated with key, null if there was none
+	 */
+	public V put(int key, V value) {
+		if (key == FREE) {
+			V previous = freeKeyValue;
+			containsFreeKey = true;
+			freeKeyValue = value;
+			return previous;
+		}
+		int position = find(key);
+		if (position >= 0) {
+			V previous = values[position];
+			values[position] = value;
+			return previous;
+		} else {
+			insert(-position - 1, key, value);
+			return null;
+		}
+	}
+	
+	/**
+	 * @param key any int
+	 * @return value associated with key, null if there's none
+	 */
+	public V get(int key) {
+		return getOrDefault(key, null);
+	}
+	
+	public V getOrDefault(int key, V defaultValue) {
+		if (key == FREE) {
+			return containsFreeKey ? freeKeyValue : defaultValue;
+		}
+		int position = find(key);
+		return position >= 0 ? values[position] : defaultValue;
+	}
+	
+	public boolean containsKey(int key) {
+		return key == FREE ? containsFreeKey : find(key) >= 0;
+	}
+	
+	/**
+	 * Gives value associated with a key, or computes and adds it if key is missing
+	 *
+	 * @param key any int
+	 * @param factory invoked with key if it is missing, must not modify this map, a null result is not added
+	 * @return existing or computed value
+	 */
+	public V computeIfAbsent(int key, IntFunction<? extends V> factory) {
+		if (key == FREE) {
+			if (!containsFreeKey) {
+				V value = factory.apply(key);
+				if (value != null) {
+					put(key, value);
+				}
+				return value;
+			}
+			return freeKeyValue;
+		}
+		int position = find(key);
+		if (position >= 0) {
+			return values[position];
+		} else {
+			V value = factory.apply(key);
+			if (value != null) {
+				insert(-position - 1, key, value);
+			}
+			return value;
+		}
+	}
+	
+	/**
+	 * @param key any int
+	 * @return value associated with removed key, null if key was missing
+	 */
+	public V remove(int key) {
+		if (key == FREE) {
+			V previous = freeKeyValue;
+			containsFreeKey = false;
+			freeKeyValue = null;
+			return previous;
+		}
+		int position = find(key);
+		if (position < 0) {
+			return null;
+		}
+		V previous = values[position];
+		tableCount--;
+		shiftKeys(position);
+		return previous;
+	}
+	
+	/**
+	 * Fills the slot freed at given position by moving back next entries of the probing sequence that can take it, so that lookups
+	 * don't stop too early
+	 */
+	private void shiftKeys(int position) {
+		int last;
+		int current;
+		while (true) {
+			last = position;
+			position = (position + 1) & mask;
+			while (true) {
+				if ((current = keys[position]) == FREE) {
+					keys[last] = FREE;
+					values[last] = null;
+					return;
+				}
+				int slot = Hashing.mix(current) & mask;
+				// entry can be moved to last slot if its ideal slot is not between last (excluded) and current position (included)
+				if (last <= position ? (last >= slot || slot > position) : (last >= slot && slot > position)) {
+					break;
+				}
+				position = (position + 1) & mask;
+			}
+			keys[last] = current;
+			values[last] = values[position];
+		}
+	}
+	
+	private void rehash(int tableSize) {
+		int[] oldKeys = keys;
+		V[] oldValues = values;
+		allocate(tableSize);
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldKeys[i] != FREE) {
+				int position = Hashing.mix(oldKeys[i]) & mask;
+				while (keys[position] != FREE) {
+					position = (position + 1) & mask;
+				}
+				keys[position] = oldKeys[i];
+				values[position] = oldValues[i];
+			}
+		}
+	}
+	
+	public int size() {
+		return tableCount + (containsFreeKey ? 1 : 0);
+	}
+	
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+	
+	/**
+	 * Removes all entries, keeping internal tables capacity
+	 */
+	public void clear() {
+		Arrays.fill(keys, FREE);
+		Arrays.fill(values, null);
+		tableCount = 0;
+		containsFreeKey = false;
+		freeKeyValue = null;
+	}
+	
+	/**
+	 * Iterates over entries without boxing keys
+	 *
+	 * @param action invoked for each entry, in no particular order
+	 */
+	public void forEach(EntryConsumer<? super V> action) {
+		for (int i = 0; i < keys.length; i++) {
+			if (keys[i] != FREE) {
+				action.accept(keys[i], values[i]);
+			}
+		}
+		if (containsFreeKey) {
+			action.accept(FREE, freeKeyValue);
+		}
+	}
+	
+	/**
+	 * @return an iterator over keys of this map, in no particular order, without boxing as long as {@link PrimitiveIterator.OfInt#nextInt()} is used
+	 */
+	public PrimitiveIterator.OfInt keyIterator() {
+		return new KeyIterator();
+	}
+	
+	public IntStream keyStream() {
+		return StreamSupport.intStream(Spliterators.spliterator(keyIterator(), size(), Spliterator.DISTINCT | Spliterator.NONNULL), false);
+	}
+	
+	/**
+	 * @return a view over values of this map, in same order as {@link #keyIterator()}, to be used with
+	 * {@link org.gama.lang.collection.Iterables} methods or for-each loops
+	 */
+	public Iterable<V> values() {
+		return () -> new ReadOnlyIterator<V>() {
+			
+			private final KeyIterator keyIterator = new KeyIterator();
+			
+			@Override
+			public boolean hasNext() {
+				return keyIterator.hasNext();
+			}
+			
+			@Override
+			public V next() {
+				keyIterator.nextInt();
+				return keyIterator.currentValue();
+			}
+		};
+	}
+	
+	/**
+	 * @return a new {@link HashMap} containing entries of this map, bridge to boxed collections
+	 */
+	public Map<Integer, V> toMap() {
+		Map<Integer, V> result = new HashMap<>(size() * 4 / 3 + 1);
+		forEach(result::put);
+		return result;
+	}
+	
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (!(o instanceof IntObjectMap)) {
+			return false;
+		}
+		IntObjectMap<?> other = (IntObjectMap<?>) o;
+		if (other.size() != size()) {
+			return false;
+		}
+		if (containsFreeKey && !(other.containsFreeKey && Objects.equals(freeKeyValue, other.freeKeyValue))) {
+			return false;
+		}
+		for (int i = 0; i < keys.length; i++) {
+			if (keys[i] != FREE) {
+				int otherPosition = other.find(keys[i]);
+				if (otherPosition < 0 || !Objects.equals(values[i], other.values[otherPosition])) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 * @return sum of entry hash codes, as {@link Map#hashCode()} so that it doesn't depend on table layout
+	 */
+	@Override
+	public int hashCode() {
+		int result = containsFreeKey ? Objects.hashCode(freeKeyValue) : 0;
+		for (int i = 0; i < keys.length; i++) {
+			if (keys[i] != FREE) {
+				result += Integer.hashCode(keys[i]) ^ Objects.hashCode(values[i]);
+			}
+		}
+		return result;
+	}
+	
+	@Override
+	public String toString() {
+		StringBuilder result = new StringBuilder("{");
+		forEach((key, value) -> result.append(result.length() == 1 ? "" : ", ").append(key).append('=').append(value));
+		return result.append("}").toString();
+	}
+	
+	/**
+	 * Consumer of map entries, to iterate over them without boxing keys
+	 *
+	 * @param <V> value type
+	 */
+	@FunctionalInterface
+	public interface EntryConsumer<V> {
+		
+		void accept(int key, V value);
+	}
+	
+	private class KeyIterator implements PrimitiveIterator.OfInt {
+		
+		/** Tables at iterator creation, in case of rehash */
+		private final int[] iteratedKeys = keys;
+		private final V[] iteratedValues = values;
+		private int nextPosition = seek(0);
+		private boolean freeKeyPending = containsFreeKey;
+		/** Position of last given key, -1 for the free one */
+		private int currentPosition;
+		
+		private int seek(int position) {
+			while (position < iteratedKeys.length && iteratedKeys[position] == FREE) {
+				position++;
+			}
+			return position;
+		}
+		
+		@Override
+		public boolean hasNext() {
+			return nextPosition < iteratedKeys.length || freeKeyPending;
+		}
+		
+		@Override
+		public int nextInt() {
+			if (nextPosition < iteratedKeys.length) {
+				currentPosition = nextPosition;
+				nextPosition = seek(nextPosition + 1);
+				return iteratedKeys[currentPosition];
+			} else if (freeKeyPending) {
+				freeKeyPending = false;
+				currentPosition = -1;
+				return FREE;
+			} else {
+				throw new NoSuchElementException();
+			}
+		}
+		
+		private V currentValue() {
+			return currentPosition == -1 ? freeKeyValue : iteratedValues[currentPosition];
+		}
+	}
+}
@@ -0,0 +1,332 @@
+package org.gama.lang.collection.primitive;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Set of int values which doesn't box them : values are stored in a single array with open addressing and linear probing, removal shifts
+ * following values back instead of leaving tombstones. Compared to a {@link java.util.HashSet} of {@link Integer}, it saves an object per value
+ * and a node per entry, and gives better memory locality.
+ * As any collection of this package, it is not thread-safe, and its iterators don't detect concurrent modifications.
+ *
+ * @author Guillaume Mary
+ * @see IntObjectMap
+ */
+public class IntSet {
+	
+	/** Marks free slots of the table, hence this value is stored aside */
+	private static final int FREE = 0;
+	
+	/**
+	 * Creates a new set containing given values
+	 *
+	 * @param values some int values, duplicates are ignored
+	 * @return a new {@link IntSet}
+	 */
+	public static IntSet of(int... values) {
+		IntSet result = new IntSet(values.length);
+		for (int value : values) {
+			result.add(value);
+		}
+		return result;
+	}
+	
+	/**
+	 * Creates a new set containing values of given {@link Iterable}, bridge from boxed collections
+	 *
+	 * @param values some values, must not contain null
+	 * @return a new {@link IntSet}
+	 */
+	public static IntSet copyOf(Iterable<? extends Integer> values) {
+		IntSet result = new IntSet();
+		for (Integer value : values) {
+			result.add(value);
+		}
+		return result;
+	}
+	
+	private int[] keys;
+	
+	private int mask;
+	
+	private int maxFill;
+	
+	/** Number of values in the table, the free value excluded */
+	private int tableCount;
+	
+	private boolean containsFree;
+	
+	public IntSet() {
+		this(Hashing.DEFAULT_EXPECTED_SIZE);
+	}
+	
+	/**
+	 * @param expectedSize number of values that can be added without growing internal table
+	 */
+	public IntSet(int expectedSize) {
+		allocate(Hashing.tableSize(expectedSize));
+	}
+	
+	private void allocate(int tableSize) {
+		this.keys = new int[tableSize];
+		this.mask = tableSize - 1;
+		this.maxFill = Hashing.maxFill(tableSize);
+	}
+	
+	/**
+	 * @param value the value to be added
+	 * @return true if value was not already present
+	 */
+	public boolean add(int value) {
+		if (value == FREE) {
+			boolean added = !containsFree;
+			containsFree = true;
+			return added;
+		}
+		int position = Hashing.mix(value) & mask;
+		int current;
+		while ((current = keys[position]) != FREE) {
+			if (current == value) {
+				return false;
+			}
+			position = (position + 1) & mask;
+		}
+		keys[position] = value;
+		if (++tableCount >= maxFill) {
+			rehash(keys.length * 2);
+		}
+		return true;
+	}
+	
+	/**
+	 * Adds all given values
+	 *
+	 * @param values some int values
+	 * @return true if at least one value was not already present
+	 */
+	public boolean addAll(int... values) {
+		boolean modified = false;
+		for (int value : values) {
+			modified |= add(value);
+		}
+		return modified;
+	}
+	
+	public boolean contains(int value) {
+		if (value == FREE) {
+			return containsFree;
+		}
+		int position = Hashing.mix(value) & mask;
+		int current;
+		while ((current = keys[position]) != FREE) {
+			if (current == value) {
+				return true;
+			}
+			position = (position + 1) & mask;
+		}
+		return false;
+	}
+	
+	/**
+	 * @param value the value to be removed
+	 * @return true if value was present
+	 */
+	public boolean remove(int value) {
+		if (value == FREE) {
+			boolean removed = containsFree;
+			containsFree = false;
+			return removed;
+		}
+		int position = Hashing.mix(value) & mask;
+		int current;
+		while ((current = keys[position]) != FREE) {
+			if (current == value) {
+				tableCount--;
+				shiftKeys(position);
+				return true;
+			}
+			position = (position + 1) & mask;
+		}
+		return false;
+	}
+	
+	/**
+	 * Fills the slot freed at given position by moving back next values of the probing sequence that can take it, so that lookups
+	 * don't stop too early
+	 */
+	private void shiftKeys(int position) {
+		int last;
+		int current;
+		while (true) {
+			last = position;
+			position = (position + 1) & mask;
+			while (true) {
+				if ((current = keys[position]) == FREE) {
+					keys[last] = FREE;
+					return;
+				}
+				int slot = Hashing.mix(current) & mask;
+				// value can be moved to last slot if its ideal slot is not between last (excluded) and current position (included)
+				if (last <= position ? (last >= slot || slot > position) : (last >= slot && slot > position)) {
+					break;
+				}
+				position = (position + 1) & mask;
+			}
+			keys[last] = current;
+		}
+	}
+	
+	private void rehash(int tableSize) {
+		int[] oldKeys = keys;
+		allocate(tableSize);
+		for (int key : oldKeys) {
+			if (key != FREE) {
+				int position = Hashing.mix(key) & mask;
+				while (keys[position] != FREE) {
+					position = (position + 1) & mask;
+				}
+				keys[position] = key;
+			}
+		}
+	}
+	
+	public int size() {
+		return tableCount + (containsFree ? 1 : 0);
+	}
+	
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+	
+	/**
+	 * Removes all values, keeping internal table capacity
+	 */
+	public void clear() {
+		Arrays.fill(keys, FREE);
+		tableCount = 0;
+		containsFree = false;
+	}
+	
+	/**
+	 * @return an iterator over values of this set, in no particular order, without boxing as long as {@link PrimitiveIterator.OfInt#nextInt()} is used
+	 */
+	public PrimitiveIterator.OfInt iterator() {
+		return new KeyIterator();
+	}
+	
+	/**
+	 * @return a boxing view of this set, to be used with {@link org.gama.lang.collection.Iterables} methods or for-each loops
+	 */
+	public Iterable<Integer> asIterable() {
+		return this::iterator;
+	}
+	
+	public IntStream stream() {
+		return StreamSupport.intStream(Spliterators.spliterator(iterator(), size(), Spliterator.DISTINCT | Spliterator.NONNULL), false);
+	}
+	
+	public void forEach(IntConsumer action) {
+		for (int key : keys) {
+			if (key != FREE) {
+				action.accept(key);
+			}
+		}
+		if (containsFree) {
+			action.accept(FREE);
+		}
+	}
+	
+	/**
+	 * @return a new array containing values of this set, in no particular order
+	 */
+	public int[] toArray() {
+		int[] result = new int[size()];
+		int i = 0;
+		for (int key : keys) {
+			if (key != FREE) {
+				result[i++] = key;
+			}
+		}
+		// free value is already in the array thanks to default initialization
+		return result;
+	}
+	
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (!(o instanceof IntSet)) {
+			return false;
+		}
+		IntSet other = (IntSet) o;
+		if (other.size() != size() || other.containsFree != containsFree) {
+			return false;
+		}
+		for (int key : keys) {
+			if (key != FREE && !other.contains(key)) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 * @return sum of hash codes of values, as {@link java.util.Set#hashCode()} so that it doesn't depend on table layout
+	 */
+	@Override
+	public int hashCode() {
+		int result = 0;
+		for (int key : keys) {
+			result += Integer.hashCode(key);
+		}
+		return result;
+	}
+	
+	@Override
+	public String toString() {
+		StringBuilder result = new StringBuilder("[");
+		forEach(value -> result.append(result.length() == 1 ? "" : ", ").append(value));
+		return result.append("]").toString();
+	}
+	
+	private class KeyIterator implements PrimitiveIterator.OfInt {
+		
+		/** Table at iterator creation, in case of rehash */
+		private final int[] iteratedKeys = keys;
+		private int nextPosition = seek(0);
+		private boolean freePending = containsFree;
+		
+		private int seek(int position) {
+			while (position < iteratedKeys.length && iteratedKeys[position] == FREE) {
+				position++;
+			}
+			return position;
+		}
+		
+		@Override
+		public boolean hasNext() {
+			return nextPosition < iteratedKeys.length || freePending;
+		}
+		
+		@Override
+		public int nextInt() {
+			if (nextPosition < iteratedKeys.length) {
+				int result = iteratedKeys[nextPosition];
+				nextPosition = seek(nextPosition + 1);
+				return result;
+			} else if (freePending) {
+				freePending = false;
+				return FREE;
+			} else {
+				throw new NoSuchElementException();
+			}
+		}
+	}
+}
@@ -0,0 +1,334 @@
+package org.gama.lang.collection.primitive;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.PrimitiveIterator;
+import java.util.RandomAccess;
+import java.util.function.LongConsumer;
+import java.util.stream.LongStream;
+
+/**
+ * Growable array of long values, as an {@link java.util.ArrayList} of {@link Long} but without boxing : values are stored in a single
+ * long array which is grown by half of its size when full.
+ * As any collection of this package, it is not thread-safe, and its iterators don't detect concurrent modifications.
+ *
+ * @author Guillaume Mary
+ */
+public class LongList {
+	
+	private static final int DEFAULT_CAPACITY = 10;
+	
+	private static final long[] EMPTY = new long[0];
+	
+	/**
+	 * Creates a new list containing given values
+	 *
+	 * @param values some long values
+	 * @return a new {@link LongList}
+	 */
+	public static LongList of(long... values) {
+		LongList result = new LongList(values.length);
+		result.addAll(values);
+		return result;
+	}
+	
+	/**
+	 * Creates a new list containing values of given {@link Iterable}, bridge from boxed collections
+	 *
+	 * @param values some values, must not contain null
+	 * @return a new {@link LongList}
+	 */
+	public static LongList copyOf(Iterable<? extends Long> values) {
+		LongList result = new LongList();
+		for (Long value : values) {
+			result.add(value);
+		}
+		return result;
+	}
+	
+	private long[] elements;
+	
+	private int size;
+	
+	/**
+	 * Creates an empty list which array will be allocated at first addition
+	 */
+	public LongList() {
+		this.elements = EMPTY;
+	}
+	
+	/**
+	 * @param initialCapacity number of values that can be added without growing internal array
+	 */
+	public LongList(int initialCapacity) {
+		if (initialCapacity < 0) {
+			throw new IllegalArgumentException("Capacity must be positive : " + initialCapacity);
+		}
+		this.elements = initialCapacity == 0 ? EMPTY : new long[initialCapacity];
+	}
+	
+	/**
+	 * Grows internal array so that it can contain given number of values
+	 *
+	 * @param minCapacity minimum expected capacity
+	 */
+	public void ensureCapacity(int minCapacity) {
+		if (minCapacity > elements.length) {
+			int newCapacity = Math.max(minCapacity, elements.length == 0 ? DEFAULT_CAPACITY : elements.length + (elements.length >> 1));
+			// avoiding overflow
+			if (newCapacity < 0) {
+				newCapacity = Integer.MAX_VALUE - 8;
+			}
+			elements = Arrays.copyOf(elements, newCapacity);
+		}
+	}
+	
+	/**
+	 * Shrinks internal array to list size
+	 */
+	public void trimToSize() {
+		if (size < elements.length) {
+			elements = size == 0 ? EMPTY : Arrays.copyOf(elements, size);
+		}
+	}
+	
+	public void add(long value) {
+		if (size == elements.length) {
+			ensureCapacity(size + 1);
+		}
+		elements[size++] = value;
+	}
+	
+	/**
+	 * Inserts a value at given index, shifting next ones to the right
+	 *
+	 * @param index insertion index, between 0 and size (included)
+	 * @param value the value to be inserted
+	 */
+	public void add(int index, long value) {
+		Objects.checkIndex(index, size + 1);
+		ensureCapacity(size + 1);
+		System.arraycopy(elements, index, elements, index + 1, size - index);
+		elements[index] = value;
+		size++;
+	}
+	
+	public void addAll(long... values) {
+		ensureCapacity(size + values.length);
+		System.arraycopy(values, 0, elements, size, values.length);
+		size += values.length;
+	}
+	
+	public void addAll(LongList values) {
+		ensureCapacity(size + values.size);
+		System.arraycopy(values.elements, 0, elements, size, values.size);
+		size += values.size;
+	}
+	
+	public long get(int index) {
+		Objects.checkIndex(index, size);
+		return elements[index];
+	}
+	
+	/**
+	 * @param index index of the value to be replaced
+	 * @param value new value
+	 * @return replaced value
+	 */
+	public long set(int index, long value) {
+		Objects.checkIndex(index, size);
+		long previous = elements[index];
+		elements[index] = value;
+		return previous;
+	}
+	
+	/**
+	 * Removes the value at given index, shifting next ones to the left
+	 *
+	 * @param index index of the value to be removed
+	 * @return removed value
+	 */
+	public long removeAt(int index) {
+		Objects.checkIndex(index, size);
+		long previous = elements[index];
+		System.arraycopy(elements, index + 1, elements, index, size - index - 1);
+		size--;
+		return previous;
+	}
+	
+	/**
+	 * @param value the searched value
+	 * @return index of first occurrence of value, -1 if absent
+	 */
+	public int indexOf(long value) {
+		for (int i = 0; i < size; i++) {
+			if (elements[i] == value) {
+				return i;
+			}
+		}
+		return -1;
+	}
+	
+	/**
+	 * @param value the searched value
+	 * @return index of last occurrence of value, -1 if absent
+	 */
+	public int lastIndexOf(long value) {
+		for (int i = size - 1; i >= 0; i--) {
+			if (elements[i] == value) {
+				return i;
+			}
+		}
+		return -1;
+	}
+	
+	public boolean contains(long value) {
+		return indexOf(value) != -1;
+	}
+	
+	public int size() {
+		return size;
+	}
+	
+	public boolean isEmpty() {
+		return size == 0;
+	}
+	
+	/**
+	 * Removes all values, keeping internal array capacity
+	 */
+	public void clear() {
+		size = 0;
+	}
+	
+	/**
+	 * Sorts values in ascending order
+	 */
+	public void sort() {
+		Arrays.sort(elements, 0, size);
+	}
+	
+	/**
+	 * @param value the searched value
+	 * @return index of value if found, else -(insertion point + 1), see {@link Arrays#binarySearch(long[], long)}, values must be sorted
+	 */
+	public int binarySearch(long value) {
+		return Arrays.binarySearch(elements, 0, size, value);
+	}
+	
+	public long[] toArray() {
+		return Arrays.copyOf(elements, size);
+	}
+	
+	public void forEach(LongConsumer action) {
+		for (int i = 0; i < size; i++) {
+			action.accept(elements[i]);
+		}
+	}
+	
+	/**
+	 * @return an iterator over values of this list, without boxing as long as {@link PrimitiveIterator.OfLong#nextLong()} is used
+	 */
+	public PrimitiveIterator.OfLong iterator() {
+		return new PrimitiveIterator.OfLong() {
+			
+			private int nextIndex = 0;
+			
+			@Override
+			public boolean hasNext() {
+				return nextIndex < size;
+			}
+			
+			@Override
+			public long nextLong() {
+				if (nextIndex >= size) {
+					throw new NoSuchElementException();
+				}
+				return elements[nextIndex++];
+			}
+		};
+	}
+	
+	public LongStream stream() {
+		return Arrays.stream(elements, 0, size);
+	}
+	
+	/**
+	 * Gives a boxing {@link List} view of this list, to be used with {@link org.gama.lang.collection.Iterables} methods or any API expecting a
+	 * {@link List}. Modifications of the view are reflected in this list and vice versa.
+	 *
+	 * @return a modifiable {@link List} backed by this list, which doesn't support null values
+	 */
+	public List<Long> asList() {
+		return new BoxedView();
+	}
+	
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (!(o instanceof LongList)) {
+			return false;
+		}
+		LongList other = (LongList) o;
+		return size == other.size && Arrays.equals(elements, 0, size, other.elements, 0, size);
+	}
+	
+	/**
+	 * @return same hash code as a {@link List} of same boxed values
+	 */
+	@Override
+	public int hashCode() {
+		int result = 1;
+		for (int i = 0; i < size; i++) {
+			result = 31 * result + Long.hashCode(elements[i]);
+		}
+		return result;
+	}
+	
+	@Override
+	public String toString() {
+		return Arrays.toString(toArray());
+	}
+	
+	private class BoxedView extends AbstractList<Long> implements RandomAccess {
+		
+		@Override
+		public Long get(int index) {
+			return LongList.this.get(index);
+		}
+		
+		@Override
+		public Long set(int index, Long element) {
+			return LongList.this.set(index, element);
+		}
+		
+		@Override
+		public void add(int index, Long element) {
+			LongList.this.add(index, element);
+			modCount++;
+		}
+		
+		@Override
+		public Long remove(int index) {
+			Long removed = removeAt(index);
+			modCount++;
+			return removed;
+		}
+		
+		@Override
+		public void clear() {
+			LongList.this.clear();
+			modCount++;
+		}
+		
+		@Override
+		public int size() {
+			return size;
+		}
+	}
+}
@@ -1,18 +1,51 @@
 package org.gama.lang.function;
 
+import javax.annotation.Nullable;
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
 
 import org.gama.lang.Reflections;
+import org.gama.lang.Reflections.InvokationRuntimeException;
 
 /**
  * @author Guillaume Mary
  */
 public class Functions {
 	
+	/** Lookup used to generate lambdas of {@link #toFunction(Method)} and {@link #toBiConsumer(Method)} */
+	private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+	
+	/**
+	 * {@link Function}s given by {@link #toFunction(Method)}, since generating them defines a class each time. Stored per declaring class to
+	 * not prevent class unloading.
+	 */
+	private static final ClassValue<Map<Method, Function>> FUNCTIONS = new ClassValue<Map<Method, Function>>() {
+		@Override
+		protected Map<Method, Function> computeValue(Class<?> type) {
+			return new ConcurrentHashMap<>();
+		}
+	};
+	
+	/** {@link BiConsumer}s given by {@link #toBiConsumer(Method)}, same as {@link #FUNCTIONS} */
+	private static final ClassValue<Map<Method, BiConsumer>> BI_CONSUMERS = new ClassValue<Map<Method, BiConsumer>>() {
+		@Override
+		protected Map<Method, BiConsumer> computeValue(Class<?> type) {
+			return new ConcurrentHashMap<>();
+		}
+	};
+	
 	/**
 	 * Converts a {@link Predicate} to {@link Function} returning a boolean
 	 *
@@ -25,33 +58,264 @@ public class Functions {
 	}
 	
 	/**
-	 * Converts a {@link Method} to a {@link Function}
+	 * Converts a {@link Method} to a {@link Function}.
+	 * When possible (public method of a public class visible from this class) the returned {@link Function} is generated through
+	 * {@link LambdaMetafactory} hence invokes the method as fast as a method reference. Else it uses a {@link MethodHandle}, and as a last resort
+	 * reflection.
+	 * Note that {@link RuntimeException}s thrown by the method are propagated as is, whereas checked ones are wrapped into an
+	 * {@link InvokationRuntimeException}.
+	 * Returned {@link Function} is stateless and cached, so it is shared by all callers for a same {@link Method}.
 	 *
 	 * @param getter any method taking no argument
 	 * @param <I> target instance type
 	 * @param <O> argument type
-	 * @return a new (lambda) {@link Function} plugged onto {@link Predicate}
+	 * @return a {@link Function} plugged onto given {@link Method}
 	 */
 	public static <I, O> Function<I, O> toFunction(Method getter) {
 		if (getter.getParameterCount() > 0) {
 			throw new IllegalArgumentException("Method is expected to have no argument but has one : " + Reflections.toString(getter));
 		}
-		return target -> (O) Reflections.invoke(getter, target);
+		Map<Method, Function> functions = FUNCTIONS.get(getter.getDeclaringClass());
+		// get() first because computeIfAbsent(..) may lock even if key is present
+		Function<I, O> result = functions.get(getter);
+		if (result == null) {
+			result = functions.computeIfAbsent(getter, Functions::createFunction);
+		}
+		return result;
+	}
+	
+	private static <I, O> Function<I, O> createFunction(Method getter) {
+		Function<I, O> result = null;
+		if (getter.getReturnType() != void.class && isLambdaMetafactoryCompliant(getter)) {
+			result = (Function<I, O>) generateLambda(getter, Function.class, "apply", MethodType.genericMethodType(1),
+					MethodType.methodType(wrap(getter.getReturnType()), getter.getDeclaringClass()));
+		}
+		if (result == null) {
+			MethodHandle methodHandle = toGenericMethodHandle(getter, MethodType.genericMethodType(1));
+			if (methodHandle != null) {
+				result = target -> {
+					try {
+						Object value = methodHandle.invokeExact((Object) target);
+						return (O) value;
+					} catch (RuntimeException | Error e) {
+						throw e;
+					} catch (Throwable t) {
+						throw new InvokationRuntimeException(t);
+					}
+				};
+			} else {
+				result = toReflectiveFunction(getter);
+			}
+		}
+		return result;
+	}
+	
+	/**
+	 * Last resort of {@link #toFunction(Method)}, for methods that are not accessible through a {@link MethodHandle}
+	 *
+	 * @param getter any method taking no argument
+	 * @param <I> target instance type
+	 * @param <O> argument type
+	 * @return a {@link Function} invoking given {@link Method} by reflection
+	 */
+	static <I, O> Function<I, O> toReflectiveFunction(Method getter) {
+		return target -> (O) invoke(getter, target);
 	}
 	
 	/**
-	 * Converts a {@link Method} to a {@link BiConsumer}
+	 * Converts a {@link Method} to a {@link BiConsumer}.
+	 * As for {@link #toFunction(Method)}, the returned {@link BiConsumer} is generated through {@link LambdaMetafactory} when possible, else it
+	 * uses a {@link MethodHandle}, and as a last resort reflection (which is always the case for methods taking more than one argument).
+	 * Returned {@link BiConsumer} is stateless and cached, so it is shared by all callers for a same {@link Method}.
 	 *
 	 * @param setter any method taking one argument
 	 * @param <I> target instance type
 	 * @param <O> argument type
-	 * @return a new (lambda) {@link Function} plugged onto {@link Predicate}
+	 * @return a {@link BiConsumer} plugged onto given {@link Method}
 	 */
 	public static <I, O> BiConsumer<I, O> toBiConsumer(Method setter) {
 		if (setter.getParameterCount() == 0) {
 			throw new IllegalArgumentException("Method is expected to have at least 1 argument but has none : " + Reflections.toString(setter));
 		}
-		return (target, args) -> Reflections.invoke(setter, target, args);
+		Map<Method, BiConsumer> biConsumers = BI_CONSUMERS.get(setter.getDeclaringClass());
+		// get() first because computeIfAbsent(..) may lock even if key is present
+		BiConsumer<I, O> result = biConsumers.get(setter);
+		if (result == null) {
+			result = biConsumers.computeIfAbsent(setter, Functions::createBiConsumer);
+		}
+		return result;
+	}
+	
+	private static <I, O> BiConsumer<I, O> createBiConsumer(Method setter) {
+		BiConsumer<I, O> result = null;
+		if (setter.getParameterCount() == 1) {
+			if (isLambdaMetafactoryCompliant(setter)) {
+				result = (BiConsumer<I, O>) generateLambda(setter, BiConsumer.class, "accept",
+						MethodType.methodType(void.class, Object.class, Object.class),
+						MethodType.methodType(void.class, setter.getDeclaringClass(), wrap(setter.getParameterTypes()[0])));
+			}
+			if (result == null) {
+				MethodHandle methodHandle = toGenericMethodHandle(setter, MethodType.methodType(void.class, Object.class, Object.class));
+				if (methodHandle != null) {
+					result = (target, arg) -> {
+						try {
+							methodHandle.invokeExact((Object) target, (Object) arg);
+						} catch (RuntimeException | Error e) {
+							throw e;
+						} catch (Throwable t) {
+							throw new InvokationRuntimeException(t);
+						}
+					};
+				}
+			}
+		}
+		if (result == null) {
+			result = toReflectiveBiConsumer(setter);
+		}
+		return result;
+	}
+	
+	/**
+	 * Last resort of {@link #toBiConsumer(Method)}, for methods that are not accessible through a {@link MethodHandle}
+	 *
+	 * @param setter any method taking one argument
+	 * @param <I> target instance type
+	 * @param <O> argument type
+	 * @return a {@link BiConsumer} invoking given {@link Method} by reflection
+	 */
+	static <I, O> BiConsumer<I, O> toReflectiveBiConsumer(Method setter) {
+		return (target, args) -> invoke(setter, target, args);
+	}
+	
+	/**
+	 * Invokes given method by reflection with same exception handling as {@link MethodHandle} based functions : {@link RuntimeException}s and
+	 * {@link Error}s thrown by the method are propagated as is, whereas checked ones are wrapped into an {@link InvokationRuntimeException}
+	 *
+	 * @param method the method to be invoked
+	 * @param target the instance on which the method will be invoked
+	 * @param args methods arguments
+	 * @return method invokation result
+	 */
+	private static Object invoke(Method method, Object target, Object ... args) {
+		try {
+			return method.invoke(target, args);
+		} catch (InvocationTargetException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			} else if (cause instanceof Error) {
+				throw (Error) cause;
+			} else {
+				throw new InvokationRuntimeException(cause);
+			}
+		} catch (IllegalAccessException | IllegalArgumentException e) {
+			throw new InvokationRuntimeException(e);
+		}
+	}
+	
+	/**
+	 * Indicates if {@link LambdaMetafactory} can be used to generate a lambda invoking given method : it must be public, non static, declared by a
+	 * publicly accessible class, and all of its types must be visible from this class. Moreover it must not declare any checked exception because
+	 * they would be propagated without any wrapping.
+	 * 
+	 * @param method any method
+	 * @return true if a lambda can be generated for given method
+	 */
+	private static boolean isLambdaMetafactoryCompliant(Method method) {
+		if (Modifier.isStatic(method.getModifiers()) || !Modifier.isPublic(method.getModifiers()) || !isPublic(method.getDeclaringClass())) {
+			return false;
+		}
+		for (Class<?> exceptionType : method.getExceptionTypes()) {
+			if (!RuntimeException.class.isAssignableFrom(exceptionType) && !Error.class.isAssignableFrom(exceptionType)) {
+				return false;
+			}
+		}
+		if (!isVisible(method.getDeclaringClass()) || !isVisible(method.getReturnType())) {
+			return false;
+		}
+		for (Class<?> parameterType : method.getParameterTypes()) {
+			if (!isVisible(parameterType)) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	private static boolean isPublic(Class<?> clazz) {
+		Class<?> currentClass = clazz;
+		while (currentClass != null) {
+			if (!Modifier.isPublic(currentClass.getModifiers())) {
+				return false;
+			}
+			currentClass = currentClass.getEnclosingClass();
+		}
+		return true;
+	}
+	
+	/**
+	 * @param clazz any class
+	 * @return true if given class can be resolved from the {@link ClassLoader} of this class (which hosts generated lambdas)
+	 */
+	private static boolean isVisible(Class<?> clazz) {
+		if (clazz.isPrimitive()) {
+			return true;
+		}
+		try {
+			return Class.forName(clazz.getName(), false, Functions.class.getClassLoader()) == clazz;
+		} catch (ClassNotFoundException e) {
+			return false;
+		}
+	}
+	
+	/**
+	 * Generates an instance of a functional interface that invokes given method
+	 * 
+	 * @param method the method to be invoked by the generated lambda
+	 * @param functionalInterface the interface to be implemented
+	 * @param methodName name of the single abstract method of the interface
+	 * @param methodType erased signature of the single abstract method of the interface
+	 * @param instantiatedMethodType signature of the single abstract method of the interface specialized for given method
+	 * @return null if generation failed, so caller can fallback to another mechanism
+	 */
+	@Nullable
+	private static Object generateLambda(Method method, Class<?> functionalInterface, String methodName, MethodType methodType,
+										 MethodType instantiatedMethodType) {
+		try {
+			MethodHandle implementation = LOOKUP.unreflect(method);
+			CallSite callSite = LambdaMetafactory.metafactory(LOOKUP, methodName, MethodType.methodType(functionalInterface),
+					methodType, implementation, instantiatedMethodType);
+			return callSite.getTarget().invoke();
+		} catch (Throwable t) {
+			// any failure (access, linkage, module visibility, ...) makes us fallback to another mechanism
+			return null;
+		}
+	}
+	
+	/**
+	 * Gives a {@link MethodHandle} of given method adapted to given type (boxing, casting, return value discarding, etc).
+	 * Static methods will ignore their first argument (invokation target).
+	 * 
+	 * @param method any method
+	 * @param genericType the expected {@link MethodHandle} type
+	 * @return null if method is not accessible
+	 */
+	@Nullable
+	private static MethodHandle toGenericMethodHandle(Method method, MethodType genericType) {
+		try {
+			Reflections.ensureAccessible(method);
+			MethodHandle methodHandle = LOOKUP.unreflect(method);
+			if (Modifier.isStatic(method.getModifiers())) {
+				methodHandle = MethodHandles.dropArguments(methodHandle, 0, Object.class);
+			}
+			return methodHandle.asType(genericType);
+		} catch (IllegalAccessException | RuntimeException e) {
+			// RuntimeException for InaccessibleObjectException (module restriction)
+			return null;
+		}
+	}
+	
+	private static Class<?> wrap(Class<?> type) {
+		return type.isPrimitive() ? Reflections.giveWrapperClass(type) : type;
 	}
 	
 	/**
@@ -0,0 +1,370 @@
+package org.gama.lang.io;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pool of {@link ByteBuffer}s, heap or direct ones, to avoid allocating a new buffer for each I/O operation.
+ *
+ * Buffers are grouped by size classes : powers of 2 from a minimum to a maximum capacity. {@link #acquire(int)} gives a buffer of the smallest
+ * class that fits the requested size, hence its capacity may be larger than requested. Requests larger than maximum capacity are allocated
+ * without being pooled.
+ * Released buffers are first kept in a small per-thread cache, which doesn't need any synchronization, then in a lock-free queue shared by
+ * all threads, which size is bounded : extra buffers are left to the garbage collector.
+ *
+ * Buffers must be given back with {@link #release(ByteBuffer)} and must not be used after that. Leak detection can be enabled, typically in
+ * tests, with {@link #withLeakDetection(boolean)} or by setting the {@value #LEAK_DETECTION_PROPERTY} system property to true : buffers in
+ * use are then tracked with the stack trace of their acquisition, which can be checked by {@link #checkNoLeak()}, and release of unknown
+ * buffers throws an exception. This has a cost and should not be enabled in production.
+ *
+ * @author Guillaume Mary
+ * @see #HEAP
+ * @see #DIRECT
+ */
+public class BufferPool {
+	
+	/** System property that enables leak detection of pools by default */
+	public static final String LEAK_DETECTION_PROPERTY = "org.gama.lang.io.BufferPool.leakDetection";
+	
+	/** Default pool of heap buffers, which have a backing array */
+	public static final BufferPool HEAP = new BufferPool(false);
+	
+	/** Default pool of direct buffers, to be used with {@link java.nio.channels.Channel}s */
+	public static final BufferPool DIRECT = new BufferPool(true);
+	
+	private final boolean direct;
+	
+	private final int minCapacityShift;
+	
+	private final int maxCapacityShift;
+	
+	private final int threadCacheSize;
+	
+	private final int sharedCacheSize;
+	
+	/** Buffers shared by all threads, one queue per size class */
+	private final ConcurrentLinkedQueue<ByteBuffer>[] sharedQueues;
+	
+	/** Size of shared queues, maintained apart since {@link ConcurrentLinkedQueue#size()} is not a constant-time operation */
+	private final AtomicInteger[] sharedQueueSizes;
+	
+	private final ThreadLocal<ArrayDeque<ByteBuffer>[]> threadCaches;
+	
+	/** Buffers in use with their acquisition stack trace, null when leak detection is off */
+	private volatile Map<ByteBuffer, Throwable> inUseBuffers;
+	
+	/**
+	 * Number of buffers that were in use when leak detection was enabled : as many releases of untracked buffers are accepted, so that callers
+	 * already in flight don't fail
+	 */
+	private final AtomicLong untrackedInUseCount = new AtomicLong();
+	
+	private final LongAdder acquisitionCount = new LongAdder();
+	private final LongAdder threadCacheHitCount = new LongAdder();
+	private final LongAdder sharedCacheHitCount = new LongAdder();
+	private final LongAdder allocationCount = new LongAdder();
+	private final LongAdder unpooledAllocationCount = new LongAdder();
+	private final LongAdder releaseCount = new LongAdder();
+	private final LongAdder discardCount = new LongAdder();
+	
+	/**
+	 * Creates a pool of buffers from 512 bytes to 1 Mo, keeping 4 buffers per size class and per thread, and 64 per size class for all threads
+	 *
+	 * @param direct true for direct buffers, false for heap ones
+	 */
+	public BufferPool(boolean direct) {
+		this(direct, 512, (int) IOs._1_Mo, 4, 64);
+	}
+	
+	/**
+	 * @param direct true for direct buffers, false for heap ones
+	 * @param minCapacity capacity of smallest buffers, rounded to next power of 2
+	 * @param maxCapacity capacity of largest pooled buffers, rounded to next power of 2
+	 * @param threadCacheSize number of buffers kept per size class by each thread
+	 * @param sharedCacheSize number of buffers kept per size class for all threads
+	 */
+	@SuppressWarnings("unchecked")
+	public BufferPool(boolean direct, int minCapacity, int maxCapacity, int threadCacheSize, int sharedCacheSize) {
+		if (minCapacity < 1 || maxCapacity < minCapacity || maxCapacity > 1 << 30) {
+			throw new IllegalArgumentException("Capacities must be in ]0, 2^30] and in increasing order : " + minCapacity + ", " + maxCapacity);
+		}
+		if (threadCacheSize < 0 || sharedCacheSize < 0) {
+			throw new IllegalArgumentException("Cache sizes must be positive : " + threadCacheSize + ", " + sharedCacheSize);
+		}
+		this.direct = direct;
+		this.minCapacityShift = shift(minCapacity);
+		this.maxCapacityShift = shift(maxCapacity);
+		this.threadCacheSize = threadCacheSize;
+		this.sharedCacheSize = sharedCacheSize;
+		int sizeClassCount = maxCapacityShift - minCapacityShift + 1;
+		this.sharedQueues = new ConcurrentLinkedQueue[sizeClassCount];
+		this.sharedQueueSizes = new AtomicInteger[sizeClassCount];
+		for (int i = 0; i < sizeClassCount; i++) {
+			sharedQueues[i] = new ConcurrentLinkedQueue<>();
+			sharedQueueSizes[i] = new AtomicInteger();
+		}
+		this.threadCaches = ThreadLocal.withInitial(() -> {
+			ArrayDeque<ByteBuffer>[] result = new ArrayDeque[sizeClassCount];
+			for (int i = 0; i < sizeClassCount; i++) {
+				result[i] = new ArrayDeque<>(threadCacheSize);
+			}
+			return result;
+		});
+		withLeakDetection(Boolean.getBoolean(LEAK_DETECTION_PROPERTY));
+	}
+	
+	/**
+	 * @return exponent of the smallest power of 2 greater or equal to given size
+	 */
+	private static int shift(int size) {
+		return size == 1 ? 0 : 32 - Integer.numberOfLeadingZeros(size - 1);
+	}
+	
+	/**
+	 * Enables or disables tracking of buffers in use. Buffers acquired while tracking was off are not tracked : if some are in use when it's
+	 * enabled, their release doesn't throw any exception, at the cost of accepting as many unknown buffers.
+	 *
+	 * @param leakDetection true to track buffers in use
+	 * @return this
+	 */
+	public BufferPool withLeakDetection(boolean leakDetection) {
+		if (leakDetection != (inUseBuffers != null)) {
+			if (leakDetection) {
+				// set before tracking is visible, so that releasing threads see it
+				untrackedInUseCount.set(Math.max(0, getInUseCount()));
+				this.inUseBuffers = new IdentityHashMap<>();
+			} else {
+				this.inUseBuffers = null;
+			}
+		}
+		return this;
+	}
+	
+	public boolean isDirect() {
+		return direct;
+	}
+	
+	/**
+	 * Gives a buffer which capacity is at least the given size : a cached one if any, else a new one.
+	 * Its position is 0 and its limit is the requested size.
+	 *
+	 * @param size the minimal capacity of the buffer
+	 * @return a buffer to be given back with {@link #release(ByteBuffer)}
+	 */
+	public ByteBuffer acquire(int size) {
+		if (size < 0) {
+			throw new IllegalArgumentException("Buffer size must be positive : " + size);
+		}
+		acquisitionCount.increment();
+		int sizeClass = Math.max(shift(size), minCapacityShift) - minCapacityShift;
+		ByteBuffer result;
+		if (sizeClass >= sharedQueues.length) {
+			unpooledAllocationCount.increment();
+			result = allocate(size);
+		} else {
+			result = threadCaches.get()[sizeClass].pollFirst();
+			if (result != null) {
+				threadCacheHitCount.increment();
+			} else {
+				result = sharedQueues[sizeClass].poll();
+				if (result != null) {
+					sharedQueueSizes[sizeClass].decrementAndGet();
+					sharedCacheHitCount.increment();
+				} else {
+					allocationCount.increment();
+					result = allocate(1 << (sizeClass + minCapacityShift));
+				}
+			}
+			// through Buffer, else compiled code would call ByteBuffer.clear() which doesn't exist in Java 8
+			((Buffer) result).clear().limit(size);
+		}
+		Map<ByteBuffer, Throwable> tracked = inUseBuffers;
+		if (tracked != null) {
+			synchronized (tracked) {
+				tracked.put(result, new Throwable("Buffer of " + size + " bytes acquired by " + Thread.currentThread().getName()));
+			}
+		}
+		return result;
+	}
+	
+	/**
+	 * Gives a heap buffer array. Its length may be larger than requested size.
+	 *
+	 * @param size the minimal length of the array
+	 * @return an array to be given back with {@link #release(byte[])}
+	 * @throws UnsupportedOperationException if this pool is a direct one
+	 */
+	public byte[] acquireArray(int size) {
+		if (direct) {
+			throw new UnsupportedOperationException("Direct buffers don't have array");
+		}
+		return acquire(size).array();
+	}
+	
+	private ByteBuffer allocate(int capacity) {
+		return direct ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+	}
+	
+	/**
+	 * Gives back a buffer to this pool. Buffers that don't belong to a size class of this pool are dropped, as well as the ones that exceed
+	 * cache sizes.
+	 *
+	 * @param buffer a buffer given by {@link #acquire(int)}, that must not be used anymore
+	 * @throws IllegalStateException if leak detection is on and given buffer is not in use (released twice or not given by this pool)
+	 */
+	public void release(ByteBuffer buffer) {
+		Map<ByteBuffer, Throwable> tracked = inUseBuffers;
+		if (tracked != null) {
+			Throwable acquisition;
+			synchronized (tracked) {
+				acquisition = tracked.remove(buffer);
+			}
+			if (acquisition == null && untrackedInUseCount.getAndUpdate(count -> Math.max(0, count - 1)) == 0) {
+				throw new IllegalStateException("Buffer is not in use : it was already released or doesn't come from this pool");
+			}
+		}
+		releaseCount.increment();
+		int capacity = buffer.capacity();
+		int sizeClass = shift(capacity) - minCapacityShift;
+		if (buffer.isDirect() != direct || Integer.bitCount(capacity) != 1 || sizeClass < 0 || sizeClass >= sharedQueues.length
+				|| buffer.isReadOnly()) {
+			discardCount.increment();
+			return;
+		}
+		ArrayDeque<ByteBuffer> threadCache = threadCaches.get()[sizeClass];
+		if (threadCache.size() < threadCacheSize) {
+			// most recently used first since it's more likely to be in CPU cache
+			threadCache.offerFirst(buffer);
+		} else if (sharedQueueSizes[sizeClass].incrementAndGet() <= sharedCacheSize) {
+			sharedQueues[sizeClass].offer(buffer);
+		} else {
+			sharedQueueSizes[sizeClass].decrementAndGet();
+			discardCount.increment();
+		}
+	}
+	
+	/**
+	 * Gives back an array acquired with {@link #acquireArray(int)}
+	 *
+	 * @param array an array given by {@link #acquireArray(int)}, that must not be used anymore
+	 * @throws IllegalStateException if leak detection is on and given array is not in use
+	 */
+	public void release(byte[] array) {
+		Map<ByteBuffer, Throwable> tracked = inUseBuffers;
+		ByteBuffer buffer = null;
+		if (tracked != null) {
+			// finding the buffer that wraps the array since tracking is made on buffers
+			synchronized (tracked) {
+				for (ByteBuffer candidate : tracked.keySet()) {
+					if (candidate.hasArray() && candidate.array() == array) {
+						buffer = candidate;
+						break;
+					}
+				}
+			}
+		}
+		release(buffer == null ? ByteBuffer.wrap(array) : buffer);
+	}
+	
+	/**
+	 * Gives acquisition stack traces of buffers that are in use, acquired while leak detection was on
+	 *
+	 * @return an empty list if leak detection is off
+	 */
+	public List<Throwable> getLeaks() {
+		Map<ByteBuffer, Throwable> tracked = inUseBuffers;
+		if (tracked == null) {
+			return new ArrayList<>();
+		}
+		synchronized (tracked) {
+			return new ArrayList<>(tracked.values());
+		}
+	}
+	
+	/**
+	 * Checks that all buffers acquired while leak detection was on were released, to be called at the end of a test for instance
+	 *
+	 * @throws IllegalStateException if some buffers are in use, with acquisition stack trace of the first one as cause
+	 */
+	public void checkNoLeak() {
+		List<Throwable> leaks = getLeaks();
+		if (!leaks.isEmpty()) {
+			throw new IllegalStateException(leaks.size() + " buffer(s) not released", leaks.get(0));
+		}
+	}
+	
+	/**
+	 * @return number of calls to {@link #acquire(int)}
+	 */
+	public long getAcquisitionCount() {
+		return acquisitionCount.sum();
+	}
+	
+	/**
+	 * @return number of buffers given from a thread cache
+	 */
+	public long getThreadCacheHitCount() {
+		return threadCacheHitCount.sum();
+	}
+	
+	/**
+	 * @return number of buffers given from the cache shared by all threads
+	 */
+	public long getSharedCacheHitCount() {
+		return sharedCacheHitCount.sum();
+	}
+	
+	/**
+	 * @return number of pooled buffers created because no cached one was available
+	 */
+	public long getAllocationCount() {
+		return allocationCount.sum();
+	}
+	
+	/**
+	 * @return number of buffers created because requested size exceeded maximum capacity
+	 */
+	public long getUnpooledAllocationCount() {
+		return unpooledAllocationCount.sum();
+	}
+	
+	/**
+	 * @return number of calls to {@link #release(ByteBuffer)}
+	 */
+	public long getReleaseCount() {
+		return releaseCount.sum();
+	}
+	
+	/**
+	 * @return number of released buffers that were dropped because caches were full or because they were not poolable
+	 */
+	public long getDiscardCount() {
+		return discardCount.sum();
+	}
+	
+	/**
+	 * @return number of acquired buffers that were not released (estimate since counters are not read atomically)
+	 */
+	public long getInUseCount() {
+		return getAcquisitionCount() - getReleaseCount();
+	}
+	
+	@Override
+	public String toString() {
+		return (direct ? "direct" : "heap") + " pool : acquisitions=" + getAcquisitionCount()
+				+ ", threadCacheHits=" + getThreadCacheHitCount()
+				+ ", sharedCacheHits=" + getSharedCacheHitCount()
+				+ ", allocations=" + getAllocationCount()
+				+ ", unpooledAllocations=" + getUnpooledAllocationCount()
+				+ ", discards=" + getDiscardCount();
+	}
+}
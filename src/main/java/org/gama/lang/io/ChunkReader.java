@@ -0,0 +1,370 @@
+package org.gama.lang.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Reads an {@link InputStream} as consecutive chunks of bytes, given as read-only {@link ByteBuffer} views over buffers of a {@link BufferPool},
+ * hence without copy.
+ * Chunks are filled until chunk size is reached or until the end of the stream, so all of them have chunk size, except last one which may be
+ * smaller. End of stream is detected by {@link InputStream#read(byte[], int, int)} returning -1, therefore {@link #hasNext()} reads next chunk
+ * ahead, and blocks until it's available.
+ * Once reading failed, the position in the stream is unknown, so the error is thrown again by any later call to {@link #hasNext()} and
+ * {@link #next()}.
+ *
+ * Ownership rules :
+ * <ul>
+ * <li>a chunk given by {@link #next()} is valid until the following call to {@link #next()} or to {@link #close()} : its content is
+ * overwritten after that, so it must be copied to be kept</li>
+ * <li>buffers are given back to their pool by {@link #close()}, which doesn't close the stream : it's up to the caller to close it, after
+ * this reader</li>
+ * </ul>
+ *
+ * {@link #async(InputStream, int, int, BufferPool, Executor)} gives a reader that fills next chunks in background while the caller processes
+ * current one.
+ *
+ * @author Guillaume Mary
+ */
+public class ChunkReader implements Iterator<ByteBuffer>, AutoCloseable {
+	
+	/**
+	 * Creates a reader that fills up to ringSize - 1 chunks ahead on a thread of the given {@link Executor}, while caller processes current
+	 * one. Errors of the stream are thrown by {@link #hasNext()} once previous chunks were consumed.
+	 * Closing the reader stops the background reading, after the chunk being read if any, then buffers are given back to the pool.
+	 *
+	 * @param source the stream to be read
+	 * @param chunkSize the size of chunks
+	 * @param ringSize the number of buffers, at least 2 : the one of the caller and the ones read ahead
+	 * @param bufferPool the pool giving the buffers
+	 * @param executor runs the background reading, for the whole stream, so it should not be a bounded one shared with other tasks
+	 * @return a new {@link ChunkReader}
+	 */
+	public static ChunkReader async(InputStream source, int chunkSize, int ringSize, BufferPool bufferPool, Executor executor) {
+		return new AsyncChunkReader(source, chunkSize, ringSize, bufferPool, executor);
+	}
+	
+	protected final InputStream source;
+	
+	protected final int chunkSize;
+	
+	private final BufferPool bufferPool;
+	
+	/** All buffers of this reader, to give them back to the pool */
+	private final List<ByteBuffer> slots;
+	
+	private final ArrayDeque<ByteBuffer> freeSlots;
+	
+	/** Created on demand to read into direct buffers */
+	private ReadableByteChannel channel;
+	
+	/** Chunk given to the caller */
+	private ByteBuffer current;
+	
+	/** Chunk read ahead by {@link #hasNext()} */
+	private ByteBuffer next;
+	
+	private boolean endOfStream;
+	
+	/** Error of a previous read, thrown again by later ones */
+	private Exception failure;
+	
+	protected volatile boolean closed;
+	
+	/**
+	 * Creates a reader which buffers are taken from {@link BufferPool#HEAP}
+	 *
+	 * @param source the stream to be read
+	 * @param chunkSize the size of chunks
+	 */
+	public ChunkReader(InputStream source, int chunkSize) {
+		this(source, chunkSize, BufferPool.HEAP);
+	}
+	
+	/**
+	 * Creates a reader that reads a chunk ahead in caller thread, hence using 2 buffers
+	 *
+	 * @param source the stream to be read
+	 * @param chunkSize the size of chunks
+	 * @param bufferPool the pool giving the buffers
+	 */
+	public ChunkReader(InputStream source, int chunkSize, BufferPool bufferPool) {
+		this(source, chunkSize, 2, bufferPool);
+	}
+	
+	protected ChunkReader(InputStream source, int chunkSize, int ringSize, BufferPool bufferPool) {
+		if (chunkSize < 1) {
+			throw new IllegalArgumentException("Chunk size must be strictly positive : " + chunkSize);
+		}
+		if (ringSize < 2) {
+			throw new IllegalArgumentException("Ring size must be at least 2 : " + ringSize);
+		}
+		this.source = source;
+		this.chunkSize = chunkSize;
+		this.bufferPool = bufferPool;
+		this.slots = new ArrayList<>(ringSize);
+		for (int i = 0; i < ringSize; i++) {
+			slots.add(bufferPool.acquire(chunkSize));
+		}
+		this.freeSlots = new ArrayDeque<>(slots);
+	}
+	
+	/**
+	 * Reads next chunk if it wasn't already
+	 *
+	 * @return false if end of stream is reached
+	 * @throws UncheckedIOException if an error occurs while reading the stream, or occurred in a previous call
+	 * @throws IllegalStateException if this reader is closed
+	 */
+	@Override
+	public boolean hasNext() {
+		if (closed) {
+			throw new IllegalStateException("Reader is closed");
+		}
+		if (next == null && !endOfStream) {
+			if (failure == null) {
+				try {
+					next = nextFilledSlot();
+				} catch (IOException | RuntimeException e) {
+					failure = e;
+				}
+			}
+			if (failure instanceof IOException) {
+				throw new UncheckedIOException((IOException) failure);
+			} else if (failure != null) {
+				throw (RuntimeException) failure;
+			}
+			endOfStream = next == null;
+		}
+		return next != null;
+	}
+	
+	/**
+	 * Gives next chunk, as a read-only view which position is 0 and limit is the number of read bytes.
+	 * Previous chunk becomes invalid.
+	 *
+	 * @return a chunk that is valid until next call to this method or to {@link #close()}
+	 * @throws NoSuchElementException if end of stream is reached
+	 */
+	@Override
+	public ByteBuffer next() {
+		// compliance with next() specification
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		if (current != null) {
+			recycle(current);
+		}
+		current = next;
+		next = null;
+		return current.asReadOnlyBuffer();
+	}
+	
+	/**
+	 * Fills a free buffer with next bytes of the stream
+	 *
+	 * @return a flipped buffer, null if end of stream is reached
+	 */
+	protected ByteBuffer nextFilledSlot() throws IOException {
+		ByteBuffer slot = freeSlots.poll();
+		try {
+			fill(slot);
+		} catch (IOException | RuntimeException e) {
+			freeSlots.offer(slot);
+			throw e;
+		}
+		if (slot.hasRemaining()) {
+			return slot;
+		} else {
+			freeSlots.offer(slot);
+			return null;
+		}
+	}
+	
+	/**
+	 * Gives a buffer that was given to the caller back to this reader
+	 */
+	protected void recycle(ByteBuffer slot) {
+		freeSlots.offer(slot);
+	}
+	
+	/**
+	 * Reads the stream into given buffer until chunk size is reached or until end of stream, then flips it
+	 *
+	 * @return false if end of stream was reached
+	 */
+	protected boolean fill(ByteBuffer slot) throws IOException {
+		// going through Buffer, else compiled code calls ByteBuffer overrides which don't exist in Java 8
+		((Buffer) slot).clear().limit(chunkSize);
+		boolean streamContinues = true;
+		if (slot.hasArray()) {
+			byte[] array = slot.array();
+			int offset = slot.arrayOffset();
+			int readBytesCount = 0;
+			while (readBytesCount < chunkSize) {
+				int count = source.read(array, offset + readBytesCount, chunkSize - readBytesCount);
+				if (count == -1) {
+					streamContinues = false;
+					break;
+				}
+				readBytesCount += count;
+			}
+			((Buffer) slot).position(readBytesCount);
+		} else {
+			if (channel == null) {
+				channel = Channels.newChannel(source);
+			}
+			while (slot.hasRemaining()) {
+				if (channel.read(slot) == -1) {
+					streamContinues = false;
+					break;
+				}
+			}
+		}
+		((Buffer) slot).flip();
+		return streamContinues;
+	}
+	
+	/**
+	 * Gives buffers back to their pool, chunks given by {@link #next()} must not be used anymore. Doesn't close the stream.
+	 */
+	@Override
+	public void close() {
+		if (!closed) {
+			closed = true;
+			current = null;
+			next = null;
+			releaseSlots();
+		}
+	}
+	
+	protected void releaseSlots() {
+		for (ByteBuffer slot : slots) {
+			bufferPool.release(slot);
+		}
+	}
+	
+	/**
+	 * @return a buffer that is neither given to the caller nor read ahead, null if there's none
+	 */
+	ByteBuffer pollFreeSlot() {
+		return freeSlots.poll();
+	}
+	
+	/**
+	 * {@link ChunkReader} which chunks are filled by a background task. Filled buffers are handed over through a queue, and given back
+	 * through another one, so that the background task waits when all buffers are filled, and the caller waits when none is.
+	 */
+	private static class AsyncChunkReader extends ChunkReader {
+		
+		/** Marks the end of filled chunks, and stops the background task when found in empty ones */
+		private static final ByteBuffer END = ByteBuffer.allocate(0);
+		
+		private final BlockingQueue<ByteBuffer> emptySlots;
+		
+		/** One more place than buffers count for the end marker, so that it can always be added without waiting */
+		private final BlockingQueue<ByteBuffer> filledSlots;
+		
+		/** Background task and caller both own buffers : the last one that leaves gives them back to the pool */
+		private final AtomicInteger slotOwnerCount = new AtomicInteger(2);
+		
+		/** Error of the background task, thrown to the caller when it reaches the end marker */
+		private volatile Exception failure;
+		
+		private AsyncChunkReader(InputStream source, int chunkSize, int ringSize, BufferPool bufferPool, Executor executor) {
+			super(source, chunkSize, ringSize, bufferPool);
+			this.emptySlots = new ArrayBlockingQueue<>(ringSize);
+			this.filledSlots = new ArrayBlockingQueue<>(ringSize + 1);
+			ByteBuffer slot;
+			while ((slot = pollFreeSlot()) != null) {
+				emptySlots.add(slot);
+			}
+			executor.execute(this::produce);
+		}
+		
+		private void produce() {
+			boolean completed = false;
+			try {
+				boolean streamContinues = true;
+				while (streamContinues && !closed) {
+					ByteBuffer slot = emptySlots.take();
+					if (slot == END) {
+						break;
+					}
+					streamContinues = fill(slot);
+					// queues can't be full since they have as many places as buffers
+					if (slot.hasRemaining()) {
+						filledSlots.add(slot);
+					} else {
+						emptySlots.add(slot);
+					}
+				}
+				completed = true;
+			} catch (InterruptedException e) {
+				// executor is shutting down
+				failure = new InterruptedIOException("Background reading was interrupted");
+			} catch (IOException | RuntimeException e) {
+				failure = e;
+			} finally {
+				if (!completed && failure == null) {
+					// an Error occurred, caller must not see a truncated stream as a complete one
+					failure = new IOException("Background reading failed");
+				}
+				filledSlots.add(END);
+				leaveSlots();
+			}
+		}
+		
+		@Override
+		protected ByteBuffer nextFilledSlot() throws IOException {
+			ByteBuffer slot;
+			try {
+				slot = filledSlots.take();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new InterruptedIOException("Interrupted while waiting for next chunk");
+			}
+			if (slot == END) {
+				if (failure instanceof IOException) {
+					throw (IOException) failure;
+				} else if (failure != null) {
+					throw (RuntimeException) failure;
+				}
+				return null;
+			}
+			return slot;
+		}
+		
+		@Override
+		protected void recycle(ByteBuffer slot) {
+			emptySlots.add(slot);
+		}
+		
+		@Override
+		protected void releaseSlots() {
+			// waking up background task if it waits for an empty buffer, else it stops after current chunk since this reader is closed
+			emptySlots.offer(END);
+			leaveSlots();
+		}
+		
+		private void leaveSlots() {
+			if (slotOwnerCount.decrementAndGet() == 0) {
+				super.releaseSlots();
+			}
+		}
+	}
+}
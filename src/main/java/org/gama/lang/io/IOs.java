@@ -2,15 +2,19 @@ package org.gama.lang.io;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.util.Arrays;
+import java.nio.ByteBuffer;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
 
 /**
  * Methods around {@link InputStream} and {@link OutputStream}.
+ * See {@link NIOs} for channel-based methods, which avoid copying data through heap byte arrays.
  *
  * @author Guillaume Mary
  */
@@ -81,7 +85,34 @@ public final class IOs {
 	}
 	
 	/**
-	 * Copy an {@link InputStream} to an {@link OutputStream}
+	 * Reads a given number of bytes of an {@link InputStream} into an array of exact size. To be preferred to {@link #toByteArray(InputStream)}
+	 * when length is known since no intermediary buffer is used.
+	 * It's up to the caller to close the passed {@link InputStream} argument.
+	 *
+	 * @param inputStream the source
+	 * @param length number of bytes to read
+	 * @return read bytes
+	 * @throws EOFException if the stream ends before length bytes were read
+	 * @throws IOException if an error occurs while reading
+	 */
+	public static byte[] readFully(InputStream inputStream, int length) throws IOException {
+		byte[] result = new byte[length];
+		int offset = 0;
+		while (offset < length) {
+			int readBytesCount = inputStream.read(result, offset, length - offset);
+			if (readBytesCount == -1) {
+				throw new EOFException((length - offset) + " bytes are missing");
+			}
+			offset += readBytesCount;
+		}
+		return result;
+	}
+	
+	/**
+	 * Copy an {@link InputStream} to an {@link OutputStream}.
+	 * Copy between a {@link FileInputStream} and a {@link FileOutputStream} is made by
+	 * {@link NIOs#transferTo(java.nio.channels.FileChannel, java.nio.channels.WritableByteChannel)}, hence without buffer, else buffer is
+	 * taken from {@link BufferPool#HEAP}.
 	 *
 	 * @param inputStream the source
 	 * @param outputStream the target
@@ -89,10 +120,20 @@ public final class IOs {
 	 * @throws IOException if an error occurs during copy
 	 */
 	public static void copy(InputStream inputStream, OutputStream outputStream, int bufferSize) throws IOException {
+		// exact class check because subclasses may override read() or write()
+		if (inputStream.getClass() == FileInputStream.class && outputStream.getClass() == FileOutputStream.class) {
+			// streams positions follow their channel one
+			NIOs.transferTo(((FileInputStream) inputStream).getChannel(), ((FileOutputStream) outputStream).getChannel());
+			return;
+		}
 		int b;
-		byte[] readBytes = new byte[bufferSize];
-		while ((b = inputStream.read(readBytes)) != -1) {
-			outputStream.write(readBytes, 0, b);
+		byte[] readBytes = BufferPool.HEAP.acquireArray(bufferSize);
+		try {
+			while ((b = inputStream.read(readBytes, 0, bufferSize)) != -1) {
+				outputStream.write(readBytes, 0, b);
+			}
+		} finally {
+			BufferPool.HEAP.release(readBytes);
 		}
 	}
 	
@@ -100,9 +141,12 @@ public final class IOs {
 	}
 	
 	/**
-	 * A convenient class to iterate over an {@link InputStream} as an {@link Iterator}
+	 * A convenient class to iterate over an {@link InputStream} as an {@link Iterator}.
+	 * Packets are filled until packet size is reached or until the end of the stream, so all of them have packet size except last one
+	 * which may be smaller. Each of them is a new array, that belongs to the caller : see {@link ChunkReader} to read without copy.
+	 * Its buffers are taken from a {@link BufferPool}, they are given back at the end of the stream or by {@link #close()}.
 	 */
-	public static class InputStreamIterator implements Iterator<byte[]> {
+	public static class InputStreamIterator implements Iterator<byte[]>, AutoCloseable {
 		
 		/**
 		 * Convenience method to create an {@link Iterable} from an {@link InputStream}
@@ -114,29 +158,45 @@ public final class IOs {
 			return () -> new InputStreamIterator(source, packetSize);
 		}
 		
-		private final InputStream source;
-		private final int packetSize;
-		private final byte[] buffer;
+		private final ChunkReader reader;
 		
 		/**
-		 * Creates an {@link Iterator} from an {@link InputStream}
+		 * Creates an {@link Iterator} from an {@link InputStream}, which buffers are taken from {@link BufferPool#HEAP}
 		 * 
 		 * @param source the source of bytes
 		 * @param packetSize the size of returned packets
 		 */
 		public InputStreamIterator(InputStream source, int packetSize) {
-			this.source = source;
-			this.packetSize = packetSize;
-			this.buffer = new byte[packetSize];
+			this(source, packetSize, BufferPool.HEAP);
+		}
+		
+		/**
+		 * Creates an {@link Iterator} from an {@link InputStream} which buffers are taken from a {@link BufferPool}.
+		 * 
+		 * @param source the source of bytes
+		 * @param packetSize the size of returned packets
+		 * @param bufferPool the pool giving the buffers
+		 */
+		public InputStreamIterator(InputStream source, int packetSize, BufferPool bufferPool) {
+			this.reader = new ChunkReader(source, packetSize, bufferPool);
 		}
 		
+		/**
+		 * Reads next packet ahead, hence may block until it's available
+		 * 
+		 * @return false if end of stream is reached
+		 * @throws java.io.UncheckedIOException if an error occurs while reading the stream
+		 */
 		@Override
 		public boolean hasNext() {
-			try {
-				return source.available() != 0;
-			} catch (IOException e) {
-				throw new RuntimeException(e);
+			if (reader.closed) {
+				return false;
 			}
+			boolean result = reader.hasNext();
+			if (!result) {
+				reader.close();
+			}
+			return result;
 		}
 		
 		@Override
@@ -145,17 +205,18 @@ public final class IOs {
 			if (!hasNext()) {
 				throw new NoSuchElementException();
 			}
-			try {
-				int readBytesCount = source.read(buffer, 0, packetSize);
-				if (readBytesCount == buffer.length) {
-					return buffer;
-				} else {
-					// last packet may have a different size
-					return Arrays.copyOf(buffer, readBytesCount);
-				}
-			} catch (IOException e) {
-				throw new RuntimeException(e);
-			}
+			ByteBuffer chunk = reader.next();
+			byte[] result = new byte[chunk.remaining()];
+			chunk.get(result);
+			return result;
+		}
+		
+		/**
+		 * Gives buffers back to their pool. Doesn't close the source.
+		 */
+		@Override
+		public void close() {
+			reader.close();
 		}
 	}
 }
@@ -0,0 +1,277 @@
+package org.gama.lang.io;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.gama.lang.function.ThrowingConsumer;
+
+/**
+ * Methods around {@link java.nio.channels.Channel}s, counterpart of {@link IOs} that avoids moving data through heap byte arrays :
+ * <ul>
+ * <li>file copies use {@link FileChannel#transferTo(long, long, WritableByteChannel)} and
+ * {@link FileChannel#transferFrom(ReadableByteChannel, long, long)}, which let the operating system copy data (without bringing it into the
+ * JVM when possible)</li>
+ * <li>copies between other channels go through a direct {@link ByteBuffer}, which is reused for the whole copy</li>
+ * <li>large files can be read through memory-mapped regions</li>
+ * <li>content whose length is known is read into an array of exact size, without intermediary growing buffer</li>
+ * </ul>
+ * Given channels are expected to be in blocking mode. As for {@link IOs}, it's up to the caller to close them.
+ *
+ * @author Guillaume Mary
+ */
+public final class NIOs {
+	
+	/** Size of the direct buffer used by {@link #copy(ReadableByteChannel, WritableByteChannel)} */
+	public static final int DEFAULT_BUFFER_SIZE = (int) (64 * IOs._1_Ko);
+	
+	/** Maximum size of a memory-mapped region, due to {@link ByteBuffer} int indexes */
+	public static final long MAX_REGION_SIZE = Integer.MAX_VALUE;
+	
+	/** Maximum size of an array, some VMs reserve some header words in arrays */
+	private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+	
+	/**
+	 * Copies a file to another one, which is created or truncated, with {@link FileChannel#transferTo(long, long, WritableByteChannel)}
+	 *
+	 * @param source the file to be copied
+	 * @param target the file to be written
+	 * @return number of copied bytes
+	 * @throws IOException if an error occurs during copy
+	 */
+	public static long copy(Path source, Path target) throws IOException {
+		try (FileChannel sourceChannel = FileChannel.open(source, StandardOpenOption.READ);
+			 FileChannel targetChannel = FileChannel.open(target, StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+					 StandardOpenOption.TRUNCATE_EXISTING)) {
+			return transferTo(sourceChannel, targetChannel);
+		}
+	}
+	
+	/**
+	 * Copies a channel to another one : with {@link #transferTo(FileChannel, WritableByteChannel)} if source is a {@link FileChannel}, else
+	 * through a direct buffer of {@link #DEFAULT_BUFFER_SIZE} bytes taken from {@link BufferPool#DIRECT}.
+	 *
+	 * @param source the channel to be read until its end
+	 * @param target the channel to be written
+	 * @return number of copied bytes
+	 * @throws IOException if an error occurs during copy
+	 */
+	public static long copy(ReadableByteChannel source, WritableByteChannel target) throws IOException {
+		if (source instanceof FileChannel) {
+			return transferTo((FileChannel) source, target);
+		} else {
+			return copyThroughPooledBuffer(source, target);
+		}
+	}
+	
+	private static long copyThroughPooledBuffer(ReadableByteChannel source, WritableByteChannel target) throws IOException {
+		ByteBuffer buffer = BufferPool.DIRECT.acquire(DEFAULT_BUFFER_SIZE);
+		try {
+			return copy(source, target, buffer);
+		} finally {
+			BufferPool.DIRECT.release(buffer);
+		}
+	}
+	
+	/**
+	 * Copies a channel to another one through given buffer. A direct {@link ByteBuffer} should be preferred since channels copy heap ones
+	 * to a temporary direct one.
+	 *
+	 * @param source the channel to be read until its end
+	 * @param target the channel to be written
+	 * @param buffer the buffer to use, its content is lost
+	 * @return number of copied bytes
+	 * @throws IOException if an error occurs during copy
+	 */
+	public static long copy(ReadableByteChannel source, WritableByteChannel target, ByteBuffer buffer) throws IOException {
+		long count = 0;
+		// casts to Buffer keep binary compatibility with Java 8, in which ByteBuffer doesn't override these methods
+		((Buffer) buffer).clear();
+		while (source.read(buffer) != -1) {
+			((Buffer) buffer).flip();
+			count += target.write(buffer);
+			// keeping bytes that target didn't take
+			buffer.compact();
+		}
+		((Buffer) buffer).flip();
+		while (buffer.hasRemaining()) {
+			count += target.write(buffer);
+		}
+		return count;
+	}
+	
+	/**
+	 * Copies the content of a {@link FileChannel}, from its current position to its end, with
+	 * {@link FileChannel#transferTo(long, long, WritableByteChannel)}. Position of the source is moved to its end.
+	 * {@link FileChannel#transferTo(long, long, WritableByteChannel)} doesn't go further than file size, which is 0 for non-regular files
+	 * (such as /proc ones, pipes or devices) although they have content, so those are copied through a buffer, as well as what remains when
+	 * transfer stops before file size.
+	 *
+	 * @param source the channel to be read
+	 * @param target the channel to be written, a file or a socket one for instance
+	 * @return number of copied bytes
+	 * @throws IOException if an error occurs during copy
+	 */
+	public static long transferTo(FileChannel source, WritableByteChannel target) throws IOException {
+		long size = source.size();
+		if (size == 0) {
+			// position must not be asked since pipes don't support it
+			return copyThroughPooledBuffer(source, target);
+		}
+		long start = source.position();
+		long position = start;
+		while (position < size) {
+			long transferred = source.transferTo(position, size - position, target);
+			if (transferred == 0) {
+				break;
+			}
+			position += transferred;
+		}
+		source.position(position);
+		long result = position - start;
+		if (position < size) {
+			// file was truncated meanwhile (then source is at its end), or transfer isn't supported by the file
+			result += copyThroughPooledBuffer(source, target);
+		}
+		return result;
+	}
+	
+	/**
+	 * Copies at most count bytes of a channel at current position of a {@link FileChannel}, with
+	 * {@link FileChannel#transferFrom(ReadableByteChannel, long, long)}. Position of the target is moved after written bytes.
+	 *
+	 * @param source the channel to be read, a socket one for instance
+	 * @param target the file channel to be written
+	 * @param count maximum number of bytes to copy, less are copied if source ends before
+	 * @return number of copied bytes
+	 * @throws IOException if an error occurs during copy
+	 */
+	public static long transferFrom(ReadableByteChannel source, FileChannel target, long count) throws IOException {
+		long start = target.position();
+		long position = start;
+		long end = start + count;
+		while (position < end) {
+			long transferred = target.transferFrom(source, position, end - position);
+			if (transferred == 0) {
+				// end of source
+				break;
+			}
+			position += transferred;
+		}
+		target.position(position);
+		return position - start;
+	}
+	
+	/**
+	 * Maps a whole file in memory, as read-only. Content is loaded by the operating system on access, and is not part of the heap.
+	 *
+	 * @param file the file to be mapped
+	 * @return a new {@link MappedByteBuffer} over file content
+	 * @throws IOException if file can't be read
+	 * @throws IllegalArgumentException if file is larger than {@link #MAX_REGION_SIZE}, see {@link #forEachRegion(Path, long, ThrowingConsumer)}
+	 */
+	public static MappedByteBuffer map(Path file) throws IOException {
+		// mapping is kept valid after channel closing
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			long size = channel.size();
+			if (size > MAX_REGION_SIZE) {
+				throw new IllegalArgumentException("File is too large to be mapped at once : " + size + " bytes");
+			}
+			return channel.map(MapMode.READ_ONLY, 0, size);
+		}
+	}
+	
+	/**
+	 * Reads a file, whatever its size, as consecutive read-only memory-mapped regions
+	 *
+	 * @param file the file to be read
+	 * @param regionSize size of mapped regions, last one may be smaller, must be in ]0, {@link #MAX_REGION_SIZE}]
+	 * @param regionConsumer called with each region, in file order
+	 * @param <E> type of exception thrown by the consumer
+	 * @throws IOException if file can't be read
+	 * @throws E any exception thrown by the consumer
+	 */
+	public static <E extends Exception> void forEachRegion(Path file, long regionSize, ThrowingConsumer<? super MappedByteBuffer, E> regionConsumer)
+			throws IOException, E {
+		if (regionSize < 1 || regionSize > MAX_REGION_SIZE) {
+			throw new IllegalArgumentException("Region size must be in ]0, " + MAX_REGION_SIZE + "] : " + regionSize);
+		}
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			long size = channel.size();
+			for (long position = 0; position < size; position += regionSize) {
+				regionConsumer.accept(channel.map(MapMode.READ_ONLY, position, Math.min(regionSize, size - position)));
+			}
+		}
+	}
+	
+	/**
+	 * Reads a whole file into an array of its exact size
+	 *
+	 * @param file the file to be read
+	 * @return file content
+	 * @throws IOException if file can't be read
+	 * @throws IllegalArgumentException if file is too large to fit in an array
+	 */
+	public static byte[] toByteArray(Path file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			long size = channel.size();
+			if (size > MAX_ARRAY_SIZE) {
+				throw new IllegalArgumentException("File is too large to fit in an array : " + size + " bytes");
+			}
+			return toByteArray(channel, (int) size);
+		}
+	}
+	
+	/**
+	 * Reads a given number of bytes of a channel into an array of exact size
+	 *
+	 * @param source the channel to be read
+	 * @param length number of bytes to read
+	 * @return read bytes
+	 * @throws EOFException if channel ends before length bytes were read
+	 * @throws IOException if an error occurs while reading
+	 * @see IOs#readFully(InputStream, int)
+	 */
+	public static byte[] toByteArray(ReadableByteChannel source, int length) throws IOException {
+		byte[] result = new byte[length];
+		ByteBuffer buffer = ByteBuffer.wrap(result);
+		// reading by slices because channels read heap buffers through a temporary direct buffer of their remaining size, which the JDK
+		// keeps per thread : it would be as large as the content
+		while (buffer.hasRemaining()) {
+			((Buffer) buffer).limit(Math.min(length, buffer.position() + DEFAULT_BUFFER_SIZE));
+			if (source.read(buffer) == -1) {
+				throw new EOFException((length - buffer.position()) + " bytes are missing");
+			}
+			((Buffer) buffer).limit(length);
+		}
+		return result;
+	}
+	
+	/**
+	 * Fills remaining space of a buffer with bytes of a channel
+	 *
+	 * @param source the channel to be read
+	 * @param buffer the buffer to be filled
+	 * @throws EOFException if channel ends before buffer is full
+	 * @throws IOException if an error occurs while reading
+	 */
+	public static void readFully(ReadableByteChannel source, ByteBuffer buffer) throws IOException {
+		while (buffer.hasRemaining()) {
+			if (source.read(buffer) == -1) {
+				throw new EOFException(buffer.remaining() + " bytes are missing");
+			}
+		}
+	}
+	
+	private NIOs() {
+	}
+}
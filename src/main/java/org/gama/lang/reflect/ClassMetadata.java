@@ -0,0 +1,192 @@
+package org.gama.lang.reflect;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Executable;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.gama.lang.bean.FieldIterator;
+import org.gama.lang.bean.MethodIterator;
+
+/**
+ * Cached view over members (fields, methods, constructors) of a class hierarchy, so that repeated lookups neither walk the hierarchy nor copy
+ * member arrays as {@link Class#getDeclaredFields()} and its siblings do on each call.
+ * Instances are stored in a {@link ClassValue} : cache is bound to the {@link Class} itself and doesn't prevent class unloading.
+ *
+ * Each kind of member is computed on first need, then lookups are answered from {@link HashMap}s without any allocation.
+ * Since members are shared by all callers, beware that calling {@link java.lang.reflect.AccessibleObject#setAccessible(boolean)} on one of them
+ * impacts everyone.
+ *
+ * @author Guillaume Mary
+ * @see #of(Class)
+ */
+public final class ClassMetadata {
+	
+	private static final ClassValue<ClassMetadata> CACHE = new ClassValue<ClassMetadata>() {
+		@Override
+		protected ClassMetadata computeValue(Class<?> type) {
+			return new ClassMetadata(type);
+		}
+	};
+	
+	/**
+	 * Gives the (cached) metadata of a class
+	 *
+	 * @param clazz any class, not null
+	 * @return the metadata of given class, created on first call
+	 */
+	public static ClassMetadata of(Class<?> clazz) {
+		return CACHE.get(clazz);
+	}
+	
+	private final Class<?> clazz;
+	
+	/* Members are lazily computed : there's no harm if 2 threads compute them concurrently since they're immutable once built */
+	
+	private volatile FieldIndex fields;
+	
+	private volatile Map<String, List<Signature<Method>>> methodsPerName;
+	
+	private volatile List<Signature<Constructor>> constructors;
+	
+	private ClassMetadata(Class<?> clazz) {
+		this.clazz = clazz;
+	}
+	
+	public Class<?> getDescribedClass() {
+		return clazz;
+	}
+	
+	/**
+	 * Gives the field with the given name. Class hierarchy is checked until Object class, nearest declaration wins.
+	 *
+	 * @param name field name
+	 * @return the found field, null if not found
+	 */
+	public Field findField(String name) {
+		return giveFields().fieldPerName.get(name);
+	}
+	
+	/**
+	 * Gives fields of class hierarchy per their name. Because upper classes are iterated last, their fields override the ones of lower classes
+	 * with the same name (same behavior as historical {@link org.gama.lang.Reflections#mapFieldsOnName(Class)}).
+	 *
+	 * @return a read-only {@link Map} of fields per name
+	 */
+	public Map<String, Field> mapFieldsOnName() {
+		return giveFields().fieldsOnName;
+	}
+	
+	/**
+	 * Gives the method with the given signature elements. Class hierarchy is checked until Object class (included), nearest declaration wins.
+	 *
+	 * @param name method name
+	 * @param argTypes method argument types
+	 * @return the found method, null if not found
+	 */
+	public Method findMethod(String name, Class... argTypes) {
+		return find(giveMethods().get(name), argTypes);
+	}
+	
+	/**
+	 * Gives the declared constructor with the given argument types
+	 *
+	 * @param argTypes constructor argument types
+	 * @return the found constructor, null if not found
+	 */
+	public Constructor findConstructor(Class... argTypes) {
+		return find(giveConstructors(), argTypes);
+	}
+	
+	private static <E extends Executable> E find(List<Signature<E>> candidates, Class[] argTypes) {
+		if (candidates != null) {
+			// indexed loop to avoid Iterator allocation
+			for (int i = 0, size = candidates.size(); i < size; i++) {
+				Signature<E> candidate = candidates.get(i);
+				if (Arrays.equals(candidate.parameterTypes, argTypes)) {
+					return candidate.member;
+				}
+			}
+		}
+		return null;
+	}
+	
+	private FieldIndex giveFields() {
+		FieldIndex result = fields;
+		if (result == null) {
+			result = new FieldIndex(clazz);
+			fields = result;
+		}
+		return result;
+	}
+	
+	private Map<String, List<Signature<Method>>> giveMethods() {
+		Map<String, List<Signature<Method>>> result = methodsPerName;
+		if (result == null) {
+			result = new HashMap<>();
+			// same iteration as historical Reflections.findMethod(..) : from given class to Object, Object included
+			MethodIterator methodIterator = new MethodIterator(clazz, null);
+			while (methodIterator.hasNext()) {
+				Method method = methodIterator.next();
+				result.computeIfAbsent(method.getName(), k -> new ArrayList<>()).add(new Signature<>(method, method.getParameterTypes()));
+			}
+			methodsPerName = result;
+		}
+		return result;
+	}
+	
+	private List<Signature<Constructor>> giveConstructors() {
+		List<Signature<Constructor>> result = constructors;
+		if (result == null) {
+			result = new ArrayList<>();
+			for (Constructor constructor : clazz.getDeclaredConstructors()) {
+				result.add(new Signature<>(constructor, constructor.getParameterTypes()));
+			}
+			constructors = result;
+		}
+		return result;
+	}
+	
+	/**
+	 * Fields of a class hierarchy, indexed per name
+	 */
+	private static class FieldIndex {
+		
+		private final Map<String, Field> fieldPerName = new HashMap<>();
+		
+		private final Map<String, Field> fieldsOnName;
+		
+		private FieldIndex(Class<?> clazz) {
+			Map<String, Field> lastWins = new HashMap<>();
+			FieldIterator fieldIterator = new FieldIterator(clazz);
+			while (fieldIterator.hasNext()) {
+				Field field = fieldIterator.next();
+				fieldPerName.putIfAbsent(field.getName(), field);
+				lastWins.put(field.getName(), field);
+			}
+			this.fieldsOnName = Collections.unmodifiableMap(lastWins);
+		}
+	}
+	
+	/**
+	 * Storage of a member and its parameter types, because {@link Executable#getParameterTypes()} clones its array on each call
+	 *
+	 * @param <E> member type
+	 */
+	private static class Signature<E extends Executable> {
+		
+		private final E member;
+		private final Class[] parameterTypes;
+		
+		private Signature(E member, Class[] parameterTypes) {
+			this.member = member;
+			this.parameterTypes = parameterTypes;
+		}
+	}
+}
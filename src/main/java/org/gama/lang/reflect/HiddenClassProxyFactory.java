@@ -0,0 +1,357 @@
+package org.gama.lang.reflect;
+
+import javax.annotation.Nullable;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodHandles.Lookup;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import org.gama.lang.Experimental;
+import org.gama.lang.Reflections.InvokationRuntimeException;
+import org.gama.lang.reflect.ProxyClassGenerator.MethodPlan;
+
+/**
+ * {@link ProxyFactory} that generates a hidden class per set of interfaces and {@link Redirection}s. Redirected methods of generated classes
+ * directly call their target : no argument array, no boxing, no reflective invokation, making their cost close to a virtual call.
+ * Other methods invoke the {@link InvocationHandler} the same way JDK proxies do, except that undeclared checked exceptions are not wrapped into
+ * an {@link java.lang.reflect.UndeclaredThrowableException}.
+ *
+ * Hidden classes require Java 15, see {@link #isAvailable()}. Proxies are created by {@link JdkProxyFactory} when generation is not possible :
+ * older JVM, non-public interfaces from different packages, interfaces not visible from a common {@link ClassLoader}, non-open modules, etc.
+ * Created proxies implement {@link GeneratedProxy} so their {@link InvocationHandler} can be retrieved.
+ *
+ * @author Guillaume Mary
+ */
+@Experimental
+public class HiddenClassProxyFactory implements ProxyFactory {
+	
+	public static final HiddenClassProxyFactory INSTANCE = new HiddenClassProxyFactory();
+	
+	private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(Object.class, InvocationHandler.class, Method[].class, Object[].class);
+	
+	private static final Method[] OBJECT_METHODS;
+	
+	/* Java 9 and 15 API are invoked through MethodHandles to keep compatibility with Java 8 */
+	
+	/** {@link MethodHandles}.privateLookupIn(Class, Lookup), null if JVM doesn't support hidden classes */
+	private static final MethodHandle PRIVATE_LOOKUP_IN;
+	
+	/** {@link Lookup}.defineHiddenClass(byte[], boolean, ClassOption...), null if JVM doesn't support hidden classes */
+	private static final MethodHandle DEFINE_HIDDEN_CLASS;
+	
+	/** An empty ClassOption array */
+	private static final Object NO_CLASS_OPTION;
+	
+	static {
+		try {
+			OBJECT_METHODS = new Method[] {
+					Object.class.getMethod("equals", Object.class),
+					Object.class.getMethod("hashCode"),
+					Object.class.getMethod("toString") };
+		} catch (NoSuchMethodException e) {
+			// can't happen
+			throw new InvokationRuntimeException(e);
+		}
+		MethodHandle privateLookupIn = null;
+		MethodHandle defineHiddenClass = null;
+		Object noClassOption = null;
+		try {
+			Lookup publicLookup = MethodHandles.publicLookup();
+			privateLookupIn = publicLookup.findStatic(MethodHandles.class, "privateLookupIn",
+					MethodType.methodType(Lookup.class, Class.class, Lookup.class));
+			noClassOption = Array.newInstance(Class.forName("java.lang.invoke.MethodHandles$Lookup$ClassOption"), 0);
+			defineHiddenClass = publicLookup.findVirtual(Lookup.class, "defineHiddenClass",
+					MethodType.methodType(Lookup.class, byte[].class, boolean.class, noClassOption.getClass()))
+					// ClassOption array is given as is, not as varargs
+					.asFixedArity();
+		} catch (ReflectiveOperationException e) {
+			// JVM older than 15 : hidden classes are not supported
+			privateLookupIn = null;
+			defineHiddenClass = null;
+		}
+		PRIVATE_LOOKUP_IN = privateLookupIn;
+		DEFINE_HIDDEN_CLASS = defineHiddenClass;
+		NO_CLASS_OPTION = noClassOption;
+	}
+	
+	/**
+	 * @return true if current JVM supports hidden classes, if false all proxies will be created by {@link JdkProxyFactory}
+	 */
+	public static boolean isAvailable() {
+		return DEFINE_HIDDEN_CLASS != null;
+	}
+	
+	private final ProxyClassGenerator proxyClassGenerator = new ProxyClassGenerator();
+	
+	/**
+	 * Constructors of generated classes per interfaces and redirections (see {@link #newProxy(ClassLoader, Class[], InvocationHandler, Function)}),
+	 * empty when generation failed. Stored per class of the most specific {@link ClassLoader} (see {@link #giveCacheOwner(Set)}) to not prevent
+	 * class unloading.
+	 */
+	private final ClassValue<Map<List<Object>, Optional<MethodHandle>>> proxyConstructors = new ClassValue<Map<List<Object>, Optional<MethodHandle>>>() {
+		@Override
+		protected Map<List<Object>, Optional<MethodHandle>> computeValue(Class<?> type) {
+			return new ConcurrentHashMap<>();
+		}
+	};
+	
+	/**
+	 * Implementation that generates a class for given interfaces. Given {@link ClassLoader} is not used : generated classes are defined in the
+	 * package of one of the interfaces (the non-public one if any) or of this class.
+	 *
+	 * @param classLoader ignored
+	 * @param interfaces the interfaces to be implemented by the proxy
+	 * @param invocationHandler the handler of all methods that are not redirected
+	 * @param redirector gives the {@link Redirection} of a method, null if the method is not redirected
+	 * @return a new proxy implementing given interfaces
+	 */
+	@Override
+	public Object newProxy(ClassLoader classLoader, Class<?>[] interfaces, InvocationHandler invocationHandler, Function<Method, Redirection> redirector) {
+		if (!isAvailable() || interfaces.length == 0) {
+			return JdkProxyFactory.INSTANCE.newProxy(classLoader, interfaces, invocationHandler, redirector);
+		}
+		List<MethodPlan> methodPlans = new ArrayList<>();
+		List<Object> targets = new ArrayList<>();
+		// key of generated class : interfaces and redirections
+		List<Object> proxyClassKey = new ArrayList<>(Arrays.asList(interfaces));
+		for (Method method : collectMethods(interfaces)) {
+			// Object methods are always given to invocation handler, as JDK proxies do
+			Redirection redirection = isObjectMethod(method) ? null : redirector.apply(method);
+			MethodPlan methodPlan;
+			if (redirection != null && isRedirectable(method, redirection, interfaces)) {
+				methodPlan = new MethodPlan(method, redirection.getMethod(), redirection.isReturnProxy());
+				targets.add(redirection.getMethodTarget());
+			} else {
+				methodPlan = new MethodPlan(method, null, false);
+			}
+			methodPlans.add(methodPlan);
+			proxyClassKey.add(methodPlan.getRedirection());
+			proxyClassKey.add(methodPlan.isReturnProxy());
+		}
+		Set<Class<?>> referencedClasses = collectReferencedClasses(interfaces, methodPlans);
+		Class<?> cacheOwner = giveCacheOwner(referencedClasses);
+		Optional<MethodHandle> proxyConstructor;
+		if (cacheOwner == null) {
+			// classes come from unrelated ClassLoaders : caching on any of them would retain the other ones
+			proxyConstructor = Optional.ofNullable(defineProxyClass(interfaces, methodPlans, referencedClasses));
+		} else {
+			proxyConstructor = proxyConstructors.get(cacheOwner)
+					.computeIfAbsent(proxyClassKey, k -> Optional.ofNullable(defineProxyClass(interfaces, methodPlans, referencedClasses)));
+		}
+		if (proxyConstructor.isPresent()) {
+			Method[] methods = methodPlans.stream().map(MethodPlan::getMethod).toArray(Method[]::new);
+			try {
+				return (Object) proxyConstructor.get().invokeExact(invocationHandler, methods, targets.toArray());
+			} catch (RuntimeException | Error e) {
+				throw e;
+			} catch (Throwable t) {
+				// can't happen since constructor doesn't declare any exception
+				throw new InvokationRuntimeException(t);
+			}
+		} else {
+			return JdkProxyFactory.INSTANCE.newProxy(classLoader, interfaces, invocationHandler, redirector);
+		}
+	}
+	
+	/**
+	 * Gives methods to be implemented : the ones of {@link Object} that JDK proxies intercept, then non-static methods of interfaces, without
+	 * duplicates (same name and same descriptor)
+	 */
+	private static Iterable<Method> collectMethods(Class<?>[] interfaces) {
+		Map<String, Method> result = new LinkedHashMap<>();
+		for (Method method : OBJECT_METHODS) {
+			result.put(method.getName() + ProxyClassGenerator.descriptor(method), method);
+		}
+		for (Class<?> anInterface : interfaces) {
+			for (Method method : anInterface.getMethods()) {
+				if (!Modifier.isStatic(method.getModifiers())) {
+					result.putIfAbsent(method.getName() + ProxyClassGenerator.descriptor(method), method);
+				}
+			}
+		}
+		return result.values();
+	}
+	
+	private static boolean isObjectMethod(Method method) {
+		return method.getDeclaringClass() == Object.class;
+	}
+	
+	/**
+	 * Checks that a direct call can be generated for given method
+	 */
+	private static boolean isRedirectable(Method method, Redirection redirection, Class<?>[] interfaces) {
+		Method target = redirection.getMethod();
+		Class<?> owner = target.getDeclaringClass();
+		if (!owner.isInterface() || Modifier.isStatic(target.getModifiers()) || !owner.isInstance(redirection.getMethodTarget())
+				|| !Arrays.equals(method.getParameterTypes(), target.getParameterTypes())) {
+			return false;
+		}
+		Class<?> returnType = method.getReturnType();
+		Class<?> targetReturnType = target.getReturnType();
+		if (returnType == void.class || returnType == targetReturnType) {
+			return true;
+		} else if (redirection.isReturnProxy()) {
+			return !returnType.isPrimitive() && Arrays.stream(interfaces).anyMatch(returnType::isAssignableFrom);
+		} else {
+			// a cast will be done on returned value, which is only possible between reference types
+			return !returnType.isPrimitive() && !targetReturnType.isPrimitive();
+		}
+	}
+	
+	/**
+	 * Generates and defines a proxy class
+	 *
+	 * @return the constructor of the generated class, adapted to {@link #CONSTRUCTOR_TYPE}, null if class can't be generated
+	 */
+	private MethodHandle defineProxyClass(Class<?>[] interfaces, List<MethodPlan> methodPlans, Set<Class<?>> referencedClasses) {
+		Class<?> host = giveHostClass(referencedClasses, interfaces[0]);
+		try {
+			Lookup hostLookup = (Lookup) PRIVATE_LOOKUP_IN.invoke(host, MethodHandles.lookup());
+			if (!isGeneratedClassLinkable(host, referencedClasses)) {
+				return null;
+			}
+			byte[] classFile = proxyClassGenerator.generate(ProxyClassGenerator.internalName(host) + "$$Proxy", interfaces, methodPlans);
+			Lookup proxyClassLookup = (Lookup) DEFINE_HIDDEN_CLASS.invoke(hostLookup, classFile, true, NO_CLASS_OPTION);
+			return proxyClassLookup.findConstructor(proxyClassLookup.lookupClass(), CONSTRUCTOR_TYPE.changeReturnType(void.class))
+					.asType(CONSTRUCTOR_TYPE);
+		} catch (Throwable t) {
+			// access, linkage, module restriction, etc : we'll fallback to JDK proxy
+			return null;
+		}
+	}
+	
+	/**
+	 * @return classes used by generated class
+	 */
+	private static Set<Class<?>> collectReferencedClasses(Class<?>[] interfaces, List<MethodPlan> methodPlans) {
+		Set<Class<?>> result = new LinkedHashSet<>(Arrays.asList(interfaces));
+		result.add(GeneratedProxy.class);
+		for (MethodPlan methodPlan : methodPlans) {
+			addTypes(result, methodPlan.getMethod());
+			if (methodPlan.getRedirection() != null) {
+				result.add(methodPlan.getRedirection().getDeclaringClass());
+				addTypes(result, methodPlan.getRedirection());
+			}
+		}
+		return result;
+	}
+	
+	/**
+	 * Gives the class which {@link ClassLoader} is a descendant of (or is) the ones of all given classes and of this class : a cache entry stored
+	 * on it only references classes that can't be unloaded before it, hence it doesn't retain any {@link ClassLoader}. This includes the
+	 * generated class since its host is one of given classes or this class.
+	 *
+	 * @param classes the classes referenced by a cache entry
+	 * @return null if given classes come from unrelated {@link ClassLoader}s
+	 */
+	@Nullable
+	static Class<?> giveCacheOwner(Set<Class<?>> classes) {
+		Class<?> result = HiddenClassProxyFactory.class;
+		for (Class<?> clazz : classes) {
+			if (isAncestor(result.getClassLoader(), clazz.getClassLoader())) {
+				result = clazz;
+			} else if (!isAncestor(clazz.getClassLoader(), result.getClassLoader())) {
+				return null;
+			}
+		}
+		return result;
+	}
+	
+	/**
+	 * @return true if given potential ancestor is given {@link ClassLoader} or one of its parents, null meaning bootstrap {@link ClassLoader}
+	 */
+	private static boolean isAncestor(@Nullable ClassLoader potentialAncestor, @Nullable ClassLoader classLoader) {
+		if (potentialAncestor == null) {
+			return true;
+		}
+		ClassLoader currentClassLoader = classLoader;
+		while (currentClassLoader != null) {
+			if (currentClassLoader == potentialAncestor) {
+				return true;
+			}
+			currentClassLoader = currentClassLoader.getParent();
+		}
+		return false;
+	}
+	
+	private static void addTypes(Set<Class<?>> classes, Method method) {
+		classes.add(giveComponentType(method.getReturnType()));
+		for (Class<?> parameterType : method.getParameterTypes()) {
+			classes.add(giveComponentType(parameterType));
+		}
+	}
+	
+	private static Class<?> giveComponentType(Class<?> clazz) {
+		Class<?> result = clazz;
+		while (result.isArray()) {
+			result = result.getComponentType();
+		}
+		return result;
+	}
+	
+	/**
+	 * Gives the class in which package proxy class will be generated : the first non-public one of given classes because it's only accessible
+	 * from its package, else the main interface since its {@link ClassLoader} is expected to see the other ones (unless it's a JDK one), else
+	 * this class.
+	 */
+	private static Class<?> giveHostClass(Set<Class<?>> classes, Class<?> mainInterface) {
+		return classes.stream()
+				.filter(c -> !c.isPrimitive() && !Modifier.isPublic(c.getModifiers()))
+				.findFirst()
+				.orElse(mainInterface.getClassLoader() != null ? mainInterface : HiddenClassProxyFactory.class);
+	}
+	
+	/**
+	 * @return true if all given classes are visible from host {@link ClassLoader}, and non-public ones are in host package
+	 */
+	private static boolean isGeneratedClassLinkable(Class<?> host, Set<Class<?>> referencedClasses) {
+		for (Class<?> clazz : referencedClasses) {
+			if (!clazz.isPrimitive()) {
+				if (!Modifier.isPublic(clazz.getModifiers()) && !packageName(clazz).equals(packageName(host))) {
+					return false;
+				}
+				try {
+					if (Class.forName(clazz.getName(), false, host.getClassLoader()) != clazz) {
+						return false;
+					}
+				} catch (ClassNotFoundException e) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+	
+	private static String packageName(Class<?> clazz) {
+		String className = clazz.getName();
+		int lastDot = className.lastIndexOf('.');
+		return lastDot == -1 ? "" : className.substring(0, lastDot);
+	}
+	
+	/**
+	 * Contract implemented by all proxies generated by {@link HiddenClassProxyFactory}
+	 */
+	public interface GeneratedProxy {
+		
+		/**
+		 * Named with a trailing $ to avoid conflict with proxied interfaces methods
+		 *
+		 * @return the {@link InvocationHandler} given at proxy creation
+		 */
+		InvocationHandler getInvocationHandler$();
+	}
+}
@@ -0,0 +1,22 @@
+package org.gama.lang.reflect;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.function.Function;
+
+/**
+ * {@link ProxyFactory} based on JDK {@link Proxy} : all methods go through the {@link InvocationHandler}, {@link Redirection}s are ignored.
+ * This is the default implementation.
+ *
+ * @author Guillaume Mary
+ */
+public class JdkProxyFactory implements ProxyFactory {
+	
+	public static final JdkProxyFactory INSTANCE = new JdkProxyFactory();
+	
+	@Override
+	public Object newProxy(ClassLoader classLoader, Class<?>[] interfaces, InvocationHandler invocationHandler, Function<Method, Redirection> redirector) {
+		return Proxy.newProxyInstance(classLoader, interfaces, invocationHandler);
+	}
+}
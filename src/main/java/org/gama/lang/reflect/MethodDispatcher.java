@@ -1,13 +1,16 @@
 package org.gama.lang.reflect;
 
+import javax.annotation.Nullable;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
-import java.lang.reflect.Proxy;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.gama.lang.InvocationHandlerSupport;
 import org.gama.lang.Reflections;
@@ -25,18 +28,35 @@ import static org.gama.lang.function.Functions.chain;
  */
 public class MethodDispatcher {
 	
+	/** Marker of methods that are not intercepted, see {@link #dispatchTable} */
+	private static final Interceptor NO_INTERCEPTOR = new Interceptor(null, null, false);
+	
 	/**
 	 * Methods (and its config) to be invoked according to effective method call.
 	 * These are stored per a light signature to take polymorphism and multiple inheritance into account.
 	 * Indeed, the light signature doesn't contain declaring class nor return type : only method name and arguments types.
+	 * Must only be modified through {@link #addInterceptor(Method, Object, boolean)}, else {@link #dispatchTable} would be stale.
 	 */
 	protected final Map<String /* simple method signature */, Interceptor> interceptors = new HashMap<>();
 	
+	/**
+	 * Interceptors per invoked method, to resolve them only once per {@link Method} instead of computing their signature on each invokation.
+	 * {@link #NO_INTERCEPTOR} is stored for methods that fallback to {@link #fallback} because {@link ConcurrentHashMap} doesn't support null values.
+	 * Reset on each {@link #addInterceptor(Method, Object, boolean)}.
+	 */
+	private final Map<Method, Interceptor> dispatchTable = new ConcurrentHashMap<>();
+	
 	/** Final target when no interceptor handled method, not null after {@link #build(Class)} invokation */
 	private Object fallback;
 	
+	/** Proxy creator, JDK one by default */
+	private ProxyFactory proxyFactory = JdkProxyFactory.INSTANCE;
+	
+	/**
+	 * @return an unmodifiable view of interceptors per method signature, use {@link #redirect(Class, Object)} to add some
+	 */
 	public Map<String, Interceptor> getInterceptors() {
-		return interceptors;
+		return Collections.unmodifiableMap(interceptors);
 	}
 	
 	public Object getFallback() {
@@ -72,6 +92,26 @@ public class MethodDispatcher {
 	
 	protected  <X> void addInterceptor(Method method, X extensionSurrogate, boolean returnProxy) {
 		interceptors.put(giveSignature(method), new Interceptor(method, extensionSurrogate, returnProxy));
+		// previously resolved methods may be impacted by new interceptor
+		dispatchTable.clear();
+	}
+	
+	/**
+	 * Gives the {@link Interceptor} of a method. Result is cached so {@link #giveSignature(Method)} is called only once per {@link Method}, making
+	 * steady-state dispatch free of any allocation.
+	 * 
+	 * @param method any method invoked on a built proxy
+	 * @return the {@link Interceptor} matching given method signature, null if method is not intercepted
+	 */
+	@Nullable
+	protected Interceptor giveInterceptor(Method method) {
+		// Note that we don't use computeIfAbsent(..) because it may lock even if key is present (Java 8)
+		Interceptor interceptor = dispatchTable.get(method);
+		if (interceptor == null) {
+			interceptor = interceptors.getOrDefault(giveSignature(method), NO_INTERCEPTOR);
+			dispatchTable.put(method, interceptor);
+		}
+		return interceptor == NO_INTERCEPTOR ? null : interceptor;
 	}
 	
 	/**
@@ -97,14 +137,22 @@ public class MethodDispatcher {
 		// we don't use the Thread one because it can live forever so it might lead to memory leak
 		// we don't use fallback because it can be null
 		ClassLoader classLoader = getClass().getClassLoader();
-		Set<Class<?>> targetInterfaces = collect(interceptors.values(), chain(Interceptor::getMethod, Method::getDeclaringClass), HashSet::new);
+		// X interface is put first because some ProxyFactory use first interface as main one
+		Set<Class<?>> targetInterfaces = new LinkedHashSet<>();
 		// we must add the X interface to the list that will be proxied, else we'll get a "com.sun.proxy.$Proxy4 cannot be cast to X"
 		targetInterfaces.add(interfazz);
+		targetInterfaces.addAll(collect(interceptors.values(), chain(Interceptor::getMethod, Method::getDeclaringClass), HashSet::new));
+		// resolving interceptors upfront, invokations will then only look them up
+		targetInterfaces.forEach(targetInterface -> {
+			for (Method method : targetInterface.getMethods()) {
+				giveInterceptor(method);
+			}
+		});
 		// building invocationHandler : we create a holder for the proxy because it must be referenced in some cases
 		Object[] proxyHolder = new Object[1];
 		InvocationHandler dispatcher = new InvocationHandlerSupport((input, method, args) -> {
 			// looking for method to be really invoked
-			Interceptor interceptor = interceptors.get(giveSignature(method));
+			Interceptor interceptor = giveInterceptor(method);
 			Object targetInstance = fallback;
 			boolean returnProxy = false;
 			if (interceptor != null) {
@@ -126,7 +174,7 @@ public class MethodDispatcher {
 				return "Dispatcher to " + fallback.toString();
 			}
 		};
-		proxyHolder[0] = Proxy.newProxyInstance(classLoader, targetInterfaces.toArray(new Class[0]), dispatcher);
+		proxyHolder[0] = proxyFactory.newProxy(classLoader, targetInterfaces.toArray(new Class[0]), dispatcher, this::giveInterceptor);
 		return (X) proxyHolder[0];
 	}
 	
@@ -164,6 +212,19 @@ public class MethodDispatcher {
 		return this;
 	}
 	
+	/**
+	 * Changes the way proxies are created by {@link #build(Class)}. Default is {@link JdkProxyFactory}.
+	 * Note that {@link ProxyFactory}s that call redirected methods directly (such as {@link HiddenClassProxyFactory}) won't call
+	 * {@link #invoke(Object, Method, Object[])} for them, moreover those redirections are fixed at {@link #build(Class)} time.
+	 * 
+	 * @param proxyFactory the proxy creator to be used
+	 * @return this
+	 */
+	public MethodDispatcher withProxyFactory(ProxyFactory proxyFactory) {
+		this.proxyFactory = proxyFactory;
+		return this;
+	}
+	
 	/**
 	 * Invokes a method on a target
 	 * @param target instance target of the method
@@ -209,7 +270,7 @@ public class MethodDispatcher {
 		}
 	}
 	
-	protected static class Interceptor {
+	protected static class Interceptor implements ProxyFactory.Redirection {
 		
 		private final Method method;
 		private final Object methodTarget;
@@ -221,14 +282,17 @@ public class MethodDispatcher {
 			this.returnProxy = returnProxy;
 		}
 		
+		@Override
 		public Method getMethod() {
 			return method;
 		}
 		
+		@Override
 		public Object getMethodTarget() {
 			return methodTarget;
 		}
 		
+		@Override
 		public boolean isReturnProxy() {
 			return returnProxy;
 		}
@@ -0,0 +1,662 @@
+package org.gama.lang.reflect;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.gama.lang.Reflections;
+
+/**
+ * Minimal class file writer dedicated to {@link HiddenClassProxyFactory} : it generates a final class implementing some interfaces which
+ * methods either call directly a target (redirected ones) or invoke an {@link InvocationHandler} like a JDK proxy does.
+ * Generated code has no branch so it doesn't need any stack map frame, hence class file version is Java 8 one.
+ *
+ * Generated class has the following shape :
+ * <pre>
+ * public final class XXX implements interfaces..., HiddenClassProxyFactory.GeneratedProxy {
+ *     private final InvocationHandler h;
+ *     private final Method[] m;	// methods passed to h, in order of given MethodPlans
+ *     private final Owner0 t0;		// one field per redirected method, typed by its declaring interface
+ *
+ *     public XXX(InvocationHandler h, Method[] m, Object[] targets) { ... }
+ *
+ *     public final R redirectedMethod(A a) { return (R) t0.redirectedMethod(a); }	// or "t0.redirectedMethod(a); return this;"
+ *     public final R otherMethod(A a) { return (R) h.invoke(this, m[1], new Object[] { a }); }
+ *     public final InvocationHandler getInvocationHandler$() { return h; }
+ * }
+ * </pre>
+ *
+ * @author Guillaume Mary
+ */
+class ProxyClassGenerator {
+	
+	static final String CONSTRUCTOR_DESCRIPTOR = "(Ljava/lang/reflect/InvocationHandler;[Ljava/lang/reflect/Method;[Ljava/lang/Object;)V";
+	
+	private static final int JAVA_8_CLASS_FILE_VERSION = 52;
+	
+	private static final int ACC_PUBLIC = 0x0001;
+	private static final int ACC_PRIVATE = 0x0002;
+	private static final int ACC_FINAL = 0x0010;
+	private static final int ACC_SUPER = 0x0020;
+	
+	private static final String OBJECT = "java/lang/Object";
+	private static final String INVOCATION_HANDLER = "java/lang/reflect/InvocationHandler";
+	private static final String INVOCATION_HANDLER_DESCRIPTOR = "L" + INVOCATION_HANDLER + ";";
+	private static final String METHODS_DESCRIPTOR = "[Ljava/lang/reflect/Method;";
+	private static final String HANDLER_FIELD = "h";
+	private static final String METHODS_FIELD = "m";
+	private static final String TARGET_FIELD_PREFIX = "t";
+	
+	/**
+	 * Generates the class file of a proxy
+	 *
+	 * @param internalName class name, with slashes as package separator
+	 * @param interfaces interfaces to be implemented
+	 * @param methods methods to be implemented, with their redirection if any
+	 * @return the class file bytes
+	 */
+	byte[] generate(String internalName, Class<?>[] interfaces, List<MethodPlan> methods) {
+		ConstantPool constantPool = new ConstantPool();
+		int thisClass = constantPool.classRef(internalName);
+		int superClass = constantPool.classRef(OBJECT);
+		int[] interfaceIndexes = new int[interfaces.length + 1];
+		for (int i = 0; i < interfaces.length; i++) {
+			interfaceIndexes[i] = constantPool.classRef(internalName(interfaces[i]));
+		}
+		interfaceIndexes[interfaces.length] = constantPool.classRef(internalName(HiddenClassProxyFactory.GeneratedProxy.class));
+		
+		Output fields = new Output();
+		int fieldCount = 0;
+		fieldCount += writeField(fields, constantPool, HANDLER_FIELD, INVOCATION_HANDLER_DESCRIPTOR);
+		fieldCount += writeField(fields, constantPool, METHODS_FIELD, METHODS_DESCRIPTOR);
+		int targetCount = 0;
+		for (MethodPlan methodPlan : methods) {
+			if (methodPlan.redirection != null) {
+				fieldCount += writeField(fields, constantPool, TARGET_FIELD_PREFIX + targetCount++, descriptor(methodPlan.redirection.getDeclaringClass()));
+			}
+		}
+		
+		Output methodsOutput = new Output();
+		int methodCount = 0;
+		methodCount += writeConstructor(methodsOutput, constantPool, internalName, methods);
+		int methodIndex = 0;
+		int targetIndex = 0;
+		for (MethodPlan methodPlan : methods) {
+			Code code = new Code(constantPool, 1 + slotCount(methodPlan.method.getParameterTypes()));
+			if (methodPlan.redirection != null) {
+				writeRedirection(code, internalName, methodPlan, targetIndex++);
+			} else {
+				writeHandlerInvocation(code, internalName, methodPlan.method, methodIndex);
+			}
+			methodCount += writeMethod(methodsOutput, constantPool, ACC_PUBLIC | ACC_FINAL, methodPlan.method.getName(), descriptor(methodPlan.method), code);
+			methodIndex++;
+		}
+		Code getInvocationHandler = new Code(constantPool, 1);
+		getInvocationHandler.aload(0);
+		getInvocationHandler.getField(internalName, HANDLER_FIELD, INVOCATION_HANDLER_DESCRIPTOR, 1);
+		getInvocationHandler.returnValue(InvocationHandler.class);
+		methodCount += writeMethod(methodsOutput, constantPool, ACC_PUBLIC | ACC_FINAL, "getInvocationHandler$", "()" + INVOCATION_HANDLER_DESCRIPTOR,
+				getInvocationHandler);
+		
+		Output classFile = new Output();
+		classFile.u4(0xCAFEBABE);
+		classFile.u2(0);
+		classFile.u2(JAVA_8_CLASS_FILE_VERSION);
+		constantPool.writeTo(classFile);
+		classFile.u2(ACC_PUBLIC | ACC_FINAL | ACC_SUPER);
+		classFile.u2(thisClass);
+		classFile.u2(superClass);
+		classFile.u2(interfaceIndexes.length);
+		for (int interfaceIndex : interfaceIndexes) {
+			classFile.u2(interfaceIndex);
+		}
+		classFile.u2(fieldCount);
+		classFile.bytes(fields.toByteArray());
+		classFile.u2(methodCount);
+		classFile.bytes(methodsOutput.toByteArray());
+		// no class attribute
+		classFile.u2(0);
+		return classFile.toByteArray();
+	}
+	
+	private int writeField(Output output, ConstantPool constantPool, String name, String descriptor) {
+		output.u2(ACC_PRIVATE | ACC_FINAL);
+		output.u2(constantPool.utf8(name));
+		output.u2(constantPool.utf8(descriptor));
+		// no field attribute
+		output.u2(0);
+		return 1;
+	}
+	
+	private int writeConstructor(Output output, ConstantPool constantPool, String internalName, List<MethodPlan> methods) {
+		Code code = new Code(constantPool, 4);
+		code.aload(0);
+		code.invoke(Code.INVOKESPECIAL, OBJECT, "<init>", "()V", 1, 0);
+		code.aload(0);
+		code.aload(1);
+		code.putField(internalName, HANDLER_FIELD, INVOCATION_HANDLER_DESCRIPTOR);
+		code.aload(0);
+		code.aload(2);
+		code.putField(internalName, METHODS_FIELD, METHODS_DESCRIPTOR);
+		int targetIndex = 0;
+		for (MethodPlan methodPlan : methods) {
+			if (methodPlan.redirection != null) {
+				Class<?> targetType = methodPlan.redirection.getDeclaringClass();
+				code.aload(0);
+				code.aload(3);
+				code.pushInt(targetIndex);
+				code.aaload();
+				code.checkCast(targetType);
+				code.putField(internalName, TARGET_FIELD_PREFIX + targetIndex, descriptor(targetType));
+				targetIndex++;
+			}
+		}
+		code.returnValue(void.class);
+		return writeMethod(output, constantPool, ACC_PUBLIC, "<init>", CONSTRUCTOR_DESCRIPTOR, code);
+	}
+	
+	/**
+	 * Writes a direct call to the redirection target
+	 */
+	private void writeRedirection(Code code, String internalName, MethodPlan methodPlan, int targetIndex) {
+		Method redirection = methodPlan.redirection;
+		Class<?> owner = redirection.getDeclaringClass();
+		code.aload(0);
+		code.getField(internalName, TARGET_FIELD_PREFIX + targetIndex, descriptor(owner), 1);
+		Class<?>[] parameterTypes = methodPlan.method.getParameterTypes();
+		int slot = 1;
+		for (Class<?> parameterType : parameterTypes) {
+			code.load(parameterType, slot);
+			slot += slotCount(parameterType);
+		}
+		Class<?> redirectionReturnType = redirection.getReturnType();
+		code.invoke(Code.INVOKEINTERFACE, internalName(owner), redirection.getName(), descriptor(redirection),
+				1 + slotCount(parameterTypes), slotCount(redirectionReturnType));
+		Class<?> returnType = methodPlan.method.getReturnType();
+		if (methodPlan.returnProxy) {
+			code.pop(redirectionReturnType);
+			if (returnType != void.class) {
+				code.aload(0);
+			}
+		} else if (returnType == void.class) {
+			code.pop(redirectionReturnType);
+		} else if (returnType != redirectionReturnType && returnType != Object.class) {
+			// reference types only, see HiddenClassProxyFactory.isRedirectable(..)
+			code.checkCast(returnType);
+		}
+		code.returnValue(returnType);
+	}
+	
+	/**
+	 * Writes a call to {@link InvocationHandler#invoke(Object, Method, Object[])}, as a JDK proxy does : arguments are boxed into an array (null
+	 * for methods without argument), result is unboxed for primitive return types
+	 */
+	private void writeHandlerInvocation(Code code, String internalName, Method method, int methodIndex) {
+		code.aload(0);
+		code.getField(internalName, HANDLER_FIELD, INVOCATION_HANDLER_DESCRIPTOR, 1);
+		code.aload(0);
+		code.aload(0);
+		code.getField(internalName, METHODS_FIELD, METHODS_DESCRIPTOR, 1);
+		code.pushInt(methodIndex);
+		code.aaload();
+		Class<?>[] parameterTypes = method.getParameterTypes();
+		if (parameterTypes.length == 0) {
+			code.aconstNull();
+		} else {
+			code.pushInt(parameterTypes.length);
+			code.anewarray(OBJECT);
+			int slot = 1;
+			for (int i = 0; i < parameterTypes.length; i++) {
+				Class<?> parameterType = parameterTypes[i];
+				code.dup();
+				code.pushInt(i);
+				code.load(parameterType, slot);
+				code.box(parameterType);
+				code.aastore();
+				slot += slotCount(parameterType);
+			}
+		}
+		code.invoke(Code.INVOKEINTERFACE, INVOCATION_HANDLER, "invoke",
+				"(Ljava/lang/Object;Ljava/lang/reflect/Method;[Ljava/lang/Object;)Ljava/lang/Object;", 4, 1);
+		Class<?> returnType = method.getReturnType();
+		if (returnType == void.class) {
+			code.pop(Object.class);
+		} else if (returnType.isPrimitive()) {
+			code.unbox(returnType);
+		} else if (returnType != Object.class) {
+			code.checkCast(returnType);
+		}
+		code.returnValue(returnType);
+	}
+	
+	private int writeMethod(Output output, ConstantPool constantPool, int accessFlags, String name, String descriptor, Code code) {
+		output.u2(accessFlags);
+		output.u2(constantPool.utf8(name));
+		output.u2(constantPool.utf8(descriptor));
+		// only Code attribute
+		output.u2(1);
+		byte[] instructions = code.toByteArray();
+		output.u2(constantPool.utf8("Code"));
+		// attribute length : max_stack + max_locals + code_length + code + exception_table_length + attributes_count
+		output.u4(2 + 2 + 4 + instructions.length + 2 + 2);
+		output.u2(code.maxStack);
+		output.u2(code.maxLocals);
+		output.u4(instructions.length);
+		output.bytes(instructions);
+		output.u2(0);
+		output.u2(0);
+		return 1;
+	}
+	
+	static String internalName(Class<?> clazz) {
+		return clazz.isArray() ? descriptor(clazz) : clazz.getName().replace('.', '/');
+	}
+	
+	static String descriptor(Class<?> clazz) {
+		if (clazz.isPrimitive()) {
+			if (clazz == int.class) {
+				return "I";
+			} else if (clazz == long.class) {
+				return "J";
+			} else if (clazz == boolean.class) {
+				return "Z";
+			} else if (clazz == byte.class) {
+				return "B";
+			} else if (clazz == char.class) {
+				return "C";
+			} else if (clazz == short.class) {
+				return "S";
+			} else if (clazz == float.class) {
+				return "F";
+			} else if (clazz == double.class) {
+				return "D";
+			} else {
+				return "V";
+			}
+		} else if (clazz.isArray()) {
+			return clazz.getName().replace('.', '/');
+		} else {
+			return "L" + clazz.getName().replace('.', '/') + ";";
+		}
+	}
+	
+	static String descriptor(Method method) {
+		StringBuilder result = new StringBuilder("(");
+		for (Class<?> parameterType : method.getParameterTypes()) {
+			result.append(descriptor(parameterType));
+		}
+		return result.append(')').append(descriptor(method.getReturnType())).toString();
+	}
+	
+	private static int slotCount(Class<?> type) {
+		return type == void.class ? 0 : (type == long.class || type == double.class ? 2 : 1);
+	}
+	
+	private static int slotCount(Class<?>[] types) {
+		int result = 0;
+		for (Class<?> type : types) {
+			result += slotCount(type);
+		}
+		return result;
+	}
+	
+	/**
+	 * A method to be implemented by the proxy
+	 */
+	static class MethodPlan {
+		
+		private final Method method;
+		/** Method to be called directly on target, null for methods going through the {@link InvocationHandler} */
+		private final Method redirection;
+		private final boolean returnProxy;
+		
+		MethodPlan(Method method, Method redirection, boolean returnProxy) {
+			this.method = method;
+			this.redirection = redirection;
+			this.returnProxy = returnProxy;
+		}
+		
+		Method getMethod() {
+			return method;
+		}
+		
+		Method getRedirection() {
+			return redirection;
+		}
+		
+		boolean isReturnProxy() {
+			return returnProxy;
+		}
+	}
+	
+	/**
+	 * {@link DataOutputStream} on a byte array without checked exception
+	 */
+	private static class Output {
+		
+		private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+		private final DataOutputStream out = new DataOutputStream(buffer);
+		
+		void u1(int value) {
+			try {
+				out.writeByte(value);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+		
+		void u2(int value) {
+			try {
+				out.writeShort(value);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+		
+		void u4(int value) {
+			try {
+				out.writeInt(value);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+		
+		void utf(String value) {
+			try {
+				// DataOutputStream uses modified UTF-8 which is the class file format one
+				out.writeUTF(value);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+		
+		void bytes(byte[] value) {
+			buffer.write(value, 0, value.length);
+		}
+		
+		byte[] toByteArray() {
+			return buffer.toByteArray();
+		}
+	}
+	
+	/**
+	 * Constant pool, entries are shared per their content
+	 */
+	private static class ConstantPool {
+		
+		private static final int UTF8 = 1;
+		private static final int CLASS = 7;
+		private static final int FIELD_REF = 9;
+		private static final int METHOD_REF = 10;
+		private static final int INTERFACE_METHOD_REF = 11;
+		private static final int NAME_AND_TYPE = 12;
+		
+		private final Output entries = new Output();
+		private final Map<String, Integer> indexes = new HashMap<>();
+		/** Index of next entry, 0 is reserved by class file format */
+		private int nextIndex = 1;
+		
+		int utf8(String value) {
+			Integer index = indexes.get(UTF8 + "#" + value);
+			if (index == null) {
+				entries.u1(UTF8);
+				entries.utf(value);
+				index = register(UTF8 + "#" + value);
+			}
+			return index;
+		}
+		
+		int classRef(String internalName) {
+			Integer index = indexes.get(CLASS + "#" + internalName);
+			if (index == null) {
+				int nameIndex = utf8(internalName);
+				entries.u1(CLASS);
+				entries.u2(nameIndex);
+				index = register(CLASS + "#" + internalName);
+			}
+			return index;
+		}
+		
+		int fieldRef(String owner, String name, String descriptor) {
+			return memberRef(FIELD_REF, owner, name, descriptor);
+		}
+		
+		int methodRef(String owner, String name, String descriptor, boolean isInterface) {
+			return memberRef(isInterface ? INTERFACE_METHOD_REF : METHOD_REF, owner, name, descriptor);
+		}
+		
+		private int memberRef(int tag, String owner, String name, String descriptor) {
+			String key = tag + "#" + owner + "." + name + descriptor;
+			Integer index = indexes.get(key);
+			if (index == null) {
+				int classIndex = classRef(owner);
+				int nameAndTypeIndex = nameAndType(name, descriptor);
+				entries.u1(tag);
+				entries.u2(classIndex);
+				entries.u2(nameAndTypeIndex);
+				index = register(key);
+			}
+			return index;
+		}
+		
+		private int nameAndType(String name, String descriptor) {
+			String key = NAME_AND_TYPE + "#" + name + ":" + descriptor;
+			Integer index = indexes.get(key);
+			if (index == null) {
+				int nameIndex = utf8(name);
+				int descriptorIndex = utf8(descriptor);
+				entries.u1(NAME_AND_TYPE);
+				entries.u2(nameIndex);
+				entries.u2(descriptorIndex);
+				index = register(key);
+			}
+			return index;
+		}
+		
+		private int register(String key) {
+			int index = nextIndex++;
+			indexes.put(key, index);
+			return index;
+		}
+		
+		void writeTo(Output output) {
+			output.u2(nextIndex);
+			output.bytes(entries.toByteArray());
+		}
+	}
+	
+	/**
+	 * Bytecode of a method, computing its maximum stack size while instructions are added
+	 */
+	private static class Code {
+		
+		private static final int ACONST_NULL = 0x01;
+		private static final int ICONST_0 = 0x03;
+		private static final int BIPUSH = 0x10;
+		private static final int SIPUSH = 0x11;
+		private static final int ILOAD = 0x15;
+		private static final int LLOAD = 0x16;
+		private static final int FLOAD = 0x17;
+		private static final int DLOAD = 0x18;
+		private static final int ALOAD = 0x19;
+		private static final int AALOAD = 0x32;
+		private static final int AASTORE = 0x53;
+		private static final int POP = 0x57;
+		private static final int POP2 = 0x58;
+		private static final int DUP = 0x59;
+		private static final int IRETURN = 0xac;
+		private static final int LRETURN = 0xad;
+		private static final int FRETURN = 0xae;
+		private static final int DRETURN = 0xaf;
+		private static final int ARETURN = 0xb0;
+		private static final int RETURN = 0xb1;
+		private static final int GETFIELD = 0xb4;
+		private static final int PUTFIELD = 0xb5;
+		private static final int INVOKEVIRTUAL = 0xb6;
+		private static final int INVOKESPECIAL = 0xb7;
+		private static final int INVOKESTATIC = 0xb8;
+		private static final int INVOKEINTERFACE = 0xb9;
+		private static final int ANEWARRAY = 0xbd;
+		private static final int CHECKCAST = 0xc0;
+		
+		private final ConstantPool constantPool;
+		private final Output instructions = new Output();
+		private final int maxLocals;
+		private int stackSize;
+		private int maxStack;
+		
+		private Code(ConstantPool constantPool, int maxLocals) {
+			this.constantPool = constantPool;
+			this.maxLocals = maxLocals;
+		}
+		
+		private void stack(int delta) {
+			stackSize += delta;
+			maxStack = Math.max(maxStack, stackSize);
+		}
+		
+		void aload(int slot) {
+			load(Object.class, slot);
+		}
+		
+		void load(Class<?> type, int slot) {
+			int opcode;
+			if (!type.isPrimitive()) {
+				opcode = ALOAD;
+			} else if (type == long.class) {
+				opcode = LLOAD;
+			} else if (type == float.class) {
+				opcode = FLOAD;
+			} else if (type == double.class) {
+				opcode = DLOAD;
+			} else {
+				opcode = ILOAD;
+			}
+			// slots can't exceed 255 since method descriptors are limited to 255 slots
+			instructions.u1(opcode);
+			instructions.u1(slot);
+			stack(slotCount(type));
+		}
+		
+		void pushInt(int value) {
+			if (value <= 5) {
+				instructions.u1(ICONST_0 + value);
+			} else if (value <= Byte.MAX_VALUE) {
+				instructions.u1(BIPUSH);
+				instructions.u1(value);
+			} else {
+				instructions.u1(SIPUSH);
+				instructions.u2(value);
+			}
+			stack(1);
+		}
+		
+		void aconstNull() {
+			instructions.u1(ACONST_NULL);
+			stack(1);
+		}
+		
+		void dup() {
+			instructions.u1(DUP);
+			stack(1);
+		}
+		
+		void pop(Class<?> type) {
+			int slotCount = slotCount(type);
+			if (slotCount != 0) {
+				instructions.u1(slotCount == 2 ? POP2 : POP);
+				stack(-slotCount);
+			}
+		}
+		
+		void aaload() {
+			instructions.u1(AALOAD);
+			stack(-1);
+		}
+		
+		void aastore() {
+			instructions.u1(AASTORE);
+			stack(-3);
+		}
+		
+		void anewarray(String internalName) {
+			instructions.u1(ANEWARRAY);
+			instructions.u2(constantPool.classRef(internalName));
+		}
+		
+		void checkCast(Class<?> type) {
+			instructions.u1(CHECKCAST);
+			instructions.u2(constantPool.classRef(internalName(type)));
+		}
+		
+		void getField(String owner, String name, String descriptor, int slotCount) {
+			instructions.u1(GETFIELD);
+			instructions.u2(constantPool.fieldRef(owner, name, descriptor));
+			stack(slotCount - 1);
+		}
+		
+		void putField(String owner, String name, String descriptor) {
+			instructions.u1(PUTFIELD);
+			instructions.u2(constantPool.fieldRef(owner, name, descriptor));
+			// only references are stored in fields
+			stack(-2);
+		}
+		
+		/**
+		 * @param opcode one of INVOKE* constants
+		 * @param argumentSlotCount number of slots taken by arguments, including target for non static methods
+		 * @param returnSlotCount number of slots taken by returned value
+		 */
+		void invoke(int opcode, String owner, String name, String descriptor, int argumentSlotCount, int returnSlotCount) {
+			instructions.u1(opcode);
+			instructions.u2(constantPool.methodRef(owner, name, descriptor, opcode == INVOKEINTERFACE));
+			if (opcode == INVOKEINTERFACE) {
+				instructions.u1(argumentSlotCount);
+				instructions.u1(0);
+			}
+			stack(returnSlotCount - argumentSlotCount);
+		}
+		
+		void box(Class<?> type) {
+			if (type.isPrimitive()) {
+				String wrapper = internalName(Reflections.giveWrapperClass(type));
+				invoke(INVOKESTATIC, wrapper, "valueOf", "(" + descriptor(type) + ")L" + wrapper + ";", slotCount(type), 1);
+			}
+		}
+		
+		void unbox(Class<?> type) {
+			Class wrapperClass = Reflections.giveWrapperClass(type);
+			checkCast(wrapperClass);
+			invoke(INVOKEVIRTUAL, internalName(wrapperClass), type.getName() + "Value", "()" + descriptor(type), 1, slotCount(type));
+		}
+		
+		void returnValue(Class<?> type) {
+			int opcode;
+			if (type == void.class) {
+				opcode = RETURN;
+			} else if (!type.isPrimitive()) {
+				opcode = ARETURN;
+			} else if (type == long.class) {
+				opcode = LRETURN;
+			} else if (type == float.class) {
+				opcode = FRETURN;
+			} else if (type == double.class) {
+				opcode = DRETURN;
+			} else {
+				opcode = IRETURN;
+			}
+			instructions.u1(opcode);
+			stack(-slotCount(type));
+		}
+		
+		byte[] toByteArray() {
+			return instructions.toByteArray();
+		}
+	}
+}
@@ -0,0 +1,67 @@
+package org.gama.lang.reflect;
+
+import javax.annotation.Nullable;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.util.function.Function;
+
+/**
+ * Contract for proxy creation, so that {@link MethodDispatcher} and {@link org.gama.lang.Reflections#newProxy(ProxyFactory, Class, InvocationHandler, Class[])}
+ * are not tied to JDK {@link java.lang.reflect.Proxy}.
+ *
+ * Implementations must invoke the given {@link InvocationHandler} for all methods of the given interfaces (and equals(), hashCode(), toString()),
+ * but they may call directly the target of the methods for which a {@link Redirection} is given, without going through the
+ * {@link InvocationHandler}.
+ *
+ * @author Guillaume Mary
+ * @see JdkProxyFactory
+ * @see HiddenClassProxyFactory
+ */
+public interface ProxyFactory {
+	
+	/**
+	 * Creates a proxy implementing all given interfaces
+	 *
+	 * @param classLoader the {@link ClassLoader} suggested for proxy definition, implementations may choose another one
+	 * @param interfaces the interfaces to be implemented by the proxy
+	 * @param invocationHandler the handler of all methods that are not redirected
+	 * @param redirector gives the {@link Redirection} of a method, null if the method is not redirected. Implementations are free to ignore it,
+	 * 					 in which case all calls go through the {@link InvocationHandler}
+	 * @return a new proxy implementing given interfaces
+	 */
+	Object newProxy(ClassLoader classLoader, Class<?>[] interfaces, InvocationHandler invocationHandler, Function<Method, Redirection> redirector);
+	
+	/**
+	 * Shortcut for {@link #newProxy(ClassLoader, Class[], InvocationHandler, Function)} without any {@link Redirection}
+	 *
+	 * @param classLoader the {@link ClassLoader} suggested for proxy definition, implementations may choose another one
+	 * @param interfaces the interfaces to be implemented by the proxy
+	 * @param invocationHandler the handler of all methods
+	 * @return a new proxy implementing given interfaces
+	 */
+	default Object newProxy(ClassLoader classLoader, Class<?>[] interfaces, InvocationHandler invocationHandler) {
+		return newProxy(classLoader, interfaces, invocationHandler, m -> null);
+	}
+	
+	/**
+	 * Describes a direct call to be done by a proxy method instead of invoking its {@link InvocationHandler}
+	 */
+	interface Redirection {
+		
+		/**
+		 * @return the method to be invoked on {@link #getMethodTarget()}, expected to be declared by an interface
+		 */
+		Method getMethod();
+		
+		/**
+		 * @return the instance on which {@link #getMethod()} must be invoked
+		 */
+		@Nullable
+		Object getMethodTarget();
+		
+		/**
+		 * @return true if the proxy must be returned instead of the result of {@link #getMethod()}
+		 */
+		boolean isReturnProxy();
+	}
+}
@@ -0,0 +1,541 @@
+package org.gama.lang.sql;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Statement;
+
+/**
+ * {@link ConnectionWrapper} that defers {@link PreparedStatement#executeUpdate()} calls by turning them into JDBC batches : while
+ * auto-commit is off, each {@link PreparedStatement#executeUpdate()} is replaced by {@link PreparedStatement#addBatch()}, then rows are sent
+ * with {@link PreparedStatement#executeBatch()} when batch size is reached, or when anything else has to be executed so that order of
+ * SQL orders is kept :
+ * <ul>
+ * <li>when another statement executes an update, or a query ({@link PreparedStatement#executeQuery()}, {@link PreparedStatement#execute()}),
+ * whatever its kind : {@link Statement}s, {@link CallableStatement}s and {@link PreparedStatement}s asking for generated keys don't defer
+ * their updates but send pending rows before any execution</li>
+ * <li>on {@link #commit()}, {@link #setAutoCommit(boolean)}, {@link #setSavepoint()} and statement closing</li>
+ * </ul>
+ * Pending rows are discarded on {@link #rollback()}. As a consequence {@link TransactionSupport#runAtomically(org.gama.lang.function.ThrowingConsumer)}
+ * sends rows at commit time, and drops them if an {@link SQLException} occurs. Note that on a {@link RuntimeException} it doesn't rollback,
+ * and its final {@link #setAutoCommit(boolean)} sends pending rows, as auto-commit activation commits current transaction.
+ *
+ * Since update counts are only known after batch execution, deferred {@link PreparedStatement#executeUpdate()} return
+ * {@link Statement#SUCCESS_NO_INFO}, real counts can be read with {@link BatchingPreparedStatement#getUpdatedRowCount()} and
+ * {@link BatchingPreparedStatement#getLastBatchUpdateCounts()}.
+ * Note that batching is only efficient if code reuses a same {@link PreparedStatement} for consecutive updates.
+ * Auto-commit mode is read once at construction then kept up to date by {@link #setAutoCommit(boolean)}, so that deferring an update doesn't
+ * ask the database for it : it must not be changed by other means than this wrapper.
+ *
+ * @author Guillaume Mary
+ */
+public class BatchingConnectionWrapper extends ConnectionWrapper {
+	
+	private final int batchSize;
+	
+	/** The statement that has pending rows, only one can have some to keep updates order */
+	private BatchingPreparedStatement pendingStatement;
+	
+	/** Local copy of auto-commit mode, because some drivers do a round-trip on {@link Connection#getAutoCommit()} */
+	private boolean autoCommit;
+	
+	/**
+	 * @param surrogate the connection to which updates are sent
+	 * @param batchSize number of rows that triggers batch execution
+	 * @throws SQLException if auto-commit mode of surrogate can't be read
+	 */
+	public BatchingConnectionWrapper(Connection surrogate, int batchSize) throws SQLException {
+		super(surrogate);
+		if (batchSize < 1) {
+			throw new IllegalArgumentException("Batch size must be strictly positive : " + batchSize);
+		}
+		this.batchSize = batchSize;
+		this.autoCommit = surrogate.getAutoCommit();
+	}
+	
+	public int getBatchSize() {
+		return batchSize;
+	}
+	
+	/**
+	 * Sends pending rows to the database, if any
+	 *
+	 * @throws SQLException any error thrown by batch execution
+	 */
+	public void flush() throws SQLException {
+		if (pendingStatement != null) {
+			BatchingPreparedStatement statement = pendingStatement;
+			pendingStatement = null;
+			statement.executePendingBatch();
+		}
+	}
+	
+	/**
+	 * Drops pending rows, if any
+	 *
+	 * @throws SQLException any error thrown while clearing statement batch
+	 */
+	private void discard() throws SQLException {
+		if (pendingStatement != null) {
+			BatchingPreparedStatement statement = pendingStatement;
+			pendingStatement = null;
+			statement.discardPendingBatch();
+		}
+	}
+	
+	@Override
+	public PreparedStatement prepareStatement(String sql) throws SQLException {
+		return new BatchingPreparedStatement(super.prepareStatement(sql));
+	}
+	
+	@Override
+	public PreparedStatement prepareStatement(String sql, int resultSetType, int resultSetConcurrency) throws SQLException {
+		return new BatchingPreparedStatement(super.prepareStatement(sql, resultSetType, resultSetConcurrency));
+	}
+	
+	@Override
+	public PreparedStatement prepareStatement(String sql, int resultSetType, int resultSetConcurrency, int resultSetHoldability) throws SQLException {
+		return new BatchingPreparedStatement(super.prepareStatement(sql, resultSetType, resultSetConcurrency, resultSetHoldability));
+	}
+	
+	@Override
+	public PreparedStatement prepareStatement(String sql, int autoGeneratedKeys) throws SQLException {
+		// generated keys can't be read from deferred updates, so statement doesn't defer them, it only sends pending rows before executing
+		return new FlushingPreparedStatement(super.prepareStatement(sql, autoGeneratedKeys));
+	}
+	
+	@Override
+	public PreparedStatement prepareStatement(String sql, int[] columnIndexes) throws SQLException {
+		return new FlushingPreparedStatement(super.prepareStatement(sql, columnIndexes));
+	}
+	
+	@Override
+	public PreparedStatement prepareStatement(String sql, String[] columnNames) throws SQLException {
+		return new FlushingPreparedStatement(super.prepareStatement(sql, columnNames));
+	}
+	
+	@Override
+	public Statement createStatement() throws SQLException {
+		return new FlushingStatement(super.createStatement());
+	}
+	
+	@Override
+	public Statement createStatement(int resultSetType, int resultSetConcurrency) throws SQLException {
+		return new FlushingStatement(super.createStatement(resultSetType, resultSetConcurrency));
+	}
+	
+	@Override
+	public Statement createStatement(int resultSetType, int resultSetConcurrency, int resultSetHoldability) throws SQLException {
+		return new FlushingStatement(super.createStatement(resultSetType, resultSetConcurrency, resultSetHoldability));
+	}
+	
+	@Override
+	public CallableStatement prepareCall(String sql) throws SQLException {
+		return new FlushingCallableStatement(super.prepareCall(sql));
+	}
+	
+	@Override
+	public CallableStatement prepareCall(String sql, int resultSetType, int resultSetConcurrency) throws SQLException {
+		return new FlushingCallableStatement(super.prepareCall(sql, resultSetType, resultSetConcurrency));
+	}
+	
+	@Override
+	public CallableStatement prepareCall(String sql, int resultSetType, int resultSetConcurrency, int resultSetHoldability) throws SQLException {
+		return new FlushingCallableStatement(super.prepareCall(sql, resultSetType, resultSetConcurrency, resultSetHoldability));
+	}
+	
+	@Override
+	public void setAutoCommit(boolean autoCommit) throws SQLException {
+		flush();
+		super.setAutoCommit(autoCommit);
+		this.autoCommit = autoCommit;
+	}
+	
+	@Override
+	public boolean getAutoCommit() {
+		return autoCommit;
+	}
+	
+	@Override
+	public void commit() throws SQLException {
+		flush();
+		super.commit();
+	}
+	
+	@Override
+	public void rollback() throws SQLException {
+		discard();
+		super.rollback();
+	}
+	
+	@Override
+	public Savepoint setSavepoint() throws SQLException {
+		flush();
+		return super.setSavepoint();
+	}
+	
+	@Override
+	public Savepoint setSavepoint(String name) throws SQLException {
+		flush();
+		return super.setSavepoint(name);
+	}
+	
+	@Override
+	public void rollback(Savepoint savepoint) throws SQLException {
+		// pending rows were queued after the savepoint since it flushed previous ones
+		discard();
+		super.rollback(savepoint);
+	}
+	
+	@Override
+	public void close() throws SQLException {
+		// closing a connection without commit is expected to rollback
+		discard();
+		super.close();
+	}
+	
+	/**
+	 * {@link Statement} that sends pending rows before any execution, since its SQL orders may depend on them
+	 */
+	private class FlushingStatement extends StatementWrapper {
+		
+		private FlushingStatement(Statement surrogate) {
+			super(surrogate);
+		}
+		
+		@Override
+		public ResultSet executeQuery(String sql) throws SQLException {
+			flush();
+			return super.executeQuery(sql);
+		}
+		
+		@Override
+		public int executeUpdate(String sql) throws SQLException {
+			flush();
+			return super.executeUpdate(sql);
+		}
+		
+		@Override
+		public int executeUpdate(String sql, int autoGeneratedKeys) throws SQLException {
+			flush();
+			return super.executeUpdate(sql, autoGeneratedKeys);
+		}
+		
+		@Override
+		public int executeUpdate(String sql, int[] columnIndexes) throws SQLException {
+			flush();
+			return super.executeUpdate(sql, columnIndexes);
+		}
+		
+		@Override
+		public int executeUpdate(String sql, String[] columnNames) throws SQLException {
+			flush();
+			return super.executeUpdate(sql, columnNames);
+		}
+		
+		@Override
+		public long executeLargeUpdate(String sql) throws SQLException {
+			flush();
+			return super.executeLargeUpdate(sql);
+		}
+		
+		@Override
+		public long executeLargeUpdate(String sql, int autoGeneratedKeys) throws SQLException {
+			flush();
+			return super.executeLargeUpdate(sql, autoGeneratedKeys);
+		}
+		
+		@Override
+		public long executeLargeUpdate(String sql, int[] columnIndexes) throws SQLException {
+			flush();
+			return super.executeLargeUpdate(sql, columnIndexes);
+		}
+		
+		@Override
+		public long executeLargeUpdate(String sql, String[] columnNames) throws SQLException {
+			flush();
+			return super.executeLargeUpdate(sql, columnNames);
+		}
+		
+		@Override
+		public boolean execute(String sql) throws SQLException {
+			flush();
+			return super.execute(sql);
+		}
+		
+		@Override
+		public boolean execute(String sql, int autoGeneratedKeys) throws SQLException {
+			flush();
+			return super.execute(sql, autoGeneratedKeys);
+		}
+		
+		@Override
+		public boolean execute(String sql, int[] columnIndexes) throws SQLException {
+			flush();
+			return super.execute(sql, columnIndexes);
+		}
+		
+		@Override
+		public boolean execute(String sql, String[] columnNames) throws SQLException {
+			flush();
+			return super.execute(sql, columnNames);
+		}
+		
+		@Override
+		public int[] executeBatch() throws SQLException {
+			flush();
+			return super.executeBatch();
+		}
+		
+		@Override
+		public long[] executeLargeBatch() throws SQLException {
+			flush();
+			return super.executeLargeBatch();
+		}
+		
+		@Override
+		public Connection getConnection() {
+			return BatchingConnectionWrapper.this;
+		}
+	}
+	
+	/**
+	 * {@link PreparedStatement} that sends pending rows before any execution, used when its updates can't be deferred
+	 */
+	private class FlushingPreparedStatement extends PreparedStatementWrapper {
+		
+		private FlushingPreparedStatement(PreparedStatement surrogate) {
+			super(surrogate);
+		}
+		
+		@Override
+		public ResultSet executeQuery() throws SQLException {
+			flush();
+			return super.executeQuery();
+		}
+		
+		@Override
+		public int executeUpdate() throws SQLException {
+			flush();
+			return super.executeUpdate();
+		}
+		
+		@Override
+		public long executeLargeUpdate() throws SQLException {
+			flush();
+			return super.executeLargeUpdate();
+		}
+		
+		@Override
+		public boolean execute() throws SQLException {
+			flush();
+			return super.execute();
+		}
+		
+		@Override
+		public int[] executeBatch() throws SQLException {
+			flush();
+			return super.executeBatch();
+		}
+		
+		@Override
+		public long[] executeLargeBatch() throws SQLException {
+			flush();
+			return super.executeLargeBatch();
+		}
+		
+		@Override
+		public Connection getConnection() {
+			return BatchingConnectionWrapper.this;
+		}
+	}
+	
+	/**
+	 * {@link CallableStatement} that sends pending rows before any execution, since the procedure may depend on them
+	 */
+	private class FlushingCallableStatement extends CallableStatementWrapper {
+		
+		private FlushingCallableStatement(CallableStatement surrogate) {
+			super(surrogate);
+		}
+		
+		@Override
+		public ResultSet executeQuery() throws SQLException {
+			flush();
+			return super.executeQuery();
+		}
+		
+		@Override
+		public int executeUpdate() throws SQLException {
+			flush();
+			return super.executeUpdate();
+		}
+		
+		@Override
+		public long executeLargeUpdate() throws SQLException {
+			flush();
+			return super.executeLargeUpdate();
+		}
+		
+		@Override
+		public boolean execute() throws SQLException {
+			flush();
+			return super.execute();
+		}
+		
+		@Override
+		public int[] executeBatch() throws SQLException {
+			flush();
+			return super.executeBatch();
+		}
+		
+		@Override
+		public long[] executeLargeBatch() throws SQLException {
+			flush();
+			return super.executeLargeBatch();
+		}
+		
+		@Override
+		public Connection getConnection() {
+			return BatchingConnectionWrapper.this;
+		}
+	}
+	
+	/**
+	 * {@link PreparedStatement} which {@link #executeUpdate()} is deferred when auto-commit is off
+	 */
+	public class BatchingPreparedStatement extends PreparedStatementWrapper {
+		
+		private int pendingCount;
+		private int[] lastBatchUpdateCounts = new int[0];
+		private long updatedRowCount;
+		
+		private BatchingPreparedStatement(PreparedStatement surrogate) {
+			super(surrogate);
+		}
+		
+		/**
+		 * Implementation that adds current parameters to the batch when auto-commit is off.
+		 *
+		 * @return {@link Statement#SUCCESS_NO_INFO} when update is deferred, else the row count given by the database
+		 * @throws SQLException any error thrown while adding to the batch or executing it
+		 */
+		@Override
+		public int executeUpdate() throws SQLException {
+			if (autoCommit) {
+				flush();
+				return super.executeUpdate();
+			} else {
+				if (pendingStatement != this) {
+					// keeping updates order
+					flush();
+				}
+				surrogate.addBatch();
+				pendingCount++;
+				pendingStatement = this;
+				if (pendingCount >= batchSize) {
+					flush();
+				}
+				return SUCCESS_NO_INFO;
+			}
+		}
+		
+		@Override
+		public long executeLargeUpdate() throws SQLException {
+			flush();
+			return super.executeLargeUpdate();
+		}
+		
+		@Override
+		public ResultSet executeQuery() throws SQLException {
+			flush();
+			return super.executeQuery();
+		}
+		
+		@Override
+		public boolean execute() throws SQLException {
+			flush();
+			return super.execute();
+		}
+		
+		/**
+		 * Overriden to send pending rows with the ones explicitly added by {@link #addBatch()}
+		 *
+		 * @return update counts of all rows of the batch, including deferred ones
+		 * @throws SQLException any error thrown by batch execution
+		 */
+		@Override
+		public int[] executeBatch() throws SQLException {
+			if (pendingStatement == this) {
+				pendingStatement = null;
+			} else {
+				flush();
+			}
+			return executePendingBatch();
+		}
+		
+		@Override
+		public void clearBatch() throws SQLException {
+			if (pendingStatement == this) {
+				pendingStatement = null;
+			}
+			pendingCount = 0;
+			super.clearBatch();
+		}
+		
+		@Override
+		public void close() throws SQLException {
+			if (pendingStatement == this) {
+				flush();
+			}
+			super.close();
+		}
+		
+		@Override
+		public Connection getConnection() {
+			return BatchingConnectionWrapper.this;
+		}
+		
+		/**
+		 * @return number of rows that are waiting to be sent to the database
+		 */
+		public int getPendingCount() {
+			return pendingCount;
+		}
+		
+		/**
+		 * @return update counts of the last executed batch
+		 */
+		public int[] getLastBatchUpdateCounts() {
+			return lastBatchUpdateCounts;
+		}
+		
+		/**
+		 * @return number of rows updated by all executed batches of this statement, rows which count is unknown to the driver
+		 * ({@link Statement#SUCCESS_NO_INFO}) are not included
+		 */
+		public long getUpdatedRowCount() {
+			return updatedRowCount;
+		}
+		
+		private int[] executePendingBatch() throws SQLException {
+			pendingCount = 0;
+			int[] updateCounts = surrogate.executeBatch();
+			lastBatchUpdateCounts = updateCounts;
+			for (int updateCount : updateCounts) {
+				if (updateCount > 0) {
+					updatedRowCount += updateCount;
+				}
+			}
+			return updateCounts;
+		}
+		
+		private void discardPendingBatch() throws SQLException {
+			pendingCount = 0;
+			surrogate.clearBatch();
+		}
+	}
+}
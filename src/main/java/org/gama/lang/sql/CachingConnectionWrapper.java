@@ -0,0 +1,402 @@
+package org.gama.lang.sql;
+
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * {@link ConnectionWrapper} that keeps {@link PreparedStatement}s and {@link CallableStatement}s in a LRU cache so that same SQL orders
+ * are not prepared again by the driver.
+ * Statements are given behind a wrapper which {@link PreparedStatement#close()} puts them back in the cache instead of closing them, after
+ * closing their current {@link ResultSet}, clearing their parameters, batch and warnings, and restoring max rows, max field size, fetch size,
+ * fetch direction, query timeout and poolable hint to their values at prepare time. Escape processing is not restored because it has no getter
+ * and, as stated by {@link java.sql.Statement#setEscapeProcessing(boolean)}, it has no effect on {@link PreparedStatement}s. If this reset fails the statement is closed instead of being cached. Any usage of a wrapper after its closing
+ * throws an {@link SQLException}. Cache key is made of SQL order, result set type, concurrency and holdability, hence only
+ * {@link #prepareStatement(String)}, {@link #prepareCall(String)} and their overloads with those arguments are cached, other ones are
+ * directly given by underlying {@link Connection}.
+ * Cache only contains statements that are not in use : a statement is removed from it when it's given, then put back at close time, so a same
+ * SQL order can be prepared several times if previous statements are not closed.
+ *
+ * Cached statements are closed when they are evicted and when this {@link Connection} is closed.
+ *
+ * @author Guillaume Mary
+ */
+public class CachingConnectionWrapper extends ConnectionWrapper {
+	
+	/** Holdability marker for methods that don't specify it, meaning that driver default is used */
+	private static final int DEFAULT_HOLDABILITY = -1;
+	
+	/** Replaces statement in closed wrappers so that any usage throws an exception */
+	private static final CallableStatement CLOSED_STATEMENT = (CallableStatement) Proxy.newProxyInstance(CachingConnectionWrapper.class.getClassLoader(),
+			new Class[] { CallableStatement.class }, (proxy, method, args) -> {
+				switch (method.getName()) {
+					// Object methods are not expected to throw any exception, for instance when logging the statement or storing it in a
+					// collection
+					case "equals":
+						return proxy == args[0];
+					case "hashCode":
+						return System.identityHashCode(proxy);
+					case "toString":
+						return "closed statement";
+					case "isClosed":
+						return true;
+					case "close":
+						return null;
+					default:
+						throw new SQLException("Statement is closed");
+				}
+			});
+	
+	private final int maxSize;
+	
+	/** Idle statements per key, in access order for LRU eviction */
+	private final LinkedHashMap<StatementKey, StatementEntry> cache;
+	
+	private long hitCount;
+	private long missCount;
+	private long evictionCount;
+	
+	public CachingConnectionWrapper(Connection surrogate, int maxSize) {
+		super(surrogate);
+		if (maxSize < 1) {
+			throw new IllegalArgumentException("Cache size must be strictly positive : " + maxSize);
+		}
+		this.maxSize = maxSize;
+		this.cache = new LinkedHashMap<StatementKey, StatementEntry>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<StatementKey, StatementEntry> eldest) {
+				boolean evict = size() > CachingConnectionWrapper.this.maxSize;
+				if (evict) {
+					evictionCount++;
+					closeQuietly(eldest.getValue().statement);
+				}
+				return evict;
+			}
+		};
+	}
+	
+	public int getMaxSize() {
+		return maxSize;
+	}
+	
+	@Override
+	public PreparedStatement prepareStatement(String sql) throws SQLException {
+		return prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+	}
+	
+	@Override
+	public PreparedStatement prepareStatement(String sql, int resultSetType, int resultSetConcurrency) throws SQLException {
+		StatementKey key = new StatementKey(false, sql, resultSetType, resultSetConcurrency, DEFAULT_HOLDABILITY);
+		StatementEntry entry = take(key);
+		if (entry == null) {
+			entry = new StatementEntry(key, super.prepareStatement(sql, resultSetType, resultSetConcurrency));
+		}
+		return new CachedPreparedStatement(entry);
+	}
+	
+	@Override
+	public PreparedStatement prepareStatement(String sql, int resultSetType, int resultSetConcurrency, int resultSetHoldability) throws SQLException {
+		StatementKey key = new StatementKey(false, sql, resultSetType, resultSetConcurrency, resultSetHoldability);
+		StatementEntry entry = take(key);
+		if (entry == null) {
+			entry = new StatementEntry(key, super.prepareStatement(sql, resultSetType, resultSetConcurrency, resultSetHoldability));
+		}
+		return new CachedPreparedStatement(entry);
+	}
+	
+	@Override
+	public CallableStatement prepareCall(String sql) throws SQLException {
+		return prepareCall(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+	}
+	
+	@Override
+	public CallableStatement prepareCall(String sql, int resultSetType, int resultSetConcurrency) throws SQLException {
+		StatementKey key = new StatementKey(true, sql, resultSetType, resultSetConcurrency, DEFAULT_HOLDABILITY);
+		StatementEntry entry = take(key);
+		if (entry == null) {
+			entry = new StatementEntry(key, super.prepareCall(sql, resultSetType, resultSetConcurrency));
+		}
+		return new CachedCallableStatement(entry);
+	}
+	
+	@Override
+	public CallableStatement prepareCall(String sql, int resultSetType, int resultSetConcurrency, int resultSetHoldability) throws SQLException {
+		StatementKey key = new StatementKey(true, sql, resultSetType, resultSetConcurrency, resultSetHoldability);
+		StatementEntry entry = take(key);
+		if (entry == null) {
+			entry = new StatementEntry(key, super.prepareCall(sql, resultSetType, resultSetConcurrency, resultSetHoldability));
+		}
+		return new CachedCallableStatement(entry);
+	}
+	
+	/**
+	 * Overriden to close cached statements
+	 *
+	 * @throws SQLException any error thrown by underlying {@link Connection}
+	 */
+	@Override
+	public void close() throws SQLException {
+		clearCache();
+		super.close();
+	}
+	
+	/**
+	 * Closes all cached statements and empties the cache. Statements in use are not affected.
+	 */
+	public void clearCache() {
+		List<StatementEntry> entries;
+		synchronized (cache) {
+			entries = new ArrayList<>(cache.values());
+			cache.clear();
+		}
+		entries.forEach(entry -> closeQuietly(entry.statement));
+	}
+	
+	/**
+	 * @return number of statements currently in cache
+	 */
+	public int getCacheSize() {
+		synchronized (cache) {
+			return cache.size();
+		}
+	}
+	
+	/**
+	 * @return number of statements found in cache
+	 */
+	public long getHitCount() {
+		synchronized (cache) {
+			return hitCount;
+		}
+	}
+	
+	/**
+	 * @return number of statements prepared by underlying {@link Connection} because they were not in cache
+	 */
+	public long getMissCount() {
+		synchronized (cache) {
+			return missCount;
+		}
+	}
+	
+	/**
+	 * @return number of statements closed because cache was full
+	 */
+	public long getEvictionCount() {
+		synchronized (cache) {
+			return evictionCount;
+		}
+	}
+	
+	private StatementEntry take(StatementKey key) {
+		synchronized (cache) {
+			StatementEntry result = cache.remove(key);
+			if (result == null) {
+				missCount++;
+			} else {
+				hitCount++;
+			}
+			return result;
+		}
+	}
+	
+	/**
+	 * Puts back a statement in cache, or closes it if its key is already present (statement was prepared several times concurrently)
+	 */
+	private void giveBack(StatementEntry entry) throws SQLException {
+		StatementEntry replaced;
+		synchronized (cache) {
+			replaced = cache.put(entry.key, entry);
+		}
+		if (replaced != null) {
+			replaced.statement.close();
+		}
+	}
+	
+	private static void closeQuietly(PreparedStatement statement) {
+		try {
+			statement.close();
+		} catch (SQLException e) {
+			// nothing to do : statement is not usable anymore
+		}
+	}
+	
+	private void release(StatementEntry entry) throws SQLException {
+		if (isClosed() || entry.statement.isClosed()) {
+			entry.statement.close();
+		} else {
+			try {
+				entry.reset();
+			} catch (SQLException e) {
+				// statement state is unknown, it can't be given to another user
+				closeQuietly(entry.statement);
+				return;
+			}
+			giveBack(entry);
+		}
+	}
+	
+	/**
+	 * A statement prepared by underlying {@link Connection}, with the settings it had at prepare time
+	 */
+	private static final class StatementEntry {
+		
+		private final StatementKey key;
+		private final PreparedStatement statement;
+		private final int maxRows;
+		private final int maxFieldSize;
+		private final int fetchSize;
+		private final int fetchDirection;
+		private final int queryTimeout;
+		private final boolean poolable;
+		
+		private StatementEntry(StatementKey key, PreparedStatement statement) throws SQLException {
+			this.key = key;
+			this.statement = statement;
+			this.maxRows = statement.getMaxRows();
+			this.maxFieldSize = statement.getMaxFieldSize();
+			this.fetchSize = statement.getFetchSize();
+			this.fetchDirection = statement.getFetchDirection();
+			this.queryTimeout = statement.getQueryTimeout();
+			this.poolable = statement.isPoolable();
+		}
+		
+		/**
+		 * Puts statement back in the state it had at prepare time, so that previous user settings and data don't leak to next one
+		 *
+		 * @throws SQLException if any reset fails
+		 */
+		private void reset() throws SQLException {
+			ResultSet resultSet = statement.getResultSet();
+			if (resultSet != null) {
+				resultSet.close();
+			}
+			statement.clearParameters();
+			statement.clearBatch();
+			statement.clearWarnings();
+			statement.setMaxRows(maxRows);
+			statement.setMaxFieldSize(maxFieldSize);
+			statement.setFetchSize(fetchSize);
+			statement.setFetchDirection(fetchDirection);
+			statement.setQueryTimeout(queryTimeout);
+			statement.setPoolable(poolable);
+		}
+	}
+	
+	/**
+	 * Cache key of statements
+	 */
+	private static final class StatementKey {
+		
+		private final boolean callable;
+		private final String sql;
+		private final int resultSetType;
+		private final int resultSetConcurrency;
+		private final int resultSetHoldability;
+		
+		private StatementKey(boolean callable, String sql, int resultSetType, int resultSetConcurrency, int resultSetHoldability) {
+			this.callable = callable;
+			this.sql = sql;
+			this.resultSetType = resultSetType;
+			this.resultSetConcurrency = resultSetConcurrency;
+			this.resultSetHoldability = resultSetHoldability;
+		}
+		
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (o == null || getClass() != o.getClass()) {
+				return false;
+			}
+			StatementKey that = (StatementKey) o;
+			return callable == that.callable
+					&& resultSetType == that.resultSetType
+					&& resultSetConcurrency == that.resultSetConcurrency
+					&& resultSetHoldability == that.resultSetHoldability
+					&& sql.equals(that.sql);
+		}
+		
+		@Override
+		public int hashCode() {
+			return Objects.hash(callable, sql, resultSetType, resultSetConcurrency, resultSetHoldability);
+		}
+	}
+	
+	/**
+	 * {@link PreparedStatement} which {@link #close()} puts it back in cache
+	 */
+	private class CachedPreparedStatement extends PreparedStatementWrapper {
+		
+		private final StatementEntry entry;
+		private boolean closed;
+		
+		private CachedPreparedStatement(StatementEntry entry) {
+			super(entry.statement);
+			this.entry = entry;
+		}
+		
+		@Override
+		public void close() throws SQLException {
+			if (!closed) {
+				closed = true;
+				// any further usage of the wrapper will fail
+				setSurrogate(CLOSED_STATEMENT);
+				release(entry);
+			}
+		}
+		
+		@Override
+		public boolean isClosed() throws SQLException {
+			return closed || super.isClosed();
+		}
+		
+		@Override
+		public Connection getConnection() {
+			return CachingConnectionWrapper.this;
+		}
+	}
+	
+	/**
+	 * {@link CallableStatement} which {@link #close()} puts it back in cache
+	 */
+	private class CachedCallableStatement extends CallableStatementWrapper {
+		
+		private final StatementEntry entry;
+		private boolean closed;
+		
+		private CachedCallableStatement(StatementEntry entry) {
+			super((CallableStatement) entry.statement);
+			this.entry = entry;
+		}
+		
+		@Override
+		public void close() throws SQLException {
+			if (!closed) {
+				closed = true;
+				// any further usage of the wrapper will fail
+				setSurrogate(CLOSED_STATEMENT);
+				release(entry);
+			}
+		}
+		
+		@Override
+		public boolean isClosed() throws SQLException {
+			return closed || super.isClosed();
+		}
+		
+		@Override
+		public Connection getConnection() {
+			return CachingConnectionWrapper.this;
+		}
+	}
+}
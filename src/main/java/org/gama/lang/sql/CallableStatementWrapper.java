@@ -0,0 +1,672 @@
+package org.gama.lang.sql;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.net.URL;
+import java.sql.Array;
+import java.sql.Blob;
+import java.sql.CallableStatement;
+import java.sql.Clob;
+import java.sql.Date;
+import java.sql.NClob;
+import java.sql.PreparedStatement;
+import java.sql.Ref;
+import java.sql.RowId;
+import java.sql.SQLException;
+import java.sql.SQLType;
+import java.sql.SQLXML;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.Calendar;
+import java.util.Map;
+
+/**
+ * {@link CallableStatement} that wraps another one and delegates all its methods to it without any additionnal feature.
+ * Made for overriding only some targeted methods.
+ *
+ * @author Guillaume Mary
+ */
+public class CallableStatementWrapper extends PreparedStatementWrapper implements CallableStatement {
+	
+	protected CallableStatement callableSurrogate;
+	
+	public CallableStatementWrapper(CallableStatement surrogate) {
+		super(surrogate);
+		this.callableSurrogate = surrogate;
+	}
+	
+	/**
+	 * Overriden to keep {@link #callableSurrogate} in sync
+	 *
+	 * @param surrogate a {@link CallableStatement}
+	 * @throws ClassCastException if given statement is not a {@link CallableStatement}
+	 */
+	@Override
+	public void setSurrogate(PreparedStatement surrogate) {
+		super.setSurrogate(surrogate);
+		this.callableSurrogate = (CallableStatement) surrogate;
+	}
+	
+	@Override
+	public void registerOutParameter(int parameterIndex, int sqlType) throws SQLException {
+		callableSurrogate.registerOutParameter(parameterIndex, sqlType);
+	}
+	
+	@Override
+	public void registerOutParameter(int parameterIndex, int sqlType, int scale) throws SQLException {
+		callableSurrogate.registerOutParameter(parameterIndex, sqlType, scale);
+	}
+	
+	@Override
+	public boolean wasNull() throws SQLException {
+		return callableSurrogate.wasNull();
+	}
+	
+	@Override
+	public String getString(int parameterIndex) throws SQLException {
+		return callableSurrogate.getString(parameterIndex);
+	}
+	
+	@Override
+	public boolean getBoolean(int parameterIndex) throws SQLException {
+		return callableSurrogate.getBoolean(parameterIndex);
+	}
+	
+	@Override
+	public byte getByte(int parameterIndex) throws SQLException {
+		return callableSurrogate.getByte(parameterIndex);
+	}
+	
+	@Override
+	public short getShort(int parameterIndex) throws SQLException {
+		return callableSurrogate.getShort(parameterIndex);
+	}
+	
+	@Override
+	public int getInt(int parameterIndex) throws SQLException {
+		return callableSurrogate.getInt(parameterIndex);
+	}
+	
+	@Override
+	public long getLong(int parameterIndex) throws SQLException {
+		return callableSurrogate.getLong(parameterIndex);
+	}
+	
+	@Override
+	public float getFloat(int parameterIndex) throws SQLException {
+		return callableSurrogate.getFloat(parameterIndex);
+	}
+	
+	@Override
+	public double getDouble(int parameterIndex) throws SQLException {
+		return callableSurrogate.getDouble(parameterIndex);
+	}
+	
+	@Deprecated
+	@Override
+	public BigDecimal getBigDecimal(int parameterIndex, int scale) throws SQLException {
+		return callableSurrogate.getBigDecimal(parameterIndex, scale);
+	}
+	
+	@Override
+	public byte[] getBytes(int parameterIndex) throws SQLException {
+		return callableSurrogate.getBytes(parameterIndex);
+	}
+	
+	@Override
+	public Date getDate(int parameterIndex) throws SQLException {
+		return callableSurrogate.getDate(parameterIndex);
+	}
+	
+	@Override
+	public Time getTime(int parameterIndex) throws SQLException {
+		return callableSurrogate.getTime(parameterIndex);
+	}
+	
+	@Override
+	public Timestamp getTimestamp(int parameterIndex) throws SQLException {
+		return callableSurrogate.getTimestamp(parameterIndex);
+	}
+	
+	@Override
+	public Object getObject(int parameterIndex) throws SQLException {
+		return callableSurrogate.getObject(parameterIndex);
+	}
+	
+	@Override
+	public BigDecimal getBigDecimal(int parameterIndex) throws SQLException {
+		return callableSurrogate.getBigDecimal(parameterIndex);
+	}
+	
+	@Override
+	public Object getObject(int parameterIndex, Map<String, Class<?>> map) throws SQLException {
+		return callableSurrogate.getObject(parameterIndex, map);
+	}
+	
+	@Override
+	public Ref getRef(int parameterIndex) throws SQLException {
+		return callableSurrogate.getRef(parameterIndex);
+	}
+	
+	@Override
+	public Blob getBlob(int parameterIndex) throws SQLException {
+		return callableSurrogate.getBlob(parameterIndex);
+	}
+	
+	@Override
+	public Clob getClob(int parameterIndex) throws SQLException {
+		return callableSurrogate.getClob(parameterIndex);
+	}
+	
+	@Override
+	public Array getArray(int parameterIndex) throws SQLException {
+		return callableSurrogate.getArray(parameterIndex);
+	}
+	
+	@Override
+	public Date getDate(int parameterIndex, Calendar cal) throws SQLException {
+		return callableSurrogate.getDate(parameterIndex, cal);
+	}
+	
+	@Override
+	public Time getTime(int parameterIndex, Calendar cal) throws SQLException {
+		return callableSurrogate.getTime(parameterIndex, cal);
+	}
+	
+	@Override
+	public Timestamp getTimestamp(int parameterIndex, Calendar cal) throws SQLException {
+		return callableSurrogate.getTimestamp(parameterIndex, cal);
+	}
+	
+	@Override
+	public void registerOutParameter(int parameterIndex, int sqlType, String typeName) throws SQLException {
+		callableSurrogate.registerOutParameter(parameterIndex, sqlType, typeName);
+	}
+	
+	@Override
+	public void registerOutParameter(String parameterName, int sqlType) throws SQLException {
+		callableSurrogate.registerOutParameter(parameterName, sqlType);
+	}
+	
+	@Override
+	public void registerOutParameter(String parameterName, int sqlType, int scale) throws SQLException {
+		callableSurrogate.registerOutParameter(parameterName, sqlType, scale);
+	}
+	
+	@Override
+	public void registerOutParameter(String parameterName, int sqlType, String typeName) throws SQLException {
+		callableSurrogate.registerOutParameter(parameterName, sqlType, typeName);
+	}
+	
+	@Override
+	public URL getURL(int parameterIndex) throws SQLException {
+		return callableSurrogate.getURL(parameterIndex);
+	}
+	
+	@Override
+	public void setURL(String parameterName, URL val) throws SQLException {
+		callableSurrogate.setURL(parameterName, val);
+	}
+	
+	@Override
+	public void setNull(String parameterName, int sqlType) throws SQLException {
+		callableSurrogate.setNull(parameterName, sqlType);
+	}
+	
+	@Override
+	public void setBoolean(String parameterName, boolean x) throws SQLException {
+		callableSurrogate.setBoolean(parameterName, x);
+	}
+	
+	@Override
+	public void setByte(String parameterName, byte x) throws SQLException {
+		callableSurrogate.setByte(parameterName, x);
+	}
+	
+	@Override
+	public void setShort(String parameterName, short x) throws SQLException {
+		callableSurrogate.setShort(parameterName, x);
+	}
+	
+	@Override
+	public void setInt(String parameterName, int x) throws SQLException {
+		callableSurrogate.setInt(parameterName, x);
+	}
+	
+	@Override
+	public void setLong(String parameterName, long x) throws SQLException {
+		callableSurrogate.setLong(parameterName, x);
+	}
+	
+	@Override
+	public void setFloat(String parameterName, float x) throws SQLException {
+		callableSurrogate.setFloat(parameterName, x);
+	}
+	
+	@Override
+	public void setDouble(String parameterName, double x) throws SQLException {
+		callableSurrogate.setDouble(parameterName, x);
+	}
+	
+	@Override
+	public void setBigDecimal(String parameterName, BigDecimal x) throws SQLException {
+		callableSurrogate.setBigDecimal(parameterName, x);
+	}
+	
+	@Override
+	public void setString(String parameterName, String x) throws SQLException {
+		callableSurrogate.setString(parameterName, x);
+	}
+	
+	@Override
+	public void setBytes(String parameterName, byte[] x) throws SQLException {
+		callableSurrogate.setBytes(parameterName, x);
+	}
+	
+	@Override
+	public void setDate(String parameterName, Date x) throws SQLException {
+		callableSurrogate.setDate(parameterName, x);
+	}
+	
+	@Override
+	public void setTime(String parameterName, Time x) throws SQLException {
+		callableSurrogate.setTime(parameterName, x);
+	}
+	
+	@Override
+	public void setTimestamp(String parameterName, Timestamp x) throws SQLException {
+		callableSurrogate.setTimestamp(parameterName, x);
+	}
+	
+	@Override
+	public void setAsciiStream(String parameterName, InputStream x, int length) throws SQLException {
+		callableSurrogate.setAsciiStream(parameterName, x, length);
+	}
+	
+	@Override
+	public void setBinaryStream(String parameterName, InputStream x, int length) throws SQLException {
+		callableSurrogate.setBinaryStream(parameterName, x, length);
+	}
+	
+	@Override
+	public void setObject(String parameterName, Object x, int targetSqlType, int scale) throws SQLException {
+		callableSurrogate.setObject(parameterName, x, targetSqlType, scale);
+	}
+	
+	@Override
+	public void setObject(String parameterName, Object x, int targetSqlType) throws SQLException {
+		callableSurrogate.setObject(parameterName, x, targetSqlType);
+	}
+	
+	@Override
+	public void setObject(String parameterName, Object x) throws SQLException {
+		callableSurrogate.setObject(parameterName, x);
+	}
+	
+	@Override
+	public void setCharacterStream(String parameterName, Reader reader, int length) throws SQLException {
+		callableSurrogate.setCharacterStream(parameterName, reader, length);
+	}
+	
+	@Override
+	public void setDate(String parameterName, Date x, Calendar cal) throws SQLException {
+		callableSurrogate.setDate(parameterName, x, cal);
+	}
+	
+	@Override
+	public void setTime(String parameterName, Time x, Calendar cal) throws SQLException {
+		callableSurrogate.setTime(parameterName, x, cal);
+	}
+	
+	@Override
+	public void setTimestamp(String parameterName, Timestamp x, Calendar cal) throws SQLException {
+		callableSurrogate.setTimestamp(parameterName, x, cal);
+	}
+	
+	@Override
+	public void setNull(String parameterName, int sqlType, String typeName) throws SQLException {
+		callableSurrogate.setNull(parameterName, sqlType, typeName);
+	}
+	
+	@Override
+	public String getString(String parameterName) throws SQLException {
+		return callableSurrogate.getString(parameterName);
+	}
+	
+	@Override
+	public boolean getBoolean(String parameterName) throws SQLException {
+		return callableSurrogate.getBoolean(parameterName);
+	}
+	
+	@Override
+	public byte getByte(String parameterName) throws SQLException {
+		return callableSurrogate.getByte(parameterName);
+	}
+	
+	@Override
+	public short getShort(String parameterName) throws SQLException {
+		return callableSurrogate.getShort(parameterName);
+	}
+	
+	@Override
+	public int getInt(String parameterName) throws SQLException {
+		return callableSurrogate.getInt(parameterName);
+	}
+	
+	@Override
+	public long getLong(String parameterName) throws SQLException {
+		return callableSurrogate.getLong(parameterName);
+	}
+	
+	@Override
+	public float getFloat(String parameterName) throws SQLException {
+		return callableSurrogate.getFloat(parameterName);
+	}
+	
+	@Override
+	public double getDouble(String parameterName) throws SQLException {
+		return callableSurrogate.getDouble(parameterName);
+	}
+	
+	@Override
+	public byte[] getBytes(String parameterName) throws SQLException {
+		return callableSurrogate.getBytes(parameterName);
+	}
+	
+	@Override
+	public Date getDate(String parameterName) throws SQLException {
+		return callableSurrogate.getDate(parameterName);
+	}
+	
+	@Override
+	public Time getTime(String parameterName) throws SQLException {
+		return callableSurrogate.getTime(parameterName);
+	}
+	
+	@Override
+	public Timestamp getTimestamp(String parameterName) throws SQLException {
+		return callableSurrogate.getTimestamp(parameterName);
+	}
+	
+	@Override
+	public Object getObject(String parameterName) throws SQLException {
+		return callableSurrogate.getObject(parameterName);
+	}
+	
+	@Override
+	public BigDecimal getBigDecimal(String parameterName) throws SQLException {
+		return callableSurrogate.getBigDecimal(parameterName);
+	}
+	
+	@Override
+	public Object getObject(String parameterName, Map<String, Class<?>> map) throws SQLException {
+		return callableSurrogate.getObject(parameterName, map);
+	}
+	
+	@Override
+	public Ref getRef(String parameterName) throws SQLException {
+		return callableSurrogate.getRef(parameterName);
+	}
+	
+	@Override
+	public Blob getBlob(String parameterName) throws SQLException {
+		return callableSurrogate.getBlob(parameterName);
+	}
+	
+	@Override
+	public Clob getClob(String parameterName) throws SQLException {
+		return callableSurrogate.getClob(parameterName);
+	}
+	
+	@Override
+	public Array getArray(String parameterName) throws SQLException {
+		return callableSurrogate.getArray(parameterName);
+	}
+	
+	@Override
+	public Date getDate(String parameterName, Calendar cal) throws SQLException {
+		return callableSurrogate.getDate(parameterName, cal);
+	}
+	
+	@Override
+	public Time getTime(String parameterName, Calendar cal) throws SQLException {
+		return callableSurrogate.getTime(parameterName, cal);
+	}
+	
+	@Override
+	public Timestamp getTimestamp(String parameterName, Calendar cal) throws SQLException {
+		return callableSurrogate.getTimestamp(parameterName, cal);
+	}
+	
+	@Override
+	public URL getURL(String parameterName) throws SQLException {
+		return callableSurrogate.getURL(parameterName);
+	}
+	
+	@Override
+	public RowId getRowId(int parameterIndex) throws SQLException {
+		return callableSurrogate.getRowId(parameterIndex);
+	}
+	
+	@Override
+	public RowId getRowId(String parameterName) throws SQLException {
+		return callableSurrogate.getRowId(parameterName);
+	}
+	
+	@Override
+	public void setRowId(String parameterName, RowId x) throws SQLException {
+		callableSurrogate.setRowId(parameterName, x);
+	}
+	
+	@Override
+	public void setNString(String parameterName, String value) throws SQLException {
+		callableSurrogate.setNString(parameterName, value);
+	}
+	
+	@Override
+	public void setNCharacterStream(String parameterName, Reader value, long length) throws SQLException {
+		callableSurrogate.setNCharacterStream(parameterName, value, length);
+	}
+	
+	@Override
+	public void setNClob(String parameterName, NClob value) throws SQLException {
+		callableSurrogate.setNClob(parameterName, value);
+	}
+	
+	@Override
+	public void setClob(String parameterName, Reader reader, long length) throws SQLException {
+		callableSurrogate.setClob(parameterName, reader, length);
+	}
+	
+	@Override
+	public void setBlob(String parameterName, InputStream inputStream, long length) throws SQLException {
+		callableSurrogate.setBlob(parameterName, inputStream, length);
+	}
+	
+	@Override
+	public void setNClob(String parameterName, Reader reader, long length) throws SQLException {
+		callableSurrogate.setNClob(parameterName, reader, length);
+	}
+	
+	@Override
+	public NClob getNClob(int parameterIndex) throws SQLException {
+		return callableSurrogate.getNClob(parameterIndex);
+	}
+	
+	@Override
+	public NClob getNClob(String parameterName) throws SQLException {
+		return callableSurrogate.getNClob(parameterName);
+	}
+	
+	@Override
+	public void setSQLXML(String parameterName, SQLXML xmlObject) throws SQLException {
+		callableSurrogate.setSQLXML(parameterName, xmlObject);
+	}
+	
+	@Override
+	public SQLXML getSQLXML(int parameterIndex) throws SQLException {
+		return callableSurrogate.getSQLXML(parameterIndex);
+	}
+	
+	@Override
+	public SQLXML getSQLXML(String parameterName) throws SQLException {
+		return callableSurrogate.getSQLXML(parameterName);
+	}
+	
+	@Override
+	public String getNString(int parameterIndex) throws SQLException {
+		return callableSurrogate.getNString(parameterIndex);
+	}
+	
+	@Override
+	public String getNString(String parameterName) throws SQLException {
+		return callableSurrogate.getNString(parameterName);
+	}
+	
+	@Override
+	public Reader getNCharacterStream(int parameterIndex) throws SQLException {
+		return callableSurrogate.getNCharacterStream(parameterIndex);
+	}
+	
+	@Override
+	public Reader getNCharacterStream(String parameterName) throws SQLException {
+		return callableSurrogate.getNCharacterStream(parameterName);
+	}
+	
+	@Override
+	public Reader getCharacterStream(int parameterIndex) throws SQLException {
+		return callableSurrogate.getCharacterStream(parameterIndex);
+	}
+	
+	@Override
+	public Reader getCharacterStream(String parameterName) throws SQLException {
+		return callableSurrogate.getCharacterStream(parameterName);
+	}
+	
+	@Override
+	public void setBlob(String parameterName, Blob x) throws SQLException {
+		callableSurrogate.setBlob(parameterName, x);
+	}
+	
+	@Override
+	public void setClob(String parameterName, Clob x) throws SQLException {
+		callableSurrogate.setClob(parameterName, x);
+	}
+	
+	@Override
+	public void setAsciiStream(String parameterName, InputStream x, long length) throws SQLException {
+		callableSurrogate.setAsciiStream(parameterName, x, length);
+	}
+	
+	@Override
+	public void setBinaryStream(String parameterName, InputStream x, long length) throws SQLException {
+		callableSurrogate.setBinaryStream(parameterName, x, length);
+	}
+	
+	@Override
+	public void setCharacterStream(String parameterName, Reader reader, long length) throws SQLException {
+		callableSurrogate.setCharacterStream(parameterName, reader, length);
+	}
+	
+	@Override
+	public void setAsciiStream(String parameterName, InputStream x) throws SQLException {
+		callableSurrogate.setAsciiStream(parameterName, x);
+	}
+	
+	@Override
+	public void setBinaryStream(String parameterName, InputStream x) throws SQLException {
+		callableSurrogate.setBinaryStream(parameterName, x);
+	}
+	
+	@Override
+	public void setCharacterStream(String parameterName, Reader reader) throws SQLException {
+		callableSurrogate.setCharacterStream(parameterName, reader);
+	}
+	
+	@Override
+	public void setNCharacterStream(String parameterName, Reader value) throws SQLException {
+		callableSurrogate.setNCharacterStream(parameterName, value);
+	}
+	
+	@Override
+	public void setClob(String parameterName, Reader reader) throws SQLException {
+		callableSurrogate.setClob(parameterName, reader);
+	}
+	
+	@Override
+	public void setBlob(String parameterName, InputStream inputStream) throws SQLException {
+		callableSurrogate.setBlob(parameterName, inputStream);
+	}
+	
+	@Override
+	public void setNClob(String parameterName, Reader reader) throws SQLException {
+		callableSurrogate.setNClob(parameterName, reader);
+	}
+	
+	@Override
+	public <T> T getObject(int parameterIndex, Class<T> type) throws SQLException {
+		return callableSurrogate.getObject(parameterIndex, type);
+	}
+	
+	@Override
+	public <T> T getObject(String parameterName, Class<T> type) throws SQLException {
+		return callableSurrogate.getObject(parameterName, type);
+	}
+	
+	@Override
+	public void setObject(String parameterName, Object x, SQLType targetSqlType, int scaleOrLength) throws SQLException {
+		callableSurrogate.setObject(parameterName, x, targetSqlType, scaleOrLength);
+	}
+	
+	@Override
+	public void setObject(String parameterName, Object x, SQLType targetSqlType) throws SQLException {
+		callableSurrogate.setObject(parameterName, x, targetSqlType);
+	}
+	
+	@Override
+	public void registerOutParameter(int parameterIndex, SQLType sqlType) throws SQLException {
+		callableSurrogate.registerOutParameter(parameterIndex, sqlType);
+	}
+	
+	@Override
+	public void registerOutParameter(int parameterIndex, SQLType sqlType, int scale) throws SQLException {
+		callableSurrogate.registerOutParameter(parameterIndex, sqlType, scale);
+	}
+	
+	@Override
+	public void registerOutParameter(int parameterIndex, SQLType sqlType, String typeName) throws SQLException {
+		callableSurrogate.registerOutParameter(parameterIndex, sqlType, typeName);
+	}
+	
+	@Override
+	public void registerOutParameter(String parameterName, SQLType sqlType) throws SQLException {
+		callableSurrogate.registerOutParameter(parameterName, sqlType);
+	}
+	
+	@Override
+	public void registerOutParameter(String parameterName, SQLType sqlType, int scale) throws SQLException {
+		callableSurrogate.registerOutParameter(parameterName, sqlType, scale);
+	}
+	
+	@Override
+	public void registerOutParameter(String parameterName, SQLType sqlType, String typeName) throws SQLException {
+		callableSurrogate.registerOutParameter(parameterName, sqlType, typeName);
+	}
+	
+	/**
+	 * Overriden to give access to delegate {@link CallableStatement}
+	 * 
+	 * @param <T> the type of the class modeled by this Class object
+	 * @param iface A Class defining an interface that the result must implement.
+	 * @return an object that implements the interface. May be a proxy for the actual implementing object.
+	 * @throws SQLException If no object found that implements the interface
+	 */
+	@Override
+	public <T> T unwrap(Class<T> iface) throws SQLException {
+		if (iface == CallableStatement.class) {
+			return (T) this.callableSurrogate;
+		}
+		return super.unwrap(iface);
+	}
+}
@@ -0,0 +1,265 @@
+package org.gama.lang.sql;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * {@link ConnectionWrapper} that notifies a {@link JdbcListener} of durations of {@link PreparedStatement} preparation, execution and
+ * {@link ResultSet} reading, as well as of commit and rollback.
+ * Only {@link PreparedStatement}s are instrumented : {@link java.sql.Statement}s and {@link java.sql.CallableStatement}s are given as is by
+ * underlying {@link Connection}.
+ * Overhead is 2 calls to {@link System#nanoTime()} per measured call plus listener one.
+ *
+ * @author Guillaume Mary
+ */
+public class InstrumentedConnectionWrapper extends ConnectionWrapper {
+	
+	private final JdbcListener listener;
+	
+	public InstrumentedConnectionWrapper(Connection surrogate, JdbcListener listener) {
+		super(surrogate);
+		this.listener = listener;
+	}
+	
+	public JdbcListener getListener() {
+		return listener;
+	}
+	
+	@Override
+	public PreparedStatement prepareStatement(String sql) throws SQLException {
+		long start = System.nanoTime();
+		PreparedStatement statement = super.prepareStatement(sql);
+		listener.onPrepare(sql, System.nanoTime() - start);
+		return new InstrumentedPreparedStatement(statement, sql);
+	}
+	
+	@Override
+	public PreparedStatement prepareStatement(String sql, int resultSetType, int resultSetConcurrency) throws SQLException {
+		long start = System.nanoTime();
+		PreparedStatement statement = super.prepareStatement(sql, resultSetType, resultSetConcurrency);
+		listener.onPrepare(sql, System.nanoTime() - start);
+		return new InstrumentedPreparedStatement(statement, sql);
+	}
+	
+	@Override
+	public PreparedStatement prepareStatement(String sql, int resultSetType, int resultSetConcurrency, int resultSetHoldability) throws SQLException {
+		long start = System.nanoTime();
+		PreparedStatement statement = super.prepareStatement(sql, resultSetType, resultSetConcurrency, resultSetHoldability);
+		listener.onPrepare(sql, System.nanoTime() - start);
+		return new InstrumentedPreparedStatement(statement, sql);
+	}
+	
+	@Override
+	public PreparedStatement prepareStatement(String sql, int autoGeneratedKeys) throws SQLException {
+		long start = System.nanoTime();
+		PreparedStatement statement = super.prepareStatement(sql, autoGeneratedKeys);
+		listener.onPrepare(sql, System.nanoTime() - start);
+		return new InstrumentedPreparedStatement(statement, sql);
+	}
+	
+	@Override
+	public PreparedStatement prepareStatement(String sql, int[] columnIndexes) throws SQLException {
+		long start = System.nanoTime();
+		PreparedStatement statement = super.prepareStatement(sql, columnIndexes);
+		listener.onPrepare(sql, System.nanoTime() - start);
+		return new InstrumentedPreparedStatement(statement, sql);
+	}
+	
+	@Override
+	public PreparedStatement prepareStatement(String sql, String[] columnNames) throws SQLException {
+		long start = System.nanoTime();
+		PreparedStatement statement = super.prepareStatement(sql, columnNames);
+		listener.onPrepare(sql, System.nanoTime() - start);
+		return new InstrumentedPreparedStatement(statement, sql);
+	}
+	
+	@Override
+	public void commit() throws SQLException {
+		long start = System.nanoTime();
+		try {
+			super.commit();
+		} finally {
+			listener.onCommit(System.nanoTime() - start);
+		}
+	}
+	
+	@Override
+	public void rollback() throws SQLException {
+		long start = System.nanoTime();
+		try {
+			super.rollback();
+		} finally {
+			listener.onRollback(System.nanoTime() - start);
+		}
+	}
+	
+	/**
+	 * {@link PreparedStatement} that measures its executions
+	 */
+	private class InstrumentedPreparedStatement extends PreparedStatementWrapper {
+		
+		private final String sql;
+		private int batchSize;
+		/** Last given {@link ResultSet}, to notify fetch of unclosed ones at statement closing */
+		private InstrumentedResultSet resultSet;
+		
+		private InstrumentedPreparedStatement(PreparedStatement surrogate, String sql) {
+			super(surrogate);
+			this.sql = sql;
+		}
+		
+		@Override
+		public ResultSet executeQuery() throws SQLException {
+			if (resultSet != null) {
+				// previous ResultSet will be closed by execution, so we notify its fetch now
+				resultSet.close();
+			}
+			long start = System.nanoTime();
+			try {
+				resultSet = new InstrumentedResultSet(super.executeQuery(), sql);
+				return resultSet;
+			} finally {
+				listener.onExecute(sql, System.nanoTime() - start);
+			}
+		}
+		
+		@Override
+		public int executeUpdate() throws SQLException {
+			long start = System.nanoTime();
+			try {
+				return super.executeUpdate();
+			} finally {
+				listener.onExecute(sql, System.nanoTime() - start);
+			}
+		}
+		
+		@Override
+		public long executeLargeUpdate() throws SQLException {
+			long start = System.nanoTime();
+			try {
+				return super.executeLargeUpdate();
+			} finally {
+				listener.onExecute(sql, System.nanoTime() - start);
+			}
+		}
+		
+		@Override
+		public boolean execute() throws SQLException {
+			long start = System.nanoTime();
+			try {
+				return super.execute();
+			} finally {
+				listener.onExecute(sql, System.nanoTime() - start);
+			}
+		}
+		
+		@Override
+		public ResultSet getResultSet() throws SQLException {
+			ResultSet surrogateResultSet = super.getResultSet();
+			if (surrogateResultSet == null) {
+				return null;
+			} else if (resultSet == null || resultSet.surrogate != surrogateResultSet) {
+				resultSet = new InstrumentedResultSet(surrogateResultSet, sql);
+			}
+			return resultSet;
+		}
+		
+		/**
+		 * Overriden to notify fetch of last {@link ResultSet} if it wasn't closed, as underlying statement will do
+		 * 
+		 * @throws SQLException any error thrown by underlying statement or {@link ResultSet}
+		 */
+		@Override
+		public void close() throws SQLException {
+			try {
+				if (resultSet != null) {
+					resultSet.close();
+				}
+			} finally {
+				super.close();
+			}
+		}
+		
+		@Override
+		public void addBatch() throws SQLException {
+			super.addBatch();
+			batchSize++;
+		}
+		
+		@Override
+		public void clearBatch() throws SQLException {
+			super.clearBatch();
+			batchSize = 0;
+		}
+		
+		@Override
+		public int[] executeBatch() throws SQLException {
+			long start = System.nanoTime();
+			int executedBatchSize = batchSize;
+			batchSize = 0;
+			try {
+				return super.executeBatch();
+			} finally {
+				listener.onBatchExecute(sql, executedBatchSize, System.nanoTime() - start);
+			}
+		}
+		
+		@Override
+		public long[] executeLargeBatch() throws SQLException {
+			long start = System.nanoTime();
+			int executedBatchSize = batchSize;
+			batchSize = 0;
+			try {
+				return super.executeLargeBatch();
+			} finally {
+				listener.onBatchExecute(sql, executedBatchSize, System.nanoTime() - start);
+			}
+		}
+		
+		@Override
+		public Connection getConnection() {
+			return InstrumentedConnectionWrapper.this;
+		}
+	}
+	
+	/**
+	 * {@link ResultSet} that counts its rows and time spent in {@link #next()}, notified at close time
+	 */
+	private class InstrumentedResultSet extends ResultSetWrapper {
+		
+		private final String sql;
+		private long rowCount;
+		private long fetchNanos;
+		private boolean closed;
+		
+		private InstrumentedResultSet(ResultSet surrogate, String sql) {
+			super(surrogate);
+			this.sql = sql;
+		}
+		
+		@Override
+		public boolean next() throws SQLException {
+			long start = System.nanoTime();
+			boolean result = super.next();
+			fetchNanos += System.nanoTime() - start;
+			if (result) {
+				rowCount++;
+			}
+			return result;
+		}
+		
+		@Override
+		public void close() throws SQLException {
+			try {
+				super.close();
+			} finally {
+				if (!closed) {
+					closed = true;
+					listener.onFetch(sql, rowCount, fetchNanos);
+				}
+			}
+		}
+	}
+}
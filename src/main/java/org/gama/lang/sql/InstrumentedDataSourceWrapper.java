@@ -0,0 +1,41 @@
+package org.gama.lang.sql;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * {@link DataSource} that notifies a {@link JdbcListener} of connection acquisition time and gives {@link InstrumentedConnectionWrapper}s.
+ * Made to wrap any {@link DataSource}, including {@link PooledDataSourceWrapper} to track waiting for a free connection.
+ *
+ * @author Guillaume Mary
+ */
+public class InstrumentedDataSourceWrapper extends DataSourceWrapper {
+	
+	private final JdbcListener listener;
+	
+	public InstrumentedDataSourceWrapper(DataSource delegate, JdbcListener listener) {
+		super(delegate);
+		this.listener = listener;
+	}
+	
+	public JdbcListener getListener() {
+		return listener;
+	}
+	
+	@Override
+	public Connection getConnection() throws SQLException {
+		long start = System.nanoTime();
+		Connection connection = super.getConnection();
+		listener.onConnectionAcquired(System.nanoTime() - start);
+		return new InstrumentedConnectionWrapper(connection, listener);
+	}
+	
+	@Override
+	public Connection getConnection(String username, String password) throws SQLException {
+		long start = System.nanoTime();
+		Connection connection = super.getConnection(username, password);
+		listener.onConnectionAcquired(System.nanoTime() - start);
+		return new InstrumentedConnectionWrapper(connection, listener);
+	}
+}
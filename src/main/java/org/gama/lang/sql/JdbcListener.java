@@ -0,0 +1,70 @@
+package org.gama.lang.sql;
+
+/**
+ * Listener of JDBC events notified by {@link InstrumentedDataSourceWrapper} and {@link InstrumentedConnectionWrapper}. All durations are
+ * given in nanoseconds. Methods are called by the thread that made the JDBC call, so implementations must be thread-safe and fast.
+ * All methods do nothing by default.
+ *
+ * @author Guillaume Mary
+ * @see JdbcMetrics
+ */
+public interface JdbcListener {
+	
+	/**
+	 * Called when a {@link java.sql.Connection} was given by a {@link javax.sql.DataSource}
+	 *
+	 * @param waitNanos time spent waiting for the connection
+	 */
+	default void onConnectionAcquired(long waitNanos) {
+	}
+	
+	/**
+	 * Called after a {@link java.sql.PreparedStatement} creation
+	 *
+	 * @param sql SQL order of the statement
+	 * @param nanos time spent in preparation
+	 */
+	default void onPrepare(String sql, long nanos) {
+	}
+	
+	/**
+	 * Called after a single execution of a statement
+	 *
+	 * @param sql SQL order of the statement
+	 * @param nanos time spent in execution
+	 */
+	default void onExecute(String sql, long nanos) {
+	}
+	
+	/**
+	 * Called after a batch execution of a statement
+	 *
+	 * @param sql SQL order of the statement
+	 * @param batchSize number of rows of the batch
+	 * @param nanos time spent in execution
+	 */
+	default void onBatchExecute(String sql, int batchSize, long nanos) {
+	}
+	
+	/**
+	 * Called when a {@link java.sql.ResultSet} of a statement is closed
+	 *
+	 * @param sql SQL order of the statement
+	 * @param rowCount number of rows read
+	 * @param nanos time spent in {@link java.sql.ResultSet#next()}
+	 */
+	default void onFetch(String sql, long rowCount, long nanos) {
+	}
+	
+	/**
+	 * @param nanos time spent in commit
+	 */
+	default void onCommit(long nanos) {
+	}
+	
+	/**
+	 * @param nanos time spent in rollback
+	 */
+	default void onRollback(long nanos) {
+	}
+}
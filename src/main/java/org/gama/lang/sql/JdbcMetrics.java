@@ -0,0 +1,180 @@
+package org.gama.lang.sql;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.gama.lang.trace.LatencyHistogram;
+
+/**
+ * {@link JdbcListener} that keeps counters and {@link LatencyHistogram}s, globally and per SQL order, so that slow queries and N+1 patterns
+ * (a same query executed a lot of times) can be found.
+ * Recording is lock-free and doesn't allocate memory, except the first time a SQL order is seen.
+ * Since each SQL order costs 3 histograms, their number is capped (see {@link #JdbcMetrics(int)}) so that applications that generate SQL
+ * with inlined values don't exhaust memory : SQL orders seen once the cap is reached are all recorded in a same catch-all
+ * {@link StatementMetrics}, given by {@link #getOtherStatementMetrics()}.
+ *
+ * @author Guillaume Mary
+ */
+public class JdbcMetrics implements JdbcListener {
+	
+	/** Default maximum number of SQL orders that have their own metrics */
+	public static final int DEFAULT_MAX_STATEMENT_COUNT = 500;
+	
+	private final LatencyHistogram acquisitions = new LatencyHistogram();
+	private final LatencyHistogram commits = new LatencyHistogram();
+	private final LatencyHistogram rollbacks = new LatencyHistogram();
+	private final Map<String, StatementMetrics> statementMetrics = new ConcurrentHashMap<>();
+	private final AtomicInteger statementCount = new AtomicInteger();
+	private final int maxStatementCount;
+	private final StatementMetrics otherStatementMetrics = new StatementMetrics();
+	
+	public JdbcMetrics() {
+		this(DEFAULT_MAX_STATEMENT_COUNT);
+	}
+	
+	/**
+	 * @param maxStatementCount maximum number of SQL orders that have their own metrics
+	 */
+	public JdbcMetrics(int maxStatementCount) {
+		if (maxStatementCount < 0) {
+			throw new IllegalArgumentException("Maximum statement count must be positive : " + maxStatementCount);
+		}
+		this.maxStatementCount = maxStatementCount;
+	}
+	
+	@Override
+	public void onConnectionAcquired(long waitNanos) {
+		acquisitions.record(waitNanos);
+	}
+	
+	@Override
+	public void onPrepare(String sql, long nanos) {
+		giveStatementMetrics(sql).prepares.record(nanos);
+	}
+	
+	@Override
+	public void onExecute(String sql, long nanos) {
+		giveStatementMetrics(sql).executions.record(nanos);
+	}
+	
+	@Override
+	public void onBatchExecute(String sql, int batchSize, long nanos) {
+		StatementMetrics metrics = giveStatementMetrics(sql);
+		metrics.executions.record(nanos);
+		metrics.batchCount.increment();
+		metrics.batchedRowCount.add(batchSize);
+	}
+	
+	@Override
+	public void onFetch(String sql, long rowCount, long nanos) {
+		StatementMetrics metrics = giveStatementMetrics(sql);
+		metrics.fetches.record(nanos);
+		metrics.fetchedRowCount.add(rowCount);
+	}
+	
+	@Override
+	public void onCommit(long nanos) {
+		commits.record(nanos);
+	}
+	
+	@Override
+	public void onRollback(long nanos) {
+		rollbacks.record(nanos);
+	}
+	
+	private StatementMetrics giveStatementMetrics(String sql) {
+		// get() first because computeIfAbsent(..) may lock even if key is present
+		StatementMetrics result = statementMetrics.get(sql);
+		if (result == null) {
+			// a null value leaves the map unchanged, and only admitted keys keep their increment, hence cap is strict
+			result = statementMetrics.computeIfAbsent(sql, k -> statementCount.incrementAndGet() <= maxStatementCount ? new StatementMetrics() : null);
+			if (result == null) {
+				statementCount.decrementAndGet();
+				result = otherStatementMetrics;
+			}
+		}
+		return result;
+	}
+	
+	public LatencyHistogram getAcquisitions() {
+		return acquisitions;
+	}
+	
+	public LatencyHistogram getCommits() {
+		return commits;
+	}
+	
+	public LatencyHistogram getRollbacks() {
+		return rollbacks;
+	}
+	
+	/**
+	 * @return metrics per SQL order, at most {@link #getMaxStatementCount()} entries
+	 */
+	public Map<String, StatementMetrics> getStatementMetrics() {
+		return Collections.unmodifiableMap(statementMetrics);
+	}
+	
+	/**
+	 * @return metrics of SQL orders seen after the maximum number of SQL orders was reached, all together
+	 */
+	public StatementMetrics getOtherStatementMetrics() {
+		return otherStatementMetrics;
+	}
+	
+	public int getMaxStatementCount() {
+		return maxStatementCount;
+	}
+	
+	/**
+	 * Metrics of a SQL order
+	 */
+	public static class StatementMetrics {
+		
+		private final LatencyHistogram prepares = new LatencyHistogram();
+		private final LatencyHistogram executions = new LatencyHistogram();
+		private final LatencyHistogram fetches = new LatencyHistogram();
+		private final LongAdder fetchedRowCount = new LongAdder();
+		private final LongAdder batchCount = new LongAdder();
+		private final LongAdder batchedRowCount = new LongAdder();
+		
+		public LatencyHistogram getPrepares() {
+			return prepares;
+		}
+		
+		/**
+		 * @return durations of executions, batch ones included
+		 */
+		public LatencyHistogram getExecutions() {
+			return executions;
+		}
+		
+		/**
+		 * @return durations of {@link java.sql.ResultSet} reading
+		 */
+		public LatencyHistogram getFetches() {
+			return fetches;
+		}
+		
+		public long getFetchedRowCount() {
+			return fetchedRowCount.sum();
+		}
+		
+		public long getBatchCount() {
+			return batchCount.sum();
+		}
+		
+		public long getBatchedRowCount() {
+			return batchedRowCount.sum();
+		}
+		
+		@Override
+		public String toString() {
+			return "prepares={" + prepares + "}, executions={" + executions + "}, fetches={" + fetches + "}"
+					+ ", fetchedRows=" + getFetchedRowCount() + ", batches=" + getBatchCount() + ", batchedRows=" + getBatchedRowCount();
+		}
+	}
+}
@@ -0,0 +1,431 @@
+package org.gama.lang.sql;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLTimeoutException;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link DataSource} that keeps a bounded number of {@link Connection}s of its delegate {@link DataSource} and gives them back on
+ * {@link #getConnection()}. Given {@link Connection}s are {@link ConnectionWrapper}s which {@link Connection#close()} put physical connection
+ * back in the pool.
+ *
+ * Implementation is based on a fair {@link Semaphore} which permits are the maximum number of connections in use : threads that can't get a
+ * permit wait in arrival order, for at most the acquisition timeout. Idle connections are kept in a lock-free deque, most recently used first.
+ * Connections that were idle for more than idle timeout are closed at acquisition time, and ones that were idle for more than validation
+ * threshold are checked with {@link Connection#isValid(int)} before being given.
+ *
+ * Connections given by {@link #getConnection(String, String)} are not pooled.
+ *
+ * @author Guillaume Mary
+ */
+public class PooledDataSourceWrapper extends DataSourceWrapper implements AutoCloseable {
+	
+	/** Replaces physical connection in closed {@link ConnectionWrapper}s so that any usage throws an exception */
+	private static final Connection CLOSED_CONNECTION = (Connection) Proxy.newProxyInstance(PooledDataSourceWrapper.class.getClassLoader(),
+			new Class[] { Connection.class }, (proxy, method, args) -> {
+				switch (method.getName()) {
+					case "isClosed":
+						return true;
+					case "close":
+						return null;
+					default:
+						throw new SQLException("Connection is closed");
+				}
+			});
+	
+	/** Given to {@link Connection#setNetworkTimeout(Executor, int)} when restoring it, so that it's applied synchronously */
+	private static final Executor SYNCHRONOUS_EXECUTOR = Runnable::run;
+	
+	/** Marks network timeout as not supported by the driver, so that it's not restored */
+	private static final int UNSUPPORTED_NETWORK_TIMEOUT = -1;
+	
+	private final int maxSize;
+	
+	private final Semaphore permits;
+	
+	/** Idle connections, most recently used first */
+	private final ConcurrentLinkedDeque<PooledConnection> idleConnections = new ConcurrentLinkedDeque<>();
+	
+	private final AtomicInteger totalCount = new AtomicInteger();
+	
+	private long acquisitionTimeoutNanos = TimeUnit.SECONDS.toNanos(30);
+	
+	private long idleTimeoutNanos = TimeUnit.MINUTES.toNanos(10);
+	
+	private long validationThresholdNanos = TimeUnit.MILLISECONDS.toNanos(500);
+	
+	private int validationTimeoutSeconds = 5;
+	
+	private volatile boolean closed;
+	
+	private final LongAdder acquisitionCount = new LongAdder();
+	private final LongAdder acquisitionWaitNanos = new LongAdder();
+	private final LongAdder timeoutCount = new LongAdder();
+	private final LongAdder createdCount = new LongAdder();
+	private final LongAdder destroyedCount = new LongAdder();
+	
+	public PooledDataSourceWrapper(DataSource delegate, int maxSize) {
+		super(delegate);
+		if (maxSize < 1) {
+			throw new IllegalArgumentException("Pool size must be strictly positive : " + maxSize);
+		}
+		this.maxSize = maxSize;
+		this.permits = new Semaphore(maxSize, true);
+	}
+	
+	/**
+	 * Sets maximum time to wait for a connection when all of them are in use, default is 30 seconds
+	 *
+	 * @param timeout maximum waiting time
+	 * @param unit unit of timeout
+	 * @return this
+	 */
+	public PooledDataSourceWrapper withAcquisitionTimeout(long timeout, TimeUnit unit) {
+		this.acquisitionTimeoutNanos = unit.toNanos(timeout);
+		return this;
+	}
+	
+	/**
+	 * Sets the time after which an unused connection is closed, default is 10 minutes
+	 *
+	 * @param timeout maximum idle time
+	 * @param unit unit of timeout
+	 * @return this
+	 */
+	public PooledDataSourceWrapper withIdleTimeout(long timeout, TimeUnit unit) {
+		this.idleTimeoutNanos = unit.toNanos(timeout);
+		return this;
+	}
+	
+	/**
+	 * Sets the idle time under which a connection is considered valid without calling {@link Connection#isValid(int)}, default is 500
+	 * milliseconds
+	 *
+	 * @param threshold idle time under which connection is not checked
+	 * @param unit unit of threshold
+	 * @return this
+	 */
+	public PooledDataSourceWrapper withValidationThreshold(long threshold, TimeUnit unit) {
+		this.validationThresholdNanos = unit.toNanos(threshold);
+		return this;
+	}
+	
+	/**
+	 * Sets the timeout given to {@link Connection#isValid(int)}, default is 5 seconds
+	 *
+	 * @param seconds validation timeout, 0 means no timeout
+	 * @return this
+	 */
+	public PooledDataSourceWrapper withValidationTimeout(int seconds) {
+		this.validationTimeoutSeconds = seconds;
+		return this;
+	}
+	
+	public int getMaxSize() {
+		return maxSize;
+	}
+	
+	/**
+	 * Gives an idle connection, or creates a new one if none is available and pool is not full, else waits for one to be released.
+	 *
+	 * @return a {@link ConnectionWrapper} which {@link Connection#close()} gives the physical connection back to the pool
+	 * @throws SQLTimeoutException if no connection was released in time
+	 * @throws SQLException if pool is closed, or if connection creation fails
+	 */
+	@Override
+	public Connection getConnection() throws SQLException {
+		if (closed) {
+			throw new SQLException("Pool is closed");
+		}
+		long start = System.nanoTime();
+		try {
+			if (!permits.tryAcquire(acquisitionTimeoutNanos, TimeUnit.NANOSECONDS)) {
+				timeoutCount.increment();
+				throw new SQLTimeoutException("No connection available within " + TimeUnit.NANOSECONDS.toMillis(acquisitionTimeoutNanos) + "ms");
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new SQLException("Interrupted while waiting for a connection", e);
+		}
+		acquisitionWaitNanos.add(System.nanoTime() - start);
+		try {
+			PooledConnection result = pollValidConnection();
+			if (result == null) {
+				result = new PooledConnection(super.getConnection());
+				totalCount.incrementAndGet();
+				createdCount.increment();
+			}
+			acquisitionCount.increment();
+			return result.lend();
+		} catch (SQLException | RuntimeException | Error e) {
+			permits.release();
+			throw e;
+		}
+	}
+	
+	/**
+	 * Closes expired idle connections then gives the most recently used valid one
+	 *
+	 * @return null if there's no valid idle connection
+	 */
+	private PooledConnection pollValidConnection() {
+		evictIdleConnections();
+		PooledConnection candidate;
+		while ((candidate = idleConnections.pollFirst()) != null) {
+			if (isValid(candidate)) {
+				return candidate;
+			} else {
+				destroy(candidate);
+			}
+		}
+		return null;
+	}
+	
+	private boolean isValid(PooledConnection connection) {
+		if (System.nanoTime() - connection.lastUsedNanos < validationThresholdNanos) {
+			return true;
+		}
+		try {
+			return connection.physicalConnection.isValid(validationTimeoutSeconds);
+		} catch (SQLException e) {
+			return false;
+		}
+	}
+	
+	/**
+	 * Closes connections that were idle for more than idle timeout
+	 */
+	public void evictIdleConnections() {
+		long now = System.nanoTime();
+		PooledConnection oldest;
+		// only the thread that succeeds in removing the connection closes it
+		while ((oldest = idleConnections.peekLast()) != null && now - oldest.lastUsedNanos > idleTimeoutNanos
+				&& idleConnections.removeLastOccurrence(oldest)) {
+			destroy(oldest);
+		}
+	}
+	
+	private void release(PooledConnection connection) {
+		connection.lastUsedNanos = System.nanoTime();
+		if (closed || !connection.reset()) {
+			destroy(connection);
+		} else {
+			idleConnections.offerFirst(connection);
+			// close() may have drained idle connections between the check above and the offer : the one that removes it closes it
+			if (closed && idleConnections.removeFirstOccurrence(connection)) {
+				destroy(connection);
+			}
+		}
+		permits.release();
+	}
+	
+	private void destroy(PooledConnection connection) {
+		totalCount.decrementAndGet();
+		destroyedCount.increment();
+		try {
+			connection.physicalConnection.close();
+		} catch (SQLException e) {
+			// nothing to do : connection is not usable anymore
+		}
+	}
+	
+	/**
+	 * Closes idle connections and prevents from giving new ones. Connections in use are closed when they are released.
+	 */
+	@Override
+	public void close() {
+		closed = true;
+		PooledConnection connection;
+		while ((connection = idleConnections.pollFirst()) != null) {
+			destroy(connection);
+		}
+	}
+	
+	/**
+	 * @return number of connections in use
+	 */
+	public int getActiveCount() {
+		return maxSize - permits.availablePermits();
+	}
+	
+	/**
+	 * @return number of connections waiting to be used
+	 */
+	public int getIdleCount() {
+		return idleConnections.size();
+	}
+	
+	/**
+	 * @return number of physical connections currently opened by this pool
+	 */
+	public int getTotalCount() {
+		return totalCount.get();
+	}
+	
+	/**
+	 * @return number of threads waiting for a connection (estimate)
+	 */
+	public int getWaitingCount() {
+		return permits.getQueueLength();
+	}
+	
+	/**
+	 * @return number of connections given by {@link #getConnection()}
+	 */
+	public long getAcquisitionCount() {
+		return acquisitionCount.sum();
+	}
+	
+	/**
+	 * @return total time spent by threads waiting for a connection, in nanoseconds
+	 */
+	public long getAcquisitionWaitNanos() {
+		return acquisitionWaitNanos.sum();
+	}
+	
+	/**
+	 * @return number of {@link #getConnection()} calls that failed because no connection was available in time
+	 */
+	public long getTimeoutCount() {
+		return timeoutCount.sum();
+	}
+	
+	/**
+	 * @return number of physical connections opened since pool creation
+	 */
+	public long getCreatedCount() {
+		return createdCount.sum();
+	}
+	
+	/**
+	 * @return number of physical connections closed since pool creation, because they expired, were invalid or because pool was closed
+	 */
+	public long getDestroyedCount() {
+		return destroyedCount.sum();
+	}
+	
+	/**
+	 * A physical connection of the pool
+	 */
+	private class PooledConnection {
+		
+		private final Connection physicalConnection;
+		private final boolean defaultAutoCommit;
+		private final boolean defaultReadOnly;
+		private final int defaultTransactionIsolation;
+		private final String defaultCatalog;
+		private final String defaultSchema;
+		private final int defaultHoldability;
+		private final int defaultNetworkTimeout;
+		private volatile long lastUsedNanos = System.nanoTime();
+		
+		/**
+		 * @param physicalConnection a new connection, closed if its settings can't be read
+		 * @throws SQLException if settings of the connection can't be read
+		 */
+		private PooledConnection(Connection physicalConnection) throws SQLException {
+			this.physicalConnection = physicalConnection;
+			try {
+				this.defaultAutoCommit = physicalConnection.getAutoCommit();
+				this.defaultReadOnly = physicalConnection.isReadOnly();
+				this.defaultTransactionIsolation = physicalConnection.getTransactionIsolation();
+				this.defaultCatalog = physicalConnection.getCatalog();
+				this.defaultSchema = physicalConnection.getSchema();
+				this.defaultHoldability = physicalConnection.getHoldability();
+				this.defaultNetworkTimeout = readNetworkTimeout(physicalConnection);
+			} catch (SQLException | RuntimeException e) {
+				// connection is not counted by the pool yet, hence nobody else would close it
+				try {
+					physicalConnection.close();
+				} catch (SQLException closeFailure) {
+					e.addSuppressed(closeFailure);
+				}
+				throw e;
+			}
+		}
+		
+		private int readNetworkTimeout(Connection physicalConnection) throws SQLException {
+			try {
+				return physicalConnection.getNetworkTimeout();
+			} catch (SQLFeatureNotSupportedException | AbstractMethodError e) {
+				// old drivers don't implement it
+				return UNSUPPORTED_NETWORK_TIMEOUT;
+			}
+		}
+		
+		/**
+		 * @return a new {@link ConnectionWrapper} which {@link Connection#close()} releases this connection
+		 */
+		private ConnectionWrapper lend() {
+			return new ConnectionWrapper(physicalConnection) {
+				
+				private boolean released;
+				
+				@Override
+				public void close() {
+					if (!released) {
+						released = true;
+						// any further usage of the wrapper will fail
+						setSurrogate(CLOSED_CONNECTION);
+						release(PooledConnection.this);
+					}
+				}
+			};
+		}
+		
+		/**
+		 * Rollbacks uncommitted work, sets auto-commit, read-only, transaction isolation, catalog, schema, holdability and network timeout back
+		 * to their initial values and clears warnings, so that next user doesn't inherit them
+		 *
+		 * @return false if connection can't be reused
+		 */
+		private boolean reset() {
+			try {
+				if (physicalConnection.isClosed()) {
+					return false;
+				}
+				boolean autoCommit = physicalConnection.getAutoCommit();
+				if (!autoCommit) {
+					// before restoring auto-commit, which would commit pending work
+					physicalConnection.rollback();
+				}
+				if (autoCommit != defaultAutoCommit) {
+					physicalConnection.setAutoCommit(defaultAutoCommit);
+				}
+				// setters are only called on change since some drivers do a round-trip for each of them
+				if (physicalConnection.isReadOnly() != defaultReadOnly) {
+					physicalConnection.setReadOnly(defaultReadOnly);
+				}
+				if (physicalConnection.getTransactionIsolation() != defaultTransactionIsolation) {
+					physicalConnection.setTransactionIsolation(defaultTransactionIsolation);
+				}
+				if (!Objects.equals(physicalConnection.getCatalog(), defaultCatalog)) {
+					physicalConnection.setCatalog(defaultCatalog);
+				}
+				if (!Objects.equals(physicalConnection.getSchema(), defaultSchema)) {
+					physicalConnection.setSchema(defaultSchema);
+				}
+				if (physicalConnection.getHoldability() != defaultHoldability) {
+					physicalConnection.setHoldability(defaultHoldability);
+				}
+				if (defaultNetworkTimeout != UNSUPPORTED_NETWORK_TIMEOUT && physicalConnection.getNetworkTimeout() != defaultNetworkTimeout) {
+					physicalConnection.setNetworkTimeout(SYNCHRONOUS_EXECUTOR, defaultNetworkTimeout);
+				}
+				physicalConnection.clearWarnings();
+				return true;
+			} catch (SQLException e) {
+				return false;
+			}
+		}
+	}
+}
@@ -0,0 +1,611 @@
+package org.gama.lang.sql;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.net.URL;
+import java.sql.Array;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.NClob;
+import java.sql.ParameterMetaData;
+import java.sql.PreparedStatement;
+import java.sql.Ref;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.RowId;
+import java.sql.SQLException;
+import java.sql.SQLType;
+import java.sql.SQLWarning;
+import java.sql.SQLXML;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.Calendar;
+
+import org.gama.lang.Reflections;
+
+/**
+ * {@link PreparedStatement} that wraps another one and delegates all its methods to it without any additionnal feature.
+ * Made for overriding only some targeted methods.
+ *
+ * @author Guillaume Mary
+ */
+public class PreparedStatementWrapper implements PreparedStatement {
+	
+	protected PreparedStatement surrogate;
+	
+	public PreparedStatementWrapper(PreparedStatement surrogate) {
+		this.surrogate = surrogate;
+	}
+	
+	public void setSurrogate(PreparedStatement surrogate) {
+		this.surrogate = surrogate;
+	}
+	
+	@Override
+	public ResultSet executeQuery(String sql) throws SQLException {
+		return surrogate.executeQuery(sql);
+	}
+	
+	@Override
+	public int executeUpdate(String sql) throws SQLException {
+		return surrogate.executeUpdate(sql);
+	}
+	
+	@Override
+	public void close() throws SQLException {
+		surrogate.close();
+	}
+	
+	@Override
+	public int getMaxFieldSize() throws SQLException {
+		return surrogate.getMaxFieldSize();
+	}
+	
+	@Override
+	public void setMaxFieldSize(int max) throws SQLException {
+		surrogate.setMaxFieldSize(max);
+	}
+	
+	@Override
+	public int getMaxRows() throws SQLException {
+		return surrogate.getMaxRows();
+	}
+	
+	@Override
+	public void setMaxRows(int max) throws SQLException {
+		surrogate.setMaxRows(max);
+	}
+	
+	@Override
+	public void setEscapeProcessing(boolean enable) throws SQLException {
+		surrogate.setEscapeProcessing(enable);
+	}
+	
+	@Override
+	public int getQueryTimeout() throws SQLException {
+		return surrogate.getQueryTimeout();
+	}
+	
+	@Override
+	public void setQueryTimeout(int seconds) throws SQLException {
+		surrogate.setQueryTimeout(seconds);
+	}
+	
+	@Override
+	public void cancel() throws SQLException {
+		surrogate.cancel();
+	}
+	
+	@Override
+	public SQLWarning getWarnings() throws SQLException {
+		return surrogate.getWarnings();
+	}
+	
+	@Override
+	public void clearWarnings() throws SQLException {
+		surrogate.clearWarnings();
+	}
+	
+	@Override
+	public void setCursorName(String name) throws SQLException {
+		surrogate.setCursorName(name);
+	}
+	
+	@Override
+	public boolean execute(String sql) throws SQLException {
+		return surrogate.execute(sql);
+	}
+	
+	@Override
+	public ResultSet getResultSet() throws SQLException {
+		return surrogate.getResultSet();
+	}
+	
+	@Override
+	public int getUpdateCount() throws SQLException {
+		return surrogate.getUpdateCount();
+	}
+	
+	@Override
+	public boolean getMoreResults() throws SQLException {
+		return surrogate.getMoreResults();
+	}
+	
+	@Override
+	public void setFetchDirection(int direction) throws SQLException {
+		surrogate.setFetchDirection(direction);
+	}
+	
+	@Override
+	public int getFetchDirection() throws SQLException {
+		return surrogate.getFetchDirection();
+	}
+	
+	@Override
+	public void setFetchSize(int rows) throws SQLException {
+		surrogate.setFetchSize(rows);
+	}
+	
+	@Override
+	public int getFetchSize() throws SQLException {
+		return surrogate.getFetchSize();
+	}
+	
+	@Override
+	public int getResultSetConcurrency() throws SQLException {
+		return surrogate.getResultSetConcurrency();
+	}
+	
+	@Override
+	public int getResultSetType() throws SQLException {
+		return surrogate.getResultSetType();
+	}
+	
+	@Override
+	public void addBatch(String sql) throws SQLException {
+		surrogate.addBatch(sql);
+	}
+	
+	@Override
+	public void clearBatch() throws SQLException {
+		surrogate.clearBatch();
+	}
+	
+	@Override
+	public int[] executeBatch() throws SQLException {
+		return surrogate.executeBatch();
+	}
+	
+	@Override
+	public Connection getConnection() throws SQLException {
+		return surrogate.getConnection();
+	}
+	
+	@Override
+	public boolean getMoreResults(int current) throws SQLException {
+		return surrogate.getMoreResults(current);
+	}
+	
+	@Override
+	public ResultSet getGeneratedKeys() throws SQLException {
+		return surrogate.getGeneratedKeys();
+	}
+	
+	@Override
+	public int executeUpdate(String sql, int autoGeneratedKeys) throws SQLException {
+		return surrogate.executeUpdate(sql, autoGeneratedKeys);
+	}
+	
+	@Override
+	public int executeUpdate(String sql, int[] columnIndexes) throws SQLException {
+		return surrogate.executeUpdate(sql, columnIndexes);
+	}
+	
+	@Override
+	public int executeUpdate(String sql, String[] columnNames) throws SQLException {
+		return surrogate.executeUpdate(sql, columnNames);
+	}
+	
+	@Override
+	public boolean execute(String sql, int autoGeneratedKeys) throws SQLException {
+		return surrogate.execute(sql, autoGeneratedKeys);
+	}
+	
+	@Override
+	public boolean execute(String sql, int[] columnIndexes) throws SQLException {
+		return surrogate.execute(sql, columnIndexes);
+	}
+	
+	@Override
+	public boolean execute(String sql, String[] columnNames) throws SQLException {
+		return surrogate.execute(sql, columnNames);
+	}
+	
+	@Override
+	public int getResultSetHoldability() throws SQLException {
+		return surrogate.getResultSetHoldability();
+	}
+	
+	@Override
+	public boolean isClosed() throws SQLException {
+		return surrogate.isClosed();
+	}
+	
+	@Override
+	public void setPoolable(boolean poolable) throws SQLException {
+		surrogate.setPoolable(poolable);
+	}
+	
+	@Override
+	public boolean isPoolable() throws SQLException {
+		return surrogate.isPoolable();
+	}
+	
+	@Override
+	public void closeOnCompletion() throws SQLException {
+		surrogate.closeOnCompletion();
+	}
+	
+	@Override
+	public boolean isCloseOnCompletion() throws SQLException {
+		return surrogate.isCloseOnCompletion();
+	}
+	
+	@Override
+	public long getLargeUpdateCount() throws SQLException {
+		return surrogate.getLargeUpdateCount();
+	}
+	
+	@Override
+	public void setLargeMaxRows(long max) throws SQLException {
+		surrogate.setLargeMaxRows(max);
+	}
+	
+	@Override
+	public long getLargeMaxRows() throws SQLException {
+		return surrogate.getLargeMaxRows();
+	}
+	
+	@Override
+	public long[] executeLargeBatch() throws SQLException {
+		return surrogate.executeLargeBatch();
+	}
+	
+	@Override
+	public long executeLargeUpdate(String sql) throws SQLException {
+		return surrogate.executeLargeUpdate(sql);
+	}
+	
+	@Override
+	public long executeLargeUpdate(String sql, int autoGeneratedKeys) throws SQLException {
+		return surrogate.executeLargeUpdate(sql, autoGeneratedKeys);
+	}
+	
+	@Override
+	public long executeLargeUpdate(String sql, int[] columnIndexes) throws SQLException {
+		return surrogate.executeLargeUpdate(sql, columnIndexes);
+	}
+	
+	@Override
+	public long executeLargeUpdate(String sql, String[] columnNames) throws SQLException {
+		return surrogate.executeLargeUpdate(sql, columnNames);
+	}
+	
+	@Override
+	public ResultSet executeQuery() throws SQLException {
+		return surrogate.executeQuery();
+	}
+	
+	@Override
+	public int executeUpdate() throws SQLException {
+		return surrogate.executeUpdate();
+	}
+	
+	@Override
+	public void setNull(int parameterIndex, int sqlType) throws SQLException {
+		surrogate.setNull(parameterIndex, sqlType);
+	}
+	
+	@Override
+	public void setBoolean(int parameterIndex, boolean x) throws SQLException {
+		surrogate.setBoolean(parameterIndex, x);
+	}
+	
+	@Override
+	public void setByte(int parameterIndex, byte x) throws SQLException {
+		surrogate.setByte(parameterIndex, x);
+	}
+	
+	@Override
+	public void setShort(int parameterIndex, short x) throws SQLException {
+		surrogate.setShort(parameterIndex, x);
+	}
+	
+	@Override
+	public void setInt(int parameterIndex, int x) throws SQLException {
+		surrogate.setInt(parameterIndex, x);
+	}
+	
+	@Override
+	public void setLong(int parameterIndex, long x) throws SQLException {
+		surrogate.setLong(parameterIndex, x);
+	}
+	
+	@Override
+	public void setFloat(int parameterIndex, float x) throws SQLException {
+		surrogate.setFloat(parameterIndex, x);
+	}
+	
+	@Override
+	public void setDouble(int parameterIndex, double x) throws SQLException {
+		surrogate.setDouble(parameterIndex, x);
+	}
+	
+	@Override
+	public void setBigDecimal(int parameterIndex, BigDecimal x) throws SQLException {
+		surrogate.setBigDecimal(parameterIndex, x);
+	}
+	
+	@Override
+	public void setString(int parameterIndex, String x) throws SQLException {
+		surrogate.setString(parameterIndex, x);
+	}
+	
+	@Override
+	public void setBytes(int parameterIndex, byte[] x) throws SQLException {
+		surrogate.setBytes(parameterIndex, x);
+	}
+	
+	@Override
+	public void setDate(int parameterIndex, Date x) throws SQLException {
+		surrogate.setDate(parameterIndex, x);
+	}
+	
+	@Override
+	public void setTime(int parameterIndex, Time x) throws SQLException {
+		surrogate.setTime(parameterIndex, x);
+	}
+	
+	@Override
+	public void setTimestamp(int parameterIndex, Timestamp x) throws SQLException {
+		surrogate.setTimestamp(parameterIndex, x);
+	}
+	
+	@Override
+	public void setAsciiStream(int parameterIndex, InputStream x, int length) throws SQLException {
+		surrogate.setAsciiStream(parameterIndex, x, length);
+	}
+	
+	@Deprecated
+	@Override
+	public void setUnicodeStream(int parameterIndex, InputStream x, int length) throws SQLException {
+		surrogate.setUnicodeStream(parameterIndex, x, length);
+	}
+	
+	@Override
+	public void setBinaryStream(int parameterIndex, InputStream x, int length) throws SQLException {
+		surrogate.setBinaryStream(parameterIndex, x, length);
+	}
+	
+	@Override
+	public void clearParameters() throws SQLException {
+		surrogate.clearParameters();
+	}
+	
+	@Override
+	public void setObject(int parameterIndex, Object x, int targetSqlType) throws SQLException {
+		surrogate.setObject(parameterIndex, x, targetSqlType);
+	}
+	
+	@Override
+	public void setObject(int parameterIndex, Object x) throws SQLException {
+		surrogate.setObject(parameterIndex, x);
+	}
+	
+	@Override
+	public boolean execute() throws SQLException {
+		return surrogate.execute();
+	}
+	
+	@Override
+	public void addBatch() throws SQLException {
+		surrogate.addBatch();
+	}
+	
+	@Override
+	public void setCharacterStream(int parameterIndex, Reader reader, int length) throws SQLException {
+		surrogate.setCharacterStream(parameterIndex, reader, length);
+	}
+	
+	@Override
+	public void setRef(int parameterIndex, Ref x) throws SQLException {
+		surrogate.setRef(parameterIndex, x);
+	}
+	
+	@Override
+	public void setBlob(int parameterIndex, Blob x) throws SQLException {
+		surrogate.setBlob(parameterIndex, x);
+	}
+	
+	@Override
+	public void setClob(int parameterIndex, Clob x) throws SQLException {
+		surrogate.setClob(parameterIndex, x);
+	}
+	
+	@Override
+	public void setArray(int parameterIndex, Array x) throws SQLException {
+		surrogate.setArray(parameterIndex, x);
+	}
+	
+	@Override
+	public ResultSetMetaData getMetaData() throws SQLException {
+		return surrogate.getMetaData();
+	}
+	
+	@Override
+	public void setDate(int parameterIndex, Date x, Calendar cal) throws SQLException {
+		surrogate.setDate(parameterIndex, x, cal);
+	}
+	
+	@Override
+	public void setTime(int parameterIndex, Time x, Calendar cal) throws SQLException {
+		surrogate.setTime(parameterIndex, x, cal);
+	}
+	
+	@Override
+	public void setTimestamp(int parameterIndex, Timestamp x, Calendar cal) throws SQLException {
+		surrogate.setTimestamp(parameterIndex, x, cal);
+	}
+	
+	@Override
+	public void setNull(int parameterIndex, int sqlType, String typeName) throws SQLException {
+		surrogate.setNull(parameterIndex, sqlType, typeName);
+	}
+	
+	@Override
+	public void setURL(int parameterIndex, URL x) throws SQLException {
+		surrogate.setURL(parameterIndex, x);
+	}
+	
+	@Override
+	public ParameterMetaData getParameterMetaData() throws SQLException {
+		return surrogate.getParameterMetaData();
+	}
+	
+	@Override
+	public void setRowId(int parameterIndex, RowId x) throws SQLException {
+		surrogate.setRowId(parameterIndex, x);
+	}
+	
+	@Override
+	public void setNString(int parameterIndex, String value) throws SQLException {
+		surrogate.setNString(parameterIndex, value);
+	}
+	
+	@Override
+	public void setNCharacterStream(int parameterIndex, Reader value, long length) throws SQLException {
+		surrogate.setNCharacterStream(parameterIndex, value, length);
+	}
+	
+	@Override
+	public void setNClob(int parameterIndex, NClob value) throws SQLException {
+		surrogate.setNClob(parameterIndex, value);
+	}
+	
+	@Override
+	public void setClob(int parameterIndex, Reader reader, long length) throws SQLException {
+		surrogate.setClob(parameterIndex, reader, length);
+	}
+	
+	@Override
+	public void setBlob(int parameterIndex, InputStream inputStream, long length) throws SQLException {
+		surrogate.setBlob(parameterIndex, inputStream, length);
+	}
+	
+	@Override
+	public void setNClob(int parameterIndex, Reader reader, long length) throws SQLException {
+		surrogate.setNClob(parameterIndex, reader, length);
+	}
+	
+	@Override
+	public void setSQLXML(int parameterIndex, SQLXML xmlObject) throws SQLException {
+		surrogate.setSQLXML(parameterIndex, xmlObject);
+	}
+	
+	@Override
+	public void setObject(int parameterIndex, Object x, int targetSqlType, int scaleOrLength) throws SQLException {
+		surrogate.setObject(parameterIndex, x, targetSqlType, scaleOrLength);
+	}
+	
+	@Override
+	public void setAsciiStream(int parameterIndex, InputStream x, long length) throws SQLException {
+		surrogate.setAsciiStream(parameterIndex, x, length);
+	}
+	
+	@Override
+	public void setBinaryStream(int parameterIndex, InputStream x, long length) throws SQLException {
+		surrogate.setBinaryStream(parameterIndex, x, length);
+	}
+	
+	@Override
+	public void setCharacterStream(int parameterIndex, Reader reader, long length) throws SQLException {
+		surrogate.setCharacterStream(parameterIndex, reader, length);
+	}
+	
+	@Override
+	public void setAsciiStream(int parameterIndex, InputStream x) throws SQLException {
+		surrogate.setAsciiStream(parameterIndex, x);
+	}
+	
+	@Override
+	public void setBinaryStream(int parameterIndex, InputStream x) throws SQLException {
+		surrogate.setBinaryStream(parameterIndex, x);
+	}
+	
+	@Override
+	public void setCharacterStream(int parameterIndex, Reader reader) throws SQLException {
+		surrogate.setCharacterStream(parameterIndex, reader);
+	}
+	
+	@Override
+	public void setNCharacterStream(int parameterIndex, Reader value) throws SQLException {
+		surrogate.setNCharacterStream(parameterIndex, value);
+	}
+	
+	@Override
+	public void setClob(int parameterIndex, Reader reader) throws SQLException {
+		surrogate.setClob(parameterIndex, reader);
+	}
+	
+	@Override
+	public void setBlob(int parameterIndex, InputStream inputStream) throws SQLException {
+		surrogate.setBlob(parameterIndex, inputStream);
+	}
+	
+	@Override
+	public void setNClob(int parameterIndex, Reader reader) throws SQLException {
+		surrogate.setNClob(parameterIndex, reader);
+	}
+	
+	@Override
+	public void setObject(int parameterIndex, Object x, SQLType targetSqlType, int scaleOrLength) throws SQLException {
+		surrogate.setObject(parameterIndex, x, targetSqlType, scaleOrLength);
+	}
+	
+	@Override
+	public void setObject(int parameterIndex, Object x, SQLType targetSqlType) throws SQLException {
+		surrogate.setObject(parameterIndex, x, targetSqlType);
+	}
+	
+	@Override
+	public long executeLargeUpdate() throws SQLException {
+		return surrogate.executeLargeUpdate();
+	}
+	
+	/**
+	 * Implementation that gives access to delegate {@link PreparedStatement} if given parameter if {@link PreparedStatement} class.
+	 *
+	 * @param <T> the type of the class modeled by this Class object
+	 * @param iface A Class defining an interface that the result must implement.
+	 * @return an object that implements the interface. May be a proxy for the actual implementing object.
+	 * @throws SQLException If no object found that implements the interface
+	 */
+	@Override
+	public <T> T unwrap(Class<T> iface) throws SQLException {
+		if (iface == PreparedStatement.class) {
+			return (T) this.surrogate;
+		} else if (isWrapperFor(iface)) {
+			// made for subclasses
+			return (T) this;
+		}
+		throw new SQLException(Reflections.toString(PreparedStatementWrapper.class) + " cannot be unwrapped as " + Reflections.toString(iface));
+	}
+	
+	@Override
+	public boolean isWrapperFor(Class<?> iface) throws SQLException {
+		return iface.isInstance(this);
+	}
+}
@@ -0,0 +1,323 @@
+package org.gama.lang.sql;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Spliterator;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.gama.lang.function.ThrowingFunction;
+
+/**
+ * {@link Spliterator} over the rows of a {@link ResultSet}, each of them being transformed by a row mapper, so that a {@link ResultSet} can
+ * be consumed lazily as a {@link Stream} without holding all of its rows in memory.
+ * Rows are read sequentially from the {@link ResultSet} since it can't be read concurrently : for parallel streams, {@link #trySplit()} gives
+ * batches of mapped rows, which size is bounded. Since row count is unknown, parallel streams would split again and again, buffering the
+ * whole {@link ResultSet} if rows are read faster than they are consumed : hence the number of batches not fully consumed is also bounded,
+ * when it's reached {@link #trySplit()} returns null, and the thread that called it reads remaining rows itself. So memory usage is at most
+ * max pending batch count × max batch size mapped rows.
+ * Prefer {@link #stream(ResultSet, ThrowingFunction)} and {@link #stream(ResultSet, int, ThrowingFunction)} to using this class directly.
+ *
+ * @param <T> type of mapped rows
+ * @author Guillaume Mary
+ */
+public class ResultSetSpliterator<T> implements Spliterator<T> {
+	
+	/** Default maximum number of rows given by {@link #trySplit()} */
+	public static final int DEFAULT_MAX_BATCH_SIZE = 1024;
+	
+	/** Default maximum number of batches given by {@link #trySplit()} and not fully consumed yet */
+	public static final int DEFAULT_MAX_PENDING_BATCH_COUNT = 16;
+	
+	/** Size of first batch given by {@link #trySplit()}, then it grows up to max batch size */
+	private static final int INITIAL_BATCH_SIZE = 64;
+	
+	/**
+	 * Creates a {@link Stream} over the rows of a {@link ResultSet}. Closing the {@link Stream} closes the {@link ResultSet} and its
+	 * {@link Statement}, hence it should be used in a try-with-resources block.
+	 * {@link SQLException}s are thrown as {@link SQLRuntimeException}.
+	 *
+	 * @param resultSet the {@link ResultSet} to be read
+	 * @param rowMapper transforms current row of the {@link ResultSet} to an element of the {@link Stream}, must not move the cursor
+	 * @param <T> type of mapped rows
+	 * @return a new ordered {@link Stream} (which can be turned parallel)
+	 */
+	public static <T> Stream<T> stream(ResultSet resultSet, ThrowingFunction<ResultSet, T, SQLException> rowMapper) {
+		return StreamSupport.stream(new ResultSetSpliterator<>(resultSet, rowMapper), false)
+				.onClose(() -> close(resultSet));
+	}
+	
+	/**
+	 * Same as {@link #stream(ResultSet, ThrowingFunction)} with a fetch size given to the {@link ResultSet}, to control the number of rows
+	 * the driver reads at a time
+	 *
+	 * @param resultSet the {@link ResultSet} to be read
+	 * @param fetchSize number of rows to be fetched by the driver at a time, see {@link ResultSet#setFetchSize(int)}
+	 * @param rowMapper transforms current row of the {@link ResultSet} to an element of the {@link Stream}, must not move the cursor
+	 * @param <T> type of mapped rows
+	 * @return a new ordered {@link Stream} (which can be turned parallel)
+	 */
+	public static <T> Stream<T> stream(ResultSet resultSet, int fetchSize, ThrowingFunction<ResultSet, T, SQLException> rowMapper) {
+		try {
+			resultSet.setFetchSize(fetchSize);
+		} catch (SQLException e) {
+			// no Stream will close the ResultSet
+			SQLRuntimeException failure = new SQLRuntimeException(e);
+			try {
+				close(resultSet);
+			} catch (SQLRuntimeException closeFailure) {
+				failure.addSuppressed(closeFailure.getCause());
+			}
+			throw failure;
+		}
+		return stream(resultSet, rowMapper);
+	}
+	
+	/**
+	 * Closes given {@link ResultSet} and its {@link Statement}
+	 */
+	private static void close(ResultSet resultSet) {
+		try {
+			Statement statement = resultSet.getStatement();
+			try {
+				resultSet.close();
+			} finally {
+				if (statement != null) {
+					statement.close();
+				}
+			}
+		} catch (SQLException e) {
+			throw new SQLRuntimeException(e);
+		}
+	}
+	
+	private final ResultSet resultSet;
+	
+	private final ThrowingFunction<ResultSet, T, SQLException> rowMapper;
+	
+	private final int maxBatchSize;
+	
+	private final int maxPendingBatchCount;
+	
+	/** Decremented by consumer threads, incremented only by the thread that reads the {@link ResultSet} */
+	private final AtomicInteger pendingBatchCount = new AtomicInteger();
+	
+	private int batchSize;
+	
+	private boolean exhausted;
+	
+	public ResultSetSpliterator(ResultSet resultSet, ThrowingFunction<ResultSet, T, SQLException> rowMapper) {
+		this(resultSet, rowMapper, DEFAULT_MAX_BATCH_SIZE);
+	}
+	
+	/**
+	 * @param resultSet the {@link ResultSet} to be read
+	 * @param rowMapper transforms current row of the {@link ResultSet}, must not move the cursor
+	 * @param maxBatchSize maximum number of rows read by {@link #trySplit()}
+	 */
+	public ResultSetSpliterator(ResultSet resultSet, ThrowingFunction<ResultSet, T, SQLException> rowMapper, int maxBatchSize) {
+		this(resultSet, rowMapper, maxBatchSize, DEFAULT_MAX_PENDING_BATCH_COUNT);
+	}
+	
+	/**
+	 * @param resultSet the {@link ResultSet} to be read
+	 * @param rowMapper transforms current row of the {@link ResultSet}, must not move the cursor
+	 * @param maxBatchSize maximum number of rows read by {@link #trySplit()}
+	 * @param maxPendingBatchCount maximum number of batches given by {@link #trySplit()} and not fully consumed yet
+	 */
+	public ResultSetSpliterator(ResultSet resultSet, ThrowingFunction<ResultSet, T, SQLException> rowMapper, int maxBatchSize,
+			int maxPendingBatchCount) {
+		if (maxBatchSize < 1) {
+			throw new IllegalArgumentException("Batch size must be strictly positive : " + maxBatchSize);
+		}
+		if (maxPendingBatchCount < 1) {
+			throw new IllegalArgumentException("Pending batch count must be strictly positive : " + maxPendingBatchCount);
+		}
+		this.resultSet = resultSet;
+		this.rowMapper = rowMapper;
+		this.maxBatchSize = maxBatchSize;
+		this.maxPendingBatchCount = maxPendingBatchCount;
+		this.batchSize = Math.min(INITIAL_BATCH_SIZE, maxBatchSize);
+	}
+	
+	@Override
+	public boolean tryAdvance(Consumer<? super T> action) {
+		if (exhausted) {
+			return false;
+		}
+		try {
+			if (resultSet.next()) {
+				action.accept(rowMapper.apply(resultSet));
+				return true;
+			} else {
+				exhausted = true;
+				return false;
+			}
+		} catch (SQLException e) {
+			throw new SQLRuntimeException(e);
+		}
+	}
+	
+	@Override
+	public void forEachRemaining(Consumer<? super T> action) {
+		if (exhausted) {
+			return;
+		}
+		try {
+			while (resultSet.next()) {
+				action.accept(rowMapper.apply(resultSet));
+			}
+			exhausted = true;
+		} catch (SQLException e) {
+			throw new SQLRuntimeException(e);
+		}
+	}
+	
+	/**
+	 * Reads next rows into an array and gives a {@link Spliterator} over it. Number of rows grows at each call up to max batch size.
+	 *
+	 * @return null if {@link ResultSet} has no more rows, or if max pending batch count is reached
+	 */
+	@Override
+	public Spliterator<T> trySplit() {
+		if (exhausted || pendingBatchCount.get() >= maxPendingBatchCount) {
+			return null;
+		}
+		Object[] batch = new Object[batchSize];
+		int rowCount = 0;
+		try {
+			while (rowCount < batch.length) {
+				if (resultSet.next()) {
+					batch[rowCount++] = rowMapper.apply(resultSet);
+				} else {
+					exhausted = true;
+					break;
+				}
+			}
+		} catch (SQLException e) {
+			throw new SQLRuntimeException(e);
+		}
+		batchSize = Math.min(batchSize * 2, maxBatchSize);
+		if (rowCount == 0) {
+			return null;
+		}
+		pendingBatchCount.incrementAndGet();
+		return new Batch(batch, 0, rowCount, new AtomicInteger(1));
+	}
+	
+	/**
+	 * @return number of batches given by {@link #trySplit()} and not fully consumed yet
+	 */
+	public int getPendingBatchCount() {
+		return pendingBatchCount.get();
+	}
+	
+	/**
+	 * @return {@link Long#MAX_VALUE} since row count is unknown
+	 */
+	@Override
+	public long estimateSize() {
+		return exhausted ? 0 : Long.MAX_VALUE;
+	}
+	
+	@Override
+	public int characteristics() {
+		return ORDERED;
+	}
+	
+	/**
+	 * {@link Spliterator} over a part of a batch of rows : the batch stops being pending once all of its parts are consumed
+	 */
+	private final class Batch implements Spliterator<T> {
+		
+		private final Object[] rows;
+		private int index;
+		private final int fence;
+		/** Number of parts of the batch that are not consumed yet, shared by its parts */
+		private final AtomicInteger pendingPartCount;
+		private boolean consumed;
+		
+		private Batch(Object[] rows, int index, int fence, AtomicInteger pendingPartCount) {
+			this.rows = rows;
+			this.index = index;
+			this.fence = fence;
+			this.pendingPartCount = pendingPartCount;
+		}
+		
+		@Override
+		public boolean tryAdvance(Consumer<? super T> action) {
+			if (index < fence) {
+				action.accept(row(index++));
+				if (index == fence) {
+					onConsumed();
+				}
+				return true;
+			} else {
+				onConsumed();
+				return false;
+			}
+		}
+		
+		@Override
+		public void forEachRemaining(Consumer<? super T> action) {
+			while (index < fence) {
+				action.accept(row(index++));
+			}
+			onConsumed();
+		}
+		
+		@SuppressWarnings("unchecked")
+		private T row(int i) {
+			return (T) rows[i];
+		}
+		
+		private void onConsumed() {
+			if (!consumed) {
+				consumed = true;
+				if (pendingPartCount.decrementAndGet() == 0) {
+					pendingBatchCount.decrementAndGet();
+				}
+			}
+		}
+		
+		@Override
+		public Spliterator<T> trySplit() {
+			int middle = (index + fence) >>> 1;
+			if (middle <= index) {
+				return null;
+			}
+			pendingPartCount.incrementAndGet();
+			Batch prefix = new Batch(rows, index, middle, pendingPartCount);
+			index = middle;
+			return prefix;
+		}
+		
+		@Override
+		public long estimateSize() {
+			return fence - index;
+		}
+		
+		@Override
+		public int characteristics() {
+			return ORDERED | SIZED | SUBSIZED;
+		}
+	}
+	
+	/**
+	 * Unchecked wrapper of {@link SQLException}s thrown while reading the {@link ResultSet}
+	 */
+	public static class SQLRuntimeException extends RuntimeException {
+		
+		public SQLRuntimeException(SQLException cause) {
+			super(cause);
+		}
+		
+		@Override
+		public synchronized SQLException getCause() {
+			return (SQLException) super.getCause();
+		}
+	}
+}
@@ -0,0 +1,390 @@
+package org.gama.lang.sql;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.gama.lang.function.ThrowingConsumer;
+
+/**
+ * {@link ResultSet} that reads its rows by chunks into reusable primitive column buffers, so that large extractions don't box values nor
+ * create any object per row (except for {@link ColumnType#STRING} and {@link ColumnType#OBJECT} columns, which values are given by the
+ * driver).
+ * Columns to be read must be declared with {@link #withColumn(int, ColumnType)} or {@link #withColumn(String, ColumnType)}, then rows are
+ * given by {@link #readChunks(ThrowingConsumer)}.
+ *
+ * Null values are tracked in a {@link BitSet} per column. {@link #wasNull()} is only called when a primitive read returns the default value
+ * (0 or false) because any other value can't come from a SQL NULL.
+ *
+ * Column labels are resolved once per instance, as well for declared columns as for {@link #findColumn(String)} and
+ * {@link #getString(String)}, {@link #getBoolean(String)}, {@link #getInt(String)}, {@link #getLong(String)}, {@link #getDouble(String)}
+ * and {@link #getObject(String)} which are redirected to their index counterpart.
+ *
+ * @author Guillaume Mary
+ */
+public class RowReader extends ResultSetWrapper {
+	
+	/** Default number of rows per chunk */
+	public static final int DEFAULT_CHUNK_SIZE = 1024;
+	
+	private final int chunkSize;
+	
+	private final List<Column> columns = new ArrayList<>();
+	
+	/** Cache of column indexes per label */
+	private final Map<String, Integer> columnIndexes = new HashMap<>();
+	
+	public RowReader(ResultSet surrogate) {
+		this(surrogate, DEFAULT_CHUNK_SIZE);
+	}
+	
+	public RowReader(ResultSet surrogate, int chunkSize) {
+		super(surrogate);
+		if (chunkSize < 1) {
+			throw new IllegalArgumentException("Chunk size must be strictly positive : " + chunkSize);
+		}
+		this.chunkSize = chunkSize;
+	}
+	
+	public int getChunkSize() {
+		return chunkSize;
+	}
+	
+	/**
+	 * Declares a column to be read by {@link #readChunks(ThrowingConsumer)}. Its position in {@link Chunk} is its declaration order.
+	 *
+	 * @param columnIndex {@link ResultSet} column index (1-based)
+	 * @param columnType the kind of buffer to be filled with column values
+	 * @return this
+	 */
+	public RowReader withColumn(int columnIndex, ColumnType columnType) {
+		this.columns.add(new Column(columnIndex, columnType, chunkSize));
+		return this;
+	}
+	
+	/**
+	 * Declares a column to be read by {@link #readChunks(ThrowingConsumer)}. Its position in {@link Chunk} is its declaration order.
+	 *
+	 * @param columnLabel {@link ResultSet} column label, resolved only once
+	 * @param columnType the kind of buffer to be filled with column values
+	 * @return this
+	 * @throws SQLException if column label is unknown to the {@link ResultSet}
+	 */
+	public RowReader withColumn(String columnLabel, ColumnType columnType) throws SQLException {
+		return withColumn(findColumn(columnLabel), columnType);
+	}
+	
+	/**
+	 * Reads all remaining rows of the {@link ResultSet} and gives them by chunks of at most {@link #getChunkSize()} rows to the consumer.
+	 * Given {@link Chunk} is always the same instance and its content is overwritten by next rows, hence it must not be kept by consumer.
+	 *
+	 * @param chunkConsumer the consumer of the rows
+	 * @param <E> exception type thrown by the consumer
+	 * @return the number of read rows
+	 * @throws SQLException if any error occurs while reading the {@link ResultSet}
+	 * @throws E if consumer throws it
+	 */
+	public <E extends Exception> long readChunks(ThrowingConsumer<Chunk, E> chunkConsumer) throws SQLException, E {
+		if (columns.isEmpty()) {
+			throw new IllegalStateException("No column to read, declare some with withColumn(..)");
+		}
+		Column[] columnArray = columns.toArray(new Column[0]);
+		Chunk chunk = new Chunk(columnArray);
+		long rowCount = 0;
+		int row = 0;
+		while (surrogate.next()) {
+			for (Column column : columnArray) {
+				column.read(surrogate, row);
+			}
+			row++;
+			if (row == chunkSize) {
+				chunk.size = row;
+				chunkConsumer.accept(chunk);
+				rowCount += row;
+				row = 0;
+				chunk.clear();
+			}
+		}
+		if (row != 0) {
+			chunk.size = row;
+			chunkConsumer.accept(chunk);
+			rowCount += row;
+			chunk.clear();
+		}
+		return rowCount;
+	}
+	
+	/**
+	 * Overriden to cache label resolution
+	 *
+	 * @param columnLabel a column label
+	 * @return the column index
+	 * @throws SQLException if column label is unknown to the {@link ResultSet}
+	 */
+	@Override
+	public int findColumn(String columnLabel) throws SQLException {
+		Integer result = columnIndexes.get(columnLabel);
+		if (result == null) {
+			result = surrogate.findColumn(columnLabel);
+			columnIndexes.put(columnLabel, result);
+		}
+		return result;
+	}
+	
+	@Override
+	public String getString(String columnLabel) throws SQLException {
+		return getString(findColumn(columnLabel));
+	}
+	
+	@Override
+	public boolean getBoolean(String columnLabel) throws SQLException {
+		return getBoolean(findColumn(columnLabel));
+	}
+	
+	@Override
+	public int getInt(String columnLabel) throws SQLException {
+		return getInt(findColumn(columnLabel));
+	}
+	
+	@Override
+	public long getLong(String columnLabel) throws SQLException {
+		return getLong(findColumn(columnLabel));
+	}
+	
+	@Override
+	public double getDouble(String columnLabel) throws SQLException {
+		return getDouble(findColumn(columnLabel));
+	}
+	
+	@Override
+	public Object getObject(String columnLabel) throws SQLException {
+		return getObject(findColumn(columnLabel));
+	}
+	
+	/**
+	 * Kind of buffer used to store column values
+	 */
+	public enum ColumnType {
+		BOOLEAN,
+		INT,
+		LONG,
+		DOUBLE,
+		STRING,
+		OBJECT
+	}
+	
+	/**
+	 * Buffers of a column
+	 */
+	private static class Column {
+		
+		private final int index;
+		private final ColumnType type;
+		private final BitSet nulls;
+		private boolean[] booleans;
+		private int[] ints;
+		private long[] longs;
+		private double[] doubles;
+		private Object[] objects;
+		
+		private Column(int index, ColumnType type, int chunkSize) {
+			this.index = index;
+			this.type = type;
+			this.nulls = new BitSet(chunkSize);
+			switch (type) {
+				case BOOLEAN:
+					booleans = new boolean[chunkSize];
+					break;
+				case INT:
+					ints = new int[chunkSize];
+					break;
+				case LONG:
+					longs = new long[chunkSize];
+					break;
+				case DOUBLE:
+					doubles = new double[chunkSize];
+					break;
+				case STRING:
+				case OBJECT:
+					objects = new Object[chunkSize];
+					break;
+				default:
+					throw new IllegalArgumentException("Unsupported column type " + type);
+			}
+		}
+		
+		private void read(ResultSet resultSet, int row) throws SQLException {
+			// wasNull() is only called on default value since other ones can't come from a null
+			switch (type) {
+				case BOOLEAN:
+					boolean booleanValue = resultSet.getBoolean(index);
+					booleans[row] = booleanValue;
+					if (!booleanValue && resultSet.wasNull()) {
+						nulls.set(row);
+					}
+					break;
+				case INT:
+					int intValue = resultSet.getInt(index);
+					ints[row] = intValue;
+					if (intValue == 0 && resultSet.wasNull()) {
+						nulls.set(row);
+					}
+					break;
+				case LONG:
+					long longValue = resultSet.getLong(index);
+					longs[row] = longValue;
+					if (longValue == 0 && resultSet.wasNull()) {
+						nulls.set(row);
+					}
+					break;
+				case DOUBLE:
+					double doubleValue = resultSet.getDouble(index);
+					doubles[row] = doubleValue;
+					if (doubleValue == 0 && resultSet.wasNull()) {
+						nulls.set(row);
+					}
+					break;
+				case STRING:
+					String stringValue = resultSet.getString(index);
+					objects[row] = stringValue;
+					if (stringValue == null) {
+						nulls.set(row);
+					}
+					break;
+				case OBJECT:
+					Object objectValue = resultSet.getObject(index);
+					objects[row] = objectValue;
+					if (objectValue == null) {
+						nulls.set(row);
+					}
+					break;
+				default:
+					throw new IllegalArgumentException("Unsupported column type " + type);
+			}
+		}
+		
+		private void clear() {
+			nulls.clear();
+			if (objects != null) {
+				// releasing references to let them be garbage collected
+				Arrays.fill(objects, null);
+			}
+		}
+		
+		private IllegalArgumentException typeMismatch(ColumnType expectedType) {
+			return new IllegalArgumentException("Column " + index + " is of type " + type + ", not " + expectedType);
+		}
+	}
+	
+	/**
+	 * Rows given by {@link #readChunks(ThrowingConsumer)}, accessed by row (0-based, lower than {@link #size()}) and column (0-based,
+	 * in declaration order of columns).
+	 * Values of null columns are 0 or false for primitive types, check them with {@link #isNull(int, int)}.
+	 */
+	public static class Chunk {
+		
+		private final Column[] columns;
+		private int size;
+		
+		private Chunk(Column[] columns) {
+			this.columns = columns;
+		}
+		
+		/**
+		 * @return number of rows in this chunk
+		 */
+		public int size() {
+			return size;
+		}
+		
+		/**
+		 * @return number of declared columns
+		 */
+		public int getColumnCount() {
+			return columns.length;
+		}
+		
+		public boolean isNull(int row, int column) {
+			checkRow(row);
+			return columns[column].nulls.get(row);
+		}
+		
+		public boolean getBoolean(int row, int column) {
+			checkRow(row);
+			boolean[] values = columns[column].booleans;
+			if (values == null) {
+				throw columns[column].typeMismatch(ColumnType.BOOLEAN);
+			}
+			return values[row];
+		}
+		
+		public int getInt(int row, int column) {
+			checkRow(row);
+			int[] values = columns[column].ints;
+			if (values == null) {
+				throw columns[column].typeMismatch(ColumnType.INT);
+			}
+			return values[row];
+		}
+		
+		public long getLong(int row, int column) {
+			checkRow(row);
+			long[] values = columns[column].longs;
+			if (values == null) {
+				throw columns[column].typeMismatch(ColumnType.LONG);
+			}
+			return values[row];
+		}
+		
+		public double getDouble(int row, int column) {
+			checkRow(row);
+			double[] values = columns[column].doubles;
+			if (values == null) {
+				throw columns[column].typeMismatch(ColumnType.DOUBLE);
+			}
+			return values[row];
+		}
+		
+		public String getString(int row, int column) {
+			checkRow(row);
+			if (columns[column].type != ColumnType.STRING) {
+				throw columns[column].typeMismatch(ColumnType.STRING);
+			}
+			return (String) columns[column].objects[row];
+		}
+		
+		/**
+		 * Gives value of a {@link ColumnType#OBJECT} or {@link ColumnType#STRING} column
+		 */
+		public Object getObject(int row, int column) {
+			checkRow(row);
+			Object[] values = columns[column].objects;
+			if (values == null) {
+				throw columns[column].typeMismatch(ColumnType.OBJECT);
+			}
+			return values[row];
+		}
+		
+		/**
+		 * Checks that row index is lower than size, because column arrays have the capacity of the chunk, hence they may contain rows of
+		 * a previous chunk beyond it
+		 */
+		private void checkRow(int row) {
+			if (row < 0 || row >= size) {
+				throw new IndexOutOfBoundsException("Row index must be between 0 and " + (size - 1) + " : " + row);
+			}
+		}
+		
+		private void clear() {
+			for (Column column : columns) {
+				column.clear();
+			}
+			size = 0;
+		}
+	}
+}
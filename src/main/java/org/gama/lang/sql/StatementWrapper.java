@@ -0,0 +1,298 @@
+package org.gama.lang.sql;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLWarning;
+import java.sql.Statement;
+
+import org.gama.lang.Reflections;
+
+/**
+ * {@link Statement} that wraps another one and delegates all its methods to it without any additionnal feature.
+ * Made for overriding only some targeted methods.
+ *
+ * @author Guillaume Mary
+ */
+public class StatementWrapper implements Statement {
+	
+	protected final Statement surrogate;
+	
+	public StatementWrapper(Statement surrogate) {
+		this.surrogate = surrogate;
+	}
+	
+	@Override
+	public ResultSet executeQuery(String sql) throws SQLException {
+		return surrogate.executeQuery(sql);
+	}
+	
+	@Override
+	public int executeUpdate(String sql) throws SQLException {
+		return surrogate.executeUpdate(sql);
+	}
+	
+	@Override
+	public void close() throws SQLException {
+		surrogate.close();
+	}
+	
+	@Override
+	public int getMaxFieldSize() throws SQLException {
+		return surrogate.getMaxFieldSize();
+	}
+	
+	@Override
+	public void setMaxFieldSize(int max) throws SQLException {
+		surrogate.setMaxFieldSize(max);
+	}
+	
+	@Override
+	public int getMaxRows() throws SQLException {
+		return surrogate.getMaxRows();
+	}
+	
+	@Override
+	public void setMaxRows(int max) throws SQLException {
+		surrogate.setMaxRows(max);
+	}
+	
+	@Override
+	public void setEscapeProcessing(boolean enable) throws SQLException {
+		surrogate.setEscapeProcessing(enable);
+	}
+	
+	@Override
+	public int getQueryTimeout() throws SQLException {
+		return surrogate.getQueryTimeout();
+	}
+	
+	@Override
+	public void setQueryTimeout(int seconds) throws SQLException {
+		surrogate.setQueryTimeout(seconds);
+	}
+	
+	@Override
+	public void cancel() throws SQLException {
+		surrogate.cancel();
+	}
+	
+	@Override
+	public SQLWarning getWarnings() throws SQLException {
+		return surrogate.getWarnings();
+	}
+	
+	@Override
+	public void clearWarnings() throws SQLException {
+		surrogate.clearWarnings();
+	}
+	
+	@Override
+	public void setCursorName(String name) throws SQLException {
+		surrogate.setCursorName(name);
+	}
+	
+	@Override
+	public boolean execute(String sql) throws SQLException {
+		return surrogate.execute(sql);
+	}
+	
+	@Override
+	public ResultSet getResultSet() throws SQLException {
+		return surrogate.getResultSet();
+	}
+	
+	@Override
+	public int getUpdateCount() throws SQLException {
+		return surrogate.getUpdateCount();
+	}
+	
+	@Override
+	public boolean getMoreResults() throws SQLException {
+		return surrogate.getMoreResults();
+	}
+	
+	@Override
+	public void setFetchDirection(int direction) throws SQLException {
+		surrogate.setFetchDirection(direction);
+	}
+	
+	@Override
+	public int getFetchDirection() throws SQLException {
+		return surrogate.getFetchDirection();
+	}
+	
+	@Override
+	public void setFetchSize(int rows) throws SQLException {
+		surrogate.setFetchSize(rows);
+	}
+	
+	@Override
+	public int getFetchSize() throws SQLException {
+		return surrogate.getFetchSize();
+	}
+	
+	@Override
+	public int getResultSetConcurrency() throws SQLException {
+		return surrogate.getResultSetConcurrency();
+	}
+	
+	@Override
+	public int getResultSetType() throws SQLException {
+		return surrogate.getResultSetType();
+	}
+	
+	@Override
+	public void addBatch(String sql) throws SQLException {
+		surrogate.addBatch(sql);
+	}
+	
+	@Override
+	public void clearBatch() throws SQLException {
+		surrogate.clearBatch();
+	}
+	
+	@Override
+	public int[] executeBatch() throws SQLException {
+		return surrogate.executeBatch();
+	}
+	
+	@Override
+	public Connection getConnection() throws SQLException {
+		return surrogate.getConnection();
+	}
+	
+	@Override
+	public boolean getMoreResults(int current) throws SQLException {
+		return surrogate.getMoreResults(current);
+	}
+	
+	@Override
+	public ResultSet getGeneratedKeys() throws SQLException {
+		return surrogate.getGeneratedKeys();
+	}
+	
+	@Override
+	public int executeUpdate(String sql, int autoGeneratedKeys) throws SQLException {
+		return surrogate.executeUpdate(sql, autoGeneratedKeys);
+	}
+	
+	@Override
+	public int executeUpdate(String sql, int[] columnIndexes) throws SQLException {
+		return surrogate.executeUpdate(sql, columnIndexes);
+	}
+	
+	@Override
+	public int executeUpdate(String sql, String[] columnNames) throws SQLException {
+		return surrogate.executeUpdate(sql, columnNames);
+	}
+	
+	@Override
+	public boolean execute(String sql, int autoGeneratedKeys) throws SQLException {
+		return surrogate.execute(sql, autoGeneratedKeys);
+	}
+	
+	@Override
+	public boolean execute(String sql, int[] columnIndexes) throws SQLException {
+		return surrogate.execute(sql, columnIndexes);
+	}
+	
+	@Override
+	public boolean execute(String sql, String[] columnNames) throws SQLException {
+		return surrogate.execute(sql, columnNames);
+	}
+	
+	@Override
+	public int getResultSetHoldability() throws SQLException {
+		return surrogate.getResultSetHoldability();
+	}
+	
+	@Override
+	public boolean isClosed() throws SQLException {
+		return surrogate.isClosed();
+	}
+	
+	@Override
+	public void setPoolable(boolean poolable) throws SQLException {
+		surrogate.setPoolable(poolable);
+	}
+	
+	@Override
+	public boolean isPoolable() throws SQLException {
+		return surrogate.isPoolable();
+	}
+	
+	@Override
+	public void closeOnCompletion() throws SQLException {
+		surrogate.closeOnCompletion();
+	}
+	
+	@Override
+	public boolean isCloseOnCompletion() throws SQLException {
+		return surrogate.isCloseOnCompletion();
+	}
+	
+	@Override
+	public long getLargeUpdateCount() throws SQLException {
+		return surrogate.getLargeUpdateCount();
+	}
+	
+	@Override
+	public void setLargeMaxRows(long max) throws SQLException {
+		surrogate.setLargeMaxRows(max);
+	}
+	
+	@Override
+	public long getLargeMaxRows() throws SQLException {
+		return surrogate.getLargeMaxRows();
+	}
+	
+	@Override
+	public long[] executeLargeBatch() throws SQLException {
+		return surrogate.executeLargeBatch();
+	}
+	
+	@Override
+	public long executeLargeUpdate(String sql) throws SQLException {
+		return surrogate.executeLargeUpdate(sql);
+	}
+	
+	@Override
+	public long executeLargeUpdate(String sql, int autoGeneratedKeys) throws SQLException {
+		return surrogate.executeLargeUpdate(sql, autoGeneratedKeys);
+	}
+	
+	@Override
+	public long executeLargeUpdate(String sql, int[] columnIndexes) throws SQLException {
+		return surrogate.executeLargeUpdate(sql, columnIndexes);
+	}
+	
+	@Override
+	public long executeLargeUpdate(String sql, String[] columnNames) throws SQLException {
+		return surrogate.executeLargeUpdate(sql, columnNames);
+	}
+	
+	/**
+	 * Implementation that gives access to delegate {@link Statement} if given parameter if {@link Statement} class.
+	 *
+	 * @param <T> the type of the class modeled by this Class object
+	 * @param iface A Class defining an interface that the result must implement.
+	 * @return an object that implements the interface. May be a proxy for the actual implementing object.
+	 * @throws SQLException If no object found that implements the interface
+	 */
+	@Override
+	public <T> T unwrap(Class<T> iface) throws SQLException {
+		if (iface == Statement.class) {
+			return (T) this.surrogate;
+		} else if (isWrapperFor(iface)) {
+			// made for subclasses
+			return (T) this;
+		}
+		throw new SQLException(Reflections.toString(StatementWrapper.class) + " cannot be unwrapped as " + Reflections.toString(iface));
+	}
+	
+	@Override
+	public boolean isWrapperFor(Class<?> iface) throws SQLException {
+		return iface.isInstance(this);
+	}
+}
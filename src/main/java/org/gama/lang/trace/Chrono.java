@@ -1,18 +1,15 @@
 package org.gama.lang.trace;
 
-import javax.annotation.Nonnegative;
-import java.util.Collections;
-import java.util.EnumSet;
-import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
-import org.gama.lang.Duo;
-import org.gama.lang.StringAppender;
 import org.gama.lang.VisibleForTesting;
 
 /**
  * Class aimed at mesuring time between 2 events.
  * Basic implementation and use case : start it (done at instanciation time), then printing throught {@link #toString()}.
  * One can reset it with {@link #start()}.
+ * Elapsed time is measured with {@link System#nanoTime()}, so it's not affected by system clock changes. See {@link Stopwatch} for laps and
+ * recording of durations.
  * 
  * @author Guillaume Mary
  */
@@ -26,7 +23,7 @@ public class Chrono {
 	static final int MIN_MAX = 60 * SEC_MAX;
 	@VisibleForTesting
 	static final int H_MAX = 24 * MIN_MAX;
-
+	
 	private enum TimeConstant {
 		DAY(H_MAX, "d"),
 		HOUR(MIN_MAX, "h"),
@@ -34,42 +31,16 @@ public class Chrono {
 		SECOND(MILLIS_MAX, "s"),
 		MILLIS(1, "ms");
 		
-		private int millisCount;
-		private String timeUnit;
+		/** Cache of {@link #values()} since it clones its result each time */
+		private static final TimeConstant[] DECREASING_ORDER = values();
+		
+		private final int millisCount;
+		private final String timeUnit;
 		
 		TimeConstant(int millisCount, String timeUnit) {
 			this.millisCount = millisCount;
 			this.timeUnit = timeUnit;
 		}
-		
-		private static final Set<TimeConstant> MILLIS_TIME = Collections.unmodifiableSet(EnumSet.of(MILLIS));
-		private static final Set<TimeConstant> SECOND_TIME = Collections.unmodifiableSet(EnumSet.of(SECOND, MILLIS));
-		private static final Set<TimeConstant> MINUTE_TIME = Collections.unmodifiableSet(EnumSet.of(MINUTE, SECOND, MILLIS));
-		private static final Set<TimeConstant> HOUR_TIME = Collections.unmodifiableSet(EnumSet.of(HOUR, MINUTE, SECOND, MILLIS));
-		private static final Set<TimeConstant> DAY_TIME = Collections.unmodifiableSet(EnumSet.of(DAY, HOUR, MINUTE, SECOND, MILLIS));
-		
-		/**
-		 * Gives constants (in decreasing order) necessary to format given milliseconds.
-		 * 
-		 * @param millis any (non null) millisecond
-		 * @return a set of {@link TimeConstant} in decreasing order (from biggest unit to smallest)
-		 */
-		private static Set<TimeConstant> getTimeConstantsToUse(@Nonnegative long millis) {
-			Set<TimeConstant> constantsToUse;
-			if (millis < MILLIS_MAX) {
-				constantsToUse = TimeConstant.MILLIS_TIME;
-			} else if (millis < SEC_MAX) {
-				constantsToUse = TimeConstant.SECOND_TIME;
-			} else if (millis < MIN_MAX) {
-				constantsToUse = TimeConstant.MINUTE_TIME;
-			} else if (millis < H_MAX) {
-				constantsToUse = TimeConstant.HOUR_TIME;
-			} else {
-				constantsToUse = TimeConstant.DAY_TIME;
-			}
-			return constantsToUse;
-		}
-	
 	}
 	
 	/**
@@ -79,21 +50,36 @@ public class Chrono {
 	 * @return a printable representation of {@code millis} 
 	 */
 	public static String format(long millis) {
-		StringAppender result = new StringAppender();
-		Set<TimeConstant> constantsToUse = TimeConstant.getTimeConstantsToUse(millis);
-		for (TimeConstant timeConstant : constantsToUse) {
-			Duo<Long, Long> divide = divide(millis, timeConstant.millisCount);
-			long quotient = divide.getLeft();
+		StringBuilder result = new StringBuilder(24);
+		for (TimeConstant timeConstant : TimeConstant.DECREASING_ORDER) {
+			long quotient = millis / timeConstant.millisCount;
 			// we print only what's necessary
-			result.catIf(quotient != 0, Long.toString(quotient), timeConstant.timeUnit, " ");
-			millis = divide.getRight();
+			if (quotient != 0) {
+				if (result.length() != 0) {
+					result.append(' ');
+				}
+				result.append(quotient).append(timeConstant.timeUnit);
+			}
+			millis %= timeConstant.millisCount;
 		}
-		// removing last space before returning
-		return result.cutTail(1).toString();
+		return result.toString();
 	}
 	
-	private static Duo<Long, Long> divide(long millis, int divisor) {
-		return new Duo<>(millis / divisor, millis%divisor);
+	/**
+	 * Formats a duration given in nanoseconds : as {@link #format(long)} for durations of 1 millisecond and more, else in microseconds or
+	 * nanoseconds, such as "250us" or "800ns"
+	 * 
+	 * @param nanos any positive nanoseconds count
+	 * @return a printable representation of {@code nanos}
+	 */
+	public static String formatNanos(long nanos) {
+		if (nanos >= 1_000_000) {
+			return format(TimeUnit.NANOSECONDS.toMillis(nanos));
+		} else if (nanos >= 1_000) {
+			return TimeUnit.NANOSECONDS.toMicros(nanos) + "us";
+		} else {
+			return nanos + "ns";
+		}
 	}
 	
 	/**
@@ -104,9 +90,11 @@ public class Chrono {
 	public static long now() {
 		return System.currentTimeMillis();
 	}
-
+	
 	private long startTime;
 	
+	private long startNanos;
+	
 	/** Creates new Chrono */
 	public Chrono () {
 		start();
@@ -125,6 +113,7 @@ public class Chrono {
 	 * @return start time (which means now !)
 	 */
 	public long start() {
+		startNanos = System.nanoTime();
 		return startTime = now();
 	}
 	
@@ -133,16 +122,24 @@ public class Chrono {
 	 * @return the difference between start time and now, in millis
 	 */
 	public long getElapsedTime() {
-		return now() - startTime;
+		return TimeUnit.NANOSECONDS.toMillis(getElapsedNanos());
+	}
+	
+	/**
+	 * Gives spent time since this chronometer starts, with nanosecond precision
+	 * @return the difference between start time and now, in nanoseconds
+	 */
+	public long getElapsedNanos() {
+		return System.nanoTime() - startNanos;
 	}
 	
 	/**
 	 * Format spent time since this chronometer's start time
-	 * @see Chrono#format
-	 * @see Chrono#getElapsedTime
+	 * @see Chrono#formatNanos
+	 * @see Chrono#getElapsedNanos
 	 */
 	@Override
 	public String toString() {
-		return format(getElapsedTime());
+		return formatNanos(getElapsedNanos());
 	}
 }
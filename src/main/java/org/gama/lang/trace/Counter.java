@@ -0,0 +1,58 @@
+package org.gama.lang.trace;
+
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe counter made for hot paths : it's based on a {@link LongAdder}, which spreads concurrent updates over several cells, so that
+ * threads don't contend on a same memory location. Reading it sums cells, hence it's more expensive than updating it.
+ * To be preferred to {@link ModifiableInt} shared between threads.
+ *
+ * @author Guillaume Mary
+ */
+public class Counter implements Metric {
+	
+	private final LongAdder count = new LongAdder();
+	
+	public void increment() {
+		count.increment();
+	}
+	
+	public void decrement() {
+		count.decrement();
+	}
+	
+	public void add(long value) {
+		count.add(value);
+	}
+	
+	/**
+	 * @return current count, which may miss concurrent updates
+	 */
+	public long getCount() {
+		return count.sum();
+	}
+	
+	/**
+	 * Gives current count and resets it, to count by period for instance. Concurrent updates are either in result or kept by this counter.
+	 *
+	 * @return count before reset
+	 */
+	public long getCountThenReset() {
+		return count.sumThenReset();
+	}
+	
+	public void reset() {
+		count.reset();
+	}
+	
+	@Override
+	public void snapshot(String name, Map<String, Number> snapshot) {
+		snapshot.put(name, getCount());
+	}
+	
+	@Override
+	public String toString() {
+		return String.valueOf(getCount());
+	}
+}
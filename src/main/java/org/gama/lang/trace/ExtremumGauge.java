@@ -0,0 +1,79 @@
+package org.gama.lang.trace;
+
+import java.util.Map;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.function.LongBinaryOperator;
+
+/**
+ * Thread-safe gauge that keeps the extremum of given values. As {@link Counter}, it spreads concurrent updates over several cells thanks to a
+ * {@link LongAccumulator}, and updates that don't change the extremum don't write anything.
+ *
+ * @author Guillaume Mary
+ * @see MaxGauge
+ * @see MinGauge
+ */
+public abstract class ExtremumGauge implements Metric {
+	
+	private final LongAccumulator accumulator;
+	
+	/** Value of the gauge when nothing was given to it */
+	private final long identity;
+	
+	protected ExtremumGauge(LongBinaryOperator function, long identity) {
+		this.accumulator = new LongAccumulator(function, identity);
+		this.identity = identity;
+	}
+	
+	/**
+	 * Gives a value to this gauge, which keeps it if it's a new extremum
+	 *
+	 * @param value any value
+	 */
+	public void update(long value) {
+		accumulator.accumulate(value);
+	}
+	
+	/**
+	 * @return extremum of given values, or identity value of the gauge ({@link Long#MIN_VALUE} for maximum, {@link Long#MAX_VALUE} for minimum)
+	 * if nothing was given
+	 */
+	public long get() {
+		return accumulator.get();
+	}
+	
+	/**
+	 * @return true if a value was given to this gauge since its creation or last reset
+	 */
+	public boolean hasValue() {
+		return accumulator.get() != identity;
+	}
+	
+	/**
+	 * Gives current extremum and resets this gauge, to get extremum by period for instance
+	 *
+	 * @return extremum before reset
+	 */
+	public long getThenReset() {
+		return accumulator.getThenReset();
+	}
+	
+	public void reset() {
+		accumulator.reset();
+	}
+	
+	/**
+	 * Implementation that gives nothing if no value was given to this gauge
+	 */
+	@Override
+	public void snapshot(String name, Map<String, Number> snapshot) {
+		long value = get();
+		if (value != identity) {
+			snapshot.put(name, value);
+		}
+	}
+	
+	@Override
+	public String toString() {
+		return hasValue() ? String.valueOf(get()) : "none";
+	}
+}
@@ -0,0 +1,220 @@
+package org.gama.lang.trace;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe and allocation-free histogram of durations in nanoseconds, which memory is fixed whatever the number of recorded values.
+ * Values are counted in log-linear buckets (as HdrHistogram does) : each power-of-2 range is divided into 2^precisionBits buckets of same
+ * width, so a bucket width is at most 1 / 2^precisionBits of its values, which gives relative precision of percentiles : about 3% with default
+ * precision of {@value #DEFAULT_PRECISION_BITS} bits. Values under 2^(precisionBits + 1) are counted exactly.
+ * Percentiles are approximated by the upper bound of their bucket.
+ *
+ * Histograms of different threads (or of different periods) can be merged with {@link #add(LatencyHistogram)}.
+ *
+ * @author Guillaume Mary
+ * @see Stopwatch
+ */
+public class LatencyHistogram implements Metric {
+	
+	public static final int DEFAULT_PRECISION_BITS = 5;
+	
+	private final int precisionBits;
+	
+	private final AtomicLongArray buckets;
+	private final LongAdder count = new LongAdder();
+	private final LongAdder sum = new LongAdder();
+	private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+	private final AtomicLong max = new AtomicLong();
+	
+	public LatencyHistogram() {
+		this(DEFAULT_PRECISION_BITS);
+	}
+	
+	/**
+	 * @param precisionBits number of bits of values kept by buckets, between 1 and 10 : relative precision is 1 / 2^precisionBits, and memory
+	 * is (64 - precisionBits) * 2^precisionBits longs
+	 */
+	public LatencyHistogram(int precisionBits) {
+		if (precisionBits < 1 || precisionBits > 10) {
+			throw new IllegalArgumentException("Precision must be between 1 and 10 bits : " + precisionBits);
+		}
+		this.precisionBits = precisionBits;
+		this.buckets = new AtomicLongArray((64 - precisionBits) << precisionBits);
+	}
+	
+	public int getPrecisionBits() {
+		return precisionBits;
+	}
+	
+	/**
+	 * Gives the bucket of a value : values that share their highest precisionBits + 1 bits are in the same bucket
+	 */
+	private int bucketIndex(long value) {
+		// number of lowest bits ignored by the bucket, negative for small values which are counted exactly
+		int shift = 63 - Long.numberOfLeadingZeros(value) - precisionBits;
+		return shift < 0 ? (int) value : (shift << precisionBits) + (int) (value >>> shift);
+	}
+	
+	/**
+	 * @return greatest value counted by given bucket
+	 */
+	private long bucketUpperBound(int index) {
+		int shift = Math.max(0, (index >> precisionBits) - 1);
+		long lowerBound = (long) (index - (shift << precisionBits)) << shift;
+		return lowerBound + (1L << shift) - 1;
+	}
+	
+	/**
+	 * Adds a duration to this histogram
+	 *
+	 * @param nanos a duration in nanoseconds, negative ones are counted as 0
+	 */
+	public void record(long nanos) {
+		long value = Math.max(0, nanos);
+		buckets.incrementAndGet(bucketIndex(value));
+		count.increment();
+		sum.add(value);
+		// avoiding CAS when extrema are not exceeded, which is the most common case
+		if (value > max.get()) {
+			max.accumulateAndGet(value, Math::max);
+		}
+		if (value < min.get()) {
+			min.accumulateAndGet(value, Math::min);
+		}
+	}
+	
+	/**
+	 * Adds all values of another histogram to this one, to merge histograms of different threads for instance.
+	 * Values recorded by the other histogram meanwhile may be partly added.
+	 *
+	 * @param other a histogram with same precision
+	 * @return this
+	 */
+	public LatencyHistogram add(LatencyHistogram other) {
+		if (other.precisionBits != precisionBits) {
+			throw new IllegalArgumentException("Histograms must have same precision : " + precisionBits + " vs " + other.precisionBits);
+		}
+		for (int i = 0; i < buckets.length(); i++) {
+			long bucketCount = other.buckets.get(i);
+			if (bucketCount != 0) {
+				buckets.addAndGet(i, bucketCount);
+			}
+		}
+		count.add(other.getCount());
+		sum.add(other.getSum());
+		max.accumulateAndGet(other.max.get(), Math::max);
+		min.accumulateAndGet(other.min.get(), Math::min);
+		return this;
+	}
+	
+	/**
+	 * @return a new histogram with values of this one
+	 */
+	public LatencyHistogram copy() {
+		return new LatencyHistogram(precisionBits).add(this);
+	}
+	
+	/**
+	 * Forgets all recorded values, values recorded meanwhile may be partly kept
+	 */
+	public void reset() {
+		for (int i = 0; i < buckets.length(); i++) {
+			buckets.set(i, 0);
+		}
+		count.reset();
+		sum.reset();
+		max.set(0);
+		min.set(Long.MAX_VALUE);
+	}
+	
+	public long getCount() {
+		return count.sum();
+	}
+	
+	/**
+	 * @return sum of all recorded durations, in nanoseconds
+	 */
+	public long getSum() {
+		return sum.sum();
+	}
+	
+	/**
+	 * @return smallest recorded duration, in nanoseconds, 0 if nothing was recorded
+	 */
+	public long getMin() {
+		long result = min.get();
+		return result == Long.MAX_VALUE ? 0 : result;
+	}
+	
+	/**
+	 * @return greatest recorded duration, in nanoseconds
+	 */
+	public long getMax() {
+		return max.get();
+	}
+	
+	/**
+	 * @return average of recorded durations, in nanoseconds, 0 if nothing was recorded
+	 */
+	public long getMean() {
+		long currentCount = getCount();
+		return currentCount == 0 ? 0 : getSum() / currentCount;
+	}
+	
+	/**
+	 * Gives an approximation of a percentile : the upper bound of the bucket containing it (capped by max value)
+	 *
+	 * @param percentile a value between 0 and 100, such as 99.9
+	 * @return a duration in nanoseconds, 0 if nothing was recorded
+	 */
+	public long getPercentile(double percentile) {
+		if (percentile < 0 || percentile > 100) {
+			throw new IllegalArgumentException("Percentile must be between 0 and 100 : " + percentile);
+		}
+		int bucketCount = buckets.length();
+		long total = 0;
+		for (int i = 0; i < bucketCount; i++) {
+			total += buckets.get(i);
+		}
+		if (total == 0) {
+			return 0;
+		}
+		long rank = Math.max(1, (long) Math.ceil(total * percentile / 100));
+		long cumulatedCount = 0;
+		for (int i = 0; i < bucketCount; i++) {
+			cumulatedCount += buckets.get(i);
+			if (cumulatedCount >= rank) {
+				return Math.min(bucketUpperBound(i), getMax());
+			}
+		}
+		// buckets were incremented meanwhile
+		return getMax();
+	}
+	
+	/**
+	 * Implementation that gives count, and mean, percentiles and extrema in nanoseconds
+	 */
+	@Override
+	public void snapshot(String name, Map<String, Number> snapshot) {
+		snapshot.put(name + ".count", getCount());
+		snapshot.put(name + ".min", getMin());
+		snapshot.put(name + ".mean", getMean());
+		snapshot.put(name + ".p50", getPercentile(50));
+		snapshot.put(name + ".p99", getPercentile(99));
+		snapshot.put(name + ".p999", getPercentile(99.9));
+		snapshot.put(name + ".max", getMax());
+	}
+	
+	@Override
+	public String toString() {
+		return "count=" + getCount()
+				+ ", mean=" + TimeUnit.NANOSECONDS.toMicros(getMean()) + "us"
+				+ ", p99=" + TimeUnit.NANOSECONDS.toMicros(getPercentile(99)) + "us"
+				+ ", p999=" + TimeUnit.NANOSECONDS.toMicros(getPercentile(99.9)) + "us"
+				+ ", max=" + TimeUnit.NANOSECONDS.toMicros(getMax()) + "us";
+	}
+}
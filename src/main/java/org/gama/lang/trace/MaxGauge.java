@@ -0,0 +1,13 @@
+package org.gama.lang.trace;
+
+/**
+ * {@link ExtremumGauge} that keeps the greatest given value, such as the peak number of concurrent requests
+ *
+ * @author Guillaume Mary
+ */
+public class MaxGauge extends ExtremumGauge {
+	
+	public MaxGauge() {
+		super(Math::max, Long.MIN_VALUE);
+	}
+}
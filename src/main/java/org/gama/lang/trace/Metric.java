@@ -0,0 +1,19 @@
+package org.gama.lang.trace;
+
+import java.util.Map;
+
+/**
+ * A measure that can be read while it's being updated, so that {@link MetricRegistry#snapshot()} doesn't block writers.
+ *
+ * @author Guillaume Mary
+ */
+public interface Metric {
+	
+	/**
+	 * Puts current values of this metric in a snapshot
+	 *
+	 * @param name name of this metric, to be used as key of its value, or as prefix of keys of its values (separated by a dot)
+	 * @param snapshot the map to be filled
+	 */
+	void snapshot(String name, Map<String, Number> snapshot);
+}
@@ -0,0 +1,105 @@
+package org.gama.lang.trace;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Named {@link Metric}s of an application, created on first demand, so that instrumented code only needs their name.
+ * Metrics should be kept by callers on hot paths rather than looked up at each call, even if lookup is a lock-free map read.
+ * {@link #snapshot()} reads all metrics without any lock, so writers are never stopped, the counterpart being that a snapshot may miss
+ * concurrent updates.
+ *
+ * @author Guillaume Mary
+ */
+public class MetricRegistry {
+	
+	private final ConcurrentMap<String, Metric> metrics = new ConcurrentHashMap<>();
+	
+	public Counter giveCounter(String name) {
+		return give(name, Counter.class, Counter::new);
+	}
+	
+	public MaxGauge giveMaxGauge(String name) {
+		return give(name, MaxGauge.class, MaxGauge::new);
+	}
+	
+	public MinGauge giveMinGauge(String name) {
+		return give(name, MinGauge.class, MinGauge::new);
+	}
+	
+	public RateMeter giveRateMeter(String name) {
+		return give(name, RateMeter.class, RateMeter::new);
+	}
+	
+	public LatencyHistogram giveHistogram(String name) {
+		return give(name, LatencyHistogram.class, LatencyHistogram::new);
+	}
+	
+	/**
+	 * Gives the metric registered under given name, or registers a new one
+	 *
+	 * @param name metric name
+	 * @param type expected type of metric
+	 * @param factory creates the metric if none is registered under this name
+	 * @param <M> metric type
+	 * @return the metric registered under given name
+	 * @throws IllegalArgumentException if a metric of another type is registered under given name
+	 */
+	public <M extends Metric> M give(String name, Class<M> type, Supplier<? extends M> factory) {
+		Metric result = metrics.get(name);
+		if (result == null) {
+			// computeIfAbsent() locks a bin of the map even if metric exists, so it's only called on creation
+			result = metrics.computeIfAbsent(name, k -> factory.get());
+		}
+		if (!type.isInstance(result)) {
+			throw new IllegalArgumentException("Metric " + name + " is a " + result.getClass().getSimpleName() + ", not a " + type.getSimpleName());
+		}
+		return type.cast(result);
+	}
+	
+	/**
+	 * Registers a metric, for custom implementations of {@link Metric}
+	 *
+	 * @param name metric name
+	 * @param metric the metric to be registered
+	 * @throws IllegalArgumentException if a metric is already registered under given name
+	 */
+	public void register(String name, Metric metric) {
+		Metric existing = metrics.putIfAbsent(name, metric);
+		if (existing != null) {
+			throw new IllegalArgumentException("Metric " + name + " is already registered");
+		}
+	}
+	
+	/**
+	 * @param name metric name
+	 * @return removed metric, null if none was registered under given name
+	 */
+	public Metric remove(String name) {
+		return metrics.remove(name);
+	}
+	
+	public Set<String> getNames() {
+		return Collections.unmodifiableSet(metrics.keySet());
+	}
+	
+	/**
+	 * Reads current values of all metrics, without stopping writers
+	 *
+	 * @return values of metrics sorted by their key : name of metric, or name of metric followed by a dot and the name of the value for
+	 * metrics giving several values
+	 */
+	public SortedMap<String, Number> snapshot() {
+		SortedMap<String, Number> result = new TreeMap<>();
+		for (Map.Entry<String, Metric> entry : metrics.entrySet()) {
+			entry.getValue().snapshot(entry.getKey(), result);
+		}
+		return result;
+	}
+}
@@ -0,0 +1,13 @@
+package org.gama.lang.trace;
+
+/**
+ * {@link ExtremumGauge} that keeps the smallest given value, such as the lowest number of idle connections
+ *
+ * @author Guillaume Mary
+ */
+public class MinGauge extends ExtremumGauge {
+	
+	public MinGauge() {
+		super(Math::min, Long.MAX_VALUE);
+	}
+}
@@ -1,6 +1,9 @@
 package org.gama.lang.trace;
 
 /**
+ * A simple modifiable {@link Boolean}, which may be null. Not thread-safe : prefer {@link java.util.concurrent.atomic.AtomicBoolean} to share
+ * a flag between threads.
+ *
  * @author Guillaume Mary
  */
 public class ModifiableBoolean {
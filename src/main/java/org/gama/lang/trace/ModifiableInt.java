@@ -1,7 +1,8 @@
 package org.gama.lang.trace;
 
 /**
- * A simple modifiable int. Not thread-safe. Prefer {@link java.util.concurrent.atomic.AtomicInteger} for thread safety.
+ * A simple modifiable int. Not thread-safe. Prefer {@link java.util.concurrent.atomic.AtomicInteger} for thread safety, or {@link Counter}
+ * for counting on hot paths.
  *
  * @author Guillaume Mary
  */
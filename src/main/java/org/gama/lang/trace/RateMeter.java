@@ -0,0 +1,187 @@
+package org.gama.lang.trace;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Thread-safe meter of the rate of events, such as requests per second. It gives exponentially weighted moving averages over 1, 5 and 15
+ * minutes (as Unix load average does) : recent events weight more than old ones, with a weight that decreases exponentially with their age.
+ * Averages are updated every {@value #TICK_INTERVAL_SECONDS} seconds, lazily, by the first thread that marks or reads the meter after this
+ * interval, so there's no background thread. Marking an event is a {@link LongAdder} update.
+ *
+ * @author Guillaume Mary
+ */
+public class RateMeter implements Metric {
+	
+	private static final int TICK_INTERVAL_SECONDS = 5;
+	
+	private static final long TICK_INTERVAL = TimeUnit.SECONDS.toNanos(TICK_INTERVAL_SECONDS);
+	
+	private final LongSupplier ticker;
+	
+	private final long startTime;
+	
+	/** Start time of current interval */
+	private final AtomicLong lastTick;
+	
+	private final LongAdder count = new LongAdder();
+	
+	/** Events of current interval, not yet taken into account by averages */
+	private final LongAdder uncounted = new LongAdder();
+	
+	private final MovingAverage oneMinuteAverage = new MovingAverage(1);
+	private final MovingAverage fiveMinutesAverage = new MovingAverage(5);
+	private final MovingAverage fifteenMinutesAverage = new MovingAverage(15);
+	
+	public RateMeter() {
+		this(System::nanoTime);
+	}
+	
+	/**
+	 * @param ticker gives current time in nanoseconds
+	 */
+	public RateMeter(LongSupplier ticker) {
+		this.ticker = ticker;
+		this.startTime = ticker.getAsLong();
+		this.lastTick = new AtomicLong(startTime);
+	}
+	
+	/**
+	 * Marks the occurrence of an event
+	 */
+	public void mark() {
+		mark(1);
+	}
+	
+	/**
+	 * Marks the occurrence of several events
+	 *
+	 * @param eventCount number of events
+	 */
+	public void mark(long eventCount) {
+		tickIfNecessary();
+		count.add(eventCount);
+		uncounted.add(eventCount);
+	}
+	
+	/**
+	 * Updates averages for each elapsed interval, only one thread does it thanks to a CAS on interval start time
+	 */
+	private void tickIfNecessary() {
+		long previousTick = lastTick.get();
+		long age = ticker.getAsLong() - previousTick;
+		if (age >= TICK_INTERVAL) {
+			long newTick = previousTick + age - age % TICK_INTERVAL;
+			if (lastTick.compareAndSet(previousTick, newTick)) {
+				long elapsedIntervals = age / TICK_INTERVAL;
+				// events of current interval are given to first elapsed one, next ones had none
+				long eventCount = uncounted.sumThenReset();
+				oneMinuteAverage.tick(eventCount);
+				fiveMinutesAverage.tick(eventCount);
+				fifteenMinutesAverage.tick(eventCount);
+				if (elapsedIntervals > 1) {
+					oneMinuteAverage.decay(elapsedIntervals - 1);
+					fiveMinutesAverage.decay(elapsedIntervals - 1);
+					fifteenMinutesAverage.decay(elapsedIntervals - 1);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * @return number of marked events
+	 */
+	public long getCount() {
+		return count.sum();
+	}
+	
+	/**
+	 * @return average number of events per second since meter creation
+	 */
+	public double getMeanRate() {
+		long elapsed = ticker.getAsLong() - startTime;
+		return elapsed <= 0 ? 0 : getCount() / (elapsed / (double) TimeUnit.SECONDS.toNanos(1));
+	}
+	
+	/**
+	 * @return number of events per second, averaged over last minute
+	 */
+	public double getOneMinuteRate() {
+		tickIfNecessary();
+		return oneMinuteAverage.ratePerSecond;
+	}
+	
+	/**
+	 * @return number of events per second, averaged over last 5 minutes
+	 */
+	public double getFiveMinutesRate() {
+		tickIfNecessary();
+		return fiveMinutesAverage.ratePerSecond;
+	}
+	
+	/**
+	 * @return number of events per second, averaged over last 15 minutes
+	 */
+	public double getFifteenMinutesRate() {
+		tickIfNecessary();
+		return fifteenMinutesAverage.ratePerSecond;
+	}
+	
+	@Override
+	public void snapshot(String name, Map<String, Number> snapshot) {
+		snapshot.put(name + ".count", getCount());
+		snapshot.put(name + ".m1_rate", getOneMinuteRate());
+		snapshot.put(name + ".m5_rate", getFiveMinutesRate());
+		snapshot.put(name + ".m15_rate", getFifteenMinutesRate());
+		snapshot.put(name + ".mean_rate", getMeanRate());
+	}
+	
+	@Override
+	public String toString() {
+		return "count=" + getCount()
+				+ ", m1=" + String.format("%.2f", getOneMinuteRate()) + "/s"
+				+ ", m5=" + String.format("%.2f", getFiveMinutesRate()) + "/s"
+				+ ", m15=" + String.format("%.2f", getFifteenMinutesRate()) + "/s";
+	}
+	
+	/**
+	 * Exponentially weighted moving average of a rate, updated at each interval by a single thread
+	 */
+	private static class MovingAverage {
+		
+		/** Weight of last interval in the average */
+		private final double alpha;
+		
+		private volatile double ratePerSecond;
+		
+		private boolean initialized;
+		
+		private MovingAverage(int minutes) {
+			this.alpha = 1 - Math.exp(-TICK_INTERVAL_SECONDS / (60.0 * minutes));
+		}
+		
+		private void tick(long eventCount) {
+			double intervalRate = eventCount / (double) TICK_INTERVAL_SECONDS;
+			if (initialized) {
+				ratePerSecond += alpha * (intervalRate - ratePerSecond);
+			} else {
+				// first interval gives the initial value, to avoid a long ramp-up from 0
+				ratePerSecond = intervalRate;
+				initialized = true;
+			}
+		}
+		
+		/**
+		 * Applies intervals without any event, in closed form instead of calling {@link #tick(long)} for each of them, because a meter may be
+		 * idle for a very long time. Expected to be called after {@link #tick(long)}.
+		 *
+		 * @param intervalCount number of intervals without event
+		 */
+		private void decay(long intervalCount) {
+			ratePerSecond *= Math.pow(1 - alpha, intervalCount);
+		}
+	}
+}
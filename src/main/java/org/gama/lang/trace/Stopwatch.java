@@ -0,0 +1,108 @@
+package org.gama.lang.trace;
+
+import org.gama.lang.function.ThrowingRunnable;
+
+/**
+ * Nanosecond stopwatch based on {@link System#nanoTime()}, made to time hot code : it doesn't allocate anything, and durations can be
+ * recorded into a {@link LatencyHistogram}.
+ * Splits give time elapsed since start, laps give time elapsed since previous lap (or start) and begin a new one.
+ * Not thread-safe : each thread should have its own instance, whereas {@link LatencyHistogram}s can be shared.
+ *
+ * @author Guillaume Mary
+ * @see Chrono
+ */
+public class Stopwatch {
+	
+	/**
+	 * Runs some code and records its duration, even if it fails
+	 *
+	 * @param histogram the histogram in which duration is recorded
+	 * @param code the code to be timed
+	 * @param <E> type of exception thrown by the code
+	 * @throws E any exception thrown by the code
+	 */
+	public static <E extends Throwable> void time(LatencyHistogram histogram, ThrowingRunnable<E> code) throws E {
+		long start = System.nanoTime();
+		try {
+			code.run();
+		} finally {
+			histogram.record(System.nanoTime() - start);
+		}
+	}
+	
+	private long startNanos;
+	
+	private long lapStartNanos;
+	
+	/** Creates a new stopwatch, started */
+	public Stopwatch() {
+		restart();
+	}
+	
+	/**
+	 * Starts this stopwatch again, as well as current lap
+	 */
+	public void restart() {
+		startNanos = System.nanoTime();
+		lapStartNanos = startNanos;
+	}
+	
+	/**
+	 * @return time elapsed since start, in nanoseconds
+	 */
+	public long split() {
+		return System.nanoTime() - startNanos;
+	}
+	
+	/**
+	 * Records time elapsed since start
+	 *
+	 * @param histogram the histogram in which duration is recorded
+	 * @return time elapsed since start, in nanoseconds
+	 */
+	public long split(LatencyHistogram histogram) {
+		long result = split();
+		histogram.record(result);
+		return result;
+	}
+	
+	/**
+	 * Ends current lap and starts a new one
+	 *
+	 * @return duration of ended lap, in nanoseconds
+	 */
+	public long lap() {
+		long now = System.nanoTime();
+		long result = now - lapStartNanos;
+		lapStartNanos = now;
+		return result;
+	}
+	
+	/**
+	 * Ends current lap, records its duration and starts a new one
+	 *
+	 * @param histogram the histogram in which duration is recorded
+	 * @return duration of ended lap, in nanoseconds
+	 */
+	public long lap(LatencyHistogram histogram) {
+		long result = lap();
+		histogram.record(result);
+		return result;
+	}
+	
+	/**
+	 * @return duration of current lap, in nanoseconds, without ending it
+	 */
+	public long getLapTime() {
+		return System.nanoTime() - lapStartNanos;
+	}
+	
+	/**
+	 * Formats time elapsed since start
+	 * @see Chrono#formatNanos(long)
+	 */
+	@Override
+	public String toString() {
+		return Chrono.formatNanos(split());
+	}
+}
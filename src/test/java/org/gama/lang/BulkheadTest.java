@@ -0,0 +1,91 @@
+package org.gama.lang;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.gama.lang.Bulkhead.BulkheadFullException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * @author Guillaume Mary
+ */
+public class BulkheadTest {
+	
+	private ExecutorService executor;
+	
+	@BeforeEach
+	public void createExecutor() {
+		executor = Executors.newCachedThreadPool();
+	}
+	
+	@AfterEach
+	public void shutdownExecutor() {
+		executor.shutdownNow();
+	}
+	
+	/**
+	 * Occupies a place of the bulkhead until the returned latch is count down
+	 */
+	private CountDownLatch occupy(Bulkhead testInstance) throws InterruptedException {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		executor.submit(() -> testInstance.execute(() -> {
+			started.countDown();
+			return release.await(10, TimeUnit.SECONDS);
+		}));
+		assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+		return release;
+	}
+	
+	@Test
+	public void execute_limitReachedWithoutWaitingQueue_rejects() throws Exception {
+		Bulkhead testInstance = new Bulkhead("dependency", 1, 0, 1000);
+		CountDownLatch release = occupy(testInstance);
+		assertThatExceptionOfType(BulkheadFullException.class).isThrownBy(() -> testInstance.execute(() -> "OK"))
+				.withMessage("Bulkhead \"dependency\" is full, with 1 concurrent calls");
+		release.countDown();
+		assertThat(testInstance.getRejectionCount()).isEqualTo(1);
+		assertThat(testInstance.getMaxConcurrency()).isEqualTo(1);
+	}
+	
+	@Test
+	public void execute_placeFreedWhileWaiting_executes() throws Exception {
+		Bulkhead testInstance = new Bulkhead("dependency", 1, 1, 10_000);
+		CountDownLatch release = occupy(testInstance);
+		Future<String> waitingCall = executor.submit(() -> testInstance.execute(() -> "OK"));
+		while (testInstance.getWaitingCallCount() == 0) {
+			Thread.sleep(1);
+		}
+		// waiting queue is full
+		assertThatExceptionOfType(BulkheadFullException.class).isThrownBy(() -> testInstance.execute(() -> "KO"));
+		release.countDown();
+		assertThat(waitingCall.get(10, TimeUnit.SECONDS)).isEqualTo("OK");
+		assertThat(testInstance.getAvailablePlaces()).isEqualTo(1);
+	}
+	
+	@Test
+	public void execute_noPlaceFreedWithinMaxWait_rejects() throws Exception {
+		Bulkhead testInstance = new Bulkhead("dependency", 1, 1, 20);
+		CountDownLatch release = occupy(testInstance);
+		assertThatExceptionOfType(BulkheadFullException.class).isThrownBy(() -> testInstance.execute(() -> "OK"));
+		assertThat(testInstance.getWaitingCallCount()).isEqualTo(0);
+		release.countDown();
+	}
+	
+	@Test
+	public void execute_delegateFails_placeIsFreed() {
+		Bulkhead testInstance = new Bulkhead("dependency", 1, 0, 0);
+		assertThatExceptionOfType(IllegalStateException.class).isThrownBy(() -> testInstance.execute(() -> {
+			throw new IllegalStateException("down");
+		}));
+		assertThat(testInstance.getAvailablePlaces()).isEqualTo(1);
+	}
+}
@@ -0,0 +1,196 @@
+package org.gama.lang;
+
+import java.util.concurrent.TimeUnit;
+
+import org.gama.lang.CircuitBreaker.CallNotPermittedException;
+import org.gama.lang.CircuitBreaker.State;
+import org.gama.lang.function.ThrowingExecutable;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * @author Guillaume Mary
+ */
+public class CircuitBreakerTest {
+	
+	private long now;
+	
+	private final ThrowingExecutable<String, RuntimeException> success = () -> "OK";
+	
+	private final ThrowingExecutable<String, RuntimeException> failure = () -> {
+		throw new IllegalStateException("down");
+	};
+	
+	@BeforeEach
+	public void resetTime() {
+		now = 0;
+	}
+	
+	private void advance(long millis) {
+		now += TimeUnit.MILLISECONDS.toNanos(millis);
+	}
+	
+	private CircuitBreaker newCircuitBreaker() {
+		return new CircuitBreaker("dependency", 4).withOpenDuration(1000).withPermittedCallsInHalfOpenState(2).withTicker(() -> now);
+	}
+	
+	private static void callIgnoringFailure(CircuitBreaker testInstance, ThrowingExecutable<String, RuntimeException> delegate)
+			throws CallNotPermittedException {
+		try {
+			testInstance.execute(delegate);
+		} catch (IllegalStateException e) {
+			// expected
+		}
+	}
+	
+	@Test
+	public void execute_failureRateReachesThreshold_opens() throws CallNotPermittedException {
+		CircuitBreaker testInstance = newCircuitBreaker();
+		callIgnoringFailure(testInstance, success);
+		callIgnoringFailure(testInstance, success);
+		callIgnoringFailure(testInstance, failure);
+		// window is not full
+		assertThat(testInstance.getState()).isEqualTo(State.CLOSED);
+		assertThat(testInstance.getFailureRate()).isEqualTo(-1);
+		callIgnoringFailure(testInstance, failure);
+		assertThat(testInstance.getState()).isEqualTo(State.OPEN);
+		assertThatExceptionOfType(CallNotPermittedException.class).isThrownBy(() -> testInstance.execute(success))
+				.withMessage("Circuit breaker \"dependency\" is OPEN and doesn't permit calls");
+		assertThat(testInstance.getRejectionCount()).isEqualTo(1);
+		assertThat(testInstance.getOpeningCount()).isEqualTo(1);
+	}
+	
+	@Test
+	public void execute_windowSlides() throws CallNotPermittedException {
+		CircuitBreaker testInstance = newCircuitBreaker().withFailureRateThreshold(75);
+		callIgnoringFailure(testInstance, failure);
+		callIgnoringFailure(testInstance, failure);
+		callIgnoringFailure(testInstance, success);
+		callIgnoringFailure(testInstance, success);
+		// oldest failure leaves the window
+		callIgnoringFailure(testInstance, success);
+		assertThat(testInstance.getFailureRate()).isEqualTo(25);
+		callIgnoringFailure(testInstance, failure);
+		callIgnoringFailure(testInstance, failure);
+		assertThat(testInstance.getState()).isEqualTo(State.CLOSED);
+		callIgnoringFailure(testInstance, failure);
+		assertThat(testInstance.getState()).isEqualTo(State.OPEN);
+	}
+	
+	@Test
+	public void execute_slowCallRateReachesThreshold_opens() throws CallNotPermittedException {
+		CircuitBreaker testInstance = newCircuitBreaker().withSlowCallThreshold(50, 100).withMinimumCalls(2);
+		testInstance.execute(() -> {
+			advance(200);
+			return "OK";
+		});
+		assertThat(testInstance.getState()).isEqualTo(State.CLOSED);
+		testInstance.execute(success);
+		assertThat(testInstance.getState()).isEqualTo(State.OPEN);
+		assertThat(testInstance.getSlowCallCount()).isEqualTo(1);
+	}
+	
+	@Test
+	public void execute_halfOpenTrialCallsSucceed_closes() throws CallNotPermittedException {
+		CircuitBreaker testInstance = newCircuitBreaker().withMinimumCalls(1);
+		callIgnoringFailure(testInstance, failure);
+		assertThat(testInstance.getState()).isEqualTo(State.OPEN);
+		advance(1000);
+		assertThat(testInstance.execute(success)).isEqualTo("OK");
+		assertThat(testInstance.getState()).isEqualTo(State.HALF_OPEN);
+		testInstance.execute(success);
+		assertThat(testInstance.getState()).isEqualTo(State.CLOSED);
+	}
+	
+	@Test
+	public void execute_halfOpenTrialCallsFail_opensAgain() throws CallNotPermittedException {
+		CircuitBreaker testInstance = newCircuitBreaker().withMinimumCalls(1);
+		callIgnoringFailure(testInstance, failure);
+		advance(1000);
+		callIgnoringFailure(testInstance, success);
+		callIgnoringFailure(testInstance, failure);
+		assertThat(testInstance.getState()).isEqualTo(State.OPEN);
+		assertThat(testInstance.getOpeningCount()).isEqualTo(2);
+	}
+	
+	@Test
+	public void execute_halfOpenWithAllTrialCallsStarted_rejects() throws CallNotPermittedException {
+		CircuitBreaker testInstance = newCircuitBreaker().withMinimumCalls(1).withPermittedCallsInHalfOpenState(1);
+		callIgnoringFailure(testInstance, failure);
+		advance(1000);
+		// trial call is running while another one comes
+		testInstance.execute(() -> {
+			assertThatExceptionOfType(CallNotPermittedException.class).isThrownBy(() -> testInstance.execute(success))
+					.withMessageContaining("HALF_OPEN");
+			return "OK";
+		});
+		assertThat(testInstance.getState()).isEqualTo(State.CLOSED);
+	}
+	
+	@Test
+	public void execute_halfOpenTrialCallNeverCompletes_opensAgainAfterMaxHalfOpenDuration() throws CallNotPermittedException {
+		CircuitBreaker testInstance = newCircuitBreaker().withMinimumCalls(1).withPermittedCallsInHalfOpenState(1).withMaxHalfOpenDuration(500);
+		callIgnoringFailure(testInstance, failure);
+		advance(1000);
+		testInstance.execute(() -> {
+			// trial call hangs : other calls are rejected until max half-open duration
+			advance(499);
+			assertThatExceptionOfType(CallNotPermittedException.class).isThrownBy(() -> testInstance.execute(success))
+					.withMessageContaining("HALF_OPEN");
+			advance(1);
+			assertThatExceptionOfType(CallNotPermittedException.class).isThrownBy(() -> testInstance.execute(success))
+					.withMessageContaining("OPEN");
+			assertThat(testInstance.getState()).isEqualTo(State.OPEN);
+			// new trial calls are permitted after open duration
+			advance(1000);
+			assertThat(testInstance.execute(success)).isEqualTo("OK");
+			assertThat(testInstance.getState()).isEqualTo(State.CLOSED);
+			return "OK";
+		});
+		// outcome of the hung trial call is ignored
+		assertThat(testInstance.getState()).isEqualTo(State.CLOSED);
+		assertThat(testInstance.getOpeningCount()).isEqualTo(2);
+	}
+	
+	@Test
+	public void execute_exceptionNotAcceptedByRetryer_isNotAFailure() throws CallNotPermittedException {
+		Retryer retryer = new Retryer(3, 0) {
+			@Override
+			protected boolean shouldRetry(Throwable t) {
+				return !(t instanceof IllegalStateException);
+			}
+		};
+		CircuitBreaker testInstance = newCircuitBreaker().withFailuresOf(retryer).withMinimumCalls(1);
+		callIgnoringFailure(testInstance, failure);
+		assertThat(testInstance.getState()).isEqualTo(State.CLOSED);
+		assertThat(testInstance.getFailureCount()).isEqualTo(0);
+	}
+	
+	@Test
+	public void execute_withRetryer_stopsRetryingWhenOpen() {
+		CircuitBreaker testInstance = newCircuitBreaker().withMinimumCalls(2);
+		Retryer retryer = new Retryer(10, 0) {
+			@Override
+			protected boolean shouldRetry(Throwable t) {
+				return !(t instanceof CallNotPermittedException);
+			}
+		};
+		int[] callTimes = new int[1];
+		assertThatExceptionOfType(CallNotPermittedException.class).isThrownBy(() -> retryer.execute(() -> testInstance.execute(() -> {
+			callTimes[0]++;
+			throw new IllegalStateException("down");
+		}), "test"));
+		assertThat(callTimes[0]).isEqualTo(2);
+	}
+	
+	@Test
+	public void reset_closes() throws CallNotPermittedException {
+		CircuitBreaker testInstance = newCircuitBreaker().withMinimumCalls(1);
+		callIgnoringFailure(testInstance, failure);
+		testInstance.reset();
+		assertThat(testInstance.execute(success)).isEqualTo("OK");
+	}
+}
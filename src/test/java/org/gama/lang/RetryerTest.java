@@ -1,8 +1,29 @@
 package org.gama.lang;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.gama.lang.Retryer.DelayPolicy;
+import org.gama.lang.Retryer.RetryException;
+import org.gama.lang.Retryer.RetryMetrics;
+import org.gama.lang.function.ThrowingExecutable;
+import org.gama.lang.trace.MetricRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.assertj.core.api.Assertions.fail;
 
 /**
@@ -10,6 +31,20 @@ import static org.assertj.core.api.Assertions.fail;
  */
 public class RetryerTest {
 	
+	private ScheduledExecutorService scheduler;
+	
+	private final MetricRegistry metricRegistry = new MetricRegistry();
+	
+	@BeforeEach
+	public void createScheduler() {
+		scheduler = Executors.newScheduledThreadPool(2);
+	}
+	
+	@AfterEach
+	public void shutdownScheduler() {
+		scheduler.shutdownNow();
+	}
+	
 	@Test
 	public void testExecute_neverWorks() throws Throwable {
 		Retryer testInstance = new Retryer(3, 5) {
@@ -119,4 +154,245 @@ public class RetryerTest {
 		assertThat(callTimes[0]).isEqualTo(1);
 		assertThat(result).isEqualTo("OK");
 	}
-}
\ No newline at end of file
+	
+	@Test
+	public void testNoRetry_cantBeConfigured() {
+		assertThatExceptionOfType(UnsupportedOperationException.class).isThrownBy(() -> Retryer.NO_RETRY.withMetrics(metricRegistry));
+		assertThatExceptionOfType(UnsupportedOperationException.class).isThrownBy(() -> Retryer.NO_RETRY.withDeadline(100));
+	}
+	
+	@Test
+	public void testExecute_noMetricRegistry_nothingIsCounted() throws Throwable {
+		Retryer testInstance = alwaysRetry(3, DelayPolicy.fixed(0));
+		testInstance.execute(() -> "OK", "test");
+		assertThat(metricRegistry.getNames()).isEmpty();
+		
+		testInstance.withMetrics(metricRegistry);
+		testInstance.execute(() -> "OK", "test");
+		assertThat(metricRegistry.getNames()).containsExactly("retry.test");
+		assertThat(metricRegistry.snapshot()).containsEntry("retry.test.calls", 1L).containsEntry("retry.test.successes", 1L);
+	}
+	
+	private static Retryer alwaysRetry(int maxRetries, DelayPolicy delayPolicy) {
+		return new Retryer(maxRetries, delayPolicy) {
+			@Override
+			protected boolean shouldRetry(Throwable t) {
+				return true;
+			}
+		};
+	}
+	
+	private RetryMetrics giveMetrics(String description) {
+		return metricRegistry.give(Retryer.METRIC_NAME_PREFIX + description, RetryMetrics.class, RetryMetrics::new);
+	}
+	
+	@Test
+	public void testExecute_manyRetries_doesntGrowStack() throws Throwable {
+		Retryer testInstance = alwaysRetry(100_000, DelayPolicy.fixed(0)).withMetrics(metricRegistry);
+		final int[] callTimes = new int[1];
+		String result = testInstance.execute(() -> {
+			if (++callTimes[0] < 100_000) {
+				throw new RuntimeException("retry");
+			}
+			return "OK";
+		}, "test");
+		assertThat(result).isEqualTo("OK");
+		RetryMetrics metrics = giveMetrics("test");
+		assertThat(metrics.getCallCount()).isEqualTo(1);
+		assertThat(metrics.getRetryCount()).isEqualTo(99_999);
+		assertThat(metrics.getSuccessCount()).isEqualTo(1);
+	}
+	
+	@Test
+	public void testExecute_deadlineWouldBeExceeded_stopsRetrying() {
+		long[] now = new long[1];
+		Retryer testInstance = alwaysRetry(10, DelayPolicy.fixed(5)).withDeadline(100).withTicker(() -> now[0]).withMetrics(metricRegistry);
+		final int[] callTimes = new int[1];
+		assertThatExceptionOfType(RetryException.class).isThrownBy(() -> testInstance.execute(() -> {
+			callTimes[0]++;
+			now[0] += TimeUnit.MILLISECONDS.toNanos(60);
+			throw new RuntimeException("Never works !");
+		}, "test")).withMessage("Action \"test\" has been executed 2 times every 5ms and always failed, next retry would exceed deadline of 100ms");
+		assertThat(callTimes[0]).isEqualTo(2);
+		assertThat(giveMetrics("test").getDeadlineExceedanceCount()).isEqualTo(1);
+	}
+	
+	@Test
+	public void testExecute_budgetExhausted_stopsRetrying() {
+		RetryBudget retryBudget = new RetryBudget(0, 1);
+		Retryer testInstance = alwaysRetry(3, DelayPolicy.fixed(0)).withRetryBudget(retryBudget).withMetrics(metricRegistry);
+		final int[] callTimes = new int[1];
+		ThrowingExecutable<Object, RuntimeException> neverWorks = () -> {
+			callTimes[0]++;
+			throw new RuntimeException("Never works !");
+		};
+		// budget allows a single retry
+		assertThatExceptionOfType(RetryException.class).isThrownBy(() -> testInstance.execute(neverWorks, "test"))
+				.withMessageEndingWith("retry budget is exhausted");
+		assertThat(callTimes[0]).isEqualTo(2);
+		assertThatExceptionOfType(RetryException.class).isThrownBy(() -> testInstance.execute(neverWorks, "test"));
+		assertThat(callTimes[0]).isEqualTo(3);
+		RetryMetrics metrics = giveMetrics("test");
+		assertThat(metrics.getCallCount()).isEqualTo(2);
+		assertThat(metrics.getRetryCount()).isEqualTo(1);
+		assertThat(metrics.getBudgetRejectionCount()).isEqualTo(2);
+	}
+	
+	@Test
+	public void retryBudget_depositsRatioOfCalls() {
+		RetryBudget testInstance = new RetryBudget(0.5, 2);
+		assertThat(testInstance.tryAcquireRetry()).isTrue();
+		assertThat(testInstance.tryAcquireRetry()).isTrue();
+		assertThat(testInstance.tryAcquireRetry()).isFalse();
+		testInstance.onCall();
+		assertThat(testInstance.tryAcquireRetry()).isFalse();
+		testInstance.onCall();
+		assertThat(testInstance.tryAcquireRetry()).isTrue();
+		// balance is capped by burst
+		for (int i = 0; i < 10; i++) {
+			testInstance.onCall();
+		}
+		assertThat(testInstance.getAvailableRetries()).isEqualTo(2);
+	}
+	
+	@Test
+	public void delayPolicies() {
+		DelayPolicy exponential = DelayPolicy.exponential(10, 100);
+		assertThat(exponential.nextDelay(1, 0)).isEqualTo(10);
+		assertThat(exponential.nextDelay(2, 10)).isEqualTo(20);
+		assertThat(exponential.nextDelay(4, 40)).isEqualTo(80);
+		assertThat(exponential.nextDelay(5, 80)).isEqualTo(100);
+		assertThat(exponential.nextDelay(Integer.MAX_VALUE, 100)).isEqualTo(100);
+		
+		DelayPolicy fullJitter = DelayPolicy.fullJitter(10, 100);
+		DelayPolicy decorrelatedJitter = DelayPolicy.decorrelatedJitter(10, 100);
+		for (int i = 0; i < 1000; i++) {
+			assertThat(fullJitter.nextDelay(2, 0)).isBetween(0L, 20L);
+			assertThat(fullJitter.nextDelay(10, 0)).isBetween(0L, 100L);
+			assertThat(decorrelatedJitter.nextDelay(1, 0)).isEqualTo(10);
+			assertThat(decorrelatedJitter.nextDelay(2, 20)).isBetween(10L, 60L);
+			assertThat(decorrelatedJitter.nextDelay(3, 60)).isBetween(10L, 100L);
+		}
+		
+		assertThatExceptionOfType(IllegalArgumentException.class).isThrownBy(() -> DelayPolicy.exponential(100, 10));
+	}
+	
+	private static <T> CompletableFuture<T> failedFuture(Throwable t) {
+		CompletableFuture<T> result = new CompletableFuture<>();
+		result.completeExceptionally(t);
+		return result;
+	}
+	
+	@Test
+	public void testExecuteAsync_worksLastAttempt() throws Exception {
+		Retryer testInstance = alwaysRetry(3, DelayPolicy.exponential(1, 10)).withMetrics(metricRegistry);
+		AtomicInteger callTimes = new AtomicInteger();
+		CompletableFuture<String> result = testInstance.executeAsync(() -> callTimes.incrementAndGet() < 3
+				? failedFuture(new RuntimeException("retry"))
+				: CompletableFuture.completedFuture("OK"), "test", scheduler);
+		assertThat(result.get(10, TimeUnit.SECONDS)).isEqualTo("OK");
+		assertThat(callTimes.get()).isEqualTo(3);
+		RetryMetrics metrics = giveMetrics("test");
+		assertThat(metrics.getRetryCount()).isEqualTo(2);
+		assertThat(metrics.getSuccessCount()).isEqualTo(1);
+	}
+	
+	@Test
+	public void testExecuteAsync_neverWorks_completesWithRetryException() {
+		Retryer testInstance = alwaysRetry(3, DelayPolicy.fixed(5));
+		AtomicInteger callTimes = new AtomicInteger();
+		CompletableFuture<Object> result = testInstance.executeAsync(() -> {
+			callTimes.incrementAndGet();
+			// thrown exceptions are handled as failed futures
+			throw new RuntimeException("Never works !");
+		}, "test", scheduler);
+		assertThatExceptionOfType(ExecutionException.class).isThrownBy(() -> result.get(10, TimeUnit.SECONDS))
+				.withCauseInstanceOf(RetryException.class)
+				.satisfies(e -> assertThat(e.getCause().getMessage()).isEqualTo("Action \"test\" has been executed 3 times every 5ms and always failed"));
+		assertThat(callTimes.get()).isEqualTo(3);
+	}
+	
+	@Test
+	public void testExecuteAsync_throwUnexpected_completesWithIt() {
+		Retryer testInstance = new Retryer(3, 5) {
+			@Override
+			protected boolean shouldRetry(Throwable t) {
+				return t.getMessage().equals("retry");
+			}
+		}.withMetrics(metricRegistry);
+		AtomicInteger callTimes = new AtomicInteger();
+		CompletableFuture<Object> result = testInstance.executeAsync(() -> failedFuture(
+				new RuntimeException(callTimes.incrementAndGet() < 2 ? "retry" : "Unexpected error")), "test", scheduler);
+		assertThatExceptionOfType(ExecutionException.class).isThrownBy(() -> result.get(10, TimeUnit.SECONDS))
+				.satisfies(e -> assertThat(e.getCause().getMessage()).isEqualTo("Unexpected error"));
+		assertThat(callTimes.get()).isEqualTo(2);
+		assertThat(giveMetrics("test").getUnexpectedFailureCount()).isEqualTo(1);
+	}
+	
+	@ParameterizedTest
+	@ValueSource(ints = { 1, 2 })
+	public void testExecuteAsync_shouldRetryThrows_completesWithIt(int failingTry) {
+		AtomicInteger shouldRetryCallTimes = new AtomicInteger();
+		Retryer testInstance = new Retryer(3, 5) {
+			@Override
+			protected boolean shouldRetry(Throwable t) {
+				if (shouldRetryCallTimes.incrementAndGet() == failingTry) {
+					throw new IllegalStateException("shouldRetry failed");
+				}
+				return true;
+			}
+		};
+		// supplier throws instead of giving a failed future, and shouldRetry(..) fails on first try or on a scheduled one
+		CompletableFuture<Object> result = testInstance.executeAsync(() -> {
+			throw new RuntimeException("retry");
+		}, "test", scheduler);
+		assertThatExceptionOfType(ExecutionException.class).isThrownBy(() -> result.get(10, TimeUnit.SECONDS))
+				.withCauseInstanceOf(IllegalStateException.class)
+				.satisfies(e -> assertThat(e.getCause().getMessage()).isEqualTo("shouldRetry failed"));
+		assertThat(shouldRetryCallTimes.get()).isEqualTo(failingTry);
+	}
+	
+	@Test
+	public void testExecuteAsync_cancel_cancelsRunningTryAndStopsRetries() throws InterruptedException {
+		Retryer testInstance = alwaysRetry(3, DelayPolicy.fixed(0));
+		List<CompletableFuture<Object>> tries = new ArrayList<>();
+		CompletableFuture<Object> result = testInstance.executeAsync(() -> {
+			CompletableFuture<Object> neverCompleted = new CompletableFuture<>();
+			tries.add(neverCompleted);
+			return neverCompleted;
+		}, "test", scheduler);
+		result.cancel(false);
+		assertThat(tries).hasSize(1);
+		assertThat(tries.get(0).isCancelled()).isTrue();
+		Thread.sleep(50);
+		assertThat(tries).hasSize(1);
+	}
+	
+	@Test
+	public void testExecuteAsync_deadlineReachedDuringTry_completesWithRetryException() {
+		Retryer testInstance = alwaysRetry(3, DelayPolicy.fixed(0)).withDeadline(50).withMetrics(metricRegistry);
+		CompletableFuture<Object> runningTry = new CompletableFuture<>();
+		CompletableFuture<Object> result = testInstance.executeAsync(() -> runningTry, "test", scheduler);
+		assertThatExceptionOfType(ExecutionException.class).isThrownBy(() -> result.get(10, TimeUnit.SECONDS))
+				.withCauseInstanceOf(RetryException.class)
+				.satisfies(e -> assertThat(e.getCause().getCause()).isInstanceOf(TimeoutException.class));
+		// running try is cancelled by a callback of the result, which may run after get() returns
+		assertThatExceptionOfType(CancellationException.class).isThrownBy(() -> runningTry.get(10, TimeUnit.SECONDS));
+		assertThat(giveMetrics("test").getDeadlineExceedanceCount()).isEqualTo(1);
+	}
+	
+	@Test
+	public void testExecuteAsync_manyExecutions_fewThreads() {
+		Retryer testInstance = alwaysRetry(3, DelayPolicy.fullJitter(1, 20)).withMetrics(metricRegistry);
+		List<CompletableFuture<Integer>> results = new ArrayList<>();
+		for (int i = 0; i < 5_000; i++) {
+			AtomicInteger callTimes = new AtomicInteger();
+			results.add(testInstance.executeAsync(() -> callTimes.incrementAndGet() < 2
+					? failedFuture(new RuntimeException("retry"))
+					: CompletableFuture.completedFuture(callTimes.get()), "test", scheduler));
+		}
+		CompletableFuture.allOf(results.toArray(new CompletableFuture[0])).join();
+		assertThat(results).allMatch(result -> result.join() == 2);
+		assertThat(giveMetrics("test").getRetryCount()).isEqualTo(5_000);
+	}
+}
@@ -1,6 +1,8 @@
 package org.gama.lang.collection;
 
 import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
 
 import org.junit.jupiter.api.Test;
 
@@ -32,4 +34,17 @@ class ArrayIteratorTest {
 		testInstance.next();
 		assertThatExceptionOfType(NoSuchElementException.class).isThrownBy(testInstance::next);
 	}
-}
\ No newline at end of file
+	
+	@Test
+	public void spliterator_givesRemainingElements() {
+		ArrayIterator<String> testInstance = new ArrayIterator<>("a", "b", "c", "d");
+		testInstance.next();
+		Spliterator<String> spliterator = testInstance.spliterator();
+		assertThat(spliterator.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.ORDERED)).isTrue();
+		assertThat(spliterator.estimateSize()).isEqualTo(3);
+		// elements are handed over
+		assertThat(testInstance.hasNext()).isFalse();
+		assertThat(Iterables.stream(new ArrayIterator<>("a", "b", "c", "d")).parallel().collect(Collectors.joining()))
+				.isEqualTo("abcd");
+	}
+}
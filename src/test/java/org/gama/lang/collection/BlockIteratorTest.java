@@ -0,0 +1,32 @@
+package org.gama.lang.collection;
+
+import java.util.NoSuchElementException;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * @author Guillaume Mary
+ */
+class BlockIteratorTest {
+	
+	@Test
+	void next() {
+		BlockIterator<String> testInstance = new BlockIterator<>(Arrays.asList("a", "b", "c").iterator(), 2);
+		assertThat(Iterables.copy(testInstance)).isEqualTo(Arrays.asList(Arrays.asList("a", "b"), Arrays.asList("c")));
+		assertThatExceptionOfType(NoSuchElementException.class).isThrownBy(testInstance::next);
+	}
+	
+	@Test
+	void next_emptySource_noBlock() {
+		BlockIterator<String> testInstance = new BlockIterator<>(java.util.Collections.emptyIterator(), 2);
+		assertThat(testInstance.hasNext()).isFalse();
+	}
+	
+	@Test
+	void constructor_invalidBlockSize_throwsException() {
+		assertThatExceptionOfType(IllegalArgumentException.class).isThrownBy(() -> new BlockIterator<>(Arrays.asList("a").iterator(), 0));
+	}
+}
@@ -1,7 +1,15 @@
 package org.gama.lang.collection;
 
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 
@@ -24,6 +32,69 @@ public class CollectionsTest {
 	public void testParcel(List<Integer> integers, int blockSize, List<List<Integer>> expected) throws Exception {
 		List<List<Integer>> blocks = Collections.parcel(integers, blockSize);
 		assertThat(blocks).isEqualTo(expected);
+		// with a non-List Iterable
+		assertThat(Collections.parcel(new LinkedHashSet<>(integers), blockSize)).isEqualTo(expected);
+		assertThat(Iterables.copy(Collections.parcelLazily(integers, blockSize, false))).isEqualTo(expected);
+		assertThat(Collections.parcelToStream(integers, blockSize).collect(Collectors.toList())).isEqualTo(expected);
 	}
 	
+	@Test
+	public void parcelLazily_pullsElementsOnDemand() {
+		AtomicInteger pulledCount = new AtomicInteger();
+		Iterable<Integer> source = () -> new ReadOnlyIterator<Integer>() {
+			
+			private final Iterator<Integer> delegate = Arrays.asList(1, 2, 3, 4, 5).iterator();
+			
+			@Override
+			public boolean hasNext() {
+				return delegate.hasNext();
+			}
+			
+			@Override
+			public Integer next() {
+				pulledCount.incrementAndGet();
+				return delegate.next();
+			}
+		};
+		Iterator<List<Integer>> blocks = Collections.parcelLazily(source, 2, false).iterator();
+		assertThat(pulledCount.get()).isEqualTo(0);
+		assertThat(blocks.next()).containsExactly(1, 2);
+		assertThat(pulledCount.get()).isEqualTo(2);
+	}
+	
+	@Test
+	public void parcelLazily_reuseBlocks() {
+		// RandomAccess List : blocks are views of it
+		List<Integer> list = Arrays.asList(1, 2, 3, 4, 5);
+		Iterator<List<Integer>> blocks = Collections.parcelLazily(list, 2, true).iterator();
+		List<Integer> firstBlock = blocks.next();
+		firstBlock.set(0, 42);
+		assertThat(list.get(0)).isEqualTo(42);
+		
+		// other Iterable : same List is refilled
+		blocks = Collections.parcelLazily(new LinkedHashSet<>(Arrays.asList(1, 2, 3, 4, 5)), 2, true).iterator();
+		firstBlock = blocks.next();
+		assertThat(blocks.next()).isSameAs(firstBlock).containsExactly(3, 4);
+		assertThat(blocks.next()).containsExactly(5);
+		assertThat(blocks.hasNext()).isFalse();
+	}
+	
+	@Test
+	public void parcelToStream_parallel() {
+		List<Integer> integers = IntStream.range(0, 10_000).boxed().collect(Collectors.toList());
+		assertThat(Collections.parcelToStream(integers, 100).spliterator().getExactSizeIfKnown()).isEqualTo(100);
+		int sum = Collections.parcelToStream(integers, 100).parallel()
+				.mapToInt(block -> block.stream().mapToInt(Integer::intValue).sum())
+				.sum();
+		assertThat(sum).isEqualTo(10_000 * 9_999 / 2);
+	}
+	
+	@Test
+	public void parcel_stream_closesSource() {
+		AtomicBoolean closed = new AtomicBoolean();
+		try (Stream<List<Integer>> blocks = Collections.parcel(Stream.of(1, 2, 3).onClose(() -> closed.set(true)), 2)) {
+			assertThat(blocks.collect(Collectors.toList())).isEqualTo(Arrays.asList(Arrays.asList(1, 2), Arrays.asList(3)));
+		}
+		assertThat(closed.get()).isTrue();
+	}
 }
\ No newline at end of file
@@ -0,0 +1,91 @@
+package org.gama.lang.collection;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.gama.lang.trace.ModifiableInt;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Guillaume Mary
+ */
+class ConcurrentValueFactoryMapTest {
+	
+	@Test
+	void get_inputDoesntExist_createInstanceIsCalledOnce() {
+		AtomicInteger creationCount = new AtomicInteger();
+		ConcurrentValueFactoryMap<String, ModifiableInt> testInstance = new ConcurrentValueFactoryMap<>(k -> {
+			creationCount.incrementAndGet();
+			return new ModifiableInt();
+		});
+		testInstance.get("a").increment();
+		testInstance.get("a").increment();
+		assertThat(testInstance.get("a").getValue()).isEqualTo(2);
+		assertThat(creationCount.get()).isEqualTo(1);
+		assertThat(testInstance.size()).isEqualTo(1);
+	}
+	
+	@Test
+	void get_factoryReturnsNull_nothingIsPut() {
+		ConcurrentValueFactoryMap<String, String> testInstance = new ConcurrentValueFactoryMap<>(k -> null);
+		assertThat(testInstance.get("a")).isNull();
+		assertThat(testInstance.containsKey("a")).isFalse();
+	}
+	
+	@Test
+	void getOrDefault_putIfAbsent_doNotCreateInstance() {
+		ConcurrentValueFactoryMap<String, ModifiableInt> testInstance = new ConcurrentValueFactoryMap<>(k -> new ModifiableInt(-1));
+		ModifiableInt defaultValue = new ModifiableInt(42);
+		assertThat(testInstance.getOrDefault("a", defaultValue)).isSameAs(defaultValue);
+		assertThat(testInstance.isEmpty()).isTrue();
+		assertThat(testInstance.putIfAbsent("a", defaultValue)).isNull();
+		assertThat(testInstance.get("a")).isSameAs(defaultValue);
+	}
+	
+	@Test
+	void get_concurrentAccess_eachValueIsCreatedOnce() throws Exception {
+		AtomicInteger creationCount = new AtomicInteger();
+		ConcurrentValueFactoryMap<Integer, ModifiableInt> testInstance = new ConcurrentValueFactoryMap<>(k -> {
+			creationCount.incrementAndGet();
+			return new ModifiableInt();
+		});
+		int threadCount = 8;
+		int keyCount = 100;
+		ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<List<ModifiableInt>>> results = new ArrayList<>();
+		try {
+			for (int i = 0; i < threadCount; i++) {
+				results.add(executor.submit((Callable<List<ModifiableInt>>) () -> {
+					start.await();
+					List<ModifiableInt> values = new ArrayList<>();
+					for (int key = 0; key < keyCount; key++) {
+						values.add(testInstance.get(key));
+					}
+					return values;
+				}));
+			}
+			start.countDown();
+			List<ModifiableInt> firstThreadValues = results.get(0).get(10, TimeUnit.SECONDS);
+			for (Future<List<ModifiableInt>> result : results) {
+				List<ModifiableInt> values = result.get(10, TimeUnit.SECONDS);
+				for (int key = 0; key < keyCount; key++) {
+					assertThat(values.get(key)).isSameAs(firstThreadValues.get(key));
+				}
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		assertThat(creationCount.get()).isEqualTo(keyCount);
+		assertThat(testInstance.size()).isEqualTo(keyCount);
+	}
+}
@@ -10,6 +10,7 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.Spliterator;
 
 import org.gama.lang.Duo;
 import org.junit.jupiter.api.Test;
@@ -398,6 +399,27 @@ public class IterablesTest {
 		assertThat(Iterables.filter(strings, s -> s.startsWith("a"))).isEqualTo(Arrays.asList("a", "ab"));
 	}
 	
+	@Test
+	public void stream_iterableOverridesSpliterator_itsSpliteratorIsUsed() {
+		List<String> strings = asList("a", "b", "c");
+		Iterable<String> sizedIterable = new Iterable<String>() {
+			@Override
+			public Iterator<String> iterator() {
+				return strings.iterator();
+			}
+			
+			@Override
+			public Spliterator<String> spliterator() {
+				return strings.spliterator();
+			}
+		};
+		assertThat(Iterables.stream(sizedIterable).spliterator().getExactSizeIfKnown()).isEqualTo(3);
+		// other ones are built from their Iterator, which may be splittable
+		Iterable<String> arrayIterable = () -> new ArrayIterator<>("a", "b");
+		assertThat(Iterables.stream(arrayIterable).spliterator().getExactSizeIfKnown()).isEqualTo(2);
+		assertThat(Iterables.stream(asIterable(strings.iterator())).spliterator().getExactSizeIfKnown()).isEqualTo(-1);
+	}
+	
 	@Test
 	public void reverseListIterator() {
 		assertThat(Iterables.copy(Iterables.reverseIterator(Arrays.asList("a", "d", "z", "k")))).isEqualTo(Arrays.asList("k", "z", "d", "a"));
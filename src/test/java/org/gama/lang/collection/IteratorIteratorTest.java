@@ -3,6 +3,9 @@ package org.gama.lang.collection;
 import java.util.Collection;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -60,4 +63,26 @@ public class IteratorIteratorTest {
 		testInstance.remove();
 		assertThat(Iterables.copy(testInstance)).isEqualTo(Arrays.asList("d"));
 	}
-}
\ No newline at end of file
+	
+	@Test
+	public void spliterator_splitsBySource() {
+		IteratorIterator<String> testInstance = new IteratorIterator<>(Arrays.asList("a", "b"), Arrays.asList("c"), Arrays.asList("d", "e", "f"));
+		assertThat(testInstance.next()).isEqualTo("a");
+		Spliterator<String> spliterator = testInstance.spliterator();
+		// remaining of current source
+		assertThat(Iterables.copy(java.util.Spliterators.iterator(spliterator.trySplit()))).containsExactly("b");
+		assertThat(Iterables.copy(java.util.Spliterators.iterator(spliterator.trySplit()))).containsExactly("c");
+		// last source is split by its own Spliterator
+		assertThat(spliterator.estimateSize()).isEqualTo(3);
+		assertThat(spliterator.trySplit()).isNotNull();
+	}
+	
+	@Test
+	public void stream_parallel() {
+		List<Integer> source1 = IntStream.range(0, 1000).boxed().collect(Collectors.toList());
+		List<Integer> source2 = IntStream.range(1000, 1500).boxed().collect(Collectors.toList());
+		IteratorIterator<Integer> testInstance = new IteratorIterator<>(source1, java.util.Collections.emptyList(), source2);
+		assertThat(Iterables.stream(testInstance).parallel().collect(Collectors.toList()))
+				.isEqualTo(IntStream.range(0, 1500).boxed().collect(Collectors.toList()));
+	}
+}
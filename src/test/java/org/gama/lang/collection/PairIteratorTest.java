@@ -1,8 +1,12 @@
 package org.gama.lang.collection;
 
 
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import org.gama.lang.Duo;
 import org.junit.jupiter.api.Test;
@@ -69,4 +73,38 @@ public class PairIteratorTest {
 		assertThat(new Duo<>(3, null)).isEqualTo(testInstance.next());
 		assertThat(testInstance.hasNext()).isFalse();
 	}
-}
\ No newline at end of file
+	
+	@Test
+	public void spliterator_randomAccessLists_isSizedAndSplittable() {
+		List<Integer> integers = IntStream.range(0, 1000).boxed().collect(Collectors.toList());
+		List<String> strings = integers.stream().map(String::valueOf).collect(Collectors.toList());
+		PairIterator<Integer, String> testInstance = new PairIterator<>(integers, strings.subList(0, 900));
+		testInstance.next();
+		Spliterator<Duo<? extends Integer, ? extends String>> spliterator = testInstance.spliterator();
+		assertThat(spliterator.getExactSizeIfKnown()).isEqualTo(899);
+		// remaining pairs are handed over to the Spliterator
+		assertThat(testInstance.hasNext()).isFalse();
+		assertThat(spliterator.trySplit()).isNotNull();
+		
+		List<Duo<? extends Integer, ? extends String>> pairs = Iterables.stream(new PairIterator<>(integers, strings)).parallel().collect(Collectors.toList());
+		assertThat(pairs).hasSize(1000);
+		for (int i = 0; i < pairs.size(); i++) {
+			assertThat(pairs.get(i)).isEqualTo(new Duo<>(i, String.valueOf(i)));
+		}
+	}
+	
+	@Test
+	public void spliterator_otherIterables_isSplitByBatches() {
+		PairIterator<Integer, String> testInstance = new PairIterator<>(new LinkedHashSet<>(Arrays.asList(1, 2)), Arrays.asList("a", "b", "c"));
+		assertThat(testInstance.spliterator().getExactSizeIfKnown()).isEqualTo(-1);
+		testInstance = new PairIterator<>(new LinkedHashSet<>(Arrays.asList(1, 2)), Arrays.asList("a", "b", "c"));
+		assertThat(Iterables.stream(testInstance).parallel().collect(Collectors.toList())).containsExactly(new Duo<>(1, "a"), new Duo<>(2, "b"));
+	}
+	
+	@Test
+	public void untilBothIterator_spliterator_givesMissingValues() {
+		PairIterator<Integer, String> testInstance = new PairIterator.UntilBothIterator<>(Arrays.asList(1, 2, 3), Arrays.asList("a"));
+		assertThat(Iterables.stream(testInstance).parallel().collect(Collectors.toList()))
+				.containsExactly(new Duo<>(1, "a"), new Duo<>(2, null), new Duo<>(3, null));
+	}
+}
@@ -9,6 +9,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Set;
+import java.util.Spliterator;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.function.UnaryOperator;
@@ -111,7 +112,7 @@ class ReadOnlyListTest {
 						Mockito.verify(delegate).listIterator(eq(0));
 						break;
 					case "spliterator":
-						Mockito.verifyNoMoreInteractions(delegate);
+						Mockito.verify(delegate).spliterator();
 						break;
 					case "listIterator":
 						Mockito.verify(delegate).listIterator(eq(0));
@@ -240,4 +241,11 @@ class ReadOnlyListTest {
 		}
 	}
 	
-}
\ No newline at end of file
+	@Test
+	void spliterator_isDelegateOne() {
+		ReadOnlyList<String> testInstance = new ReadOnlyList<>(Arrays.asList("a", "b", "c"));
+		Spliterator<String> spliterator = testInstance.spliterator();
+		assertThat(spliterator.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED)).isTrue();
+		assertThat(spliterator.estimateSize()).isEqualTo(3);
+	}
+}
@@ -3,6 +3,8 @@ package org.gama.lang.collection;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
 
 import org.gama.lang.Duo;
 import org.junit.jupiter.api.Test;
@@ -41,4 +43,18 @@ public class ReverseListIteratorTest {
 		assertThat(toModify).isEqualTo(Arrays.asList("a", "b"));
 		assertThat(iterator.next()).isEqualTo("b");
 	}
-}
\ No newline at end of file
+	
+	@Test
+	public void reverseArrayIterator_spliterator_givesRemainingElementsInReverseOrder() {
+		ReverseArrayIterator<String> testInstance = new ReverseArrayIterator<>(new String[] { "a", "b", "c", "d" });
+		assertThat(testInstance.next()).isEqualTo("d");
+		Spliterator<String> spliterator = testInstance.spliterator();
+		assertThat(spliterator.estimateSize()).isEqualTo(3);
+		Spliterator<String> prefix = spliterator.trySplit();
+		assertThat(prefix.estimateSize()).isEqualTo(1);
+		assertThat(spliterator.estimateSize()).isEqualTo(2);
+		assertThat(testInstance.hasNext()).isFalse();
+		assertThat(Iterables.stream(new ReverseArrayIterator<>(new String[] { "a", "b", "c", "d" })).parallel().collect(Collectors.joining()))
+				.isEqualTo("dcba");
+	}
+}
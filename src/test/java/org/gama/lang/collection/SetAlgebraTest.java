@@ -0,0 +1,129 @@
+package org.gama.lang.collection;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Guillaume Mary
+ */
+class SetAlgebraTest {
+	
+	/** Compares values modulo 1000 so that comparator and equals semantics differ */
+	private static final Comparator<Integer> MODULO_COMPARATOR = Comparator.comparing(i -> i % 1000);
+	
+	private static Set<Integer> expectedIntersection(Collection<Integer> c1, Collection<Integer> c2, Comparator<Integer> comparator) {
+		return c1.stream().filter(e1 -> c2.stream().anyMatch(e2 -> comparator.compare(e1, e2) == 0)).collect(Collectors.toSet());
+	}
+	
+	private static Set<Integer> expectedDifference(Collection<Integer> c1, Collection<Integer> c2, Comparator<Integer> comparator) {
+		return c1.stream().filter(e1 -> c2.stream().noneMatch(e2 -> comparator.compare(e1, e2) == 0)).collect(Collectors.toSet());
+	}
+	
+	private static List<Integer> randomList(Random random, int size, boolean sorted) {
+		List<Integer> result = random.ints(size, 0, 3000).boxed().collect(Collectors.toList());
+		if (sorted) {
+			result.sort(MODULO_COMPARATOR);
+		}
+		return result;
+	}
+	
+	/**
+	 * Sizes and sortedness that cover each strategy : merge, galloping on both sides, binary search on sorted side, sorting of smaller side
+	 */
+	static Stream<Arguments> withComparator() {
+		return Stream.of(
+				Arguments.of(500, true, 400, true),
+				Arguments.of(5000, true, 20, true),
+				Arguments.of(20, true, 5000, true),
+				Arguments.of(500, false, 400, true),
+				Arguments.of(500, true, 400, false),
+				Arguments.of(500, false, 400, false),
+				Arguments.of(400, false, 500, false),
+				Arguments.of(1, false, 0, false),
+				Arguments.of(0, true, 10, true)
+		);
+	}
+	
+	@ParameterizedTest
+	@MethodSource
+	void withComparator(int size1, boolean sorted1, int size2, boolean sorted2) {
+		Random random = new Random(size1 * 31 + size2);
+		List<Integer> c1 = randomList(random, size1, sorted1);
+		List<Integer> c2 = randomList(random, size2, sorted2);
+		assertThat(SetAlgebra.intersect(c1, c2, MODULO_COMPARATOR)).isEqualTo(expectedIntersection(c1, c2, MODULO_COMPARATOR));
+		assertThat(SetAlgebra.minus(c1, c2, MODULO_COMPARATOR)).isEqualTo(expectedDifference(c1, c2, MODULO_COMPARATOR));
+		assertThat(SetAlgebra.parallelIntersect(c1, c2, MODULO_COMPARATOR)).isEqualTo(expectedIntersection(c1, c2, MODULO_COMPARATOR));
+		assertThat(SetAlgebra.parallelMinus(c1, c2, MODULO_COMPARATOR)).isEqualTo(expectedDifference(c1, c2, MODULO_COMPARATOR));
+	}
+	
+	@Test
+	void withComparator_sortedSet() {
+		Random random = new Random(42);
+		TreeSet<Integer> c1 = new TreeSet<>(MODULO_COMPARATOR);
+		c1.addAll(randomList(random, 300, false));
+		List<Integer> c2 = randomList(random, 200, true);
+		assertThat(SetAlgebra.asSortedList(c1, MODULO_COMPARATOR)).containsExactlyElementsOf(c1);
+		assertThat(SetAlgebra.asSortedList(c1, Comparator.naturalOrder())).isNull();
+		assertThat(SetAlgebra.intersect(c1, c2, MODULO_COMPARATOR)).isEqualTo(expectedIntersection(c1, c2, MODULO_COMPARATOR));
+		assertThat(SetAlgebra.minus(c1, c2, MODULO_COMPARATOR)).isEqualTo(expectedDifference(c1, c2, MODULO_COMPARATOR));
+	}
+	
+	@Test
+	void withoutComparator() {
+		Random random = new Random(42);
+		List<Integer> small = randomList(random, 50, false);
+		List<Integer> large = new LinkedList<>(randomList(random, 2000, false));
+		Set<Integer> largeSet = new HashSet<>(large);
+		for (Collection<Integer> c2 : Arrays.asList(small, large, largeSet)) {
+			for (Collection<Integer> c1 : Arrays.asList(small, large)) {
+				Set<Integer> expectedIntersection = new HashSet<>(c1);
+				expectedIntersection.retainAll(new HashSet<>(c2));
+				Set<Integer> expectedDifference = new HashSet<>(c1);
+				expectedDifference.removeAll(new HashSet<>(c2));
+				assertThat(SetAlgebra.intersect(c1, c2)).isEqualTo(expectedIntersection);
+				assertThat(SetAlgebra.minus(c1, c2)).isEqualTo(expectedDifference);
+				assertThat(SetAlgebra.parallelIntersect(c1, c2)).isEqualTo(expectedIntersection);
+				assertThat(SetAlgebra.parallelMinus(c1, c2)).isEqualTo(expectedDifference);
+			}
+		}
+	}
+	
+	@Test
+	void minus_withComparator_largerFirstArgument_comparatorIsUsed() {
+		// former implementation used equals() in this case because of HashSet.removeAll(..) algorithm
+		List<Integer> c1 = Arrays.asList(1, 2, 3, 4);
+		List<Integer> c2 = Arrays.asList(1002);
+		assertThat(SetAlgebra.minus(c1, c2, MODULO_COMPARATOR)).containsExactlyInAnyOrder(1, 3, 4);
+	}
+	
+	@Test
+	void gallop() {
+		List<Integer> sorted = IntStream.range(0, 100).map(i -> i * 2).boxed().collect(Collectors.toCollection(ArrayList::new));
+		Comparator<Integer> naturalOrder = Comparator.naturalOrder();
+		assertThat(SetAlgebra.gallop(sorted, -1, 0, naturalOrder)).isEqualTo(0);
+		assertThat(SetAlgebra.gallop(sorted, 0, 0, naturalOrder)).isEqualTo(0);
+		assertThat(SetAlgebra.gallop(sorted, 1, 0, naturalOrder)).isEqualTo(1);
+		assertThat(SetAlgebra.gallop(sorted, 74, 10, naturalOrder)).isEqualTo(37);
+		assertThat(SetAlgebra.gallop(sorted, 75, 10, naturalOrder)).isEqualTo(38);
+		assertThat(SetAlgebra.gallop(sorted, 198, 0, naturalOrder)).isEqualTo(99);
+		assertThat(SetAlgebra.gallop(sorted, 199, 0, naturalOrder)).isEqualTo(100);
+		assertThat(SetAlgebra.gallop(sorted, 500, 99, naturalOrder)).isEqualTo(100);
+	}
+}
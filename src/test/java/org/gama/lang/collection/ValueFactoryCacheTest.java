@@ -0,0 +1,187 @@
+package org.gama.lang.collection;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.gama.lang.collection.ValueFactoryCache.EvictionPolicy;
+import org.gama.lang.collection.ValueFactoryCache.RemovalCause;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * @author Guillaume Mary
+ */
+class ValueFactoryCacheTest {
+	
+	@Test
+	void get_createsValueOnce() {
+		List<Integer> createdKeys = new ArrayList<>();
+		ValueFactoryCache<Integer, String> testInstance = new ValueFactoryCache<>(key -> {
+			createdKeys.add(key);
+			return String.valueOf(key);
+		}, 10);
+		assertThat(testInstance.get(1)).isEqualTo("1");
+		assertThat(testInstance.get(1)).isEqualTo("1");
+		assertThat(createdKeys).containsExactly(1);
+		assertThat(testInstance.getHitCount()).isEqualTo(1);
+		assertThat(testInstance.getMissCount()).isEqualTo(1);
+		assertThat(testInstance.getHitRate()).isEqualTo(0.5);
+	}
+	
+	@Test
+	void get_factoryReturnsNull_nothingIsCached() {
+		ValueFactoryCache<Integer, String> testInstance = new ValueFactoryCache<>(key -> null, 10);
+		assertThat(testInstance.get(1)).isNull();
+		assertThat(testInstance.containsKey(1)).isFalse();
+	}
+	
+	@ParameterizedTest
+	@EnumSource(EvictionPolicy.class)
+	void sizeIsBounded(EvictionPolicy evictionPolicy) {
+		ValueFactoryCache<Integer, String> testInstance = new ValueFactoryCache<Integer, String>(String::valueOf, 100)
+				.withEvictionPolicy(evictionPolicy);
+		for (int i = 0; i < 1000; i++) {
+			assertThat(testInstance.get(i % 300)).isEqualTo(String.valueOf(i % 300));
+			assertThat(testInstance.size()).isLessThanOrEqualTo(100);
+		}
+		assertThat(testInstance.getWeight()).isEqualTo(100);
+		assertThat(testInstance.getEvictionCount()).isEqualTo(testInstance.getMissCount() - 100);
+		for (int i = 0; i < 300; i++) {
+			testInstance.remove(i);
+		}
+		assertThat(testInstance.size()).isEqualTo(0);
+		assertThat(testInstance.getWeight()).isEqualTo(0);
+	}
+	
+	@Test
+	void lru_evictsLeastRecentlyUsed() {
+		List<Integer> evictedKeys = new ArrayList<>();
+		ValueFactoryCache<Integer, String> testInstance = new ValueFactoryCache<Integer, String>(String::valueOf, 3)
+				.withRemovalListener((key, value, cause) -> evictedKeys.add(key));
+		testInstance.get(1);
+		testInstance.get(2);
+		testInstance.get(3);
+		testInstance.get(1);
+		testInstance.get(4);
+		assertThat(evictedKeys).containsExactly(2);
+		assertThat(testInstance.toMap().keySet()).containsExactlyInAnyOrder(1, 3, 4);
+	}
+	
+	@Test
+	void lfu_evictsLeastFrequentlyUsed() {
+		List<Integer> evictedKeys = new ArrayList<>();
+		ValueFactoryCache<Integer, String> testInstance = new ValueFactoryCache<Integer, String>(String::valueOf, 3)
+				.withEvictionPolicy(EvictionPolicy.LFU)
+				.withRemovalListener((key, value, cause) -> evictedKeys.add(key));
+		testInstance.get(1);
+		testInstance.get(1);
+		testInstance.get(2);
+		testInstance.get(2);
+		testInstance.get(3);
+		testInstance.get(4);
+		// 3 is the least frequent, then 4 is since it's less frequent than 1 and 2, and the oldest among ones with frequency 1
+		testInstance.get(5);
+		assertThat(evictedKeys).containsExactly(3, 4);
+		assertThat(testInstance.toMap().keySet()).containsExactlyInAnyOrder(1, 2, 5);
+	}
+	
+	@Test
+	void tinyLfu_resistsToScans() {
+		ValueFactoryCache<Integer, String> testInstance = new ValueFactoryCache<Integer, String>(String::valueOf, 100)
+				.withEvictionPolicy(EvictionPolicy.TINY_LFU);
+		// popular keys
+		for (int round = 0; round < 5; round++) {
+			for (int i = 0; i < 50; i++) {
+				testInstance.get(i);
+			}
+		}
+		// a scan of keys read only once
+		for (int i = 1000; i < 2000; i++) {
+			testInstance.get(i);
+		}
+		long hitCount = testInstance.getHitCount();
+		for (int i = 0; i < 50; i++) {
+			testInstance.get(i);
+		}
+		// popular keys were kept, whereas LRU would have lost all of them
+		assertThat(testInstance.getHitCount() - hitCount).isEqualTo(50);
+	}
+	
+	@Test
+	void weigher_maximumIsComparedToWeightSum() {
+		List<String> removals = new ArrayList<>();
+		ValueFactoryCache<String, String> testInstance = new ValueFactoryCache<String, String>(key -> key, 10)
+				.withWeigher((key, value) -> value.length())
+				.withRemovalListener((key, value, cause) -> removals.add(key + " " + cause));
+		testInstance.get("aaaa");
+		testInstance.get("bbbb");
+		testInstance.get("cc");
+		assertThat(testInstance.getWeight()).isEqualTo(10);
+		testInstance.get("d");
+		assertThat(removals).containsExactly("aaaa SIZE");
+		// entry heavier than maximum is not kept
+		testInstance.get("eeeeeeeeeee");
+		assertThat(testInstance.containsKey("eeeeeeeeeee")).isFalse();
+		assertThat(testInstance.getWeight()).isEqualTo(7);
+		assertThatExceptionOfType(IllegalStateException.class).isThrownBy(() -> testInstance.withWeigher((key, value) -> 1));
+	}
+	
+	@Test
+	void expireAfterWrite() {
+		AtomicLong time = new AtomicLong();
+		List<String> removals = new ArrayList<>();
+		ValueFactoryCache<Integer, String> testInstance = new ValueFactoryCache<Integer, String>(key -> key + "@" + time.get(), 10)
+				.withTicker(time::get)
+				.withExpireAfterWrite(10, TimeUnit.NANOSECONDS)
+				.withRemovalListener((key, value, cause) -> removals.add(value + " " + cause));
+		assertThat(testInstance.get(1)).isEqualTo("1@0");
+		time.set(9);
+		assertThat(testInstance.get(1)).isEqualTo("1@0");
+		time.set(10);
+		assertThat(testInstance.getIfPresent(1)).isNull();
+		assertThat(testInstance.get(1)).isEqualTo("1@10");
+		assertThat(removals).containsExactly("1@0 EXPIRED");
+		assertThat(testInstance.getExpirationCount()).isEqualTo(1);
+	}
+	
+	@Test
+	void expireAfterAccess_cleanUp() {
+		AtomicLong time = new AtomicLong();
+		ValueFactoryCache<Integer, String> testInstance = new ValueFactoryCache<Integer, String>(String::valueOf, 10)
+				.withTicker(time::get)
+				.withExpireAfterAccess(10, TimeUnit.NANOSECONDS);
+		testInstance.get(1);
+		testInstance.get(2);
+		time.set(8);
+		// access delays expiration of 1
+		testInstance.get(1);
+		time.set(15);
+		assertThat(testInstance.toMap().keySet()).containsExactly(1);
+		assertThat(testInstance.size()).isEqualTo(2);
+		testInstance.cleanUp();
+		assertThat(testInstance.size()).isEqualTo(1);
+		assertThat(testInstance.getWeight()).isEqualTo(1);
+		assertThat(testInstance.getHitCount()).isEqualTo(1);
+	}
+	
+	@Test
+	void put_remove_clear_notifyListener() {
+		List<String> removals = new ArrayList<>();
+		ValueFactoryCache<Integer, String> testInstance = new ValueFactoryCache<Integer, String>(String::valueOf, 10)
+				.withRemovalListener((key, value, cause) -> removals.add(value + " " + cause));
+		testInstance.put(1, "a");
+		testInstance.put(1, "b");
+		testInstance.put(2, "c");
+		assertThat(testInstance.remove(2)).isEqualTo("c");
+		assertThat(testInstance.remove(2)).isNull();
+		testInstance.clear();
+		assertThat(removals).containsExactly("a REPLACED", "c EXPLICIT", "b EXPLICIT");
+		assertThat(testInstance.size()).isEqualTo(0);
+	}
+}
@@ -0,0 +1,97 @@
+package org.gama.lang.collection.primitive;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.PrimitiveIterator;
+
+import org.gama.lang.collection.Iterables;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * @author Guillaume Mary
+ */
+class IntListTest {
+	
+	@Test
+	void add_get_growsArray() {
+		IntList testInstance = new IntList();
+		for (int i = 0; i < 100; i++) {
+			testInstance.add(i);
+		}
+		assertThat(testInstance.size()).isEqualTo(100);
+		for (int i = 0; i < 100; i++) {
+			assertThat(testInstance.get(i)).isEqualTo(i);
+		}
+		assertThatExceptionOfType(IndexOutOfBoundsException.class).isThrownBy(() -> testInstance.get(100));
+	}
+	
+	@Test
+	void add_atIndex_removeAt_set() {
+		IntList testInstance = IntList.of(1, 3);
+		testInstance.add(1, 2);
+		testInstance.add(3, 4);
+		assertThat(testInstance.toArray()).containsExactly(1, 2, 3, 4);
+		assertThat(testInstance.removeAt(0)).isEqualTo(1);
+		assertThat(testInstance.set(2, 5)).isEqualTo(4);
+		assertThat(testInstance.toArray()).containsExactly(2, 3, 5);
+		assertThatExceptionOfType(IndexOutOfBoundsException.class).isThrownBy(() -> testInstance.add(4, 6));
+	}
+	
+	@Test
+	void indexOf_contains() {
+		IntList testInstance = IntList.of(1, 2, 1);
+		assertThat(testInstance.indexOf(1)).isEqualTo(0);
+		assertThat(testInstance.lastIndexOf(1)).isEqualTo(2);
+		assertThat(testInstance.indexOf(3)).isEqualTo(-1);
+		assertThat(testInstance.contains(2)).isTrue();
+	}
+	
+	@Test
+	void sort_binarySearch() {
+		IntList testInstance = IntList.of(5, -1, 3);
+		testInstance.sort();
+		assertThat(testInstance.toArray()).containsExactly(-1, 3, 5);
+		assertThat(testInstance.binarySearch(3)).isEqualTo(1);
+		assertThat(testInstance.binarySearch(4)).isEqualTo(-3);
+	}
+	
+	@Test
+	void iterator_stream() {
+		IntList testInstance = IntList.of(1, 2, 3);
+		PrimitiveIterator.OfInt iterator = testInstance.iterator();
+		assertThat(iterator.nextInt()).isEqualTo(1);
+		assertThat(iterator.nextInt()).isEqualTo(2);
+		assertThat(iterator.nextInt()).isEqualTo(3);
+		assertThat(iterator.hasNext()).isFalse();
+		assertThat(testInstance.stream().sum()).isEqualTo(6);
+	}
+	
+	@Test
+	void asList_isAModifiableView() {
+		IntList testInstance = IntList.of(1, 2, 3);
+		List<Integer> view = testInstance.asList();
+		assertThat(Iterables.copy(view)).containsExactly(1, 2, 3);
+		view.add(4);
+		view.remove(0);
+		assertThat(testInstance.toArray()).containsExactly(2, 3, 4);
+		testInstance.add(5);
+		assertThat(view).containsExactly(2, 3, 4, 5);
+		assertThat(view.hashCode()).isEqualTo(testInstance.hashCode());
+	}
+	
+	@Test
+	void equals_ignoresCapacity() {
+		IntList list1 = new IntList(100);
+		list1.addAll(1, 2);
+		IntList list2 = IntList.copyOf(Arrays.asList(1, 2));
+		assertThat(list1).isEqualTo(list2);
+		assertThat(list1.hashCode()).isEqualTo(Arrays.asList(1, 2).hashCode());
+		list2.clear();
+		assertThat(list2.isEmpty()).isTrue();
+		assertThat(list1).isNotEqualTo(list2);
+		assertThat(list1.toString()).isEqualTo("[1, 2]");
+	}
+}
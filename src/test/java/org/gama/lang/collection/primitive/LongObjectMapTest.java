@@ -0,0 +1,112 @@
+package org.gama.lang.collection.primitive;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.LongConsumer;
+import java.util.stream.Collectors;
+
+import org.gama.lang.collection.Iterables;
+import org.gama.lang.collection.Maps;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Guillaume Mary
+ */
+class LongObjectMapTest {
+	
+	@Test
+	void put_get_remove() {
+		LongObjectMap<String> testInstance = new LongObjectMap<>();
+		assertThat(testInstance.put(1, "a")).isNull();
+		assertThat(testInstance.put(1, "b")).isEqualTo("a");
+		assertThat(testInstance.put(2, null)).isNull();
+		assertThat(testInstance.get(1)).isEqualTo("b");
+		assertThat(testInstance.get(2)).isNull();
+		assertThat(testInstance.containsKey(2)).isTrue();
+		assertThat(testInstance.containsKey(3)).isFalse();
+		assertThat(testInstance.getOrDefault(3, "x")).isEqualTo("x");
+		assertThat(testInstance.size()).isEqualTo(2);
+		
+		assertThat(testInstance.remove(1)).isEqualTo("b");
+		assertThat(testInstance.remove(1)).isNull();
+		assertThat(testInstance.containsKey(1)).isFalse();
+		assertThat(testInstance.size()).isEqualTo(1);
+	}
+	
+	@Test
+	void zeroKeyIsSupported() {
+		LongObjectMap<String> testInstance = new LongObjectMap<>();
+		assertThat(testInstance.containsKey(0)).isFalse();
+		assertThat(testInstance.put(0, "zero")).isNull();
+		assertThat(testInstance.get(0)).isEqualTo("zero");
+		assertThat(testInstance.size()).isEqualTo(1);
+		assertThat(testInstance.toMap()).isEqualTo(Maps.asMap(0L, "zero"));
+		assertThat(testInstance.remove(0)).isEqualTo("zero");
+		assertThat(testInstance.isEmpty()).isTrue();
+	}
+	
+	@Test
+	void computeIfAbsent() {
+		LongObjectMap<String> testInstance = new LongObjectMap<>();
+		assertThat(testInstance.computeIfAbsent(3, String::valueOf)).isEqualTo("3");
+		assertThat(testInstance.computeIfAbsent(3, key -> "other")).isEqualTo("3");
+		assertThat(testInstance.computeIfAbsent(0, String::valueOf)).isEqualTo("0");
+		assertThat(testInstance.computeIfAbsent(4, key -> null)).isNull();
+		assertThat(testInstance.containsKey(4)).isFalse();
+		assertThat(testInstance.size()).isEqualTo(2);
+	}
+	
+	@Test
+	void behavesLikeHashMap_randomOperations() {
+		Random random = new Random(42);
+		LongObjectMap<String> testInstance = new LongObjectMap<>(4);
+		Map<Long, String> expected = new HashMap<>();
+		for (int i = 0; i < 100_000; i++) {
+			// small range to get many collisions and removals
+			long key = random.nextInt(2000) - 1000;
+			if (random.nextInt(3) != 0) {
+				assertThat(testInstance.put(key, "v" + i)).isEqualTo(expected.put(key, "v" + i));
+			} else {
+				assertThat(testInstance.remove(key)).isEqualTo(expected.remove(key));
+			}
+		}
+		assertThat(testInstance.size()).isEqualTo(expected.size());
+		assertThat(testInstance.toMap()).isEqualTo(expected);
+		assertThat(testInstance.hashCode()).isEqualTo(expected.hashCode());
+		assertThat(testInstance.keyStream().boxed().collect(Collectors.toSet())).isEqualTo(expected.keySet());
+		assertThat(Iterables.copy(testInstance.values())).containsExactlyInAnyOrderElementsOf(expected.values());
+	}
+	
+	@Test
+	void keyIterator_values_areInSameOrder() {
+		LongObjectMap<String> testInstance = new LongObjectMap<>();
+		for (long i = 0; i < 100; i++) {
+			testInstance.put(i, String.valueOf(i));
+		}
+		Map<Long, String> iterated = new HashMap<>();
+		Iterator<String> values = testInstance.values().iterator();
+		testInstance.keyIterator().forEachRemaining((LongConsumer) key -> iterated.put(key, values.next()));
+		assertThat(iterated).isEqualTo(testInstance.toMap());
+	}
+	
+	@Test
+	void equals_copyOf() {
+		Map<Long, String> source = Maps.asMap(1L, "a").add(0L, "b").add(100L, "c");
+		LongObjectMap<String> testInstance = LongObjectMap.copyOf(source);
+		LongObjectMap<String> other = new LongObjectMap<>();
+		other.put(100, "c");
+		other.put(1, "a");
+		other.put(0, "b");
+		assertThat(testInstance).isEqualTo(other);
+		assertThat(testInstance.hashCode()).isEqualTo(other.hashCode());
+		other.put(0, "x");
+		assertThat(testInstance).isNotEqualTo(other);
+		other.clear();
+		assertThat(other.isEmpty()).isTrue();
+		assertThat(other.toString()).isEqualTo("{}");
+	}
+}
@@ -0,0 +1,109 @@
+package org.gama.lang.collection.primitive;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.gama.lang.collection.Iterables;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Guillaume Mary
+ */
+class LongSetTest {
+	
+	@Test
+	void add_contains_remove() {
+		LongSet testInstance = new LongSet();
+		assertThat(testInstance.add(42)).isTrue();
+		assertThat(testInstance.add(42)).isFalse();
+		assertThat(testInstance.add(-7)).isTrue();
+		assertThat(testInstance.contains(42)).isTrue();
+		assertThat(testInstance.contains(-7)).isTrue();
+		assertThat(testInstance.contains(17)).isFalse();
+		assertThat(testInstance.size()).isEqualTo(2);
+		
+		assertThat(testInstance.remove(42)).isTrue();
+		assertThat(testInstance.remove(42)).isFalse();
+		assertThat(testInstance.contains(42)).isFalse();
+		assertThat(testInstance.size()).isEqualTo(1);
+	}
+	
+	@Test
+	void zeroIsSupported() {
+		LongSet testInstance = new LongSet();
+		assertThat(testInstance.contains(0)).isFalse();
+		assertThat(testInstance.add(0)).isTrue();
+		assertThat(testInstance.add(0)).isFalse();
+		assertThat(testInstance.contains(0)).isTrue();
+		assertThat(testInstance.size()).isEqualTo(1);
+		assertThat(testInstance.toArray()).containsExactly(0);
+		assertThat(Iterables.copy(testInstance.asIterable())).containsExactly(0L);
+		assertThat(testInstance.remove(0)).isTrue();
+		assertThat(testInstance.isEmpty()).isTrue();
+	}
+	
+	@Test
+	void growsBeyondExpectedSize() {
+		LongSet testInstance = new LongSet(2);
+		for (long i = 1; i <= 1000; i++) {
+			testInstance.add(i);
+		}
+		assertThat(testInstance.size()).isEqualTo(1000);
+		for (long i = 1; i <= 1000; i++) {
+			assertThat(testInstance.contains(i)).isTrue();
+		}
+		assertThat(testInstance.contains(1001)).isFalse();
+	}
+	
+	@Test
+	void behavesLikeHashSet_randomOperations() {
+		Random random = new Random(42);
+		LongSet testInstance = new LongSet();
+		Set<Long> expected = new HashSet<>();
+		for (int i = 0; i < 100_000; i++) {
+			// small range to get many collisions and removals
+			long value = random.nextInt(2000) - 1000;
+			if (random.nextBoolean()) {
+				assertThat(testInstance.add(value)).isEqualTo(expected.add(value));
+			} else {
+				assertThat(testInstance.remove(value)).isEqualTo(expected.remove(value));
+			}
+		}
+		assertThat(testInstance.size()).isEqualTo(expected.size());
+		assertThat(Iterables.copy(testInstance.asIterable())).containsExactlyInAnyOrderElementsOf(expected);
+		assertThat(testInstance.stream().boxed().collect(Collectors.toSet())).isEqualTo(expected);
+		assertThat(testInstance.hashCode()).isEqualTo(expected.hashCode());
+	}
+	
+	@Test
+	void equals_dependsOnValuesOnly() {
+		LongSet set1 = LongSet.of(1, 2, 3, 0);
+		LongSet set2 = new LongSet(1000);
+		set2.addAll(3, 0, 2, 1);
+		assertThat(set1).isEqualTo(set2);
+		assertThat(set1.hashCode()).isEqualTo(set2.hashCode());
+		set2.remove(0);
+		assertThat(set1).isNotEqualTo(set2);
+	}
+	
+	@Test
+	void clear() {
+		LongSet testInstance = LongSet.of(1, 2, 0);
+		testInstance.clear();
+		assertThat(testInstance.isEmpty()).isTrue();
+		assertThat(testInstance.contains(1)).isFalse();
+		assertThat(testInstance.contains(0)).isFalse();
+		assertThat(testInstance.iterator().hasNext()).isFalse();
+	}
+	
+	@Test
+	void copyOf_toString() {
+		LongSet testInstance = LongSet.copyOf(Arrays.asList(5L, 5L));
+		assertThat(testInstance.toString()).isEqualTo("[5]");
+	}
+}
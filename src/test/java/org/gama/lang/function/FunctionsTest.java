@@ -1,9 +1,12 @@
 package org.gama.lang.function;
 
+import java.io.IOException;
+import java.lang.reflect.Method;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
 
+import org.gama.lang.Reflections.InvokationRuntimeException;
 import org.junit.jupiter.api.Test;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -35,6 +38,68 @@ class FunctionsTest {
 		assertThat(target.toString()).isEqualTo("1");
 	}
 	
+	@Test
+	void toFunction_methodArg_primitiveReturnType() throws NoSuchMethodException {
+		Function<String, Integer> methodAsFunction = Functions.toFunction(String.class.getDeclaredMethod("length"));
+		assertThat(methodAsFunction.apply("hello")).isEqualTo(5);
+	}
+	
+	@Test
+	void toFunction_methodArg_privateMethod() throws NoSuchMethodException {
+		Function<Toto, String> methodAsFunction = Functions.toFunction(Toto.class.getDeclaredMethod("getName"));
+		assertThat(methodAsFunction.apply(new Toto("hello"))).isEqualTo("hello");
+	}
+	
+	@Test
+	void toFunction_methodArg_methodThrowsException_exceptionIsPropagated() throws NoSuchMethodException {
+		Function<String, Character> methodAsFunction = Functions.toFunction(Toto.class.getDeclaredMethod("fail"));
+		assertThatExceptionOfType(IllegalStateException.class).isThrownBy(() -> methodAsFunction.apply("hello"));
+		Function<String, Character> publicMethodAsFunction = Functions.toFunction(String.class.getDeclaredMethod("toLowerCase"));
+		assertThatExceptionOfType(NullPointerException.class).isThrownBy(() -> publicMethodAsFunction.apply(null));
+	}
+	
+	@Test
+	void toReflectiveFunction_toReflectiveBiConsumer_methodThrowsException_exceptionIsPropagatedAsIs() throws NoSuchMethodException {
+		// reflection is used for methods that can't be accessed through a MethodHandle, it must behave the same way
+		Method fail = Toto.class.getDeclaredMethod("fail");
+		fail.setAccessible(true);
+		Function<Toto, Character> methodAsFunction = Functions.toReflectiveFunction(fail);
+		assertThatExceptionOfType(IllegalStateException.class).isThrownBy(() -> methodAsFunction.apply(null));
+		
+		Method check = Toto.class.getDeclaredMethod("check", String.class);
+		check.setAccessible(true);
+		BiConsumer<Toto, String> methodAsBiConsumer = Functions.toReflectiveBiConsumer(check);
+		assertThatExceptionOfType(IllegalArgumentException.class).isThrownBy(() -> methodAsBiConsumer.accept(new Toto("hello"), null))
+				.withMessage("null value");
+		
+		Method checkedFail = Toto.class.getDeclaredMethod("checkedFail");
+		checkedFail.setAccessible(true);
+		Function<Toto, Object> checkedMethodAsFunction = Functions.toReflectiveFunction(checkedFail);
+		assertThatExceptionOfType(InvokationRuntimeException.class).isThrownBy(() -> checkedMethodAsFunction.apply(new Toto("hello")))
+				.withCauseInstanceOf(IOException.class);
+	}
+	
+	@Test
+	void toFunction_toBiConsumer_methodArg_resultIsCachedPerMethod() throws NoSuchMethodException {
+		// Method instances are copies, hence the cache must rely on their equality
+		assertThat(Functions.<String, Integer>toFunction(String.class.getDeclaredMethod("length")))
+				.isSameAs(Functions.<String, Integer>toFunction(String.class.getDeclaredMethod("length")));
+		assertThat(Functions.<Toto, String>toFunction(Toto.class.getDeclaredMethod("getName")))
+				.isSameAs(Functions.<Toto, String>toFunction(Toto.class.getDeclaredMethod("getName")));
+		assertThat(Functions.<StringBuilder, Integer>toBiConsumer(StringBuilder.class.getDeclaredMethod("append", int.class)))
+				.isSameAs(Functions.<StringBuilder, Integer>toBiConsumer(StringBuilder.class.getDeclaredMethod("append", int.class)));
+		assertThat(Functions.<Toto, String>toBiConsumer(Toto.class.getDeclaredMethod("setName", String.class)))
+				.isSameAs(Functions.<Toto, String>toBiConsumer(Toto.class.getDeclaredMethod("setName", String.class)));
+	}
+	
+	@Test
+	void toBiConsumer_methodArg_privateMethod() throws NoSuchMethodException {
+		BiConsumer<Toto, String> methodAsBiConsumer = Functions.toBiConsumer(Toto.class.getDeclaredMethod("setName", String.class));
+		Toto target = new Toto("hello");
+		methodAsBiConsumer.accept(target, "world");
+		assertThat(target.getName()).isEqualTo("world");
+	}
+	
 	@Test
 	void asPredicate() {
 		Predicate<StringBuilder> methodAsBiConsumer = Functions.asPredicate(StringBuilder::toString, "1"::equals);
@@ -111,4 +176,34 @@ class FunctionsTest {
 		assertThatExceptionOfType(NullPointerException.class).isThrownBy(() -> Functions.chain(Object::toString, Object::toString).andThen(String::valueOf).apply(null));
 	}
 	
-}
\ No newline at end of file
+	private static class Toto {
+		
+		private String name;
+		
+		private Toto(String name) {
+			this.name = name;
+		}
+		
+		private String getName() {
+			return name;
+		}
+		
+		private void setName(String name) {
+			this.name = name;
+		}
+		
+		private static char fail() {
+			throw new IllegalStateException();
+		}
+		
+		private void check(String value) {
+			if (value == null) {
+				throw new IllegalArgumentException("null value");
+			}
+		}
+		
+		private Object checkedFail() throws IOException {
+			throw new IOException();
+		}
+	}
+}
@@ -0,0 +1,153 @@
+package org.gama.lang.io;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * @author Guillaume Mary
+ */
+public class BufferPoolTest {
+	
+	@Test
+	public void acquire_givesBufferOfSizeClass() {
+		BufferPool testInstance = new BufferPool(false, 16, 128, 2, 2);
+		ByteBuffer buffer = testInstance.acquire(20);
+		assertThat(buffer.capacity()).isEqualTo(32);
+		assertThat(buffer.position()).isEqualTo(0);
+		assertThat(buffer.limit()).isEqualTo(20);
+		assertThat(buffer.isDirect()).isFalse();
+		assertThat(testInstance.acquire(1).capacity()).isEqualTo(16);
+		assertThat(testInstance.acquire(128).capacity()).isEqualTo(128);
+		assertThat(testInstance.getAllocationCount()).isEqualTo(3);
+		// larger than maximum capacity : not pooled
+		assertThat(testInstance.acquire(129).capacity()).isEqualTo(129);
+		assertThat(testInstance.getUnpooledAllocationCount()).isEqualTo(1);
+	}
+	
+	@Test
+	public void acquire_direct() {
+		BufferPool testInstance = new BufferPool(true, 16, 128, 2, 2);
+		assertThat(testInstance.acquire(20).isDirect()).isTrue();
+		assertThatExceptionOfType(UnsupportedOperationException.class).isThrownBy(() -> testInstance.acquireArray(20));
+	}
+	
+	@Test
+	public void release_bufferIsReused() {
+		BufferPool testInstance = new BufferPool(false, 16, 128, 2, 2);
+		ByteBuffer buffer = testInstance.acquire(20);
+		buffer.put((byte) 1);
+		testInstance.release(buffer);
+		ByteBuffer reused = testInstance.acquire(30);
+		assertThat(reused).isSameAs(buffer);
+		// buffer is reset
+		assertThat(reused.position()).isEqualTo(0);
+		assertThat(reused.limit()).isEqualTo(30);
+		assertThat(testInstance.getThreadCacheHitCount()).isEqualTo(1);
+		assertThat(testInstance.getAllocationCount()).isEqualTo(1);
+	}
+	
+	@Test
+	public void release_array() {
+		BufferPool testInstance = new BufferPool(false, 16, 128, 2, 2);
+		byte[] array = testInstance.acquireArray(20);
+		assertThat(array).hasSize(32);
+		testInstance.release(array);
+		assertThat(testInstance.acquireArray(32)).isSameAs(array);
+	}
+	
+	@Test
+	public void release_threadCacheIsFull_bufferGoesToSharedCacheThenIsDiscarded() {
+		BufferPool testInstance = new BufferPool(false, 16, 128, 1, 1);
+		ByteBuffer buffer1 = testInstance.acquire(16);
+		ByteBuffer buffer2 = testInstance.acquire(16);
+		ByteBuffer buffer3 = testInstance.acquire(16);
+		testInstance.release(buffer1);
+		testInstance.release(buffer2);
+		testInstance.release(buffer3);
+		assertThat(testInstance.getDiscardCount()).isEqualTo(1);
+		assertThat(testInstance.acquire(16)).isSameAs(buffer1);
+		assertThat(testInstance.acquire(16)).isSameAs(buffer2);
+		assertThat(testInstance.getThreadCacheHitCount()).isEqualTo(1);
+		assertThat(testInstance.getSharedCacheHitCount()).isEqualTo(1);
+	}
+	
+	@Test
+	public void release_sharedCacheIsUsedByOtherThreads() throws Exception {
+		BufferPool testInstance = new BufferPool(false, 16, 128, 0, 4);
+		ByteBuffer buffer = testInstance.acquire(16);
+		testInstance.release(buffer);
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			Future<ByteBuffer> reused = executor.submit(() -> testInstance.acquire(16));
+			assertThat(reused.get()).isSameAs(buffer);
+		} finally {
+			executor.shutdown();
+		}
+	}
+	
+	@Test
+	public void release_notPoolableBuffer_isDiscarded() {
+		BufferPool testInstance = new BufferPool(false, 16, 128, 2, 2);
+		testInstance.release(testInstance.acquire(200));
+		testInstance.release(ByteBuffer.allocate(20));
+		testInstance.release(ByteBuffer.allocateDirect(32));
+		assertThat(testInstance.getDiscardCount()).isEqualTo(3);
+		assertThat(testInstance.acquire(20).capacity()).isEqualTo(32);
+		assertThat(testInstance.getAllocationCount()).isEqualTo(1);
+	}
+	
+	@Test
+	public void leakDetection() {
+		BufferPool testInstance = new BufferPool(false, 16, 128, 2, 2).withLeakDetection(true);
+		ByteBuffer buffer1 = testInstance.acquire(16);
+		byte[] array = testInstance.acquireArray(16);
+		assertThat(testInstance.getLeaks()).hasSize(2);
+		assertThat(testInstance.getInUseCount()).isEqualTo(2);
+		assertThatExceptionOfType(IllegalStateException.class).isThrownBy(testInstance::checkNoLeak)
+				.withMessage("2 buffer(s) not released")
+				.withCauseInstanceOf(Throwable.class);
+		testInstance.release(buffer1);
+		testInstance.release(array);
+		testInstance.checkNoLeak();
+		// double release and foreign buffers are detected
+		assertThatExceptionOfType(IllegalStateException.class).isThrownBy(() -> testInstance.release(buffer1));
+		assertThatExceptionOfType(IllegalStateException.class).isThrownBy(() -> testInstance.release(ByteBuffer.allocate(16)));
+	}
+	
+	@Test
+	public void leakDetection_enabledWhileBuffersAreInUse_theirReleaseIsAccepted() {
+		BufferPool testInstance = new BufferPool(false, 16, 128, 2, 2);
+		ByteBuffer untracked = testInstance.acquire(16);
+		testInstance.withLeakDetection(true);
+		ByteBuffer tracked = testInstance.acquire(16);
+		assertThat(testInstance.getLeaks()).hasSize(1);
+		testInstance.release(untracked);
+		testInstance.release(tracked);
+		testInstance.checkNoLeak();
+		// only buffers in use at activation time are accepted
+		assertThatExceptionOfType(IllegalStateException.class).isThrownBy(() -> testInstance.release(ByteBuffer.allocate(16)));
+	}
+	
+	@Test
+	public void leakDetection_off_leaksAreNotTracked() {
+		BufferPool testInstance = new BufferPool(false, 16, 128, 2, 2);
+		testInstance.acquire(16);
+		assertThat(testInstance.getLeaks()).isEmpty();
+		testInstance.checkNoLeak();
+		assertThat(testInstance.getInUseCount()).isEqualTo(1);
+	}
+	
+	@Test
+	public void constructor_invalidArguments_throwsException() {
+		assertThatExceptionOfType(IllegalArgumentException.class).isThrownBy(() -> new BufferPool(false, 0, 128, 2, 2));
+		assertThatExceptionOfType(IllegalArgumentException.class).isThrownBy(() -> new BufferPool(false, 256, 128, 2, 2));
+		assertThatExceptionOfType(IllegalArgumentException.class).isThrownBy(() -> new BufferPool(false, 16, 128, -1, 2));
+	}
+}
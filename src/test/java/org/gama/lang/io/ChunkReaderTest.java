@@ -0,0 +1,245 @@
+package org.gama.lang.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ReadOnlyBufferException;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * @author Guillaume Mary
+ */
+public class ChunkReaderTest {
+	
+	private ExecutorService executor;
+	
+	@BeforeEach
+	public void createExecutor() {
+		executor = Executors.newSingleThreadExecutor();
+	}
+	
+	@AfterEach
+	public void shutdownExecutor() throws InterruptedException {
+		executor.shutdown();
+		executor.awaitTermination(10, TimeUnit.SECONDS);
+	}
+	
+	private static byte[] randomBytes(int size) {
+		byte[] result = new byte[size];
+		new Random(42).nextBytes(result);
+		return result;
+	}
+	
+	private static byte[] readAll(ChunkReader testInstance) {
+		ByteArrayOutputStream result = new ByteArrayOutputStream();
+		while (testInstance.hasNext()) {
+			ByteBuffer chunk = testInstance.next();
+			byte[] bytes = new byte[chunk.remaining()];
+			chunk.get(bytes);
+			result.write(bytes, 0, bytes.length);
+		}
+		return result.toByteArray();
+	}
+	
+	@ParameterizedTest
+	@ValueSource(strings = { "false", "true" })
+	public void next_givesChunksOfChunkSize(boolean direct) {
+		BufferPool bufferPool = new BufferPool(direct, 16, 1024, 2, 2).withLeakDetection(true);
+		ChunkReader testInstance = new ChunkReader(new ByteArrayInputStream(new byte[] { 0, 1, 2, 3, 4 }), 2, bufferPool);
+		ByteBuffer chunk = testInstance.next();
+		assertThat(chunk.isReadOnly()).isTrue();
+		assertThat(chunk.remaining()).isEqualTo(2);
+		assertThat(chunk.get(0)).isEqualTo((byte) 0);
+		assertThat(chunk.get(1)).isEqualTo((byte) 1);
+		assertThatExceptionOfType(ReadOnlyBufferException.class).isThrownBy(() -> chunk.put((byte) 9));
+		assertThat(testInstance.next().remaining()).isEqualTo(2);
+		ByteBuffer lastChunk = testInstance.next();
+		assertThat(lastChunk.remaining()).isEqualTo(1);
+		assertThat(lastChunk.get(0)).isEqualTo((byte) 4);
+		assertThat(testInstance.hasNext()).isFalse();
+		assertThatExceptionOfType(NoSuchElementException.class).isThrownBy(testInstance::next);
+		testInstance.close();
+		bufferPool.checkNoLeak();
+	}
+	
+	@Test
+	public void hasNext_readsAheadWithoutOverwritingCurrentChunk() {
+		ChunkReader testInstance = new ChunkReader(new ByteArrayInputStream(new byte[] { 0, 1, 2, 3 }), 2);
+		ByteBuffer chunk = testInstance.next();
+		assertThat(testInstance.hasNext()).isTrue();
+		assertThat(chunk.get(0)).isEqualTo((byte) 0);
+		assertThat(chunk.get(1)).isEqualTo((byte) 1);
+	}
+	
+	@Test
+	public void hasNext_streamOfChunkSizeMultiple_signalsEndOfStream() {
+		ChunkReader testInstance = new ChunkReader(new ByteArrayInputStream(new byte[] { 0, 1, 2, 3 }), 2);
+		testInstance.next();
+		testInstance.next();
+		assertThat(testInstance.hasNext()).isFalse();
+		assertThat(new ChunkReader(new ByteArrayInputStream(new byte[0]), 2).hasNext()).isFalse();
+	}
+	
+	@Test
+	public void hasNext_streamWithPartialReads_chunksAreFilled() {
+		InputStream source = new FilterInputStream(new ByteArrayInputStream(new byte[] { 0, 1, 2, 3, 4 })) {
+			@Override
+			public int read(byte[] b, int off, int len) throws IOException {
+				return super.read(b, off, Math.min(1, len));
+			}
+		};
+		ChunkReader testInstance = new ChunkReader(source, 3);
+		assertThat(testInstance.next().remaining()).isEqualTo(3);
+		assertThat(testInstance.next().remaining()).isEqualTo(2);
+		assertThat(testInstance.hasNext()).isFalse();
+	}
+	
+	@Test
+	public void hasNext_streamError_throwsUncheckedIOException() {
+		InputStream source = new InputStream() {
+			@Override
+			public int read() throws IOException {
+				throw new IOException("broken");
+			}
+		};
+		assertThatExceptionOfType(UncheckedIOException.class).isThrownBy(() -> new ChunkReader(source, 2).hasNext())
+				.withMessageContaining("broken");
+	}
+	
+	@Test
+	public void hasNext_afterStreamError_throwsItAgainWithoutReading() {
+		int[] readCount = new int[1];
+		InputStream source = new InputStream() {
+			@Override
+			public int read() throws IOException {
+				readCount[0]++;
+				throw new IOException("broken");
+			}
+		};
+		BufferPool bufferPool = new BufferPool(false, 16, 1024, 2, 2).withLeakDetection(true);
+		ChunkReader testInstance = new ChunkReader(source, 2, bufferPool);
+		assertThatExceptionOfType(UncheckedIOException.class).isThrownBy(testInstance::hasNext).withMessageContaining("broken");
+		assertThatExceptionOfType(UncheckedIOException.class).isThrownBy(testInstance::hasNext).withMessageContaining("broken");
+		assertThatExceptionOfType(UncheckedIOException.class).isThrownBy(testInstance::next).withMessageContaining("broken");
+		assertThat(readCount[0]).isEqualTo(1);
+		testInstance.close();
+		bufferPool.checkNoLeak();
+	}
+	
+	@Test
+	public void close_readerCantBeUsedAnymore() {
+		BufferPool bufferPool = new BufferPool(false, 16, 1024, 2, 2).withLeakDetection(true);
+		ChunkReader testInstance = new ChunkReader(new ByteArrayInputStream(new byte[] { 0, 1, 2, 3, 4 }), 2, bufferPool);
+		testInstance.next();
+		testInstance.close();
+		bufferPool.checkNoLeak();
+		assertThatExceptionOfType(IllegalStateException.class).isThrownBy(testInstance::hasNext);
+		// closing twice doesn't release buffers twice
+		testInstance.close();
+	}
+	
+	@ParameterizedTest
+	@ValueSource(strings = { "false", "true" })
+	public void async_givesWholeContent(boolean direct) throws InterruptedException {
+		byte[] content = randomBytes(100_000);
+		BufferPool bufferPool = new BufferPool(direct, 16, 1024, 4, 4).withLeakDetection(true);
+		try (ChunkReader testInstance = ChunkReader.async(new ByteArrayInputStream(content), 1000, 3, bufferPool, executor)) {
+			assertThat(readAll(testInstance)).isEqualTo(content);
+		}
+		shutdownExecutor();
+		bufferPool.checkNoLeak();
+	}
+	
+	@Test
+	public void async_streamError_isThrownAfterPreviousChunks() {
+		InputStream source = new InputStream() {
+			private int readBytesCount = 0;
+			
+			@Override
+			public int read() throws IOException {
+				if (readBytesCount++ < 4) {
+					return 1;
+				}
+				throw new IOException("broken");
+			}
+			
+			@Override
+			public int read(byte[] b, int off, int len) throws IOException {
+				// reading byte per byte to be given what was read before the error
+				int result = read();
+				b[off] = (byte) result;
+				return 1;
+			}
+		};
+		try (ChunkReader testInstance = ChunkReader.async(source, 2, 2, BufferPool.HEAP, executor)) {
+			assertThat(testInstance.next().remaining()).isEqualTo(2);
+			assertThat(testInstance.next().remaining()).isEqualTo(2);
+			assertThatExceptionOfType(UncheckedIOException.class).isThrownBy(testInstance::hasNext)
+					.withMessageContaining("broken");
+			// later calls don't wait for a chunk that will never come
+			assertThatExceptionOfType(UncheckedIOException.class).isThrownBy(testInstance::hasNext)
+					.withMessageContaining("broken");
+			assertThatExceptionOfType(UncheckedIOException.class).isThrownBy(testInstance::next)
+					.withMessageContaining("broken");
+		}
+	}
+	
+	@Test
+	public void async_closeWhileBackgroundTaskWaitsForBuffer_buffersAreReleased() throws InterruptedException {
+		byte[] content = randomBytes(10_000);
+		BufferPool bufferPool = new BufferPool(false, 16, 1024, 4, 4).withLeakDetection(true);
+		ChunkReader testInstance = ChunkReader.async(new ByteArrayInputStream(content), 100, 2, bufferPool, executor);
+		testInstance.next();
+		testInstance.close();
+		shutdownExecutor();
+		assertThat(executor.isTerminated()).isTrue();
+		bufferPool.checkNoLeak();
+	}
+	
+	@Test
+	public void async_readsAheadWhileCallerProcessesChunk() throws InterruptedException {
+		CountDownLatch secondChunkRead = new CountDownLatch(1);
+		InputStream source = new FilterInputStream(new ByteArrayInputStream(new byte[] { 0, 1, 2, 3 })) {
+			private int readCount = 0;
+			
+			@Override
+			public int read(byte[] b, int off, int len) throws IOException {
+				int result = super.read(b, off, len);
+				if (++readCount == 2) {
+					secondChunkRead.countDown();
+				}
+				return result;
+			}
+		};
+		try (ChunkReader testInstance = ChunkReader.async(source, 2, 3, BufferPool.HEAP, executor)) {
+			testInstance.next();
+			// second chunk is read without any call to the reader
+			assertThat(secondChunkRead.await(10, TimeUnit.SECONDS)).isTrue();
+		}
+	}
+	
+	@Test
+	public void constructor_invalidArguments_throwsException() {
+		assertThatExceptionOfType(IllegalArgumentException.class).isThrownBy(() -> new ChunkReader(new ByteArrayInputStream(new byte[0]), 0));
+		assertThatExceptionOfType(IllegalArgumentException.class)
+				.isThrownBy(() -> ChunkReader.async(new ByteArrayInputStream(new byte[0]), 2, 1, BufferPool.HEAP, executor));
+	}
+}
@@ -1,6 +1,15 @@
 package org.gama.lang.io;
 
 import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.NoSuchElementException;
@@ -10,6 +19,7 @@ import org.junit.jupiter.api.Test;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 /**
  * @author Guillaume Mary
@@ -34,4 +44,117 @@ public class IOsTest {
 		assertThatExceptionOfType(NoSuchElementException.class).isThrownBy(testInstance::next);
 	}
 	
-}
\ No newline at end of file
+	@Test
+	public void readFully() throws IOException {
+		assertThat(IOs.readFully(new ByteArrayInputStream(new byte[] { 0, 1, 2, 3, 4 }), 3)).isEqualTo(new byte[] { 0, 1, 2 });
+		assertThat(IOs.readFully(new ByteArrayInputStream(new byte[] {}), 0)).isEmpty();
+	}
+	
+	@Test
+	public void readFully_streamTooShort_throwsException() {
+		assertThatExceptionOfType(EOFException.class)
+				.isThrownBy(() -> IOs.readFully(new ByteArrayInputStream(new byte[] { 0, 1 }), 3))
+				.withMessage("1 bytes are missing");
+	}
+	
+	@Test
+	public void copy_fileStreams_nonRegularFile_copiesWholeContent() throws IOException {
+		// /proc files have a size of 0 whereas they have content
+		Path source = Paths.get("/proc/self/status");
+		assumeTrue(Files.isReadable(source));
+		Path target = Files.createTempFile("IOsTest", ".tgt");
+		try {
+			try (FileInputStream inputStream = new FileInputStream(source.toFile());
+				 FileOutputStream outputStream = new FileOutputStream(target.toFile())) {
+				IOs.copy(inputStream, outputStream, 1024);
+			}
+			assertThat(new String(Files.readAllBytes(target))).startsWith("Name:").contains("Pid:");
+		} finally {
+			Files.delete(target);
+		}
+	}
+	
+	@Test
+	public void copy_fileStreams() throws IOException {
+		Path source = Files.createTempFile("IOsTest", ".src");
+		Path target = Files.createTempFile("IOsTest", ".tgt");
+		try {
+			Files.write(source, new byte[] { 0, 1, 2, 3, 4 });
+			try (FileInputStream inputStream = new FileInputStream(source.toFile());
+				 FileOutputStream outputStream = new FileOutputStream(target.toFile())) {
+				// streams positions must follow the copy
+				assertThat(inputStream.read()).isEqualTo(0);
+				outputStream.write(9);
+				IOs.copy(inputStream, outputStream, 1024);
+				assertThat(inputStream.read()).isEqualTo(-1);
+				outputStream.write(8);
+			}
+			assertThat(Files.readAllBytes(target)).isEqualTo(new byte[] { 9, 1, 2, 3, 4, 8 });
+		} finally {
+			Files.delete(source);
+			Files.delete(target);
+		}
+	}
+	
+	@Test
+	public void testByteIterator_withBufferPool_buffersAreReleasedAtEndOfStream() {
+		BufferPool bufferPool = new BufferPool(false, 2, 16, 2, 2).withLeakDetection(true);
+		List<Byte> result = new ArrayList<>();
+		InputStreamIterator testInstance = new InputStreamIterator(new ByteArrayInputStream(new byte[] { 0, 1, 2, 3, 4 }), 2, bufferPool);
+		assertThat(bufferPool.getLeaks()).hasSize(2);
+		testInstance.forEachRemaining(bytes -> {
+			for (Byte aByte : bytes) {
+				result.add(aByte);
+			}
+		});
+		assertThat(result).containsExactly((byte) 0, (byte) 1, (byte) 2, (byte) 3, (byte) 4);
+		bufferPool.checkNoLeak();
+		assertThat(testInstance.hasNext()).isFalse();
+	}
+	
+	@Test
+	public void testByteIterator_withBufferPool_buffersAreReleasedOnClose() {
+		BufferPool bufferPool = new BufferPool(false, 2, 16, 2, 2).withLeakDetection(true);
+		try (InputStreamIterator testInstance = new InputStreamIterator(new ByteArrayInputStream(new byte[] { 0, 1, 2, 3, 4 }), 2, bufferPool)) {
+			testInstance.next();
+		}
+		bufferPool.checkNoLeak();
+	}
+	
+	@Test
+	public void testByteIterator_packetsAreNotOverwritten() {
+		InputStreamIterator testInstance = new InputStreamIterator(new ByteArrayInputStream(new byte[] { 0, 1, 2, 3, 4 }), 2);
+		byte[] packet1 = testInstance.next();
+		byte[] packet2 = testInstance.next();
+		byte[] packet3 = testInstance.next();
+		assertThat(testInstance.hasNext()).isFalse();
+		assertThat(packet1).containsExactly(0, 1);
+		assertThat(packet2).containsExactly(2, 3);
+		assertThat(packet3).containsExactly(4);
+	}
+	
+	@Test
+	public void testByteIterator_streamWithoutAvailableBytes_isReadUntilItsEnd() {
+		// like sockets, pipes or compressed streams, which can't tell how many bytes can be read without blocking
+		InputStream source = new FilterInputStream(new ByteArrayInputStream(new byte[] { 0, 1, 2, 3, 4 })) {
+			@Override
+			public int available() {
+				return 0;
+			}
+			
+			@Override
+			public int read(byte[] b, int off, int len) throws IOException {
+				// giving bytes one by one
+				return super.read(b, off, Math.min(1, len));
+			}
+		};
+		List<Byte> result = new ArrayList<>();
+		for (byte[] bytes : InputStreamIterator.iterable(source, 2)) {
+			assertThat(bytes.length).isLessThanOrEqualTo(2);
+			for (Byte aByte : bytes) {
+				result.add(aByte);
+			}
+		}
+		assertThat(result).containsExactly((byte) 0, (byte) 1, (byte) 2, (byte) 3, (byte) 4);
+	}
+}
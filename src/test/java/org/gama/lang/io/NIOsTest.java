@@ -0,0 +1,203 @@
+package org.gama.lang.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * @author Guillaume Mary
+ */
+public class NIOsTest {
+	
+	private Path source;
+	private Path target;
+	private byte[] content;
+	
+	@BeforeEach
+	public void createFiles() throws IOException {
+		source = Files.createTempFile("NIOsTest", ".src");
+		target = Files.createTempFile("NIOsTest", ".tgt");
+		content = new byte[100_000];
+		new Random(42).nextBytes(content);
+		Files.write(source, content);
+	}
+	
+	@AfterEach
+	public void deleteFiles() throws IOException {
+		Files.deleteIfExists(source);
+		Files.deleteIfExists(target);
+	}
+	
+	@Test
+	public void copy_files() throws IOException {
+		// target content must be replaced
+		Files.write(target, new byte[200_000]);
+		assertThat(NIOs.copy(source, target)).isEqualTo(content.length);
+		assertThat(Files.readAllBytes(target)).isEqualTo(content);
+	}
+	
+	@Test
+	public void copy_channels_sourceIsNotAFile() throws IOException {
+		ByteArrayOutputStream result = new ByteArrayOutputStream();
+		long count = NIOs.copy(Channels.newChannel(new ByteArrayInputStream(content)), Channels.newChannel(result));
+		assertThat(count).isEqualTo(content.length);
+		assertThat(result.toByteArray()).isEqualTo(content);
+	}
+	
+	@Test
+	public void copy_channels_sourceIsAFile_copyStartsAtPosition() throws IOException {
+		ByteArrayOutputStream result = new ByteArrayOutputStream();
+		try (FileChannel channel = FileChannel.open(source)) {
+			channel.position(10);
+			assertThat(NIOs.copy(channel, Channels.newChannel(result))).isEqualTo(content.length - 10);
+			assertThat(channel.position()).isEqualTo(content.length);
+		}
+		assertThat(result.toByteArray()).isEqualTo(Arrays.copyOfRange(content, 10, content.length));
+	}
+	
+	@Test
+	public void copy_withBuffer_targetTakesLessThanGiven() throws IOException {
+		ByteArrayOutputStream result = new ByteArrayOutputStream();
+		WritableByteChannel delegate = Channels.newChannel(result);
+		// a target that takes at most 3 bytes at a time, like a non-full socket one may do
+		WritableByteChannel slowTarget = new WritableByteChannel() {
+			@Override
+			public int write(ByteBuffer src) throws IOException {
+				ByteBuffer slice = src.duplicate();
+				slice.limit(slice.position() + Math.min(3, slice.remaining()));
+				int written = delegate.write(slice);
+				src.position(src.position() + written);
+				return written;
+			}
+			
+			@Override
+			public boolean isOpen() {
+				return true;
+			}
+			
+			@Override
+			public void close() {
+			}
+		};
+		long count = NIOs.copy(Channels.newChannel(new ByteArrayInputStream(content)), slowTarget, ByteBuffer.allocateDirect(128));
+		assertThat(count).isEqualTo(content.length);
+		assertThat(result.toByteArray()).isEqualTo(content);
+	}
+	
+	@Test
+	public void transferFrom_copiesAtMostCount() throws IOException {
+		try (FileChannel channel = FileChannel.open(target, StandardOpenOption.WRITE)) {
+			assertThat(NIOs.transferFrom(Channels.newChannel(new ByteArrayInputStream(content)), channel, 1000)).isEqualTo(1000);
+			assertThat(channel.position()).isEqualTo(1000);
+			// source has less than asked
+			assertThat(NIOs.transferFrom(Channels.newChannel(new ByteArrayInputStream(content)), channel, Long.MAX_VALUE - 1000))
+					.isEqualTo(content.length);
+		}
+		byte[] expected = new byte[1000 + content.length];
+		System.arraycopy(content, 0, expected, 0, 1000);
+		System.arraycopy(content, 0, expected, 1000, content.length);
+		assertThat(Files.readAllBytes(target)).isEqualTo(expected);
+	}
+	
+	@Test
+	public void map() throws IOException {
+		MappedByteBuffer buffer = NIOs.map(source);
+		byte[] result = new byte[buffer.remaining()];
+		buffer.get(result);
+		assertThat(result).isEqualTo(content);
+	}
+	
+	@Test
+	public void forEachRegion() throws IOException {
+		List<Integer> regionSizes = new ArrayList<>();
+		ByteArrayOutputStream result = new ByteArrayOutputStream();
+		NIOs.forEachRegion(source, 30_000, region -> {
+			regionSizes.add(region.remaining());
+			byte[] bytes = new byte[region.remaining()];
+			region.get(bytes);
+			result.write(bytes, 0, bytes.length);
+		});
+		assertThat(regionSizes).containsExactly(30_000, 30_000, 30_000, 10_000);
+		assertThat(result.toByteArray()).isEqualTo(content);
+	}
+	
+	@Test
+	public void forEachRegion_invalidRegionSize_throwsException() {
+		assertThatExceptionOfType(IllegalArgumentException.class).isThrownBy(() -> NIOs.forEachRegion(source, 0, region -> {}));
+		assertThatExceptionOfType(IllegalArgumentException.class).isThrownBy(() -> NIOs.forEachRegion(source, NIOs.MAX_REGION_SIZE + 1, region -> {}));
+	}
+	
+	@Test
+	public void toByteArray_file() throws IOException {
+		assertThat(NIOs.toByteArray(source)).isEqualTo(content);
+		assertThat(NIOs.toByteArray(target)).isEmpty();
+	}
+	
+	@Test
+	public void toByteArray_channel() throws IOException {
+		assertThat(NIOs.toByteArray(Channels.newChannel(new ByteArrayInputStream(content)), 10))
+				.isEqualTo(Arrays.copyOf(content, 10));
+	}
+	
+	@Test
+	public void toByteArray_largeContent_readsBySlices() throws IOException {
+		ReadableByteChannel delegate = Channels.newChannel(new ByteArrayInputStream(content));
+		List<Integer> requestedSizes = new ArrayList<>();
+		ReadableByteChannel source = new ReadableByteChannel() {
+			@Override
+			public int read(ByteBuffer dst) throws IOException {
+				requestedSizes.add(dst.remaining());
+				return delegate.read(dst);
+			}
+			
+			@Override
+			public boolean isOpen() {
+				return true;
+			}
+			
+			@Override
+			public void close() {
+			}
+		};
+		assertThat(NIOs.toByteArray(source, content.length)).isEqualTo(content);
+		assertThat(requestedSizes).allMatch(size -> size <= NIOs.DEFAULT_BUFFER_SIZE);
+	}
+	
+	@Test
+	public void toByteArray_channel_tooShort_throwsException() {
+		assertThatExceptionOfType(EOFException.class)
+				.isThrownBy(() -> NIOs.toByteArray(Channels.newChannel(new ByteArrayInputStream(new byte[5])), 10))
+				.withMessage("5 bytes are missing");
+	}
+	
+	@Test
+	public void copy_nonRegularFile_copiesWholeContent() throws IOException {
+		Path procFile = Paths.get("/proc/self/status");
+		assumeTrue(Files.isReadable(procFile));
+		assertThat(NIOs.copy(procFile, target)).isGreaterThan(0);
+		assertThat(new String(Files.readAllBytes(target))).startsWith("Name:").contains("Pid:");
+	}
+}
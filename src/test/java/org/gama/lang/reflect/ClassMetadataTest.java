@@ -0,0 +1,94 @@
+package org.gama.lang.reflect;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * @author Guillaume Mary
+ */
+class ClassMetadataTest {
+	
+	@Test
+	void of_returnsSameInstanceForSameClass() {
+		assertThat(ClassMetadata.of(Toto.class)).isSameAs(ClassMetadata.of(Toto.class));
+		assertThat(ClassMetadata.of(Toto.class)).isNotSameAs(ClassMetadata.of(Tata.class));
+		assertThat(ClassMetadata.of(Toto.class).getDescribedClass()).isEqualTo(Toto.class);
+	}
+	
+	@Test
+	void findField() {
+		ClassMetadata testInstance = ClassMetadata.of(Tata.class);
+		// nearest declaration wins
+		assertThat(testInstance.findField("b").getDeclaringClass()).isEqualTo(Tata.class);
+		assertThat(testInstance.findField("a").getDeclaringClass()).isEqualTo(Toto.class);
+		assertThat(testInstance.findField("c")).isNull();
+		// cache gives same instance
+		assertThat(testInstance.findField("a")).isSameAs(testInstance.findField("a"));
+	}
+	
+	@Test
+	void mapFieldsOnName() {
+		Map<String, Field> fields = ClassMetadata.of(Tata.class).mapFieldsOnName();
+		assertThat(fields.keySet()).containsExactlyInAnyOrder("a", "b");
+		// upper class wins
+		assertThat(fields.get("b").getDeclaringClass()).isEqualTo(Toto.class);
+		assertThatThrownBy(fields::clear).isInstanceOf(UnsupportedOperationException.class);
+	}
+	
+	@Test
+	void findMethod() throws NoSuchMethodException {
+		ClassMetadata testInstance = ClassMetadata.of(Tata.class);
+		assertThat(testInstance.findMethod("toto")).isEqualTo(Toto.class.getDeclaredMethod("toto"));
+		assertThat(testInstance.findMethod("toto", int.class)).isEqualTo(Tata.class.getDeclaredMethod("toto", int.class));
+		assertThat(testInstance.findMethod("toto", Integer.class)).isNull();
+		assertThat(testInstance.findMethod("tutu")).isNull();
+		// Object methods are also available
+		assertThat(testInstance.findMethod("hashCode")).isEqualTo(Object.class.getDeclaredMethod("hashCode"));
+	}
+	
+	@Test
+	void findConstructor() throws NoSuchMethodException {
+		ClassMetadata testInstance = ClassMetadata.of(Toto.class);
+		assertThat(testInstance.findConstructor()).isEqualTo(Toto.class.getDeclaredConstructor());
+		assertThat(testInstance.findConstructor(int.class)).isEqualTo(Toto.class.getDeclaredConstructor(int.class));
+		assertThat(testInstance.findConstructor(String.class)).isNull();
+		// constructors are not inherited
+		assertThat(ClassMetadata.of(Tata.class).findConstructor(int.class)).isNull();
+	}
+	
+	private static class Toto {
+		private int a;
+		private String b;
+		
+		private Toto() {
+		}
+		
+		private Toto(int a) {
+			this.a = a;
+		}
+		
+		private void toto() {
+		}
+		
+		private void toto(int a) {
+		}
+	}
+	
+	private static class Tata extends Toto {
+		private String b;
+		
+		@Override
+		public String toString() {
+			return b;
+		}
+		
+		private void toto(int a) {
+		}
+	}
+}
@@ -0,0 +1,238 @@
+package org.gama.lang.reflect;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.function.Function;
+
+import org.gama.lang.InvocationHandlerSupport;
+import org.gama.lang.Reflections;
+import org.gama.lang.io.IOs;
+import org.gama.lang.reflect.HiddenClassProxyFactory.GeneratedProxy;
+import org.gama.lang.reflect.ProxyFactory.Redirection;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * @author Guillaume Mary
+ */
+class HiddenClassProxyFactoryTest {
+	
+	@BeforeEach
+	void checkAvailability() {
+		Assumptions.assumeTrue(HiddenClassProxyFactory.isAvailable(), "Hidden classes are not available on this JVM");
+	}
+	
+	@Test
+	void newProxy_noRedirection_invocationHandlerIsCalled() {
+		Calculator testInstance = (Calculator) HiddenClassProxyFactory.INSTANCE.newProxy(getClass().getClassLoader(), new Class[] { Calculator.class },
+				new InvocationHandlerSupport((proxy, method, args) -> {
+					switch (method.getName()) {
+						case "add":
+							return (int) args[0] + (int) args[1];
+						case "multiply":
+							return (long) args[0] * (long) args[1];
+						case "half":
+							return (double) args[0] / 2;
+						default:
+							return "handled";
+					}
+				}));
+		
+		assertThat(testInstance).isInstanceOf(GeneratedProxy.class);
+		assertThat(testInstance.add(1, 2)).isEqualTo(3);
+		assertThat(testInstance.multiply(3L, 4L)).isEqualTo(12L);
+		assertThat(testInstance.half(5)).isEqualTo(2.5);
+		assertThat(testInstance.name()).isEqualTo("handled");
+		assertThat(testInstance).isEqualTo(testInstance);
+		assertThat(testInstance.hashCode()).isEqualTo(testInstance.hashCode());
+	}
+	
+	@Test
+	void newProxy_withRedirection_targetIsCalledWithoutInvocationHandler() throws NoSuchMethodException {
+		Calculator target = new CalculatorImpl();
+		Method nameMethod = Calculator.class.getMethod("name");
+		Function<Method, Redirection> redirector = method -> method.equals(nameMethod) ? null : new SimpleRedirection(method, target, false);
+		Calculator testInstance = (Calculator) HiddenClassProxyFactory.INSTANCE.newProxy(getClass().getClassLoader(), new Class[] { Calculator.class },
+				(proxy, method, args) -> {
+					if (method.equals(nameMethod)) {
+						return "handled";
+					}
+					throw new IllegalStateException("Unexpected call to invocation handler for " + Reflections.toString(method));
+				}, redirector);
+		
+		assertThat(testInstance.add(1, 2)).isEqualTo(3);
+		assertThat(testInstance.multiply(3L, 4L)).isEqualTo(12L);
+		assertThat(testInstance.half(5)).isEqualTo(2.5);
+		assertThat(testInstance.name()).isEqualTo("handled");
+	}
+	
+	@Test
+	void newProxy_redirectionReturningProxy_proxyIsReturned() throws NoSuchMethodException {
+		StringBuilder capturedValue = new StringBuilder();
+		Method setMethod = Fluent.class.getMethod("set", String.class);
+		Fluent testInstance = (Fluent) HiddenClassProxyFactory.INSTANCE.newProxy(getClass().getClassLoader(), new Class[] { Fluent.class },
+				new InvocationHandlerSupport(),
+				method -> method.equals(setMethod) ? new SimpleRedirection(method, (Fluent) value -> {
+					capturedValue.append(value);
+					return null;
+				}, true) : null);
+		
+		assertThat(testInstance.set("a").set("b")).isSameAs(testInstance);
+		assertThat(capturedValue.toString()).isEqualTo("ab");
+	}
+	
+	@Test
+	void newProxy_exceptionIsPropagated() {
+		Calculator testInstance = (Calculator) HiddenClassProxyFactory.INSTANCE.newProxy(getClass().getClassLoader(), new Class[] { Calculator.class },
+				(proxy, method, args) -> { throw new UnsupportedOperationException(method.getName()); });
+		
+		assertThatThrownBy(() -> testInstance.add(1, 2)).isInstanceOf(UnsupportedOperationException.class).hasMessage("add");
+	}
+	
+	@Test
+	void newProxy_sameInterfaces_proxyClassIsReused() {
+		Object proxy1 = HiddenClassProxyFactory.INSTANCE.newProxy(getClass().getClassLoader(), new Class[] { Calculator.class },
+				(proxy, method, args) -> null);
+		Object proxy2 = HiddenClassProxyFactory.INSTANCE.newProxy(getClass().getClassLoader(), new Class[] { Calculator.class },
+				(proxy, method, args) -> null);
+		assertThat(proxy1.getClass()).isSameAs(proxy2.getClass());
+	}
+	
+	@Test
+	void giveCacheOwner_classOfMostSpecificClassLoaderIsGiven() throws Exception {
+		ClassLoader testClassLoader = getClass().getClassLoader();
+		Class<?> childCalculator = new IsolatingClassLoader(testClassLoader, Calculator.class.getName()).loadClass(Calculator.class.getName());
+		assertThat(childCalculator).isNotSameAs(Calculator.class);
+		
+		// a bootstrap interface must not be the owner, else it would retain the child ClassLoader
+		assertThat(HiddenClassProxyFactory.giveCacheOwner(new LinkedHashSet<>(Arrays.asList(Runnable.class, childCalculator))))
+				.isSameAs(childCalculator);
+		assertThat(HiddenClassProxyFactory.giveCacheOwner(new LinkedHashSet<>(Arrays.asList(childCalculator, Fluent.class))))
+				.isSameAs(childCalculator);
+		assertThat(HiddenClassProxyFactory.giveCacheOwner(new LinkedHashSet<>(Arrays.asList(Runnable.class, Fluent.class))))
+				.isSameAs(Fluent.class);
+		// unrelated ClassLoaders
+		Class<?> siblingCalculator = new IsolatingClassLoader(testClassLoader, Calculator.class.getName()).loadClass(Calculator.class.getName());
+		assertThat(HiddenClassProxyFactory.giveCacheOwner(new LinkedHashSet<>(Arrays.asList(childCalculator, siblingCalculator)))).isNull();
+	}
+	
+	@Test
+	void newProxy_interfacesFromParentAndChildClassLoaders_proxyIsCreated() throws Exception {
+		ClassLoader childClassLoader = new IsolatingClassLoader(getClass().getClassLoader(), Calculator.class.getName());
+		Class<?> childCalculator = childClassLoader.loadClass(Calculator.class.getName());
+		Object proxy = HiddenClassProxyFactory.INSTANCE.newProxy(childClassLoader, new Class[] { Runnable.class, childCalculator },
+				(p, method, args) -> method.getName().equals("name") ? "child" : null);
+		// JDK proxy is used as a fallback since child ClassLoader is in another module, but cache is used the same way
+		assertThat(proxy).isInstanceOf(Runnable.class).isInstanceOf(childCalculator);
+		Method name = childCalculator.getMethod("name");
+		// child interface is not in the same runtime package as this class
+		name.setAccessible(true);
+		assertThat(name.invoke(proxy)).isEqualTo("child");
+	}
+	
+	/**
+	 * {@link ClassLoader} that defines its own copy of a class instead of delegating to its parent
+	 */
+	private static class IsolatingClassLoader extends ClassLoader {
+		
+		private final String isolatedClassName;
+		
+		private IsolatingClassLoader(ClassLoader parent, String isolatedClassName) {
+			super(parent);
+			this.isolatedClassName = isolatedClassName;
+		}
+		
+		@Override
+		protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+			if (!name.equals(isolatedClassName)) {
+				return super.loadClass(name, resolve);
+			}
+			synchronized (getClassLoadingLock(name)) {
+				Class<?> result = findLoadedClass(name);
+				if (result == null) {
+					try (InputStream classFile = getParent().getResourceAsStream(name.replace('.', '/') + ".class")) {
+						byte[] bytes = IOs.toByteArray(classFile);
+						result = defineClass(name, bytes, 0, bytes.length);
+					} catch (IOException e) {
+						throw new ClassNotFoundException(name, e);
+					}
+				}
+				return result;
+			}
+		}
+	}
+	
+	interface Calculator {
+		
+		int add(int a, int b);
+		
+		long multiply(long a, long b);
+		
+		double half(double a);
+		
+		String name();
+	}
+	
+	static class CalculatorImpl implements Calculator {
+		
+		@Override
+		public int add(int a, int b) {
+			return a + b;
+		}
+		
+		@Override
+		public long multiply(long a, long b) {
+			return a * b;
+		}
+		
+		@Override
+		public double half(double a) {
+			return a / 2;
+		}
+		
+		@Override
+		public String name() {
+			return "target";
+		}
+	}
+	
+	interface Fluent {
+		
+		Fluent set(String value);
+	}
+	
+	private static class SimpleRedirection implements Redirection {
+		
+		private final Method method;
+		private final Object methodTarget;
+		private final boolean returnProxy;
+		
+		private SimpleRedirection(Method method, Object methodTarget, boolean returnProxy) {
+			this.method = method;
+			this.methodTarget = methodTarget;
+			this.returnProxy = returnProxy;
+		}
+		
+		@Override
+		public Method getMethod() {
+			return method;
+		}
+		
+		@Override
+		public Object getMethodTarget() {
+			return methodTarget;
+		}
+		
+		@Override
+		public boolean isReturnProxy() {
+			return returnProxy;
+		}
+	}
+}
@@ -1,10 +1,13 @@
 package org.gama.lang.reflect;
 
+import java.lang.reflect.Method;
 import java.sql.SQLException;
 import java.util.function.Supplier;
 
 import org.gama.lang.function.Hanger;
+import org.gama.lang.reflect.HiddenClassProxyFactory.GeneratedProxy;
 import org.gama.lang.trace.ModifiableInt;
+import org.junit.jupiter.api.Assumptions;
 import org.junit.jupiter.api.Test;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -28,6 +31,60 @@ public class MethodDispatcherTest {
 		assertThat(testInstance.toString()).isEqualTo("Dispatcher to 666");
 	}
 	
+	@Test
+	void redirect_methodSignatureIsComputedOncePerMethod() {
+		ModifiableInt signatureComputationCount = new ModifiableInt();
+		IntegerHanger surrogate = new IntegerHanger();
+		MethodDispatcher methodDispatcher = new MethodDispatcher() {
+			@Override
+			protected String giveSignature(Method method) {
+				signatureComputationCount.increment();
+				return super.giveSignature(method);
+			}
+		};
+		Holder1 testInstance = methodDispatcher
+				.redirect(Hanger.class, surrogate)
+				.fallbackOn(666)
+				.build(Holder1.class);
+		
+		int countAfterBuild = signatureComputationCount.getValue();
+		testInstance.set(42);
+		testInstance.set(43);
+		// IntegerHanger sums given values
+		assertThat(surrogate.getValue()).isEqualTo(42 + 43);
+		assertThat(signatureComputationCount.getValue()).isEqualTo(countAfterBuild);
+		
+		// adding a redirection after build is taken into account
+		methodDispatcher.redirect(Supplier.class, () -> "Hello world !");
+		assertThat(testInstance.get()).isEqualTo("Hello world !");
+	}
+	
+	@Test
+	void getInterceptors_isUnmodifiable() {
+		MethodDispatcher testInstance = new MethodDispatcher().redirect(Hanger.class, new IntegerHanger());
+		assertThat(testInstance.getInterceptors()).isNotEmpty();
+		// else cached dispatch would be stale
+		assertThatThrownBy(() -> testInstance.getInterceptors().clear()).isInstanceOf(UnsupportedOperationException.class);
+	}
+	
+	@Test
+	void redirect_withHiddenClassProxyFactory() {
+		Assumptions.assumeTrue(HiddenClassProxyFactory.isAvailable(), "Hidden classes are not available on this JVM");
+		IntegerHanger surrogate = new IntegerHanger();
+		Holder1 testInstance = new MethodDispatcher()
+				.withProxyFactory(HiddenClassProxyFactory.INSTANCE)
+				.redirect(Hanger.class, surrogate)
+				.redirect(Supplier.class, () -> "Hello world !")
+				.fallbackOn(666)
+				.build(Holder1.class);
+		
+		assertThat(testInstance).isInstanceOf(GeneratedProxy.class);
+		testInstance.set(42);
+		assertThat(surrogate.getValue()).isEqualTo(42);
+		assertThat(testInstance.get()).isEqualTo("Hello world !");
+		assertThat(testInstance.toString()).isEqualTo("Dispatcher to 666");
+	}
+	
 	@Test
 	void redirect_noFallbackInstance_toStringReflectBuiltClass() {
 		MethodDispatcher methodDispatcher = new MethodDispatcher()
@@ -0,0 +1,254 @@
+package org.gama.lang.sql;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.gama.lang.function.ThrowingConsumer;
+import org.gama.lang.function.ThrowingFunction;
+import org.gama.lang.sql.BatchingConnectionWrapper.BatchingPreparedStatement;
+import org.gama.lang.trace.ModifiableBoolean;
+import org.gama.lang.trace.ModifiableInt;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.RETURNS_DEFAULTS;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author Guillaume Mary
+ */
+class BatchingConnectionWrapperTest {
+	
+	private Connection delegate;
+	
+	/** Log of orders sent to the database : SQL and size of executed batches */
+	private List<String> executions;
+	
+	@BeforeEach
+	void createDelegate() throws SQLException {
+		executions = new ArrayList<>();
+		delegate = mock(Connection.class);
+		ModifiableBoolean autoCommit = new ModifiableBoolean(true);
+		when(delegate.getAutoCommit()).thenAnswer(invocation -> autoCommit.getValue());
+		doAnswer(invocation -> {
+			autoCommit.setValue(invocation.getArgument(0));
+			return null;
+		}).when(delegate).setAutoCommit(anyBoolean());
+		when(delegate.prepareStatement(anyString())).thenAnswer(invocation -> createStatement(invocation.getArgument(0)));
+		// statements that can't defer their updates
+		when(delegate.prepareStatement(anyString(), anyInt())).thenAnswer(invocation -> createRecordingStatement(PreparedStatement.class));
+		when(delegate.prepareStatement(anyString(), any(int[].class))).thenAnswer(invocation -> createRecordingStatement(PreparedStatement.class));
+		when(delegate.prepareStatement(anyString(), any(String[].class))).thenAnswer(invocation -> createRecordingStatement(PreparedStatement.class));
+		when(delegate.createStatement()).thenAnswer(invocation -> createRecordingStatement(Statement.class));
+		when(delegate.createStatement(anyInt(), anyInt())).thenAnswer(invocation -> createRecordingStatement(Statement.class));
+		when(delegate.createStatement(anyInt(), anyInt(), anyInt())).thenAnswer(invocation -> createRecordingStatement(Statement.class));
+		when(delegate.prepareCall(anyString())).thenAnswer(invocation -> createRecordingStatement(CallableStatement.class));
+		when(delegate.prepareCall(anyString(), anyInt(), anyInt())).thenAnswer(invocation -> createRecordingStatement(CallableStatement.class));
+		when(delegate.prepareCall(anyString(), anyInt(), anyInt(), anyInt()))
+				.thenAnswer(invocation -> createRecordingStatement(CallableStatement.class));
+	}
+	
+	/**
+	 * Creates a statement that logs its executions as "other"
+	 */
+	private <S extends Statement> S createRecordingStatement(Class<S> statementType) {
+		return mock(statementType, invocation -> {
+			if (invocation.getMethod().getName().startsWith("execute")) {
+				executions.add("other");
+			}
+			return RETURNS_DEFAULTS.answer(invocation);
+		});
+	}
+	
+	private PreparedStatement createStatement(String sql) throws SQLException {
+		PreparedStatement result = mock(PreparedStatement.class);
+		ModifiableInt batchCount = new ModifiableInt();
+		doAnswer(invocation -> {
+			batchCount.increment();
+			return null;
+		}).when(result).addBatch();
+		when(result.executeBatch()).thenAnswer(invocation -> {
+			executions.add(sql + " x" + batchCount.getValue());
+			int[] updateCounts = new int[batchCount.getValue()];
+			Arrays.fill(updateCounts, 1);
+			batchCount.reset(0);
+			return updateCounts;
+		});
+		doAnswer(invocation -> {
+			batchCount.reset(0);
+			return null;
+		}).when(result).clearBatch();
+		when(result.executeUpdate()).thenAnswer(invocation -> {
+			executions.add(sql);
+			return 1;
+		});
+		return result;
+	}
+	
+	@Test
+	void executeUpdate_autoCommit_isNotDeferred() throws SQLException {
+		BatchingConnectionWrapper testInstance = new BatchingConnectionWrapper(delegate, 3);
+		PreparedStatement statement = testInstance.prepareStatement("insert 1");
+		assertThat(statement.executeUpdate()).isEqualTo(1);
+		assertThat(executions).containsExactly("insert 1");
+	}
+	
+	@Test
+	void executeUpdate_batchSizeIsReached_batchIsExecuted() throws SQLException {
+		BatchingConnectionWrapper testInstance = new BatchingConnectionWrapper(delegate, 3);
+		testInstance.setAutoCommit(false);
+		PreparedStatement statement = testInstance.prepareStatement("insert 1");
+		for (int i = 0; i < 7; i++) {
+			assertThat(statement.executeUpdate()).isEqualTo(Statement.SUCCESS_NO_INFO);
+		}
+		assertThat(executions).containsExactly("insert 1 x3", "insert 1 x3");
+		BatchingPreparedStatement batchingStatement = statement.unwrap(BatchingPreparedStatement.class);
+		assertThat(batchingStatement.getPendingCount()).isEqualTo(1);
+		assertThat(batchingStatement.getUpdatedRowCount()).isEqualTo(6);
+		
+		testInstance.commit();
+		assertThat(executions).containsExactly("insert 1 x3", "insert 1 x3", "insert 1 x1");
+		assertThat(batchingStatement.getLastBatchUpdateCounts()).containsExactly(1);
+		assertThat(batchingStatement.getUpdatedRowCount()).isEqualTo(7);
+		verify(delegate).commit();
+	}
+	
+	@Test
+	void executeUpdate_autoCommitIsNotAskedToDatabase() throws SQLException {
+		BatchingConnectionWrapper testInstance = new BatchingConnectionWrapper(delegate, 10);
+		testInstance.setAutoCommit(false);
+		PreparedStatement statement = testInstance.prepareStatement("insert 1");
+		for (int i = 0; i < 5; i++) {
+			statement.executeUpdate();
+		}
+		assertThat(testInstance.getAutoCommit()).isFalse();
+		// only read at construction
+		verify(delegate, times(1)).getAutoCommit();
+		
+		testInstance.setAutoCommit(true);
+		assertThat(executions).containsExactly("insert 1 x5");
+		assertThat(statement.executeUpdate()).isEqualTo(1);
+		verify(delegate, times(1)).getAutoCommit();
+	}
+	
+	@Test
+	void executeUpdate_otherStatement_pendingRowsAreFlushedToKeepOrder() throws SQLException {
+		BatchingConnectionWrapper testInstance = new BatchingConnectionWrapper(delegate, 10);
+		testInstance.setAutoCommit(false);
+		PreparedStatement statement1 = testInstance.prepareStatement("insert 1");
+		PreparedStatement statement2 = testInstance.prepareStatement("insert 2");
+		statement1.executeUpdate();
+		statement1.executeUpdate();
+		statement2.executeUpdate();
+		statement1.executeUpdate();
+		statement1.executeQuery();
+		assertThat(executions).containsExactly("insert 1 x2", "insert 2 x1", "insert 1 x1");
+	}
+	
+	@Test
+	void rollback_pendingRowsAreDiscarded() throws SQLException {
+		BatchingConnectionWrapper testInstance = new BatchingConnectionWrapper(delegate, 10);
+		testInstance.setAutoCommit(false);
+		PreparedStatement statement = testInstance.prepareStatement("insert 1");
+		statement.executeUpdate();
+		testInstance.rollback();
+		testInstance.commit();
+		assertThat(executions).isEmpty();
+		verify(statement.unwrap(PreparedStatement.class)).clearBatch();
+	}
+	
+	@Test
+	void runAtomically_rowsAreSentAtCommitTime() throws SQLException {
+		BatchingConnectionWrapper testInstance = new BatchingConnectionWrapper(delegate, 10);
+		TransactionSupport.runAtomically(connection -> {
+			PreparedStatement statement = connection.prepareStatement("insert 1");
+			statement.executeUpdate();
+			statement.executeUpdate();
+			assertThat(executions).isEmpty();
+		}, testInstance);
+		assertThat(executions).containsExactly("insert 1 x2");
+	}
+	
+	@Test
+	void runAtomically_error_rowsAreNotSent() throws SQLException {
+		BatchingConnectionWrapper testInstance = new BatchingConnectionWrapper(delegate, 10);
+		assertThatThrownBy(() -> TransactionSupport.runAtomically(connection -> {
+			PreparedStatement statement = connection.prepareStatement("insert 1");
+			statement.executeUpdate();
+			throw new SQLException("Something went wrong");
+		}, testInstance)).isInstanceOf(SQLException.class);
+		assertThat(executions).isEmpty();
+		verify(delegate).rollback();
+		verify(delegate, never()).commit();
+	}
+	
+	static Stream<Arguments> undeferredStatements() {
+		return Stream.of(
+				undeferredStatement("prepareStatement(sql, autoGeneratedKeys)",
+						connection -> connection.prepareStatement("insert 2", Statement.RETURN_GENERATED_KEYS), PreparedStatement::executeUpdate),
+				undeferredStatement("prepareStatement(sql, columnIndexes)",
+						connection -> connection.prepareStatement("insert 2", new int[] { 1 }), PreparedStatement::executeQuery),
+				undeferredStatement("prepareStatement(sql, columnNames)",
+						connection -> connection.prepareStatement("insert 2", new String[] { "id" }), PreparedStatement::execute),
+				undeferredStatement("createStatement()",
+						Connection::createStatement, statement -> statement.executeUpdate("update 2")),
+				undeferredStatement("createStatement(type, concurrency)",
+						connection -> connection.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY),
+						statement -> statement.executeQuery("select 2")),
+				undeferredStatement("createStatement(type, concurrency, holdability)",
+						connection -> connection.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY,
+								ResultSet.CLOSE_CURSORS_AT_COMMIT), Statement::executeBatch),
+				undeferredStatement("prepareCall(sql)",
+						connection -> connection.prepareCall("call 2"), CallableStatement::execute),
+				undeferredStatement("prepareCall(sql, type, concurrency)",
+						connection -> connection.prepareCall("call 2", ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY),
+						CallableStatement::executeUpdate),
+				undeferredStatement("prepareCall(sql, type, concurrency, holdability)",
+						connection -> connection.prepareCall("call 2", ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY,
+								ResultSet.CLOSE_CURSORS_AT_COMMIT), CallableStatement::executeQuery)
+		);
+	}
+	
+	private static <S extends Statement> Arguments undeferredStatement(String description,
+			ThrowingFunction<Connection, S, SQLException> statementFactory, ThrowingConsumer<S, SQLException> execution) {
+		return Arguments.of(description, statementFactory, execution);
+	}
+	
+	@ParameterizedTest
+	@MethodSource("undeferredStatements")
+	<S extends Statement> void execute_statementCreatedBeforePendingRows_pendingRowsAreFlushedFirst(String description,
+			ThrowingFunction<Connection, S, SQLException> statementFactory, ThrowingConsumer<S, SQLException> execution) throws SQLException {
+		BatchingConnectionWrapper testInstance = new BatchingConnectionWrapper(delegate, 10);
+		testInstance.setAutoCommit(false);
+		S statement = statementFactory.apply(testInstance);
+		PreparedStatement insert = testInstance.prepareStatement("insert 1");
+		insert.executeUpdate();
+		// statement creation didn't send anything since there was nothing pending
+		assertThat(executions).isEmpty();
+		execution.accept(statement);
+		assertThat(executions).containsExactly("insert 1 x1", "other");
+		assertThat(statement.getConnection()).isSameAs(testInstance);
+	}
+}
@@ -0,0 +1,216 @@
+package org.gama.lang.sql;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author Guillaume Mary
+ */
+class CachingConnectionWrapperTest {
+	
+	private Connection delegate;
+	
+	@BeforeEach
+	void createDelegate() throws SQLException {
+		delegate = mock(Connection.class);
+		when(delegate.prepareStatement(anyString(), anyInt(), anyInt())).thenAnswer(invocation -> mock(PreparedStatement.class));
+		when(delegate.prepareStatement(anyString(), anyInt(), anyInt(), anyInt())).thenAnswer(invocation -> mock(PreparedStatement.class));
+		when(delegate.prepareCall(anyString(), anyInt(), anyInt())).thenAnswer(invocation -> mock(CallableStatement.class));
+	}
+	
+	@Test
+	void prepareStatement_closedStatementIsReused() throws SQLException {
+		CachingConnectionWrapper testInstance = new CachingConnectionWrapper(delegate, 10);
+		
+		PreparedStatement statement1 = testInstance.prepareStatement("select 1");
+		PreparedStatement underlyingStatement = statement1.unwrap(PreparedStatement.class);
+		statement1.close();
+		assertThat(statement1.isClosed()).isTrue();
+		verify(underlyingStatement, never()).close();
+		verify(underlyingStatement).clearParameters();
+		
+		PreparedStatement statement2 = testInstance.prepareStatement("select 1");
+		assertThat(statement2).isNotSameAs(statement1);
+		assertThat(statement2.unwrap(PreparedStatement.class)).isSameAs(underlyingStatement);
+		assertThat(statement2.isClosed()).isFalse();
+		assertThat(statement2.getConnection()).isSameAs(testInstance);
+		
+		verify(delegate, times(1)).prepareStatement("select 1", ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+		assertThat(testInstance.getHitCount()).isEqualTo(1);
+		assertThat(testInstance.getMissCount()).isEqualTo(1);
+	}
+	
+	@Test
+	void prepareStatement_keyContainsResultSetArguments() throws SQLException {
+		CachingConnectionWrapper testInstance = new CachingConnectionWrapper(delegate, 10);
+		
+		testInstance.prepareStatement("select 1").close();
+		testInstance.prepareStatement("select 1", ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY).close();
+		testInstance.prepareStatement("select 1", ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY, ResultSet.HOLD_CURSORS_OVER_COMMIT).close();
+		testInstance.prepareCall("select 1").close();
+		
+		assertThat(testInstance.getMissCount()).isEqualTo(4);
+		assertThat(testInstance.getHitCount()).isEqualTo(0);
+		assertThat(testInstance.getCacheSize()).isEqualTo(4);
+		
+		CallableStatement callableStatement = testInstance.prepareCall("select 1");
+		assertThat(testInstance.getHitCount()).isEqualTo(1);
+		assertThat(testInstance.getCacheSize()).isEqualTo(3);
+		callableStatement.close();
+	}
+	
+	@Test
+	void prepareStatement_statementInUse_isNotShared() throws SQLException {
+		CachingConnectionWrapper testInstance = new CachingConnectionWrapper(delegate, 10);
+		
+		PreparedStatement statement1 = testInstance.prepareStatement("select 1");
+		PreparedStatement statement2 = testInstance.prepareStatement("select 1");
+		PreparedStatement underlyingStatement1 = statement1.unwrap(PreparedStatement.class);
+		assertThat(underlyingStatement1).isNotSameAs(statement2.unwrap(PreparedStatement.class));
+		assertThat(testInstance.getMissCount()).isEqualTo(2);
+		
+		// giving back both statements keeps only one
+		statement1.close();
+		statement2.close();
+		assertThat(testInstance.getCacheSize()).isEqualTo(1);
+		verify(underlyingStatement1).close();
+	}
+	
+	@Test
+	void prepareStatement_cacheIsFull_leastRecentlyUsedIsEvicted() throws SQLException {
+		CachingConnectionWrapper testInstance = new CachingConnectionWrapper(delegate, 2);
+		
+		PreparedStatement statement1 = testInstance.prepareStatement("select 1");
+		PreparedStatement underlyingStatement1 = statement1.unwrap(PreparedStatement.class);
+		statement1.close();
+		testInstance.prepareStatement("select 2").close();
+		testInstance.prepareStatement("select 3").close();
+		
+		assertThat(testInstance.getCacheSize()).isEqualTo(2);
+		assertThat(testInstance.getEvictionCount()).isEqualTo(1);
+		verify(underlyingStatement1).close();
+		
+		testInstance.prepareStatement("select 1");
+		assertThat(testInstance.getHitCount()).isEqualTo(0);
+	}
+	
+	@Test
+	void close_closesCachedStatements() throws SQLException {
+		CachingConnectionWrapper testInstance = new CachingConnectionWrapper(delegate, 10);
+		
+		PreparedStatement statement = testInstance.prepareStatement("select 1");
+		PreparedStatement underlyingStatement = statement.unwrap(PreparedStatement.class);
+		statement.close();
+		testInstance.close();
+		
+		verify(underlyingStatement).close();
+		verify(delegate).close();
+		assertThat(testInstance.getCacheSize()).isEqualTo(0);
+	}
+	
+	@Test
+	void close_statementIsResetToItsPrepareTimeState() throws SQLException {
+		PreparedStatement underlyingStatement = mock(PreparedStatement.class);
+		when(underlyingStatement.getMaxRows()).thenReturn(0);
+		when(underlyingStatement.getFetchSize()).thenReturn(10);
+		when(underlyingStatement.getQueryTimeout()).thenReturn(30);
+		when(underlyingStatement.getMaxFieldSize()).thenReturn(0);
+		when(underlyingStatement.getFetchDirection()).thenReturn(ResultSet.FETCH_FORWARD);
+		when(underlyingStatement.isPoolable()).thenReturn(true);
+		ResultSet resultSet = mock(ResultSet.class);
+		when(underlyingStatement.getResultSet()).thenReturn(resultSet);
+		when(delegate.prepareStatement("select 1", ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)).thenReturn(underlyingStatement);
+		CachingConnectionWrapper testInstance = new CachingConnectionWrapper(delegate, 10);
+		
+		PreparedStatement statement = testInstance.prepareStatement("select 1");
+		statement.setMaxRows(5);
+		statement.setFetchSize(500);
+		statement.setQueryTimeout(1);
+		statement.setMaxFieldSize(100);
+		statement.setFetchDirection(ResultSet.FETCH_REVERSE);
+		statement.setPoolable(false);
+		statement.addBatch();
+		statement.close();
+		
+		verify(resultSet).close();
+		verify(underlyingStatement).clearParameters();
+		verify(underlyingStatement).clearBatch();
+		verify(underlyingStatement).setMaxRows(0);
+		verify(underlyingStatement).setFetchSize(10);
+		verify(underlyingStatement).setQueryTimeout(30);
+		verify(underlyingStatement).setMaxFieldSize(0);
+		verify(underlyingStatement).setFetchDirection(ResultSet.FETCH_FORWARD);
+		verify(underlyingStatement).setPoolable(true);
+		verify(underlyingStatement).clearWarnings();
+		verify(underlyingStatement, never()).close();
+		assertThat(testInstance.getCacheSize()).isEqualTo(1);
+	}
+	
+	@Test
+	void close_resetFails_statementIsClosedInsteadOfBeingCached() throws SQLException {
+		PreparedStatement underlyingStatement = mock(PreparedStatement.class);
+		doThrow(new SQLException("clearBatch not supported")).when(underlyingStatement).clearBatch();
+		when(delegate.prepareStatement("select 1", ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)).thenReturn(underlyingStatement);
+		CachingConnectionWrapper testInstance = new CachingConnectionWrapper(delegate, 10);
+		
+		testInstance.prepareStatement("select 1").close();
+		
+		verify(underlyingStatement).close();
+		assertThat(testInstance.getCacheSize()).isEqualTo(0);
+	}
+	
+	@Test
+	void closedStatement_anyUsage_throwsSQLException() throws SQLException {
+		CachingConnectionWrapper testInstance = new CachingConnectionWrapper(delegate, 10);
+		
+		PreparedStatement preparedStatement = testInstance.prepareStatement("select 1");
+		PreparedStatement underlyingStatement = preparedStatement.unwrap(PreparedStatement.class);
+		preparedStatement.close();
+		assertThatThrownBy(preparedStatement::executeQuery).isInstanceOf(SQLException.class);
+		assertThatThrownBy(() -> preparedStatement.setString(1, "a")).isInstanceOf(SQLException.class);
+		verify(underlyingStatement, never()).executeQuery();
+		verify(underlyingStatement, never()).setString(1, "a");
+		// closing again is harmless
+		preparedStatement.close();
+		assertThat(preparedStatement.isClosed()).isTrue();
+		
+		CallableStatement callableStatement = testInstance.prepareCall("call 1");
+		CallableStatement underlyingCallableStatement = callableStatement.unwrap(CallableStatement.class);
+		callableStatement.close();
+		assertThatThrownBy(callableStatement::execute).isInstanceOf(SQLException.class);
+		assertThatThrownBy(() -> callableStatement.getString(1)).isInstanceOf(SQLException.class);
+		verify(underlyingCallableStatement, never()).execute();
+		verify(underlyingCallableStatement, never()).getString(1);
+		assertThat(callableStatement.isClosed()).isTrue();
+	}
+	
+	@Test
+	void closedStatement_objectMethods_dontThrowException() throws SQLException {
+		CachingConnectionWrapper testInstance = new CachingConnectionWrapper(delegate, 10);
+		
+		PreparedStatement preparedStatement = testInstance.prepareStatement("select 1");
+		preparedStatement.close();
+		PreparedStatement closedStatement = preparedStatement.unwrap(PreparedStatement.class);
+		assertThat(closedStatement.toString()).isEqualTo("closed statement");
+		assertThat(closedStatement.hashCode()).isEqualTo(System.identityHashCode(closedStatement));
+		assertThat(closedStatement.equals(closedStatement)).isTrue();
+		assertThat(closedStatement.equals(preparedStatement)).isFalse();
+	}
+}
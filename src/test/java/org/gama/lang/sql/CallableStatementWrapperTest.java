@@ -0,0 +1,64 @@
+package org.gama.lang.sql;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.sql.CallableStatement;
+import java.util.List;
+
+import org.gama.lang.Reflections;
+import org.gama.lang.bean.ClassIterator;
+import org.gama.lang.bean.InterfaceIterator;
+import org.gama.lang.bean.MethodIterator;
+import org.gama.lang.collection.Iterables;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Guillaume Mary
+ */
+class CallableStatementWrapperTest {
+	
+	@Test
+	public void methodsInvokeDelegateMethods() throws NoSuchMethodException {
+		CallableStatement delegate = Mockito.mock(CallableStatement.class);
+		CallableStatementWrapper testInstance = new CallableStatementWrapper(delegate);
+		List<Class> classInheritance = Iterables.copy(new InterfaceIterator(new ClassIterator(CallableStatement.class, null)));
+		// CallableStatement.class must be added because it is not included by inheritance iterator
+		classInheritance.add(0, CallableStatement.class);
+		MethodIterator methodIterator = new MethodIterator(classInheritance.iterator());
+		Iterable<Method> methods = () -> methodIterator;
+		int methodCount = 0;
+		for (Method method : methods) {
+			// default methods added by JDK versions newer than 8 are not delegated, so they are skipped, as well as unwrap(..) which is specific
+			if (testInstance.getClass().getMethod(method.getName(), method.getParameterTypes()).getDeclaringClass().isInterface()
+					|| method.getName().equals("unwrap") || method.getName().equals("isWrapperFor")) {
+				continue;
+			}
+			Object invokationResult;
+			try {
+				// we create default arguments otherwise we get IllegalArgumentException from the JVM at invoke() time
+				Object[] args = new Object[method.getParameterCount()];
+				Class<?>[] parameterTypes = method.getParameterTypes();
+				for (int i = 0; i < parameterTypes.length; i++) {
+					Class arg = parameterTypes[i];
+					if (arg.isArray()) {
+						args[i] = Array.newInstance(arg.getComponentType(), 0);
+					} else {
+						args[i] = Reflections.PRIMITIVE_DEFAULT_VALUES.getOrDefault(arg, null /* default value for any non-primitive Object */);
+					}
+				}
+				invokationResult = method.invoke(testInstance, args);
+				Object delegateResult = method.invoke(Mockito.verify(delegate), args);
+				assertThat(invokationResult).isEqualTo(delegateResult);
+				Mockito.clearInvocations(delegate);
+				methodCount++;
+			} catch (ReflectiveOperationException | IllegalArgumentException e) {
+				throw new RuntimeException("Error executing " + Reflections.toString(method), e);
+			}
+		}
+		// checking that iteration over methods really worked
+		assertThat(methodCount).isEqualTo(230);
+	}
+}
@@ -0,0 +1,137 @@
+package org.gama.lang.sql;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+
+import org.mockito.Mockito;
+
+/**
+ * Simple {@link ResultSet} over some rows, made for tests. Only basic getters by index and label are supported.
+ * 
+ * @author Guillaume Mary
+ */
+class InMemoryResultSet extends ResultSetWrapper {
+	
+	private final List<String> labels;
+	private final Object[][] rows;
+	private int currentRow = -1;
+	private boolean wasNull;
+	private boolean closed;
+	private int findColumnCount;
+	private int wasNullCount;
+	
+	InMemoryResultSet(String[] labels, Object[]... rows) {
+		// surrogate is only used for unsupported methods
+		super(Mockito.mock(ResultSet.class));
+		this.labels = Arrays.asList(labels);
+		this.rows = rows;
+	}
+	
+	@Override
+	public boolean next() {
+		currentRow++;
+		return currentRow < rows.length;
+	}
+	
+	@Override
+	public void close() {
+		closed = true;
+	}
+	
+	@Override
+	public int getRow() {
+		return currentRow < rows.length ? currentRow + 1 : 0;
+	}
+	
+	@Override
+	public boolean isClosed() {
+		return closed;
+	}
+	
+	@Override
+	public boolean wasNull() {
+		wasNullCount++;
+		return wasNull;
+	}
+	
+	@Override
+	public int findColumn(String columnLabel) throws SQLException {
+		findColumnCount++;
+		int index = labels.indexOf(columnLabel);
+		if (index == -1) {
+			throw new SQLException("Unknown column " + columnLabel);
+		}
+		return index + 1;
+	}
+	
+	int getFindColumnCount() {
+		return findColumnCount;
+	}
+	
+	int getWasNullCount() {
+		return wasNullCount;
+	}
+	
+	private Object value(int columnIndex) {
+		Object result = rows[currentRow][columnIndex - 1];
+		wasNull = result == null;
+		return result;
+	}
+	
+	@Override
+	public Object getObject(int columnIndex) {
+		return value(columnIndex);
+	}
+	
+	@Override
+	public String getString(int columnIndex) {
+		Object value = value(columnIndex);
+		return value == null ? null : value.toString();
+	}
+	
+	@Override
+	public boolean getBoolean(int columnIndex) {
+		Object value = value(columnIndex);
+		return value != null && (Boolean) value;
+	}
+	
+	@Override
+	public int getInt(int columnIndex) {
+		Object value = value(columnIndex);
+		return value == null ? 0 : ((Number) value).intValue();
+	}
+	
+	@Override
+	public long getLong(int columnIndex) {
+		Object value = value(columnIndex);
+		return value == null ? 0 : ((Number) value).longValue();
+	}
+	
+	@Override
+	public double getDouble(int columnIndex) {
+		Object value = value(columnIndex);
+		return value == null ? 0 : ((Number) value).doubleValue();
+	}
+	
+	@Override
+	public Object getObject(String columnLabel) throws SQLException {
+		return getObject(findColumn(columnLabel));
+	}
+	
+	@Override
+	public String getString(String columnLabel) throws SQLException {
+		return getString(findColumn(columnLabel));
+	}
+	
+	@Override
+	public int getInt(String columnLabel) throws SQLException {
+		return getInt(findColumn(columnLabel));
+	}
+	
+	@Override
+	public long getLong(String columnLabel) throws SQLException {
+		return getLong(findColumn(columnLabel));
+	}
+}
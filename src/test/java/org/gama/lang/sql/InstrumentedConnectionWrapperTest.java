@@ -0,0 +1,71 @@
+package org.gama.lang.sql;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import org.gama.lang.sql.JdbcMetrics.StatementMetrics;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author Guillaume Mary
+ */
+class InstrumentedConnectionWrapperTest {
+	
+	@Test
+	void metricsAreRecorded() throws SQLException {
+		Connection connection = mock(Connection.class);
+		when(connection.prepareStatement(anyString())).thenAnswer(invocation -> {
+			PreparedStatement statement = mock(PreparedStatement.class);
+			when(statement.executeQuery()).thenReturn(new InMemoryResultSet(new String[] { "id" }, new Object[] { 1 }, new Object[] { 2 }));
+			return statement;
+		});
+		DataSourceWrapper dataSource = new DataSourceWrapper() {
+			@Override
+			public Connection getConnection() {
+				return connection;
+			}
+		};
+		JdbcMetrics metrics = new JdbcMetrics();
+		InstrumentedDataSourceWrapper testInstance = new InstrumentedDataSourceWrapper(dataSource, metrics);
+		
+		Connection instrumentedConnection = testInstance.getConnection();
+		for (int i = 0; i < 3; i++) {
+			PreparedStatement statement = instrumentedConnection.prepareStatement("select id from toto");
+			ResultSet resultSet = statement.executeQuery();
+			while (resultSet.next()) {
+				resultSet.getInt(1);
+			}
+			// result set is not closed : closing statement must notify its fetch
+			statement.close();
+		}
+		PreparedStatement insert = instrumentedConnection.prepareStatement("insert into toto values (?)");
+		insert.addBatch();
+		insert.addBatch();
+		insert.executeBatch();
+		instrumentedConnection.commit();
+		instrumentedConnection.rollback();
+		
+		assertThat(metrics.getAcquisitions().getCount()).isEqualTo(1);
+		assertThat(metrics.getCommits().getCount()).isEqualTo(1);
+		assertThat(metrics.getRollbacks().getCount()).isEqualTo(1);
+		assertThat(metrics.getStatementMetrics()).containsOnlyKeys("select id from toto", "insert into toto values (?)");
+		
+		StatementMetrics selectMetrics = metrics.getStatementMetrics().get("select id from toto");
+		assertThat(selectMetrics.getPrepares().getCount()).isEqualTo(3);
+		assertThat(selectMetrics.getExecutions().getCount()).isEqualTo(3);
+		assertThat(selectMetrics.getFetches().getCount()).isEqualTo(3);
+		assertThat(selectMetrics.getFetchedRowCount()).isEqualTo(6);
+		
+		StatementMetrics insertMetrics = metrics.getStatementMetrics().get("insert into toto values (?)");
+		assertThat(insertMetrics.getExecutions().getCount()).isEqualTo(1);
+		assertThat(insertMetrics.getBatchCount()).isEqualTo(1);
+		assertThat(insertMetrics.getBatchedRowCount()).isEqualTo(2);
+	}
+}
@@ -0,0 +1,59 @@
+package org.gama.lang.sql;
+
+import org.gama.lang.sql.JdbcMetrics.StatementMetrics;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * @author Guillaume Mary
+ */
+class JdbcMetricsTest {
+	
+	@Test
+	void onExecute_maxStatementCountReached_otherStatementsAreRecordedTogether() {
+		JdbcMetrics testInstance = new JdbcMetrics(2);
+		
+		testInstance.onExecute("select 1", 10);
+		testInstance.onExecute("select 2", 10);
+		testInstance.onExecute("select 3", 10);
+		testInstance.onFetch("select 4", 5, 10);
+		// already known statements still have their own metrics
+		testInstance.onExecute("select 1", 10);
+		
+		assertThat(testInstance.getStatementMetrics()).containsOnlyKeys("select 1", "select 2");
+		assertThat(testInstance.getStatementMetrics().get("select 1").getExecutions().getCount()).isEqualTo(2);
+		StatementMetrics otherStatementMetrics = testInstance.getOtherStatementMetrics();
+		assertThat(otherStatementMetrics.getExecutions().getCount()).isEqualTo(1);
+		assertThat(otherStatementMetrics.getFetches().getCount()).isEqualTo(1);
+		assertThat(otherStatementMetrics.getFetchedRowCount()).isEqualTo(5);
+	}
+	
+	@Test
+	void onExecute_concurrentNewStatements_capIsNotExceeded() throws InterruptedException {
+		JdbcMetrics testInstance = new JdbcMetrics(10);
+		
+		Thread[] threads = new Thread[4];
+		for (int t = 0; t < threads.length; t++) {
+			int threadIndex = t;
+			threads[t] = new Thread(() -> {
+				for (int i = 0; i < 1000; i++) {
+					testInstance.onExecute("select " + threadIndex + "_" + i, 10);
+				}
+			});
+			threads[t].start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		
+		assertThat(testInstance.getStatementMetrics()).hasSize(10);
+		assertThat(testInstance.getOtherStatementMetrics().getExecutions().getCount()).isEqualTo(4000 - 10);
+	}
+	
+	@Test
+	void constructor_negativeMaxStatementCount_throwsException() {
+		assertThatThrownBy(() -> new JdbcMetrics(-1)).isInstanceOf(IllegalArgumentException.class);
+	}
+}
@@ -0,0 +1,262 @@
+package org.gama.lang.sql;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author Guillaume Mary
+ */
+class PooledDataSourceWrapperTest {
+	
+	/** Physical connections created by the stand-in driver */
+	private List<Connection> physicalConnections;
+	
+	private DataSourceWrapper driver;
+	
+	@BeforeEach
+	void createDriver() {
+		physicalConnections = new ArrayList<>();
+		driver = new DataSourceWrapper() {
+			@Override
+			public Connection getConnection() throws SQLException {
+				Connection result = mock(Connection.class);
+				when(result.getAutoCommit()).thenReturn(true);
+				when(result.getTransactionIsolation()).thenReturn(Connection.TRANSACTION_READ_COMMITTED);
+				when(result.getCatalog()).thenReturn("main");
+				when(result.getSchema()).thenReturn("public");
+				when(result.getHoldability()).thenReturn(ResultSet.HOLD_CURSORS_OVER_COMMIT);
+				when(result.getNetworkTimeout()).thenReturn(1000);
+				when(result.isValid(anyInt())).thenReturn(true);
+				physicalConnections.add(result);
+				return result;
+			}
+		};
+	}
+	
+	@Test
+	void getConnection_closedConnectionIsReused() throws SQLException {
+		PooledDataSourceWrapper testInstance = new PooledDataSourceWrapper(driver, 2);
+		
+		Connection connection1 = testInstance.getConnection();
+		assertThat(connection1).isInstanceOf(ConnectionWrapper.class);
+		assertThat(testInstance.getActiveCount()).isEqualTo(1);
+		connection1.close();
+		assertThat(connection1.isClosed()).isTrue();
+		assertThatThrownBy(connection1::createStatement).isInstanceOf(SQLException.class);
+		assertThat(testInstance.getActiveCount()).isEqualTo(0);
+		assertThat(testInstance.getIdleCount()).isEqualTo(1);
+		
+		Connection connection2 = testInstance.getConnection();
+		connection2.commit();
+		assertThat(physicalConnections).hasSize(1);
+		verify(physicalConnections.get(0)).commit();
+		assertThat(testInstance.getCreatedCount()).isEqualTo(1);
+		assertThat(testInstance.getAcquisitionCount()).isEqualTo(2);
+		assertThat(testInstance.getTotalCount()).isEqualTo(1);
+	}
+	
+	@Test
+	void getConnection_poolIsFull_timeoutIsThrown() throws SQLException {
+		PooledDataSourceWrapper testInstance = new PooledDataSourceWrapper(driver, 2)
+				.withAcquisitionTimeout(10, TimeUnit.MILLISECONDS);
+		
+		testInstance.getConnection();
+		testInstance.getConnection();
+		assertThatThrownBy(testInstance::getConnection).isInstanceOf(SQLTimeoutException.class);
+		assertThat(testInstance.getTimeoutCount()).isEqualTo(1);
+		assertThat(physicalConnections).hasSize(2);
+	}
+	
+	@Test
+	void getConnection_poolIsFull_waitsForReleasedConnection() throws Exception {
+		PooledDataSourceWrapper testInstance = new PooledDataSourceWrapper(driver, 1)
+				.withAcquisitionTimeout(10, TimeUnit.SECONDS);
+		
+		Connection connection1 = testInstance.getConnection();
+		CompletableFuture<Connection> waiter = CompletableFuture.supplyAsync(() -> {
+			try {
+				return testInstance.getConnection();
+			} catch (SQLException e) {
+				throw new RuntimeException(e);
+			}
+		});
+		while (testInstance.getWaitingCount() == 0) {
+			Thread.sleep(1);
+		}
+		connection1.close();
+		Connection connection2 = waiter.get(10, TimeUnit.SECONDS);
+		connection2.commit();
+		assertThat(physicalConnections).hasSize(1);
+		verify(physicalConnections.get(0)).commit();
+	}
+	
+	@Test
+	void getConnection_invalidConnectionIsReplaced() throws SQLException {
+		PooledDataSourceWrapper testInstance = new PooledDataSourceWrapper(driver, 2)
+				.withValidationThreshold(0, TimeUnit.MILLISECONDS);
+		
+		testInstance.getConnection().close();
+		when(physicalConnections.get(0).isValid(anyInt())).thenReturn(false);
+		testInstance.getConnection();
+		
+		assertThat(physicalConnections).hasSize(2);
+		verify(physicalConnections.get(0)).close();
+		assertThat(testInstance.getDestroyedCount()).isEqualTo(1);
+	}
+	
+	@Test
+	void getConnection_expiredConnectionIsEvicted() throws SQLException {
+		PooledDataSourceWrapper testInstance = new PooledDataSourceWrapper(driver, 2)
+				.withIdleTimeout(0, TimeUnit.MILLISECONDS);
+		
+		testInstance.getConnection().close();
+		testInstance.getConnection();
+		
+		assertThat(physicalConnections).hasSize(2);
+		verify(physicalConnections.get(0)).close();
+	}
+	
+	@Test
+	void close_uncommittedWorkIsRolledBack() throws SQLException {
+		PooledDataSourceWrapper testInstance = new PooledDataSourceWrapper(driver, 2);
+		
+		Connection connection = testInstance.getConnection();
+		when(physicalConnections.get(0).getAutoCommit()).thenReturn(false);
+		connection.close();
+		
+		verify(physicalConnections.get(0)).rollback();
+		verify(physicalConnections.get(0)).setAutoCommit(true);
+	}
+	
+	@Test
+	void close_autoCommitDisabledByDefault_uncommittedWorkIsRolledBack() throws SQLException {
+		Connection physicalConnection = mock(Connection.class);
+		when(physicalConnection.getAutoCommit()).thenReturn(false);
+		PooledDataSourceWrapper testInstance = new PooledDataSourceWrapper(new DataSourceWrapper() {
+			@Override
+			public Connection getConnection() {
+				return physicalConnection;
+			}
+		}, 2);
+		
+		testInstance.getConnection().close();
+		
+		verify(physicalConnection).rollback();
+		verify(physicalConnection, never()).setAutoCommit(false);
+		assertThat(testInstance.getIdleCount()).isEqualTo(1);
+	}
+	
+	@Test
+	void close_changedSettingsAreRestored() throws SQLException {
+		PooledDataSourceWrapper testInstance = new PooledDataSourceWrapper(driver, 2);
+		
+		Connection connection = testInstance.getConnection();
+		Connection physicalConnection = physicalConnections.get(0);
+		when(physicalConnection.isReadOnly()).thenReturn(true);
+		when(physicalConnection.getTransactionIsolation()).thenReturn(Connection.TRANSACTION_SERIALIZABLE);
+		when(physicalConnection.getCatalog()).thenReturn("other");
+		when(physicalConnection.getSchema()).thenReturn("other");
+		when(physicalConnection.getHoldability()).thenReturn(ResultSet.CLOSE_CURSORS_AT_COMMIT);
+		when(physicalConnection.getNetworkTimeout()).thenReturn(5000);
+		connection.close();
+		
+		verify(physicalConnection).setReadOnly(false);
+		verify(physicalConnection).setTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+		verify(physicalConnection).setCatalog("main");
+		verify(physicalConnection).setSchema("public");
+		verify(physicalConnection).setHoldability(ResultSet.HOLD_CURSORS_OVER_COMMIT);
+		verify(physicalConnection).setNetworkTimeout(any(), eq(1000));
+		verify(physicalConnection).clearWarnings();
+		assertThat(testInstance.getIdleCount()).isEqualTo(1);
+	}
+	
+	@Test
+	void close_unchangedSettingsAreNotSet() throws SQLException {
+		PooledDataSourceWrapper testInstance = new PooledDataSourceWrapper(driver, 2);
+		
+		testInstance.getConnection().close();
+		
+		Connection physicalConnection = physicalConnections.get(0);
+		verify(physicalConnection, never()).rollback();
+		verify(physicalConnection, never()).setAutoCommit(true);
+		verify(physicalConnection, never()).setReadOnly(false);
+		verify(physicalConnection, never()).setTransactionIsolation(anyInt());
+		verify(physicalConnection, never()).setHoldability(anyInt());
+		verify(physicalConnection, never()).setNetworkTimeout(any(), anyInt());
+	}
+	
+	@Test
+	void getConnection_settingsCantBeRead_physicalConnectionIsClosed() throws SQLException {
+		Connection physicalConnection = mock(Connection.class);
+		when(physicalConnection.getAutoCommit()).thenThrow(new SQLException("connection is broken"));
+		PooledDataSourceWrapper testInstance = new PooledDataSourceWrapper(new DataSourceWrapper() {
+			@Override
+			public Connection getConnection() {
+				return physicalConnection;
+			}
+		}, 1);
+		
+		assertThatThrownBy(testInstance::getConnection).isInstanceOf(SQLException.class).hasMessage("connection is broken");
+		verify(physicalConnection).close();
+		assertThat(testInstance.getTotalCount()).isEqualTo(0);
+		// permit was given back
+		assertThatThrownBy(testInstance::getConnection).hasMessage("connection is broken");
+	}
+	
+	@Test
+	void close_idleConnectionsAreClosed() throws SQLException {
+		PooledDataSourceWrapper testInstance = new PooledDataSourceWrapper(driver, 2);
+		
+		testInstance.getConnection().close();
+		Connection inUse = testInstance.getConnection();
+		Connection idle = testInstance.getConnection();
+		idle.close();
+		testInstance.close();
+		assertThat(testInstance.getIdleCount()).isEqualTo(0);
+		verify(physicalConnections.get(1)).close();
+		assertThatThrownBy(testInstance::getConnection).isInstanceOf(SQLException.class);
+		
+		// connection in use is closed when released
+		inUse.close();
+		verify(physicalConnections.get(0)).close();
+		assertThat(testInstance.getTotalCount()).isEqualTo(0);
+	}
+	
+	@Test
+	void close_poolClosedWhileConnectionIsReleased_connectionIsClosed() throws SQLException {
+		PooledDataSourceWrapper testInstance = new PooledDataSourceWrapper(driver, 2);
+		
+		Connection connection = testInstance.getConnection();
+		Connection physicalConnection = physicalConnections.get(0);
+		// pool is closed after release() checked it, before connection is put back in idle ones
+		doAnswer(invocation -> {
+			testInstance.close();
+			return null;
+		}).when(physicalConnection).clearWarnings();
+		connection.close();
+		
+		verify(physicalConnection).close();
+		assertThat(testInstance.getIdleCount()).isEqualTo(0);
+		assertThat(testInstance.getTotalCount()).isEqualTo(0);
+	}
+}
@@ -0,0 +1,152 @@
+package org.gama.lang.sql;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.gama.lang.sql.ResultSetSpliterator.SQLRuntimeException;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author Guillaume Mary
+ */
+class ResultSetSpliteratorTest {
+	
+	private static Object[][] rows(int count) {
+		return IntStream.range(0, count).mapToObj(i -> new Object[] { i, "name" + i }).toArray(Object[][]::new);
+	}
+	
+	@Test
+	void stream() {
+		InMemoryResultSet resultSet = new InMemoryResultSet(new String[] { "id", "name" }, rows(3));
+		try (Stream<String> stream = ResultSetSpliterator.stream(resultSet, rs -> rs.getInt("id") + ":" + rs.getString("name"))) {
+			assertThat(stream.collect(Collectors.toList())).containsExactly("0:name0", "1:name1", "2:name2");
+		}
+		assertThat(resultSet.isClosed()).isTrue();
+	}
+	
+	@Test
+	void stream_close_closesResultSetAndStatement() throws SQLException {
+		Statement statement = mock(Statement.class);
+		ResultSet resultSet = mock(ResultSet.class);
+		when(resultSet.getStatement()).thenReturn(statement);
+		
+		ResultSetSpliterator.stream(resultSet, 100, rs -> rs.getInt(1)).close();
+		
+		verify(resultSet).setFetchSize(100);
+		verify(resultSet).close();
+		verify(statement).close();
+	}
+	
+	@Test
+	void stream_isLazy() {
+		InMemoryResultSet resultSet = new InMemoryResultSet(new String[] { "id", "name" }, rows(1000));
+		try (Stream<Integer> stream = ResultSetSpliterator.stream(resultSet, rs -> rs.getInt(1))) {
+			assertThat(stream.limit(2).collect(Collectors.toList())).containsExactly(0, 1);
+		}
+		// only 2 rows were read (limit(2) may read one more to know that it's done)
+		assertThat(resultSet.getRow()).isLessThanOrEqualTo(3);
+	}
+	
+	@Test
+	void stream_parallel_orderIsKept() {
+		InMemoryResultSet resultSet = new InMemoryResultSet(new String[] { "id", "name" }, rows(10_000));
+		try (Stream<Integer> stream = ResultSetSpliterator.stream(resultSet, rs -> rs.getInt(1))) {
+			List<Integer> result = stream.parallel().map(i -> i * 2).collect(Collectors.toList());
+			assertThat(result).hasSize(10_000);
+			assertThat(result).isSorted();
+			assertThat(result.get(9_999)).isEqualTo(19_998);
+		}
+	}
+	
+	@Test
+	void trySplit_batchSizeIsBounded() {
+		InMemoryResultSet resultSet = new InMemoryResultSet(new String[] { "id", "name" }, rows(100));
+		ResultSetSpliterator<Integer> testInstance = new ResultSetSpliterator<>(resultSet, rs -> rs.getInt(1), 10);
+		assertThat(testInstance.trySplit().estimateSize()).isEqualTo(10);
+		assertThat(testInstance.trySplit().estimateSize()).isEqualTo(10);
+	}
+	
+	@Test
+	void stream_sqlException_isWrapped() {
+		InMemoryResultSet resultSet = new InMemoryResultSet(new String[] { "id", "name" }, rows(1));
+		try (Stream<Integer> stream = ResultSetSpliterator.stream(resultSet, rs -> rs.getInt("unknown"))) {
+			assertThatThrownBy(stream::count)
+					.isInstanceOf(SQLRuntimeException.class)
+					.hasCauseInstanceOf(SQLException.class);
+		}
+	}
+	
+	@Test
+	void stream_setFetchSizeFails_closesResultSetAndStatement() throws SQLException {
+		Statement statement = mock(Statement.class);
+		ResultSet resultSet = mock(ResultSet.class);
+		when(resultSet.getStatement()).thenReturn(statement);
+		doThrow(new SQLException("fetch size not supported")).when(resultSet).setFetchSize(100);
+		
+		assertThatThrownBy(() -> ResultSetSpliterator.stream(resultSet, 100, rs -> rs.getInt(1)))
+				.isInstanceOf(SQLRuntimeException.class)
+				.hasMessageContaining("fetch size not supported");
+		verify(resultSet).close();
+		verify(statement).close();
+	}
+	
+	@Test
+	void trySplit_maxPendingBatchCountReached_returnsNullUntilABatchIsConsumed() {
+		InMemoryResultSet resultSet = new InMemoryResultSet(new String[] { "id", "name" }, rows(100));
+		ResultSetSpliterator<Integer> testInstance = new ResultSetSpliterator<>(resultSet, rs -> rs.getInt(1), 4, 2);
+		Spliterator<Integer> batch1 = testInstance.trySplit();
+		Spliterator<Integer> batch2 = testInstance.trySplit();
+		assertThat(testInstance.getPendingBatchCount()).isEqualTo(2);
+		assertThat(testInstance.trySplit()).isNull();
+		// no row was read by refused split
+		assertThat(resultSet.getRow()).isEqualTo(8);
+		
+		// a batch is consumed once all of its parts are
+		Spliterator<Integer> batch1Prefix = batch1.trySplit();
+		List<Integer> rows = new ArrayList<>();
+		batch1Prefix.forEachRemaining(rows::add);
+		assertThat(testInstance.getPendingBatchCount()).isEqualTo(2);
+		while (batch1.tryAdvance(rows::add)) {
+			// consuming
+		}
+		assertThat(rows).containsExactly(0, 1, 2, 3);
+		assertThat(testInstance.getPendingBatchCount()).isEqualTo(1);
+		
+		Spliterator<Integer> batch3 = testInstance.trySplit();
+		batch3.forEachRemaining(rows::add);
+		assertThat(rows).containsExactly(0, 1, 2, 3, 8, 9, 10, 11);
+		batch2.forEachRemaining(rows::add);
+		assertThat(testInstance.getPendingBatchCount()).isEqualTo(0);
+	}
+	
+	@Test
+	void stream_parallel_slowConsumer_pendingBatchCountIsBounded() {
+		InMemoryResultSet resultSet = new InMemoryResultSet(new String[] { "id", "name" }, rows(5_000));
+		ResultSetSpliterator<Integer> testInstance = new ResultSetSpliterator<>(resultSet, rs -> rs.getInt(1), 16, 3);
+		AtomicInteger maxPendingBatchCount = new AtomicInteger();
+		long sum = StreamSupport.stream(testInstance, true)
+				.mapToLong(i -> {
+					maxPendingBatchCount.accumulateAndGet(testInstance.getPendingBatchCount(), Math::max);
+					return i;
+				})
+				.sum();
+		assertThat(sum).isEqualTo(4_999L * 5_000 / 2);
+		assertThat(maxPendingBatchCount.get()).isLessThanOrEqualTo(3);
+	}
+}
@@ -0,0 +1,134 @@
+package org.gama.lang.sql;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.gama.lang.sql.RowReader.Chunk;
+import org.gama.lang.sql.RowReader.ColumnType;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * @author Guillaume Mary
+ */
+class RowReaderTest {
+	
+	@Test
+	void readChunks() throws SQLException {
+		InMemoryResultSet resultSet = new InMemoryResultSet(new String[] { "id", "amount", "name", "active" },
+				new Object[] { 1L, 1.5, "a", true },
+				new Object[] { 2L, null, "b", false },
+				new Object[] { 3L, 0d, null, null },
+				new Object[] { 4L, 4.5, "d", true },
+				new Object[] { 5L, 5.5, "e", false });
+		
+		RowReader testInstance = new RowReader(resultSet, 2)
+				.withColumn("id", ColumnType.LONG)
+				.withColumn("amount", ColumnType.DOUBLE)
+				.withColumn("name", ColumnType.STRING)
+				.withColumn(4, ColumnType.BOOLEAN);
+		
+		List<Long> ids = new ArrayList<>();
+		List<Double> amounts = new ArrayList<>();
+		List<String> names = new ArrayList<>();
+		List<Boolean> actives = new ArrayList<>();
+		List<Integer> chunkSizes = new ArrayList<>();
+		long rowCount = testInstance.readChunks(chunk -> {
+			chunkSizes.add(chunk.size());
+			for (int row = 0; row < chunk.size(); row++) {
+				ids.add(chunk.getLong(row, 0));
+				amounts.add(chunk.isNull(row, 1) ? null : chunk.getDouble(row, 1));
+				names.add(chunk.getString(row, 2));
+				actives.add(chunk.isNull(row, 3) ? null : chunk.getBoolean(row, 3));
+			}
+		});
+		
+		assertThat(rowCount).isEqualTo(5);
+		assertThat(chunkSizes).containsExactly(2, 2, 1);
+		assertThat(ids).containsExactly(1L, 2L, 3L, 4L, 5L);
+		assertThat(amounts).containsExactly(1.5, null, 0d, 4.5, 5.5);
+		assertThat(names).containsExactly("a", "b", null, "d", "e");
+		assertThat(actives).containsExactly(true, false, null, true, false);
+		// wasNull() is only called on default primitive values : amount of 2nd and 3rd row, active of 2nd, 3rd and 5th rows 
+		assertThat(resultSet.getWasNullCount()).isEqualTo(5);
+	}
+	
+	@Test
+	void readChunks_intColumn_nullIsTracked() throws SQLException {
+		InMemoryResultSet resultSet = new InMemoryResultSet(new String[] { "count" },
+				new Object[] { 0 },
+				new Object[] { null },
+				new Object[] { 7 });
+		
+		RowReader testInstance = new RowReader(resultSet).withColumn(1, ColumnType.INT);
+		List<Integer> values = new ArrayList<>();
+		testInstance.readChunks(chunk -> {
+			for (int row = 0; row < chunk.size(); row++) {
+				values.add(chunk.isNull(row, 0) ? null : chunk.getInt(row, 0));
+			}
+		});
+		assertThat(values).containsExactly(0, null, 7);
+	}
+	
+	@Test
+	void readChunks_emptyResultSet_consumerIsNotCalled() throws SQLException {
+		RowReader testInstance = new RowReader(new InMemoryResultSet(new String[] { "id" })).withColumn(1, ColumnType.LONG);
+		List<Chunk> chunks = new ArrayList<>();
+		assertThat(testInstance.readChunks(chunks::add)).isEqualTo(0);
+		assertThat(chunks).isEmpty();
+	}
+	
+	@Test
+	void readChunks_typeMismatch_throwsException() throws SQLException {
+		RowReader testInstance = new RowReader(new InMemoryResultSet(new String[] { "id" }, new Object[] { 1L }))
+				.withColumn(1, ColumnType.LONG);
+		assertThatThrownBy(() -> testInstance.readChunks(chunk -> chunk.getInt(0, 0)))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessage("Column 1 is of type LONG, not INT");
+	}
+	
+	@Test
+	void readChunks_rowBeyondChunkSize_throwsIndexOutOfBoundsException() throws SQLException {
+		// 3 rows in chunks of 2 : last chunk has 1 row, 2nd row of its arrays is the one of previous chunk
+		InMemoryResultSet resultSet = new InMemoryResultSet(new String[] { "count" },
+				new Object[] { 1 },
+				new Object[] { null },
+				new Object[] { 3 });
+		RowReader testInstance = new RowReader(resultSet, 2).withColumn(1, ColumnType.INT);
+		List<Integer> chunkSizes = new ArrayList<>();
+		testInstance.readChunks(chunk -> {
+			chunkSizes.add(chunk.size());
+			if (chunk.size() == 1) {
+				assertThatThrownBy(() -> chunk.isNull(1, 0)).isInstanceOf(IndexOutOfBoundsException.class)
+						.hasMessage("Row index must be between 0 and 0 : 1");
+				assertThatThrownBy(() -> chunk.getInt(1, 0)).isInstanceOf(IndexOutOfBoundsException.class);
+				assertThatThrownBy(() -> chunk.getInt(-1, 0)).isInstanceOf(IndexOutOfBoundsException.class);
+			}
+		});
+		assertThat(chunkSizes).containsExactly(2, 1);
+	}
+	
+	@Test
+	void readChunks_noColumn_throwsException() {
+		RowReader testInstance = new RowReader(new InMemoryResultSet(new String[] { "id" }, new Object[] { 1L }));
+		assertThatThrownBy(() -> testInstance.readChunks(chunk -> {}))
+				.isInstanceOf(IllegalStateException.class);
+	}
+	
+	@Test
+	void getByLabel_labelIsResolvedOnce() throws SQLException {
+		InMemoryResultSet resultSet = new InMemoryResultSet(new String[] { "id", "name" },
+				new Object[] { 1L, "a" },
+				new Object[] { 2L, "b" });
+		RowReader testInstance = new RowReader(resultSet);
+		List<String> values = new ArrayList<>();
+		while (testInstance.next()) {
+			values.add(testInstance.getLong("id") + testInstance.getString("name"));
+		}
+		assertThat(values).containsExactly("1a", "2b");
+		assertThat(resultSet.getFindColumnCount()).isEqualTo(2);
+	}
+}
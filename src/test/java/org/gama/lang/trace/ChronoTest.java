@@ -23,4 +23,26 @@ class ChronoTest {
 		// corner cases
 		assertThat(Chrono.format(0)).isEqualTo("");
 	}
-}
\ No newline at end of file
+	
+	@Test
+	void testFormat_severalUnits() {
+		assertThat(Chrono.format(2 * Chrono.MIN_MAX + 3 * Chrono.SEC_MAX + 4)).isEqualTo("2h 3min 4ms");
+		assertThat(Chrono.format(Chrono.H_MAX + 999)).isEqualTo("1d 999ms");
+	}
+	
+	@Test
+	void testFormatNanos() {
+		assertThat(Chrono.formatNanos(0)).isEqualTo("0ns");
+		assertThat(Chrono.formatNanos(999)).isEqualTo("999ns");
+		assertThat(Chrono.formatNanos(250_400)).isEqualTo("250us");
+		assertThat(Chrono.formatNanos(1_500_000_000L)).isEqualTo("1s 500ms");
+	}
+	
+	@Test
+	void getElapsedNanos() throws InterruptedException {
+		Chrono testInstance = new Chrono();
+		Thread.sleep(2);
+		assertThat(testInstance.getElapsedNanos()).isGreaterThanOrEqualTo(2_000_000);
+		assertThat(testInstance.getElapsedTime()).isGreaterThanOrEqualTo(2);
+	}
+}
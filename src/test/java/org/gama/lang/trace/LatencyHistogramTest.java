@@ -0,0 +1,108 @@
+package org.gama.lang.trace;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * @author Guillaume Mary
+ */
+class LatencyHistogramTest {
+	
+	@Test
+	void record() {
+		LatencyHistogram testInstance = new LatencyHistogram();
+		assertThat(testInstance.getPercentile(50)).isEqualTo(0);
+		assertThat(testInstance.getMean()).isEqualTo(0);
+		
+		for (int i = 1; i <= 100; i++) {
+			testInstance.record(i * 1000);
+		}
+		assertThat(testInstance.getCount()).isEqualTo(100);
+		assertThat(testInstance.getSum()).isEqualTo(5_050_000);
+		assertThat(testInstance.getMean()).isEqualTo(50_500);
+		assertThat(testInstance.getMax()).isEqualTo(100_000);
+		// percentiles are approximated by bucket upper bounds, hence within a factor 2 of exact value
+		assertThat(testInstance.getPercentile(50)).isBetween(50_000L, 100_000L);
+		assertThat(testInstance.getPercentile(99)).isBetween(99_000L, 100_000L);
+		assertThat(testInstance.getPercentile(100)).isEqualTo(100_000);
+	}
+	
+	@Test
+	void record_negativeValue_isCountedAsZero() {
+		LatencyHistogram testInstance = new LatencyHistogram();
+		testInstance.record(-5);
+		assertThat(testInstance.getCount()).isEqualTo(1);
+		assertThat(testInstance.getMax()).isEqualTo(0);
+		assertThat(testInstance.getPercentile(100)).isEqualTo(0);
+	}
+	
+	@Test
+	void getPercentile_relativePrecisionIsGivenByPrecisionBits() {
+		LatencyHistogram testInstance = new LatencyHistogram();
+		for (long i = 1; i <= 100_000; i++) {
+			testInstance.record(i * 1_000);
+		}
+		// default precision is 5 bits, so approximation is at most 1/32 above exact value
+		for (double percentile : new double[] { 50, 90, 99, 99.9, 99.99 }) {
+			long exactValue = (long) Math.ceil(100_000 * percentile / 100) * 1_000;
+			assertThat(testInstance.getPercentile(percentile)).isBetween(exactValue, exactValue + exactValue / 32);
+		}
+		assertThat(testInstance.getPercentile(0)).isBetween(1_000L, 1_000L + 1_000 / 32);
+		assertThat(testInstance.getMin()).isEqualTo(1_000);
+	}
+	
+	@Test
+	void getPercentile_smallValuesAreExact() {
+		LatencyHistogram testInstance = new LatencyHistogram(3);
+		for (int i = 0; i < 16; i++) {
+			testInstance.record(i);
+		}
+		assertThat(testInstance.getPercentile(50)).isEqualTo(7);
+		assertThat(testInstance.getPercentile(100)).isEqualTo(15);
+	}
+	
+	@Test
+	void record_largestValue() {
+		LatencyHistogram testInstance = new LatencyHistogram(10);
+		testInstance.record(Long.MAX_VALUE);
+		assertThat(testInstance.getPercentile(50)).isEqualTo(Long.MAX_VALUE);
+	}
+	
+	@Test
+	void add_mergesHistograms() {
+		LatencyHistogram histogram1 = new LatencyHistogram();
+		LatencyHistogram histogram2 = new LatencyHistogram();
+		for (int i = 1; i <= 50; i++) {
+			histogram1.record(i * 1000);
+			histogram2.record((i + 50) * 1000);
+		}
+		LatencyHistogram merged = histogram1.copy().add(histogram2);
+		assertThat(merged.getCount()).isEqualTo(100);
+		assertThat(merged.getSum()).isEqualTo(5_050_000);
+		assertThat(merged.getMin()).isEqualTo(1_000);
+		assertThat(merged.getMax()).isEqualTo(100_000);
+		assertThat(merged.getPercentile(99)).isBetween(99_000L, 100_000L);
+		// copy is independent of its source
+		assertThat(histogram1.getCount()).isEqualTo(50);
+		assertThatExceptionOfType(IllegalArgumentException.class).isThrownBy(() -> merged.add(new LatencyHistogram(6)));
+	}
+	
+	@Test
+	void reset() {
+		LatencyHistogram testInstance = new LatencyHistogram();
+		testInstance.record(1000);
+		testInstance.reset();
+		assertThat(testInstance.getCount()).isEqualTo(0);
+		assertThat(testInstance.getMin()).isEqualTo(0);
+		assertThat(testInstance.getMax()).isEqualTo(0);
+		assertThat(testInstance.getPercentile(50)).isEqualTo(0);
+	}
+	
+	@Test
+	void constructor_invalidPrecision_throwsException() {
+		assertThatExceptionOfType(IllegalArgumentException.class).isThrownBy(() -> new LatencyHistogram(0));
+		assertThatExceptionOfType(IllegalArgumentException.class).isThrownBy(() -> new LatencyHistogram(11));
+	}
+}
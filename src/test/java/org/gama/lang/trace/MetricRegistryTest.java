@@ -0,0 +1,90 @@
+package org.gama.lang.trace;
+
+import java.util.SortedMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * @author Guillaume Mary
+ */
+public class MetricRegistryTest {
+	
+	@Test
+	public void giveCounter_sameName_givesSameCounter() {
+		MetricRegistry testInstance = new MetricRegistry();
+		Counter counter = testInstance.giveCounter("requests");
+		assertThat(testInstance.giveCounter("requests")).isSameAs(counter);
+		assertThat(testInstance.giveCounter("errors")).isNotSameAs(counter);
+	}
+	
+	@Test
+	public void give_nameOfAnotherType_throwsException() {
+		MetricRegistry testInstance = new MetricRegistry();
+		testInstance.giveMaxGauge("connections");
+		assertThatExceptionOfType(IllegalArgumentException.class).isThrownBy(() -> testInstance.giveMinGauge("connections"))
+				.withMessage("Metric connections is a MaxGauge, not a MinGauge");
+		assertThatExceptionOfType(IllegalArgumentException.class).isThrownBy(() -> testInstance.register("connections", new Counter()));
+	}
+	
+	@Test
+	public void snapshot_givesValuesOfAllMetrics() {
+		MetricRegistry testInstance = new MetricRegistry();
+		testInstance.giveCounter("requests").add(3);
+		testInstance.giveMaxGauge("connections.max").update(12);
+		testInstance.giveMinGauge("connections.min");
+		testInstance.giveHistogram("latency").record(100);
+		testInstance.register("custom", (name, snapshot) -> snapshot.put(name, 42));
+		SortedMap<String, Number> snapshot = testInstance.snapshot();
+		assertThat(snapshot).containsEntry("requests", 3L)
+				.containsEntry("connections.max", 12L)
+				.containsEntry("latency.count", 1L)
+				.containsEntry("latency.max", 100L)
+				.containsEntry("custom", 42)
+				// gauge without value is not given
+				.doesNotContainKey("connections.min");
+		assertThat(snapshot.firstKey()).isEqualTo("connections.max");
+	}
+	
+	@Test
+	public void counter_concurrentIncrements_areAllCounted() throws InterruptedException {
+		Counter counter = new MetricRegistry().giveCounter("requests");
+		MaxGauge maxGauge = new MaxGauge();
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		for (int i = 0; i < 4; i++) {
+			int threadIndex = i;
+			executor.execute(() -> {
+				for (int j = 0; j < 10_000; j++) {
+					counter.increment();
+					maxGauge.update(threadIndex * 10_000 + j);
+				}
+			});
+		}
+		executor.shutdown();
+		assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+		assertThat(counter.getCount()).isEqualTo(40_000);
+		assertThat(maxGauge.get()).isEqualTo(39_999);
+	}
+	
+	@Test
+	public void extremumGauges() {
+		MaxGauge maxGauge = new MaxGauge();
+		MinGauge minGauge = new MinGauge();
+		assertThat(maxGauge.hasValue()).isFalse();
+		assertThat(maxGauge.toString()).isEqualTo("none");
+		for (long value : new long[] { 5, -2, 8, 3 }) {
+			maxGauge.update(value);
+			minGauge.update(value);
+		}
+		assertThat(maxGauge.get()).isEqualTo(8);
+		assertThat(minGauge.get()).isEqualTo(-2);
+		assertThat(maxGauge.getThenReset()).isEqualTo(8);
+		assertThat(maxGauge.hasValue()).isFalse();
+		assertThat(maxGauge.get()).isEqualTo(Long.MIN_VALUE);
+	}
+}
@@ -0,0 +1,78 @@
+package org.gama.lang.trace;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * @author Guillaume Mary
+ */
+public class RateMeterTest {
+	
+	private long now = 0;
+	
+	private void advance(long seconds) {
+		now += TimeUnit.SECONDS.toNanos(seconds);
+	}
+	
+	@Test
+	public void rates_areUpdatedAtEachInterval() {
+		RateMeter testInstance = new RateMeter(() -> now);
+		testInstance.mark(50);
+		// averages are not updated before the end of first interval
+		assertThat(testInstance.getOneMinuteRate()).isEqualTo(0);
+		advance(5);
+		assertThat(testInstance.getCount()).isEqualTo(50);
+		// first interval gives initial rate of all averages
+		assertThat(testInstance.getOneMinuteRate()).isEqualTo(10);
+		assertThat(testInstance.getFiveMinutesRate()).isEqualTo(10);
+		assertThat(testInstance.getFifteenMinutesRate()).isEqualTo(10);
+		assertThat(testInstance.getMeanRate()).isEqualTo(10);
+	}
+	
+	@Test
+	public void rates_decayWithoutEvents() {
+		RateMeter testInstance = new RateMeter(() -> now);
+		testInstance.mark(50);
+		advance(5);
+		testInstance.getOneMinuteRate();
+		advance(60);
+		// a minute without event divides the one-minute average by e
+		assertThat(testInstance.getOneMinuteRate()).isCloseTo(10 / Math.E, within(0.001));
+		assertThat(testInstance.getFiveMinutesRate()).isCloseTo(10 / Math.exp(1 / 5.0), within(0.001));
+		assertThat(testInstance.getFifteenMinutesRate()).isGreaterThan(testInstance.getFiveMinutesRate());
+		assertThat(testInstance.getMeanRate()).isCloseTo(50 / 65.0, within(0.001));
+	}
+	
+	@Test
+	public void rates_longIdlePeriod_areUpdatedAtOnce() {
+		RateMeter testInstance = new RateMeter(() -> now);
+		testInstance.mark(50);
+		advance(5);
+		testInstance.getOneMinuteRate();
+		advance(TimeUnit.DAYS.toSeconds(365));
+		assertThat(testInstance.getOneMinuteRate()).isEqualTo(0);
+		assertThat(testInstance.getFifteenMinutesRate()).isEqualTo(0);
+		// next interval weights as usual
+		testInstance.mark(50);
+		advance(5);
+		assertThat(testInstance.getOneMinuteRate()).isCloseTo(10 * (1 - Math.exp(-5 / 60.0)), within(0.001));
+		assertThat(testInstance.getCount()).isEqualTo(100);
+	}
+	
+	@Test
+	public void snapshot() {
+		RateMeter testInstance = new RateMeter(() -> now);
+		testInstance.mark();
+		advance(10);
+		Map<String, Number> snapshot = new HashMap<>();
+		testInstance.snapshot("requests", snapshot);
+		assertThat(snapshot).containsKeys("requests.count", "requests.m1_rate", "requests.m5_rate", "requests.m15_rate", "requests.mean_rate");
+		assertThat(snapshot.get("requests.count")).isEqualTo(1L);
+	}
+}
@@ -0,0 +1,49 @@
+package org.gama.lang.trace;
+
+import java.io.IOException;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * @author Guillaume Mary
+ */
+class StopwatchTest {
+	
+	@Test
+	void lapAndSplit() throws InterruptedException {
+		Stopwatch testInstance = new Stopwatch();
+		Thread.sleep(2);
+		long firstLap = testInstance.lap();
+		assertThat(firstLap).isGreaterThanOrEqualTo(2_000_000);
+		Thread.sleep(2);
+		assertThat(testInstance.getLapTime()).isGreaterThanOrEqualTo(2_000_000);
+		long secondLap = testInstance.lap();
+		assertThat(secondLap).isGreaterThanOrEqualTo(2_000_000);
+		// split is not affected by laps
+		assertThat(testInstance.split()).isGreaterThanOrEqualTo(firstLap + secondLap);
+		testInstance.restart();
+		assertThat(testInstance.split()).isLessThan(firstLap + secondLap);
+	}
+	
+	@Test
+	void lapAndSplit_recordDurations() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		Stopwatch testInstance = new Stopwatch();
+		long lap = testInstance.lap(histogram);
+		long split = testInstance.split(histogram);
+		assertThat(histogram.getCount()).isEqualTo(2);
+		assertThat(histogram.getSum()).isEqualTo(lap + split);
+	}
+	
+	@Test
+	void time_failingCode_durationIsRecorded() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		assertThatExceptionOfType(IOException.class).isThrownBy(() -> Stopwatch.time(histogram, () -> {
+			throw new IOException();
+		}));
+		assertThat(histogram.getCount()).isEqualTo(1);
+	}
+}